@@ -17,14 +17,19 @@ import com.formdev.flatlaf.FlatDarkLaf;
 import com.formdev.flatlaf.FlatIntelliJLaf;
 import com.formdev.flatlaf.FlatLightLaf;
 
-import io.lettuce.core.RedisClient;
-import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.resource.DefaultClientResources;
 import x.mvmn.redisgui.gui.ConnectionsManagerWindow;
 import x.mvmn.redisgui.gui.RedisClientGui;
 import x.mvmn.redisgui.gui.util.SwingUtil;
 import x.mvmn.redisgui.model.RedisConfigModel;
+import x.mvmn.redisgui.redis.RedisClients;
+import x.mvmn.redisgui.redis.RedisConnector;
+import x.mvmn.redisgui.redis.SharedClientResources;
 import x.mvmn.redisgui.util.CallUtil;
 import x.mvmn.redisgui.util.FileBackedProperties;
+import x.mvmn.redisgui.util.LangUtil;
 
 public class MVMnRedisGUIApplication {
 
@@ -45,6 +50,11 @@ public class MVMnRedisGUIApplication {
 		FileBackedProperties appConfig = new FileBackedProperties(configFile);
 
 		String lookAndFeelName = appConfig.getProperty("gui.lookandfeel");
+		SharedClientResources.configure(
+				LangUtil.parseInt(appConfig.getProperty(SharedClientResources.CONFIG_IO_THREADS), DefaultClientResources.DEFAULT_IO_THREADS),
+				LangUtil.parseInt(appConfig.getProperty(SharedClientResources.CONFIG_COMPUTATION_THREADS),
+						DefaultClientResources.DEFAULT_COMPUTATION_THREADS));
+		Runtime.getRuntime().addShutdownHook(new Thread(SharedClientResources::shutdown, "redisgui-shutdown"));
 		SwingUtilities.invokeLater(() -> {
 			Stream.of(FlatLightLaf.class, FlatIntelliJLaf.class, FlatDarkLaf.class, FlatDarculaLaf.class)
 					.forEach(lafClass -> UIManager.installLookAndFeel(lafClass.getSimpleName(), lafClass.getCanonicalName()));
@@ -55,35 +65,24 @@ public class MVMnRedisGUIApplication {
 
 			JFrame connectionsManagerWindow = new ConnectionsManagerWindow(appConfig, appHomeFolder, existingConnectionConfigs,
 					CallUtil.unsafe(cfg -> {
-						RedisClient redisClient = RedisClient.create(cfg.getB(), cfg.getA());
-						try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
-							// Perform ping as a test
-							String pingReply = redisClient.connect().sync().ping();
-							if ("pong".equalsIgnoreCase(pingReply)) {
-								SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "Connection successfull"));
-							} else {
-								SwingUtilities.invokeLater(
-										() -> JOptionPane.showMessageDialog(null, "Unexpected reply to ping command: " + pingReply));
+						RedisConnector redisConnector = RedisConnector.create(cfg);
+						try {
+							try (StatefulConnection<String, String> connection = redisConnector.connect(StringCodec.UTF8)) {
+								// Perform ping as a test
+								String pingReply = RedisClients.sync(connection).ping();
+								if ("pong".equalsIgnoreCase(pingReply)) {
+									SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, "Connection successfull"));
+								} else {
+									SwingUtilities.invokeLater(
+											() -> JOptionPane.showMessageDialog(null, "Unexpected reply to ping command: " + pingReply));
+								}
 							}
+						} finally {
+							redisConnector.shutdown();
 						}
-						redisClient.shutdown();
-						redisClient.getResources().shutdown();
 					}), cfg -> {
-						String connectionName = cfg.getA();
-						RedisConfigModel config = cfg.getB();
-						switch (config.getConnectionType()) {
-							case CLUSTER:
-							// TODO: Cluster connection
-							break;
-							case SENTINEL:
-							// TODO: Sentinel connection
-							break;
-							default:
-							case STANDALONE:
-							case UNIX_SOCKET:
-								new RedisClientGui(connectionName, config, appHomeFolder);
-							break;
-						}
+						// Standalone, unix socket, sentinel and cluster connections are all handled by RedisConnector
+						new RedisClientGui(cfg.getA(), cfg.getB(), appHomeFolder);
 					});
 			SwingUtil.prefSizeRatioOfScreenSize(connectionsManagerWindow, 0.7f);
 			connectionsManagerWindow.pack();
@@ -0,0 +1,186 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JButton;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTabbedPane;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.model.BigKeysReport;
+import x.mvmn.redisgui.model.BigKeysReport.Aggregate;
+import x.mvmn.redisgui.redis.BigKeysAnalyzer;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.ScanProgress;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.LangUtil;
+
+public class BigKeysReportPanel extends JPanel {
+	private static final long serialVersionUID = -2755213815530087264L;
+
+	private static final int MAX_PREFIXES = 10000;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final Path checkpointFile;
+
+	private final JTextField tfPattern = SwingUtil.withTitle(new JTextField("*"), "Pattern");
+	private final JFormattedTextField tfSamples = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(5L, 0L, 10000L, false),
+			"MEMORY USAGE samples (0 = all)");
+	private final JFormattedTextField tfParallelism = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(2L, 1L, 64L, false),
+			"Parallelism");
+	private final JFormattedTextField tfTopN = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(100L, 1L, 100000L, false),
+			"Top keys per type");
+	private final JTextField tfDelimiter = SwingUtil.withTitle(new JTextField(":"), "Prefix delimiter");
+	private final JFormattedTextField tfPrefixDepth = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(1L, 1L, 32L, false),
+			"Prefix depth");
+	private final JButton btnStart = new JButton("Analyze");
+	private final JButton btnResume = new JButton("Resume from checkpoint");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+
+	private final BigKeysReportTables reportTables = new BigKeysReportTables("memory");
+
+	private final Timer refreshTimer = new Timer(1000, e -> refresh());
+	private final AtomicReference<ScanProgress> scanProgress = new AtomicReference<>();
+	private volatile BigKeysAnalyzer analyzer;
+	private volatile TaskHandle analysisTask;
+
+	public BigKeysReportPanel(RedisConnectionManager connectionManager, String taskOwner, String pattern, Path checkpointFile) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		this.checkpointFile = checkpointFile;
+		tfPattern.setText(pattern);
+
+		btnStop.setEnabled(false);
+		btnStart.addActionListener(e -> start());
+		btnResume.addActionListener(e -> resume());
+		btnStop.addActionListener(e -> {
+			TaskHandle task = analysisTask;
+			if (task != null) {
+				task.cancel();
+			}
+		});
+
+		JTabbedPane tabs = new JTabbedPane();
+		reportTables.addTabs(tabs);
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 5))
+						.add(tfPattern)
+						.add(tfSamples)
+						.add(tfParallelism)
+						.add(tfTopN)
+						.add(new JLabel())
+						.add(tfDelimiter)
+						.add(tfPrefixDepth)
+						.add(btnStart)
+						.add(btnResume)
+						.add(btnStop)
+						.panel(), BorderLayout.CENTER)
+				.add(lblProgress, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(tabs, BorderLayout.CENTER);
+		updateResumeButton();
+	}
+
+	private void updateResumeButton() {
+		BigKeysAnalyzer resumable = loadCheckpoint();
+		btnResume.setEnabled(resumable != null);
+		btnResume.setToolTipText(resumable != null ? String.format("Continue analysis of %s from %,d keys analyzed", resumable.getPattern(),
+				resumable.getAnalyzedKeys()) : null);
+	}
+
+	private BigKeysAnalyzer loadCheckpoint() {
+		try {
+			return BigKeysAnalyzer.fromCheckpoint(connectionManager, taskOwner, checkpointFile);
+		} catch (IOException | RuntimeException e) {
+			// Unreadable or from an older version - nothing to resume, analyzing anew replaces it
+			return null;
+		}
+	}
+
+	private void start() {
+		String delimiter = tfDelimiter.getText().isEmpty() ? ":" : tfDelimiter.getText();
+		BigKeysReport report = new BigKeysReport(((Long) tfTopN.getValue()).intValue(), delimiter,
+				((Long) tfPrefixDepth.getValue()).intValue(), MAX_PREFIXES);
+		run(new BigKeysAnalyzer(connectionManager, taskOwner, tfPattern.getText(), ((Long) tfSamples.getValue()).intValue(),
+				((Long) tfParallelism.getValue()).intValue(), report, checkpointFile), false);
+	}
+
+	private void resume() {
+		BigKeysAnalyzer resumed = loadCheckpoint();
+		if (resumed == null) {
+			updateResumeButton();
+			return;
+		}
+		BigKeysReport report = resumed.getReport();
+		tfPattern.setText(resumed.getPattern());
+		tfSamples.setValue((long) resumed.getSamples());
+		tfParallelism.setValue((long) resumed.getParallelism());
+		tfTopN.setValue((long) report.getTopN());
+		tfDelimiter.setText(report.getDelimiter());
+		tfPrefixDepth.setValue((long) report.getPrefixDepth());
+		run(resumed, true);
+	}
+
+	private void run(BigKeysAnalyzer currentAnalyzer, boolean resume) {
+		analyzer = currentAnalyzer;
+		scanProgress.set(null);
+		btnStart.setEnabled(false);
+		btnResume.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		analysisTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, "Big keys analysis " + currentAnalyzer.getPattern())
+				.owner(taskOwner)
+				.supersedes("bigKeysAnalysis")
+				.finalOp(() -> {
+					btnStart.setEnabled(true);
+					btnStop.setEnabled(false);
+					updateResumeButton();
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(() -> currentAnalyzer.run(resume, scanProgress::set));
+	}
+
+	public void stop() {
+		refreshTimer.stop();
+		TaskHandle task = analysisTask;
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	private void refresh() {
+		BigKeysAnalyzer analyzer = this.analyzer;
+		if (analyzer == null) {
+			return;
+		}
+		BigKeysReport report = analyzer.getReport();
+		ScanProgress progress = scanProgress.get();
+		Aggregate total = report.getTotal();
+		String status = analyzer.getStatus();
+		Long checkpointMillis = analyzer.getLastCheckpointMillis();
+		lblProgress.setText((progress != null ? progress.toString() + ", " : "")
+				+ String.format("analyzed %,d keys, total memory %s", analyzer.getAnalyzedKeys(), LangUtil.formatBytes(total.getMemory()))
+				+ (checkpointMillis != null
+						? String.format(", checkpoint saved %,d s ago", (System.currentTimeMillis() - checkpointMillis) / 1000L)
+						: "")
+				+ (status != null ? ". " + status : ""));
+
+		reportTables.refresh(report);
+	}
+}
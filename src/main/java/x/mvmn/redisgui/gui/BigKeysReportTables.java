@@ -0,0 +1,75 @@
+package x.mvmn.redisgui.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.model.BigKeysReport;
+import x.mvmn.redisgui.model.BigKeysReport.Aggregate;
+import x.mvmn.redisgui.model.BigKeysReport.KeyStats;
+import x.mvmn.redisgui.model.RedisKeyType;
+
+// Top keys, by type and by prefix tabs of a big keys report - for live analysis as well as for RDB files, where the memory figure is
+// the serialized size instead
+public class BigKeysReportTables {
+
+	private final ArrayTableModel topKeysModel;
+	private final ArrayTableModel byTypeModel;
+	private final ArrayTableModel byPrefixModel;
+
+	// Measure is what the memory figures are, e.g. "memory" or "size in RDB"
+	public BigKeysReportTables(String measure) {
+		String title = Character.toUpperCase(measure.charAt(0)) + measure.substring(1);
+		topKeysModel = new ArrayTableModel(new String[] { "Key", "Type", "Length", title + " (bytes)" },
+				new Class<?>[] { String.class, String.class, Long.class, Long.class });
+		byTypeModel = new ArrayTableModel(
+				new String[] { "Type", "Keys", "Total length", "Total " + measure + " (bytes)", "Max " + measure + " (bytes)" },
+				new Class<?>[] { String.class, Long.class, Long.class, Long.class, Long.class });
+		byPrefixModel = new ArrayTableModel(
+				new String[] { "Prefix", "Keys", "Total " + measure + " (bytes)", "Average " + measure + " (bytes)",
+						"Max " + measure + " (bytes)" },
+				new Class<?>[] { String.class, Long.class, Long.class, Long.class, Long.class });
+	}
+
+	public void addTabs(JTabbedPane tabs) {
+		tabs.addTab("Top keys", new JScrollPane(sortableTable(topKeysModel)));
+		tabs.addTab("By type", new JScrollPane(sortableTable(byTypeModel)));
+		tabs.addTab("By prefix", new JScrollPane(sortableTable(byPrefixModel)));
+	}
+
+	static JTable sortableTable(ArrayTableModel model) {
+		JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+		return table;
+	}
+
+	// EDT only
+	public void refresh(BigKeysReport report) {
+		List<Object[]> topKeys = new ArrayList<>();
+		for (KeyStats stats : report.getTopKeys()) {
+			topKeys.add(new Object[] { stats.getKey(), stats.getType().name().toLowerCase(), stats.getLength(), stats.getMemory() });
+		}
+		topKeysModel.setRows(topKeys);
+
+		List<Object[]> byType = new ArrayList<>();
+		for (Map.Entry<RedisKeyType, Aggregate> entry : report.getByType().entrySet()) {
+			Aggregate aggregate = entry.getValue();
+			byType.add(new Object[] { entry.getKey().name().toLowerCase(), aggregate.getKeys(), aggregate.getLength(), aggregate.getMemory(),
+					aggregate.getMaxMemory() });
+		}
+		byTypeModel.setRows(byType);
+
+		List<Object[]> byPrefix = new ArrayList<>();
+		for (Map.Entry<String, Aggregate> entry : report.getByPrefix().entrySet()) {
+			Aggregate aggregate = entry.getValue();
+			byPrefix.add(new Object[] { entry.getKey(), aggregate.getKeys(), aggregate.getMemory(),
+					aggregate.getKeys() > 0 ? aggregate.getMemory() / aggregate.getKeys() : 0L, aggregate.getMaxMemory() });
+		}
+		byPrefixModel.setRows(byPrefix);
+	}
+}
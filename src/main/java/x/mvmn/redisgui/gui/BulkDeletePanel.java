@@ -0,0 +1,202 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JButton;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.BulkDeleter;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.ScanProgress;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+public class BulkDeletePanel extends JPanel {
+	private static final long serialVersionUID = 6071630947158046211L;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final Path checkpointFile;
+
+	private final JTextField tfPattern = SwingUtil.withTitle(new JTextField("*"), "Pattern");
+	private final JFormattedTextField tfBatchSize = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(500L, 1L, 10000L, false),
+			"Keys per UNLINK");
+	private final JFormattedTextField tfMaxRate = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(10000L, 0L, 10000000L, false),
+			"Max keys/sec (0 = unlimited)");
+	private final JButton btnDryRun = new JButton("Dry run (count only)");
+	private final JButton btnDelete = new JButton("Delete matching");
+	private final JButton btnResume = new JButton("Resume deletion");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+	private final JTextArea txaSample = new JTextArea();
+
+	private final Timer refreshTimer = new Timer(500, e -> refresh());
+	private final AtomicReference<ScanProgress> scanProgress = new AtomicReference<>();
+	private volatile BulkDeleter deleter;
+	private volatile TaskHandle deleteTask;
+	// Pattern and count of the last completed dry run, shown in the delete confirmation
+	private String dryRunPattern;
+	private long dryRunMatched;
+	private int shownSampleKeys;
+
+	public BulkDeletePanel(RedisConnectionManager connectionManager, String taskOwner, String pattern, Path checkpointFile) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		this.checkpointFile = checkpointFile;
+		tfPattern.setText(pattern);
+		txaSample.setEditable(false);
+
+		btnStop.setEnabled(false);
+		btnDryRun.addActionListener(e -> start(true));
+		btnDelete.addActionListener(e -> {
+			if (confirmDelete()) {
+				start(false);
+			}
+		});
+		btnResume.addActionListener(e -> resume());
+		btnStop.addActionListener(e -> stop());
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 4))
+						.add(tfPattern)
+						.add(tfBatchSize)
+						.add(tfMaxRate)
+						.add(new JLabel())
+						.add(btnDryRun)
+						.add(btnDelete)
+						.add(btnResume)
+						.add(btnStop)
+						.panel(), BorderLayout.CENTER)
+				.add(lblProgress, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(SwingUtil.withTitle(new JScrollPane(txaSample), "Sample of matching keys (dry run)"), BorderLayout.CENTER);
+		updateResumeButton();
+	}
+
+	private void updateResumeButton() {
+		BulkDeleter resumable = loadCheckpoint();
+		btnResume.setEnabled(resumable != null);
+		btnResume.setToolTipText(resumable != null ? "Continue deleting keys matching " + resumable.getPattern() + " where it stopped" : null);
+	}
+
+	private BulkDeleter loadCheckpoint() {
+		try {
+			return BulkDeleter.fromCheckpoint(connectionManager, checkpointFile);
+		} catch (IOException | RuntimeException e) {
+			// Unreadable - nothing to resume, deleting anew replaces it
+			return null;
+		}
+	}
+
+	private void resume() {
+		BulkDeleter resumed = loadCheckpoint();
+		if (resumed == null) {
+			updateResumeButton();
+			return;
+		}
+		tfPattern.setText(resumed.getPattern());
+		tfBatchSize.setValue((long) resumed.getBatchSize());
+		tfMaxRate.setValue((long) resumed.getMaxKeysPerSecond());
+		if (JOptionPane.showConfirmDialog(this, "Continue deleting keys matching \"" + resumed.getPattern() + "\" where it stopped?",
+				"Resume deletion", JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.OK_OPTION) {
+			run(resumed, true);
+		}
+	}
+
+	private boolean confirmDelete() {
+		String pattern = tfPattern.getText();
+		String message = "Delete all keys matching \"" + pattern + "\"?"
+				+ (pattern.equals(dryRunPattern) ? String.format("\nDry run matched %,d keys.", dryRunMatched)
+						: "\nNo dry run done for this pattern.")
+				+ (pattern.trim().equals("*") || pattern.trim().isEmpty() ? "\n\nThis deletes EVERY key in the database." : "")
+				+ "\nThis cannot be undone.";
+		return JOptionPane.showConfirmDialog(this, message, "Delete matching keys", JOptionPane.OK_CANCEL_OPTION,
+				JOptionPane.WARNING_MESSAGE) == JOptionPane.OK_OPTION;
+	}
+
+	private void start(boolean dryRun) {
+		run(new BulkDeleter(connectionManager, tfPattern.getText(), ((Long) tfBatchSize.getValue()).intValue(),
+				((Long) tfMaxRate.getValue()).intValue(), dryRun, checkpointFile), false);
+	}
+
+	private void run(BulkDeleter currentDeleter, boolean resume) {
+		String pattern = currentDeleter.getPattern();
+		boolean dryRun = currentDeleter.isDryRun();
+		deleter = currentDeleter;
+		scanProgress.set(null);
+		txaSample.setText("");
+		shownSampleKeys = 0;
+		btnDryRun.setEnabled(false);
+		btnDelete.setEnabled(false);
+		btnResume.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		deleteTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, (dryRun ? "Count keys " : "Delete keys ") + pattern)
+				.owner(taskOwner)
+				.supersedes("bulkDelete")
+				.finalOp(() -> {
+					btnDryRun.setEnabled(true);
+					btnDelete.setEnabled(true);
+					btnStop.setEnabled(false);
+					updateResumeButton();
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(() -> {
+					ScanProgress result = currentDeleter.run(resume, scanProgress::set);
+					if (dryRun && result.isFinished()) {
+						SwingUtil.publish(() -> {
+							dryRunPattern = pattern;
+							dryRunMatched = result.getMatched();
+						});
+					}
+				});
+	}
+
+	public void stop() {
+		TaskHandle task = deleteTask;
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	private void refresh() {
+		BulkDeleter deleter = this.deleter;
+		if (deleter == null) {
+			return;
+		}
+		ScanProgress progress = scanProgress.get();
+		String scanStatus = progress != null ? progress.toString() : "Starting...";
+		if (deleter.isDryRun()) {
+			lblProgress.setText(scanStatus);
+			List<String> sampleKeys = deleter.getSampleKeys();
+			if (sampleKeys.size() != shownSampleKeys) {
+				shownSampleKeys = sampleKeys.size();
+				txaSample.setText(String.join("\n", sampleKeys));
+			}
+		} else {
+			long elapsedMillis = progress != null ? progress.getElapsedMillis() : 0L;
+			String status = deleter.getStatus();
+			lblProgress.setText(String.format("%s, deleted %,d (%,.0f keys/sec)%s%s", scanStatus, deleter.getDeleted(),
+					elapsedMillis > 0 ? deleter.getDeleted() * 1000.0d / elapsedMillis : 0.0d,
+					deleter.getFailedBatches() > 0 ? String.format(", %,d batches failed", deleter.getFailedBatches()) : "",
+					status != null ? ". " + status : ""));
+		}
+	}
+}
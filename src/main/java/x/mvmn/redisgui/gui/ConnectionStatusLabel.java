@@ -0,0 +1,33 @@
+package x.mvmn.redisgui.gui;
+
+import java.util.Locale;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.RedisConnectionManager.ConnectionState;
+
+public class ConnectionStatusLabel extends JLabel {
+	private static final long serialVersionUID = 2286514738190262406L;
+
+	private final RedisConnectionManager connectionManager;
+
+	public ConnectionStatusLabel(RedisConnectionManager connectionManager) {
+		this.connectionManager = connectionManager;
+		this.setBorder(BorderFactory.createEmptyBorder(2, 4, 2, 4));
+		connectionManager.registerStateListener(() -> SwingUtilities.invokeLater(this::refresh));
+		refresh();
+	}
+
+	protected void refresh() {
+		ConnectionState state = connectionManager.getState();
+		long rtt = connectionManager.getLastRoundTripNanos();
+		StringBuilder text = new StringBuilder(state.toString());
+		if (state == ConnectionState.CONNECTED && rtt >= 0) {
+			text.append(" | RTT: ").append(String.format(Locale.US, "%.2f ms", rtt / 1_000_000.0d));
+		}
+		this.setText(text.toString());
+	}
+}
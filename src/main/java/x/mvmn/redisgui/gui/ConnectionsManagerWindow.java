@@ -16,6 +16,7 @@ import java.util.function.Consumer;
 import javax.swing.AbstractListModel;
 import javax.swing.JButton;
 import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JList;
 import javax.swing.JOptionPane;
@@ -26,9 +27,8 @@ import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UIManager.LookAndFeelInfo;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
-import io.lettuce.core.RedisURI;
-import io.lettuce.core.resource.ClientResources;
 import x.mvmn.redisgui.gui.util.JMenuBarBuilder;
 import x.mvmn.redisgui.gui.util.JMenuBarBuilder.JMenuBuilder;
 import x.mvmn.redisgui.gui.util.SwingUtil;
@@ -55,13 +55,18 @@ public class ConnectionsManagerWindow extends JFrame {
 	private final ConfigsListModel configListModel = new ConfigsListModel();
 
 	public ConnectionsManagerWindow(FileBackedProperties appConfig, File appHomeFolder, SortedSet<String> existingConnectionConfigs,
-			Consumer<Tuple<RedisURI, ClientResources, Void, Void, Void>> testConnectionHandler,
+			Consumer<RedisConfigModel> testConnectionHandler,
 			Consumer<Tuple<String, RedisConfigModel, Void, Void, Void>> connectionHandler) {
 		super("MVMn Redis Client GUI");
 		this.appConfig = appConfig;
 		this.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-		JMenuBuilder menuBuilder = new JMenuBarBuilder().menu("Look&Feel");
+		JMenuBuilder menuBuilder = new JMenuBarBuilder().menu("File")
+				.item("Open RDB file...")
+				.actr(e -> openRdbFile())
+				.build()
+				.build()
+				.menu("Look&Feel");
 		String currentLnF = SwingUtil.getLookAndFeelName(UIManager.getLookAndFeel());
 		List<JCheckBoxMenuItem> lnfOptions = new ArrayList<>();
 		Arrays.stream(UIManager.getInstalledLookAndFeels())
@@ -69,7 +74,7 @@ public class ConnectionsManagerWindow extends JFrame {
 				.forEach(lnf -> menuBuilder.item(lnf).checkbox().checked(currentLnF.equals(lnf)).actr(e -> {
 					SwingUtil.setLookAndFeel(lnf);
 					lnfOptions.forEach(mi -> mi.setState(lnf.equals(mi.getText())));
-					new Thread(() -> saveLaFConfig(lnf)).start();
+					SwingUtil.performSafely(() -> saveLaFConfig(lnf));
 				}).process(mi -> lnfOptions.add((JCheckBoxMenuItem) mi)).build());
 
 		this.setJMenuBar(menuBuilder.build().build());
@@ -91,10 +96,7 @@ public class ConnectionsManagerWindow extends JFrame {
 			btnTestConnection.setEnabled(false);
 			SwingUtil.performSafely(() -> {
 				try {
-					testConnectionHandler.accept(Tuple.<RedisURI, ClientResources, Void, Void, Void> builder()
-							.a(config.toRedisUri())
-							.b(config.getClientResources())
-							.build());
+					testConnectionHandler.accept(config);
 				} finally {
 					btnTestConnection.setEnabled(true);
 				}
@@ -193,6 +195,14 @@ public class ConnectionsManagerWindow extends JFrame {
 		});
 	}
 
+	private void openRdbFile() {
+		JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setFileFilter(new FileNameExtensionFilter("RDB files", "rdb"));
+		if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+			new RdbFileWindow(fileChooser.getSelectedFile()).show();
+		}
+	}
+
 	private void saveLaFConfig(String lnf) {
 		appConfig.setProperty("gui.lookandfeel", lnf);
 	}
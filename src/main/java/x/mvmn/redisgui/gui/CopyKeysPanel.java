@@ -0,0 +1,155 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.KeyCopier;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.ScanProgress;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+public class CopyKeysPanel extends JPanel {
+	private static final long serialVersionUID = 4472081917342006137L;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final File appHomeFolder;
+
+	private final JTextField tfPattern = SwingUtil.withTitle(new JTextField("*"), "Pattern");
+	private final DefaultComboBoxModel<String> destinationsModel = new DefaultComboBoxModel<>();
+	private final JComboBox<String> cbxDestination = SwingUtil.withTitle(new JComboBox<>(destinationsModel), "Destination connection");
+	private final JButton btnRefreshDestinations = new JButton("Reload saved connections");
+	// The source scan takes one more bulk thread
+	private final JFormattedTextField tfWriters = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(4L, 1L, 64L, false),
+			"Writer connections");
+	private final JFormattedTextField tfWindow = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(256L, 1L, 100000L, false),
+			"In-flight commands per connection");
+	private final JCheckBox cbReplace = new JCheckBox("Replace existing keys", false);
+	private final JCheckBox cbKeepTtl = new JCheckBox("Keep TTLs", true);
+	private final JButton btnCopy = new JButton("Copy");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+
+	private final Timer refreshTimer = new Timer(1000, e -> refresh());
+	private final AtomicReference<ScanProgress> scanProgress = new AtomicReference<>();
+	private volatile KeyCopier copier;
+	private volatile TaskHandle copyTask;
+
+	public CopyKeysPanel(RedisConnectionManager connectionManager, String taskOwner, File appHomeFolder, String pattern) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		this.appHomeFolder = appHomeFolder;
+		tfPattern.setText(pattern);
+
+		btnStop.setEnabled(false);
+		btnRefreshDestinations.addActionListener(e -> loadDestinations());
+		btnCopy.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 5))
+						.add(tfPattern)
+						.add(cbxDestination)
+						.add(btnRefreshDestinations)
+						.add(tfWriters)
+						.add(tfWindow)
+						.add(cbReplace)
+						.add(cbKeepTtl)
+						.add(btnCopy)
+						.add(btnStop)
+						.add(new JLabel())
+						.panel(), BorderLayout.CENTER)
+				.add(lblProgress, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		loadDestinations();
+	}
+
+	private void loadDestinations() {
+		Object selected = destinationsModel.getSelectedItem();
+		destinationsModel.removeAllElements();
+		SavedConnections.names(appHomeFolder).forEach(destinationsModel::addElement);
+		if (selected != null) {
+			destinationsModel.setSelectedItem(selected);
+		}
+	}
+
+	private void start() {
+		String destinationName = (String) cbxDestination.getSelectedItem();
+		if (destinationName == null) {
+			lblProgress.setText("Choose a destination connection");
+			return;
+		}
+		String pattern = tfPattern.getText();
+		if (JOptionPane.showConfirmDialog(this,
+				"Copy keys matching \"" + pattern + "\" to " + destinationName + "?"
+						+ (cbReplace.isSelected() ? "\nExisting keys with the same names will be overwritten." : ""),
+				"Copy keys", JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE) != JOptionPane.OK_OPTION) {
+			return;
+		}
+		int writers = ((Long) tfWriters.getValue()).intValue();
+		int window = ((Long) tfWindow.getValue()).intValue();
+		boolean replace = cbReplace.isSelected();
+		boolean keepTtl = cbKeepTtl.isSelected();
+		scanProgress.set(null);
+		copier = null;
+		btnCopy.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		copyTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, "Copy " + pattern + " to " + destinationName)
+				.owner(taskOwner)
+				.supersedes("copyKeys")
+				.finalOp(() -> {
+					btnCopy.setEnabled(true);
+					btnStop.setEnabled(false);
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(() -> {
+					KeyCopier currentCopier = new KeyCopier(connectionManager, taskOwner, pattern,
+							SavedConnections.load(appHomeFolder, destinationName), writers, window, replace, keepTtl);
+					copier = currentCopier;
+					currentCopier.run(scanProgress::set);
+				});
+	}
+
+	public void stop() {
+		TaskHandle task = copyTask;
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	private void refresh() {
+		KeyCopier copier = this.copier;
+		if (copier == null) {
+			return;
+		}
+		ScanProgress progress = scanProgress.get();
+		double seconds = progress != null ? Math.max(0.001d, progress.getElapsedMillis() / 1000.0d) : 0.0d;
+		Long destinationCount = copier.getDestinationCount();
+		String error = copier.getFirstError();
+		lblProgress.setText(String.format("%s, copied %,d (%,.0f keys/sec), failed %,d, gone before DUMP %,d%s%s",
+				progress != null ? progress : "Starting...", copier.getCopied(), seconds > 0 ? copier.getCopied() / seconds : 0.0d,
+				copier.getFailed(), copier.getSkipped(),
+				destinationCount != null ? String.format(" - destination now has %,d matching keys", destinationCount) : "",
+				error != null ? " - first error: " + error : ""));
+	}
+}
@@ -0,0 +1,141 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.DumpFile.Format;
+import x.mvmn.redisgui.redis.KeyExporter;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.ScanProgress;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.LangUtil;
+
+public class ExportPanel extends JPanel {
+	private static final long serialVersionUID = 2384029914671302286L;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+
+	private final JTextField tfPattern = SwingUtil.withTitle(new JTextField("*"), "Pattern");
+	private final JTextField tfFile = SwingUtil.withTitle(new JTextField(""), "Export file");
+	private final JButton btnChooseFile = new JButton("Choose file...");
+	private final JComboBox<Format> cbxFormat = SwingUtil.withTitle(new JComboBox<>(Format.values()), "Format");
+	private final JButton btnExport = new JButton("Export");
+	private final JButton btnResume = new JButton("Resume from checkpoint");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+
+	private final Timer refreshTimer = new Timer(1000, e -> refresh());
+	private final AtomicReference<ScanProgress> scanProgress = new AtomicReference<>();
+	private volatile KeyExporter exporter;
+	private volatile TaskHandle exportTask;
+
+	public ExportPanel(RedisConnectionManager connectionManager, String taskOwner, String pattern) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		tfPattern.setText(pattern);
+
+		btnStop.setEnabled(false);
+		btnResume.setEnabled(false);
+		btnChooseFile.addActionListener(e -> {
+			JFileChooser fileChooser = new JFileChooser();
+			if (!tfFile.getText().isEmpty()) {
+				fileChooser.setSelectedFile(new File(tfFile.getText()));
+			}
+			if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+				tfFile.setText(fileChooser.getSelectedFile().getAbsolutePath());
+			}
+		});
+		SwingUtil.bind(tfFile, e -> updateResumable());
+		btnExport.addActionListener(e -> start(false));
+		btnResume.addActionListener(e -> start(true));
+		btnStop.addActionListener(e -> stop());
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 4))
+						.add(tfPattern)
+						.add(tfFile)
+						.add(btnChooseFile)
+						.add(cbxFormat)
+						.add(btnExport)
+						.add(btnResume)
+						.add(btnStop)
+						.add(new JLabel())
+						.panel(), BorderLayout.CENTER)
+				.add(lblProgress, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+	}
+
+	private void updateResumable() {
+		String file = tfFile.getText().trim();
+		btnResume.setEnabled(exportTask == null && !file.isEmpty() && Files.exists(KeyExporter.checkpointFileOf(new File(file).toPath())));
+	}
+
+	private void start(boolean resume) {
+		String file = tfFile.getText().trim();
+		if (file.isEmpty()) {
+			lblProgress.setText("Choose a file to export to");
+			return;
+		}
+		Path path = new File(file).toPath();
+		KeyExporter currentExporter = new KeyExporter(connectionManager, tfPattern.getText(), path, (Format) cbxFormat.getSelectedItem(),
+				resume);
+		exporter = currentExporter;
+		scanProgress.set(null);
+		btnExport.setEnabled(false);
+		btnResume.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		exportTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, "Export " + tfPattern.getText() + " to " + path.getFileName())
+				.owner(taskOwner)
+				.supersedes("export")
+				.finalOp(() -> {
+					exportTask = null;
+					btnExport.setEnabled(true);
+					btnStop.setEnabled(false);
+					updateResumable();
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(() -> currentExporter.run(scanProgress::set));
+	}
+
+	public void stop() {
+		TaskHandle task = exportTask;
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	private void refresh() {
+		KeyExporter exporter = this.exporter;
+		if (exporter == null) {
+			return;
+		}
+		ScanProgress progress = scanProgress.get();
+		double seconds = progress != null ? Math.max(0.001d, progress.getElapsedMillis() / 1000.0d) : 0.0d;
+		lblProgress.setText(String.format("%s, exported %,d keys (%,.0f/sec), written %s (%s/sec)%s%s",
+				progress != null ? progress : "Starting...", exporter.getExported(),
+				seconds > 0 ? exporter.getExportedThisRun() / seconds : 0.0d, LangUtil.formatBytes(exporter.getBytesWritten()),
+				LangUtil.formatBytes(seconds > 0 ? (long) (exporter.getBytesWritten() / seconds) : 0L),
+				exporter.getSkipped() > 0 ? String.format(", %,d gone before DUMP", exporter.getSkipped()) : "",
+				exporter.getFailed() > 0 ? String.format(", %,d failed", exporter.getFailed()) : ""));
+	}
+}
@@ -0,0 +1,133 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.io.File;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JFileChooser;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.KeyImporter;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.LangUtil;
+
+public class ImportPanel extends JPanel {
+	private static final long serialVersionUID = -5318807529386150234L;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+
+	private final JTextField tfFile = SwingUtil.withTitle(new JTextField(""), "Export file to import");
+	private final JButton btnChooseFile = new JButton("Choose file...");
+	// The reader takes one more bulk thread
+	private final JFormattedTextField tfWriters = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(4L, 1L, 64L, false),
+			"Writer connections");
+	private final JFormattedTextField tfWindow = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(256L, 1L, 100000L, false),
+			"In-flight commands per connection");
+	private final JCheckBox cbReplace = new JCheckBox("Replace existing keys", false);
+	private final JCheckBox cbKeepTtl = new JCheckBox("Restore TTLs", true);
+	private final JButton btnImport = new JButton("Import");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+
+	private final Timer refreshTimer = new Timer(1000, e -> refresh());
+	private volatile KeyImporter importer;
+	private volatile TaskHandle importTask;
+	private long startNanos;
+
+	public ImportPanel(RedisConnectionManager connectionManager, String taskOwner) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+
+		btnStop.setEnabled(false);
+		btnChooseFile.addActionListener(e -> {
+			JFileChooser fileChooser = new JFileChooser();
+			if (!tfFile.getText().isEmpty()) {
+				fileChooser.setSelectedFile(new File(tfFile.getText()));
+			}
+			if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+				tfFile.setText(fileChooser.getSelectedFile().getAbsolutePath());
+			}
+		});
+		btnImport.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 4))
+						.add(tfFile)
+						.add(btnChooseFile)
+						.add(tfWriters)
+						.add(tfWindow)
+						.add(cbReplace)
+						.add(cbKeepTtl)
+						.add(btnImport)
+						.add(btnStop)
+						.panel(), BorderLayout.CENTER)
+				.add(lblProgress, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+	}
+
+	private void start() {
+		String file = tfFile.getText().trim();
+		if (file.isEmpty() || !new File(file).isFile()) {
+			lblProgress.setText("Choose an export file to import");
+			return;
+		}
+		if (JOptionPane.showConfirmDialog(this,
+				"Import keys from " + file + "?" + (cbReplace.isSelected() ? "\nExisting keys with the same names will be overwritten." : ""),
+				"Import", JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE) != JOptionPane.OK_OPTION) {
+			return;
+		}
+		KeyImporter currentImporter = new KeyImporter(connectionManager, taskOwner, new File(file).toPath(),
+				((Long) tfWriters.getValue()).intValue(), ((Long) tfWindow.getValue()).intValue(), cbReplace.isSelected(),
+				cbKeepTtl.isSelected());
+		importer = currentImporter;
+		startNanos = System.nanoTime();
+		btnImport.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		importTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, "Import " + new File(file).getName())
+				.owner(taskOwner)
+				.supersedes("import")
+				.finalOp(() -> {
+					btnImport.setEnabled(true);
+					btnStop.setEnabled(false);
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(currentImporter::run);
+	}
+
+	public void stop() {
+		TaskHandle task = importTask;
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	private void refresh() {
+		KeyImporter importer = this.importer;
+		if (importer == null) {
+			return;
+		}
+		double seconds = Math.max(0.001d, (System.nanoTime() - startNanos) / 1e9d);
+		long fileSize = importer.getFileSize();
+		String error = importer.getFirstError();
+		lblProgress.setText(String.format("Read %s of %s (%,d keys), restored %,d (%,.0f keys/sec), failed %,d%s",
+				LangUtil.formatBytes(importer.getBytesRead()), LangUtil.formatBytes(fileSize), importer.getRead(), importer.getRestored(),
+				importer.getRestored() / seconds, importer.getFailed(), error != null ? " - first error: " + error : ""));
+	}
+}
@@ -0,0 +1,214 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.beans.PropertyChangeEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleFunction;
+
+import javax.swing.JButton;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.gui.util.TimeSeriesChart;
+import x.mvmn.redisgui.model.ServerMetrics;
+import x.mvmn.redisgui.model.ServerMetrics.Field;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.RedisFutures;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.LangUtil;
+import x.mvmn.redisgui.util.TimeSeries;
+
+// Polls INFO of every primary on the monitoring scheduler and charts the totals. History is kept in fixed-size series, so memory use
+// doesn't grow however long the window stays open.
+public class InfoDashboardPanel extends JPanel {
+	private static final long serialVersionUID = 1948297345180157262L;
+
+	private static final int HISTORY_POINTS = 1800;
+	private static final int REPAINT_INTERVAL_MILLIS = 1000;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final JFormattedTextField tfInterval = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(2L, 1L, 3600L, false),
+			"Poll interval (seconds)");
+	private final JButton btnStart = new JButton("Start");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblStatus = new JLabel(" ");
+	private final JTextArea txaRawInfo = new JTextArea();
+
+	private final TimeSeries opsPerSec = new TimeSeries(HISTORY_POINTS);
+	private final TimeSeries usedMemory = new TimeSeries(HISTORY_POINTS);
+	private final TimeSeries hitRatio = new TimeSeries(HISTORY_POINTS);
+	private final TimeSeries evictionsPerSec = new TimeSeries(HISTORY_POINTS);
+	private final TimeSeries connectedClients = new TimeSeries(HISTORY_POINTS);
+	private final TimeSeries replicationOffset = new TimeSeries(HISTORY_POINTS);
+	private final List<TimeSeriesChart> charts = new ArrayList<>();
+	private final Timer repaintTimer = new Timer(REPAINT_INTERVAL_MILLIS, e -> repaintCharts());
+
+	// Poll thread only - a scheduled task never overlaps with itself
+	private final ServerMetrics metrics = new ServerMetrics();
+	private long previousPollMillis = -1L;
+	private long previousHits;
+	private long previousMisses;
+	private long previousEvictions;
+
+	private volatile TaskHandle pollTask;
+	private volatile String lastRawInfo = "";
+	private volatile String lastError;
+
+	public InfoDashboardPanel(RedisConnectionManager connectionManager, String taskOwner) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+
+		btnStart.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+		SwingUtil.bind(tfInterval, (PropertyChangeEvent e) -> {
+			if (pollTask != null) {
+				start();
+			}
+		});
+		txaRawInfo.setEditable(false);
+
+		JPanel chartsPanel = new JPanel(new GridLayout(3, 2));
+		addChart(chartsPanel, "Ops/sec", opsPerSec, value -> String.format("%,.0f", value));
+		addChart(chartsPanel, "Used memory", usedMemory, value -> LangUtil.formatBytes((long) value));
+		addChart(chartsPanel, "Hit ratio", hitRatio, value -> String.format("%.1f%%", value));
+		addChart(chartsPanel, "Evictions/sec", evictionsPerSec, value -> String.format("%,.1f", value));
+		addChart(chartsPanel, "Connected clients", connectedClients, value -> String.format("%,.0f", value));
+		addChart(chartsPanel, "Replication offset", replicationOffset, value -> String.format("%,.0f", value));
+
+		JTabbedPane tabs = new JTabbedPane();
+		tabs.addTab("Charts", chartsPanel);
+		tabs.addTab("Raw INFO", new JScrollPane(txaRawInfo));
+		tabs.addChangeListener(e -> {
+			if (tabs.getSelectedIndex() == 1) {
+				txaRawInfo.setText(lastRawInfo);
+				txaRawInfo.setCaretPosition(0);
+			}
+		});
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(1, 3)).add(tfInterval).add(btnStart).add(btnStop).panel(), BorderLayout.CENTER)
+				.add(lblStatus, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(tabs, BorderLayout.CENTER);
+	}
+
+	private void addChart(JPanel panel, String title, TimeSeries series, DoubleFunction<String> formatter) {
+		TimeSeriesChart chart = new TimeSeriesChart(title, series, formatter);
+		charts.add(chart);
+		panel.add(chart);
+	}
+
+	// EDT only. Restarts polling with the current interval.
+	public void start() {
+		TaskHandle previous = pollTask;
+		if (previous != null) {
+			previous.cancel();
+		}
+		Object interval = tfInterval.getValue();
+		long intervalSeconds = interval != null ? (Long) interval : 2L;
+		pollTask = TaskManager.getInstance()
+				.task(TaskClass.MONITORING, "Poll INFO")
+				.owner(taskOwner)
+				.schedule(this::poll, 0, intervalSeconds, TimeUnit.SECONDS);
+		repaintTimer.start();
+		btnStart.setEnabled(false);
+		btnStop.setEnabled(true);
+	}
+
+	public void stop() {
+		TaskHandle task = pollTask;
+		pollTask = null;
+		if (task != null) {
+			task.cancel();
+		}
+		repaintTimer.stop();
+		btnStart.setEnabled(true);
+		btnStop.setEnabled(false);
+	}
+
+	private void poll() throws Exception {
+		Duration timeout = connectionManager.getConnection().getTimeout();
+		Map<String, RedisClusterAsyncCommands<String, String>> nodes = connectionManager.getPrimaryNodes();
+		List<RedisFuture<String>> futures = new ArrayList<>(nodes.size());
+		for (RedisClusterAsyncCommands<String, String> node : nodes.values()) {
+			futures.add(node.info());
+		}
+		try {
+			RedisFutures.awaitQuietly(timeout, futures);
+		} catch (Exception e) {
+			lastError = e.getMessage();
+			return;
+		}
+		long now = System.currentTimeMillis();
+		metrics.clear();
+		StringBuilder rawInfo = new StringBuilder();
+		int index = 0;
+		int failed = 0;
+		for (String node : nodes.keySet()) {
+			String info = RedisFutures.valueOrNull(futures.get(index++));
+			if (info == null) {
+				failed++;
+				continue;
+			}
+			metrics.add(info);
+			if (nodes.size() > 1) {
+				rawInfo.append("######## ").append(node).append("\n");
+			}
+			rawInfo.append(info).append("\n");
+		}
+		lastRawInfo = rawInfo.toString();
+		lastError = failed > 0 ? String.format("INFO failed on %d of %d servers", failed, nodes.size()) : null;
+		if (failed > 0) {
+			// Partial totals would show as spikes - leave a gap and restart the deltas
+			previousPollMillis = -1L;
+			for (TimeSeries series : new TimeSeries[] { opsPerSec, usedMemory, hitRatio, evictionsPerSec, connectedClients, replicationOffset }) {
+				series.add(now, Double.NaN);
+			}
+			return;
+		}
+
+		opsPerSec.add(now, metrics.get(Field.INSTANTANEOUS_OPS_PER_SEC));
+		usedMemory.add(now, metrics.get(Field.USED_MEMORY));
+		connectedClients.add(now, metrics.get(Field.CONNECTED_CLIENTS));
+		replicationOffset.add(now, metrics.has(Field.MASTER_REPL_OFFSET) ? metrics.get(Field.MASTER_REPL_OFFSET) : Double.NaN);
+		long hits = metrics.get(Field.KEYSPACE_HITS);
+		long misses = metrics.get(Field.KEYSPACE_MISSES);
+		long evictions = metrics.get(Field.EVICTED_KEYS);
+		// Counters are cumulative since server start (or CONFIG RESETSTAT) - rates come from deltas, a counter reset gives a gap
+		if (previousPollMillis >= 0 && now > previousPollMillis) {
+			long lookups = (hits - previousHits) + (misses - previousMisses);
+			hitRatio.add(now, lookups > 0 && hits >= previousHits ? (hits - previousHits) * 100.0d / lookups : Double.NaN);
+			evictionsPerSec.add(now,
+					evictions >= previousEvictions ? (evictions - previousEvictions) * 1000.0d / (now - previousPollMillis) : Double.NaN);
+		}
+		previousPollMillis = now;
+		previousHits = hits;
+		previousMisses = misses;
+		previousEvictions = evictions;
+	}
+
+	private void repaintCharts() {
+		String error = lastError;
+		lblStatus.setText(error != null ? error : String.format("%,d points of %,d kept", opsPerSec.size(), HISTORY_POINTS));
+		for (TimeSeriesChart chart : charts) {
+			chart.repaint();
+		}
+	}
+}
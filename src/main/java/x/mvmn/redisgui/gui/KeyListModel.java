@@ -0,0 +1,136 @@
+package x.mvmn.redisgui.gui;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+
+import x.mvmn.redisgui.gui.util.CoalescingUpdater;
+import x.mvmn.redisgui.util.CompactStringSet;
+
+public class KeyListModel extends AbstractListModel<String> {
+	private static final long serialVersionUID = 4938227471011786393L;
+
+	// Keys are encoded into the store by the producing thread, the EDT only ever publishes the new size - Strings get created just for rows
+	// that are actually rendered. The store is a set, so keys returned more than once by SCAN are listed once.
+	private final CompactStringSet store = new CompactStringSet();
+	private final CoalescingUpdater updater = new CoalescingUpdater(100, this::flushPending);
+	private volatile int generation;
+	private int visibleSize;
+	// Set when a removal moved rows around - guarded by store
+	private boolean rowsMoved;
+
+	@Override
+	public int getSize() {
+		return visibleSize;
+	}
+
+	@Override
+	public String getElementAt(int index) {
+		synchronized (store) {
+			return index < store.size() ? store.get(index) : "";
+		}
+	}
+
+	public int getGeneration() {
+		return generation;
+	}
+
+	// Thread-safe. Batches of a generation older than the last clear() are dropped. Returns the keys that were not listed yet.
+	public List<String> enqueue(int generation, Collection<String> batch) {
+		List<String> added = new ArrayList<>(batch.size());
+		synchronized (store) {
+			if (generation != this.generation) {
+				return added;
+			}
+			for (String key : batch) {
+				if (store.add(key) >= 0) {
+					added.add(key);
+				}
+			}
+		}
+		updater.requestUpdate();
+		return added;
+	}
+
+	// Thread-safe. Returns false if the key was already listed or the generation is outdated.
+	public boolean addKey(int generation, String key) {
+		synchronized (store) {
+			if (generation != this.generation || store.add(key) < 0) {
+				return false;
+			}
+		}
+		updater.requestUpdate();
+		return true;
+	}
+
+	// Thread-safe. The last row takes the place of the removed one. Returns false if the key wasn't listed or the generation is outdated.
+	public boolean removeKey(int generation, String key) {
+		synchronized (store) {
+			if (generation != this.generation || store.remove(key) < 0) {
+				return false;
+			}
+			rowsMoved = true;
+		}
+		updater.requestUpdate();
+		return true;
+	}
+
+	// Thread-safe
+	public int getKeyCount() {
+		synchronized (store) {
+			return store.size();
+		}
+	}
+
+	// EDT only
+	public void flushPending() {
+		int newSize;
+		boolean moved;
+		synchronized (store) {
+			newSize = store.size();
+			moved = rowsMoved;
+			rowsMoved = false;
+		}
+		int oldSize = visibleSize;
+		visibleSize = newSize;
+		if (newSize > oldSize) {
+			fireIntervalAdded(this, oldSize, newSize - 1);
+		} else if (newSize < oldSize) {
+			fireIntervalRemoved(this, newSize, oldSize - 1);
+		}
+		if (moved && Math.min(oldSize, newSize) > 0) {
+			fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+		}
+	}
+
+	// EDT only
+	public int clear() {
+		int result;
+		synchronized (store) {
+			result = ++generation;
+			store.clear();
+			rowsMoved = false;
+		}
+		int size = visibleSize;
+		visibleSize = 0;
+		if (size > 0) {
+			fireIntervalRemoved(this, 0, size - 1);
+		}
+		return result;
+	}
+
+	public long getMemoryFootprint() {
+		synchronized (store) {
+			return store.getMemoryFootprint();
+		}
+	}
+
+	public void dispose() {
+		updater.stop();
+		synchronized (store) {
+			store.clear();
+		}
+	}
+}
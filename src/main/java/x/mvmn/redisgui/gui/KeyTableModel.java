@@ -0,0 +1,80 @@
+package x.mvmn.redisgui.gui;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.table.AbstractTableModel;
+
+import x.mvmn.redisgui.model.KeyMetadata;
+import x.mvmn.redisgui.redis.KeyMetadataCache;
+import x.mvmn.redisgui.util.LangUtil;
+
+public class KeyTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = -4263706434826413342L;
+
+	private static final String[] COLUMNS = { "Key", "Type", "TTL", "Memory", "Encoding" };
+
+	private final KeyListModel keysList;
+	private final KeyMetadataCache metadataCache;
+
+	public KeyTableModel(KeyListModel keysList, KeyMetadataCache metadataCache) {
+		this.keysList = keysList;
+		this.metadataCache = metadataCache;
+		keysList.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				fireTableRowsInserted(e.getIndex0(), e.getIndex1());
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				fireTableRowsDeleted(e.getIndex0(), e.getIndex1());
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				fireTableRowsUpdated(e.getIndex0(), e.getIndex1());
+			}
+		});
+	}
+
+	public String getKey(int row) {
+		return keysList.getElementAt(row);
+	}
+
+	@Override
+	public int getRowCount() {
+		return keysList.getSize();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMNS.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return COLUMNS[column];
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		String key = keysList.getElementAt(rowIndex);
+		if (columnIndex == 0) {
+			return key;
+		}
+		KeyMetadata metadata = metadataCache.get(key);
+		if (metadata == null) {
+			return "...";
+		}
+		switch (columnIndex) {
+			case 1:
+				return metadata.getType() != null ? metadata.getType().name().toLowerCase() : "n/a";
+			case 2:
+				return metadata.getTtlDescription();
+			case 3:
+				return metadata.getMemoryUsage() != null ? LangUtil.formatBytes(metadata.getMemoryUsage()) : "n/a";
+			default:
+				return metadata.getEncoding() != null ? metadata.getEncoding() : "n/a";
+		}
+	}
+}
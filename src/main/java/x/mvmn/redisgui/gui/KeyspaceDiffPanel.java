@@ -0,0 +1,180 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.KeyspaceDiff;
+import x.mvmn.redisgui.redis.KeyspaceDiff.DifferenceKind;
+import x.mvmn.redisgui.redis.KeyspaceDiff.DigestMode;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.ScanProgress;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+public class KeyspaceDiffPanel extends JPanel {
+	private static final long serialVersionUID = -1529074478183105660L;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final File appHomeFolder;
+
+	private final JTextField tfPattern = SwingUtil.withTitle(new JTextField("*"), "Pattern");
+	private final DefaultComboBoxModel<String> targetsModel = new DefaultComboBoxModel<>();
+	private final JComboBox<String> cbxTarget = SwingUtil.withTitle(new JComboBox<>(targetsModel), "Compare with connection");
+	private final JButton btnRefreshTargets = new JButton("Reload saved connections");
+	private final JComboBox<DigestMode> cbxDigest = SwingUtil.withTitle(new JComboBox<>(DigestMode.values()), "Value comparison");
+	private final JCheckBox cbRecheck = new JCheckBox("Re-check differences", true);
+	private final JTextField tfReportFile = SwingUtil.withTitle(new JTextField(""), "Full report file (optional)");
+	private final JButton btnChooseReportFile = new JButton("Choose report file...");
+	private final JButton btnCompare = new JButton("Compare");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+	private final JLabel lblSummary = new JLabel(" ");
+
+	private final ArrayTableModel differencesModel = new ArrayTableModel(new String[] { "Difference", "Key", "Details" },
+			new Class<?>[] { String.class, String.class, String.class });
+
+	private final Timer refreshTimer = new Timer(1000, e -> refresh());
+	private volatile KeyspaceDiff diff;
+	private volatile TaskHandle diffTask;
+
+	public KeyspaceDiffPanel(RedisConnectionManager connectionManager, String taskOwner, File appHomeFolder, String pattern) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		this.appHomeFolder = appHomeFolder;
+		tfPattern.setText(pattern);
+
+		btnStop.setEnabled(false);
+		btnRefreshTargets.addActionListener(e -> loadTargets());
+		btnChooseReportFile.addActionListener(e -> {
+			JFileChooser fileChooser = new JFileChooser();
+			if (!tfReportFile.getText().isEmpty()) {
+				fileChooser.setSelectedFile(new File(tfReportFile.getText()));
+			}
+			if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+				tfReportFile.setText(fileChooser.getSelectedFile().getAbsolutePath());
+			}
+		});
+		btnCompare.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+
+		JTable differencesTable = new JTable(differencesModel);
+		differencesTable.setAutoCreateRowSorter(true);
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 5))
+						.add(tfPattern)
+						.add(cbxTarget)
+						.add(btnRefreshTargets)
+						.add(cbxDigest)
+						.add(cbRecheck)
+						.add(tfReportFile)
+						.add(btnChooseReportFile)
+						.add(btnCompare)
+						.add(btnStop)
+						.add(new JLabel())
+						.panel(), BorderLayout.CENTER)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 1))
+						.add(lblProgress)
+						.add(lblSummary)
+						.panel(), BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(new JScrollPane(differencesTable), BorderLayout.CENTER);
+		loadTargets();
+	}
+
+	private void loadTargets() {
+		Object selected = targetsModel.getSelectedItem();
+		targetsModel.removeAllElements();
+		SavedConnections.names(appHomeFolder).forEach(targetsModel::addElement);
+		if (selected != null) {
+			targetsModel.setSelectedItem(selected);
+		}
+	}
+
+	private void start() {
+		String targetName = (String) cbxTarget.getSelectedItem();
+		if (targetName == null) {
+			lblProgress.setText("Choose a connection to compare with");
+			return;
+		}
+		String pattern = tfPattern.getText();
+		DigestMode digestMode = (DigestMode) cbxDigest.getSelectedItem();
+		boolean recheck = cbRecheck.isSelected();
+		String reportFile = tfReportFile.getText().trim();
+		diff = null;
+		differencesModel.setRows(new ArrayList<>());
+		lblSummary.setText(" ");
+		btnCompare.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		diffTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, "Compare " + pattern + " with " + targetName)
+				.owner(taskOwner)
+				.supersedes("keyspaceDiff")
+				.finalOp(() -> {
+					btnCompare.setEnabled(true);
+					btnStop.setEnabled(false);
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(() -> {
+					KeyspaceDiff currentDiff = new KeyspaceDiff(connectionManager, taskOwner, pattern,
+							SavedConnections.load(appHomeFolder, targetName), digestMode, recheck,
+							reportFile.isEmpty() ? null : new File(reportFile).toPath());
+					diff = currentDiff;
+					currentDiff.run();
+				});
+	}
+
+	public void stop() {
+		TaskHandle task = diffTask;
+		if (task != null) {
+			task.cancel();
+		}
+	}
+
+	private void refresh() {
+		KeyspaceDiff diff = this.diff;
+		if (diff == null) {
+			return;
+		}
+		ScanProgress sourceProgress = diff.getSourceProgress();
+		ScanProgress targetProgress = diff.getTargetProgress();
+		lblProgress.setText(String.format("%s. Source: %s. Target: %s. Value comparison: %s", diff.getPhase(),
+				sourceProgress != null ? sourceProgress : "not started", targetProgress != null ? targetProgress : "not started",
+				diff.getUsedDigest() != null ? diff.getUsedDigest() : "n/a"));
+		lblSummary.setText(String.format(
+				"Keys: %,d in source, %,d in target, %,d gone during scan. Matching %,d, missing in target %,d, only in target %,d, different %,d, settled on re-check %,d",
+				diff.getSourceKeys(), diff.getTargetKeys(), diff.getVanished(), diff.getMatched(),
+				diff.getDifferenceCount(DifferenceKind.MISSING), diff.getDifferenceCount(DifferenceKind.EXTRA),
+				diff.getDifferenceCount(DifferenceKind.DIFFERENT), diff.getSettled()));
+		List<KeyspaceDiff.Difference> differences = diff.getDifferences();
+		if (differences.size() != differencesModel.getRowCount()) {
+			List<Object[]> rows = new ArrayList<>(differences.size());
+			for (KeyspaceDiff.Difference difference : differences) {
+				rows.add(new Object[] { difference.getKind().toString(), difference.getKey(), difference.getDetails() });
+			}
+			differencesModel.setRows(rows);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.gui.util.TimeSeriesChart;
+import x.mvmn.redisgui.redis.LatencyProbe;
+import x.mvmn.redisgui.redis.LatencyProbe.ProbeCommand;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.LogHistogram;
+import x.mvmn.redisgui.util.TimeSeries;
+
+// Round trip times of a lightweight command sent at a fixed rate over the window's connection, as percentiles over rolling windows
+// and per-second charts. Compared with the app's own latency this tells network, TLS or server stalls apart from client-side ones.
+public class LatencyProbePanel extends JPanel {
+	private static final long serialVersionUID = -3164527040978145231L;
+
+	private static final int REFRESH_INTERVAL_MILLIS = 1000;
+	private static final int CHART_POINTS = 600;
+	private static final int[] WINDOW_SECONDS = { 10, 60, LatencyProbe.HISTORY_SECONDS };
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final JComboBox<ProbeCommand> cbxCommand = SwingUtil.withTitle(new JComboBox<>(ProbeCommand.values()), "Command");
+	private final JTextField tfKey = SwingUtil.withTitle(new JTextField("latency-probe"), "Key (for EXISTS)");
+	private final JFormattedTextField tfRate = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(10L, 1L, 1000L, false),
+			"Probes per second");
+	private final JButton btnStart = new JButton("Start");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblStatus = new JLabel(" ");
+
+	private final ArrayTableModel statsModel = new ArrayTableModel(
+			new String[] { "Window", "Probes", "Min us", "p50 us", "p99 us", "p99.9 us", "Max us", "Mean us" },
+			new Class<?>[] { String.class, Long.class, Long.class, Long.class, Long.class, Long.class, Long.class, Long.class });
+	private final TimeSeries p99PerSecond = new TimeSeries(CHART_POINTS);
+	private final TimeSeries maxPerSecond = new TimeSeries(CHART_POINTS);
+	private final List<TimeSeriesChart> charts = new ArrayList<>();
+	private final Timer refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, e -> refresh());
+	// EDT only - reused on every refresh
+	private final LogHistogram histogram = new LogHistogram();
+
+	private volatile LatencyProbe probe;
+	private volatile TaskHandle probeTask;
+	private long lastChartedSecond = -1L;
+
+	public LatencyProbePanel(RedisConnectionManager connectionManager, String taskOwner) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+
+		btnStart.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+		btnStop.setEnabled(false);
+
+		JPanel chartsPanel = new JPanel(new GridLayout(1, 2));
+		for (TimeSeriesChart chart : new TimeSeriesChart[] {
+				new TimeSeriesChart("p99 per second, us", p99PerSecond, value -> String.format("%,.0f", value)),
+				new TimeSeriesChart("Max per second, us", maxPerSecond, value -> String.format("%,.0f", value)) }) {
+			charts.add(chart);
+			chartsPanel.add(chart);
+		}
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(1, 5)).add(cbxCommand).add(tfKey).add(tfRate).add(btnStart).add(btnStop).panel(),
+						BorderLayout.CENTER)
+				.add(lblStatus, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(new JSplitPane(JSplitPane.VERTICAL_SPLIT, true, new JScrollPane(new JTable(statsModel)), chartsPanel), BorderLayout.CENTER);
+	}
+
+	// EDT only. Starts over with fresh stats and the current settings.
+	public void start() {
+		stop();
+		LatencyProbe probe = new LatencyProbe(connectionManager, (ProbeCommand) cbxCommand.getSelectedItem(), tfKey.getText());
+		this.probe = probe;
+		Object rate = tfRate.getValue();
+		long periodMicros = 1000000L / (rate != null ? (Long) rate : 10L);
+		p99PerSecond.clear();
+		maxPerSecond.clear();
+		lastChartedSecond = System.currentTimeMillis() / 1000L;
+		// Probes are asynchronous, so a stalled server doesn't hold up the scheduler thread
+		probeTask = TaskManager.getInstance()
+				.task(TaskClass.MONITORING, "Latency probe")
+				.owner(taskOwner)
+				.schedule(probe::probe, 0, periodMicros, TimeUnit.MICROSECONDS);
+		refreshTimer.start();
+		btnStart.setEnabled(false);
+		btnStop.setEnabled(true);
+		cbxCommand.setEnabled(false);
+		tfKey.setEnabled(false);
+		tfRate.setEnabled(false);
+	}
+
+	public void stop() {
+		TaskHandle task = probeTask;
+		probeTask = null;
+		if (task != null) {
+			task.cancel();
+		}
+		refreshTimer.stop();
+		btnStart.setEnabled(true);
+		btnStop.setEnabled(false);
+		cbxCommand.setEnabled(true);
+		tfKey.setEnabled(true);
+		tfRate.setEnabled(true);
+	}
+
+	private void refresh() {
+		LatencyProbe probe = this.probe;
+		if (probe == null) {
+			return;
+		}
+		List<Object[]> rows = new ArrayList<>(WINDOW_SECONDS.length + 1);
+		for (int windowSeconds : WINDOW_SECONDS) {
+			probe.copyWindow(windowSeconds, histogram);
+			rows.add(statsRow(windowSeconds < 60 ? "Last " + windowSeconds + " s" : "Last " + windowSeconds / 60 + " min", histogram));
+		}
+		probe.copySinceStart(histogram);
+		rows.add(statsRow("Since start", histogram));
+		statsModel.setRows(rows);
+
+		// One point per completed second - a second without any completed probe shows as a gap
+		long currentSecond = System.currentTimeMillis() / 1000L;
+		for (long second = Math.max(lastChartedSecond, currentSecond - LatencyProbe.HISTORY_SECONDS); second < currentSecond; second++) {
+			probe.copySecond(second, histogram);
+			boolean empty = histogram.getCount() == 0;
+			p99PerSecond.add(second * 1000L, empty ? Double.NaN : histogram.getPercentile(99.0d));
+			maxPerSecond.add(second * 1000L, empty ? Double.NaN : histogram.getMax());
+		}
+		lastChartedSecond = currentSecond;
+		for (TimeSeriesChart chart : charts) {
+			chart.repaint();
+		}
+		lblStatus.setText(String.format("%s: %,d sent, %,d failed, %,d skipped while a probe was still in flight", probe.getCommand(),
+				probe.getSent(), probe.getFailed(), probe.getSkipped()));
+	}
+
+	private static Object[] statsRow(String window, LogHistogram histogram) {
+		return new Object[] { window, histogram.getCount(), histogram.getMin(), histogram.getPercentile(50.0d),
+				histogram.getPercentile(99.0d), histogram.getPercentile(99.9d), histogram.getMax(), Math.round(histogram.getMean()) };
+	}
+}
@@ -0,0 +1,320 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import io.lettuce.core.RedisURI;
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.MonitorClient;
+import x.mvmn.redisgui.redis.MonitorRecorder;
+import x.mvmn.redisgui.redis.RedisConnector;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.ByteRingLog;
+import x.mvmn.redisgui.util.LangUtil;
+
+// Live MONITOR stream of one server. The stream is parsed on a background thread into a preallocated ring of recent commands,
+// the view only polls it once per refresh - so heap use is fixed and UI load doesn't depend on the traffic rate.
+public class MonitorPanel extends JPanel {
+	private static final long serialVersionUID = 3719406287164939815L;
+
+	private static final int LOG_CAPACITY = 20000;
+	private static final int MAX_LINE_LENGTH = 512;
+	private static final int REFRESH_INTERVAL_MILLIS = 1000;
+	private static final String[] LOG_COLUMNS = { "Time", "DB", "Client", "Command" };
+
+	private final RedisConnector connector;
+	private final String taskOwner;
+
+	private final DefaultComboBoxModel<String> nodesModel = new DefaultComboBoxModel<>();
+	private final JComboBox<String> cbxNode = SwingUtil.withTitle(new JComboBox<>(nodesModel), "Server");
+	private final JFormattedTextField tfSampleEvery = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(1L, 1L, 1000000L, false),
+			"Sample 1 in N");
+	private final JTextField tfFilter = SwingUtil.withTitle(new JTextField(""), "Filter (substring)");
+	private final JTextField tfDatabase = SwingUtil.withTitle(new JTextField(""), "Database (empty = all)");
+	private final JTextField tfDelimiter = SwingUtil.withTitle(new JTextField(":"), "Prefix delimiter");
+	private final JCheckBox cbPauseView = new JCheckBox("Pause view", false);
+	private final JButton btnStart = new JButton("Start");
+	private final JButton btnStop = new JButton("Stop");
+	private final JButton btnReset = new JButton("Reset counters");
+	private final JLabel lblStatus = new JLabel(" ");
+
+	private final LogTableModel logModel = new LogTableModel();
+	private final ArrayTableModel byCommandModel = ratesModel("Command");
+	private final ArrayTableModel byPrefixModel = ratesModel("Key prefix");
+	private final Map<String, Long> previousCommandCounts = new HashMap<>();
+	private final Map<String, Long> previousPrefixCounts = new HashMap<>();
+	private final Timer refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, e -> refresh());
+	private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+
+	private Map<String, RedisURI> nodes = new HashMap<>();
+	private volatile MonitorRecorder recorder;
+	private volatile MonitorClient client;
+	private volatile TaskHandle monitorTask;
+	private long previousRefreshNanos;
+	private long previousReceived;
+
+	public MonitorPanel(RedisConnector connector, String taskOwner) {
+		super(new BorderLayout());
+		this.connector = connector;
+		this.taskOwner = taskOwner;
+
+		btnStart.setEnabled(false);
+		btnStop.setEnabled(false);
+		btnStart.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+		btnReset.addActionListener(e -> {
+			MonitorRecorder recorder = this.recorder;
+			if (recorder != null) {
+				recorder.reset();
+				previousCommandCounts.clear();
+				previousPrefixCounts.clear();
+				refresh();
+			}
+		});
+		SwingUtil.bindNumeric(tfSampleEvery, value -> applySettings());
+		SwingUtil.bind(tfFilter, e -> applySettings());
+		SwingUtil.bind(tfDatabase, e -> applySettings());
+
+		JTable logTable = new JTable(logModel);
+		logTable.getColumnModel().getColumn(3).setPreferredWidth(600);
+		JTabbedPane rates = new JTabbedPane();
+		rates.addTab("By command", new JScrollPane(sortableTable(byCommandModel)));
+		rates.addTab("By key prefix", new JScrollPane(sortableTable(byPrefixModel)));
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 5))
+						.add(cbxNode)
+						.add(tfSampleEvery)
+						.add(tfFilter)
+						.add(tfDatabase)
+						.add(tfDelimiter)
+						.add(btnStart)
+						.add(btnStop)
+						.add(btnReset)
+						.add(cbPauseView)
+						.add(new JLabel())
+						.panel(), BorderLayout.CENTER)
+				.add(lblStatus, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(new JSplitPane(JSplitPane.VERTICAL_SPLIT, true, new JScrollPane(logTable), rates), BorderLayout.CENTER);
+
+		loadNodes();
+	}
+
+	private static ArrayTableModel ratesModel(String nameColumn) {
+		return new ArrayTableModel(new String[] { nameColumn, "Ops/sec", "Total (estimated)", "Share %" },
+				new Class<?>[] { String.class, Long.class, Long.class, Double.class });
+	}
+
+	private static JTable sortableTable(ArrayTableModel model) {
+		JTable table = new JTable(model);
+		table.setAutoCreateRowSorter(true);
+		return table;
+	}
+
+	private void loadNodes() {
+		lblStatus.setText("Resolving servers...");
+		TaskManager.getInstance().task(TaskClass.INTERACTIVE, "Resolve servers for MONITOR").owner(taskOwner).submit(() -> {
+			Map<String, RedisURI> nodes = connector.getPrimaryNodeUris();
+			SwingUtil.publish(() -> {
+				this.nodes = nodes;
+				nodesModel.removeAllElements();
+				for (String node : nodes.keySet()) {
+					nodesModel.addElement(node);
+				}
+				lblStatus.setText(nodes.size() > 1 ? "MONITOR shows one server at a time - pick one" : " ");
+				btnStart.setEnabled(monitorTask == null);
+			});
+		});
+	}
+
+	private void start() {
+		String node = (String) cbxNode.getSelectedItem();
+		RedisURI uri = node != null ? nodes.get(node) : null;
+		if (uri == null) {
+			return;
+		}
+		String delimiter = tfDelimiter.getText();
+		MonitorRecorder recorder = new MonitorRecorder(LOG_CAPACITY, MAX_LINE_LENGTH, delimiter.isEmpty() ? ':' : delimiter.charAt(0));
+		MonitorClient client;
+		try {
+			client = new MonitorClient(uri);
+		} catch (UnsupportedOperationException e) {
+			lblStatus.setText(e.getMessage());
+			return;
+		}
+		this.recorder = recorder;
+		this.client = client;
+		applySettings();
+		previousCommandCounts.clear();
+		previousPrefixCounts.clear();
+		previousReceived = 0;
+		previousRefreshNanos = System.nanoTime();
+		btnStart.setEnabled(false);
+		btnStop.setEnabled(true);
+		cbxNode.setEnabled(false);
+		tfDelimiter.setEnabled(false);
+		refreshTimer.start();
+		// A dedicated thread for as long as the stream runs - the reader blocks on the socket
+		monitorTask = TaskManager.getInstance()
+				.task(TaskClass.STREAM, "MONITOR " + node)
+				.owner(taskOwner)
+				.supersedes("monitor")
+				.finalOp(() -> {
+					monitorTask = null;
+					btnStart.setEnabled(true);
+					btnStop.setEnabled(false);
+					cbxNode.setEnabled(true);
+					tfDelimiter.setEnabled(true);
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(() -> client.run(recorder));
+	}
+
+	public void stop() {
+		MonitorClient client = this.client;
+		if (client != null) {
+			client.close();
+		}
+		TaskHandle task = monitorTask;
+		if (task != null) {
+			task.cancel();
+		}
+		refreshTimer.stop();
+	}
+
+	private void applySettings() {
+		MonitorRecorder recorder = this.recorder;
+		if (recorder != null) {
+			Object sampleEvery = tfSampleEvery.getValue();
+			recorder.setSampleEvery(sampleEvery != null ? ((Long) sampleEvery).intValue() : 1);
+			recorder.setFilter(tfFilter.getText());
+			recorder.setDatabase(LangUtil.parseInt(tfDatabase.getText().trim(), -1));
+		}
+	}
+
+	private void refresh() {
+		MonitorRecorder recorder = this.recorder;
+		if (recorder == null) {
+			return;
+		}
+		long now = System.nanoTime();
+		double seconds = Math.max(1e-3, (now - previousRefreshNanos) / 1e9);
+		previousRefreshNanos = now;
+		long received = recorder.getReceived();
+		long receivedRate = Math.round((received - previousReceived) / seconds);
+		previousReceived = received;
+		int sampleEvery = recorder.getSampleEvery();
+
+		MonitorClient client = this.client;
+		lblStatus.setText(String.format("Received %,d commands (%,d/sec), recorded %,d%s%s", received, receivedRate, recorder.getRecorded(),
+				sampleEvery > 1 ? ", sampling 1 in " + sampleEvery : "",
+				client != null && client.isTrustingAnyCertificate() ? " - server certificate not verified (peer verification is off)" : ""));
+		byCommandModel.setRows(rateRows(recorder.getCommandCounts(), previousCommandCounts, seconds, sampleEvery));
+		byPrefixModel.setRows(rateRows(recorder.getPrefixCounts(), previousPrefixCounts, seconds, sampleEvery));
+		if (!cbPauseView.isSelected()) {
+			logModel.update(recorder.getLog());
+		}
+	}
+
+	private static List<Object[]> rateRows(Map<String, Long> counts, Map<String, Long> previousCounts, double seconds, int sampleEvery) {
+		long total = 0;
+		for (Long count : counts.values()) {
+			total += count;
+		}
+		List<Object[]> result = new ArrayList<>(counts.size());
+		for (Map.Entry<String, Long> entry : counts.entrySet()) {
+			long count = entry.getValue();
+			Long previous = previousCounts.put(entry.getKey(), count);
+			long delta = count - (previous != null ? previous : 0L);
+			result.add(new Object[] { entry.getKey(), Math.round(delta * sampleEvery / seconds), count * sampleEvery,
+					total > 0 ? Math.round(count * 1000.0d / total) / 10.0d : 0.0d });
+		}
+		return result;
+	}
+
+	// Newest first. Only the row count and the ring position are captured on refresh, cells are decoded from the ring when rendered.
+	private class LogTableModel extends AbstractTableModel {
+		private static final long serialVersionUID = -1580734261497932468L;
+
+		private ByteRingLog log;
+		private long writtenAtRefresh;
+		private int rows;
+
+		void update(ByteRingLog log) {
+			this.log = log;
+			synchronized (log) {
+				writtenAtRefresh = log.getWritten();
+				rows = log.size();
+			}
+			fireTableDataChanged();
+		}
+
+		@Override
+		public int getRowCount() {
+			return rows;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return LOG_COLUMNS.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return LOG_COLUMNS[column];
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			String text;
+			synchronized (log) {
+				// Rows scrolled out of the ring since the last refresh show as empty
+				long age = log.getWritten() - writtenAtRefresh + rowIndex;
+				if (age >= log.size()) {
+					return "";
+				}
+				if (columnIndex == 0) {
+					return timeFormat.format(new Date(log.getTimestamp((int) age) / 1000L));
+				}
+				text = log.getText((int) age);
+			}
+			// Text is like: [0 127.0.0.1:60866] "set" "key" "value"
+			int space = text.indexOf(' ');
+			int bracket = text.indexOf(']');
+			switch (columnIndex) {
+				case 1:
+					return space > 0 ? text.substring(1, space) : "";
+				case 2:
+					return space > 0 && bracket > space ? text.substring(space + 1, bracket) : "";
+				default:
+					return bracket >= 0 && bracket + 2 <= text.length() ? text.substring(Math.min(bracket + 2, text.length())) : text;
+			}
+		}
+	}
+}
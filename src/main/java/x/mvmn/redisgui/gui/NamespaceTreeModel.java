@@ -0,0 +1,84 @@
+package x.mvmn.redisgui.gui;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+
+import x.mvmn.redisgui.util.KeyPrefixTrie;
+import x.mvmn.redisgui.util.KeyPrefixTrie.Node;
+
+public class NamespaceTreeModel implements TreeModel {
+
+	private final EventListenerList listeners = new EventListenerList();
+	private volatile KeyPrefixTrie trie;
+
+	public NamespaceTreeModel(KeyPrefixTrie trie) {
+		this.trie = trie;
+	}
+
+	public KeyPrefixTrie getTrie() {
+		return trie;
+	}
+
+	// EDT only
+	public void setTrie(KeyPrefixTrie trie) {
+		this.trie = trie;
+		refresh();
+	}
+
+	// EDT only. Children are only materialized by the trie when the tree asks for them, i.e. for expanded nodes.
+	public void refresh() {
+		trie.publishChanges();
+		TreeModelEvent event = new TreeModelEvent(this, new TreePath(trie.getRoot()));
+		for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+			listener.treeStructureChanged(event);
+		}
+	}
+
+	@Override
+	public Object getRoot() {
+		return trie.getRoot();
+	}
+
+	@Override
+	public Object getChild(Object parent, int index) {
+		Node[] children = trie.getChildren((Node) parent);
+		return index < children.length ? children[index] : null;
+	}
+
+	@Override
+	public int getChildCount(Object parent) {
+		return trie.getChildren((Node) parent).length;
+	}
+
+	@Override
+	public boolean isLeaf(Object node) {
+		return trie.getChildren((Node) node).length == 0;
+	}
+
+	@Override
+	public void valueForPathChanged(TreePath path, Object newValue) {}
+
+	@Override
+	public int getIndexOfChild(Object parent, Object child) {
+		Node[] children = trie.getChildren((Node) parent);
+		for (int i = 0; i < children.length; i++) {
+			if (children[i] == child) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public void addTreeModelListener(TreeModelListener listener) {
+		listeners.add(TreeModelListener.class, listener);
+	}
+
+	@Override
+	public void removeTreeModelListener(TreeModelListener listener) {
+		listeners.remove(TreeModelListener.class, listener);
+	}
+}
@@ -0,0 +1,240 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JFormattedTextField;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.JTree;
+import javax.swing.Timer;
+import javax.swing.tree.TreePath;
+
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.gui.util.DefaultWindowListener;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.model.BigKeysReport;
+import x.mvmn.redisgui.redis.RdbFileAnalyzer;
+import x.mvmn.redisgui.redis.RdbFileAnalyzer.Summary;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.KeyPrefixTrie;
+import x.mvmn.redisgui.util.LangUtil;
+
+// Key browser, namespace counts and big keys report for an RDB snapshot file instead of a live connection - no server involved
+public class RdbFileWindow {
+
+	private static final int MAX_PREFIXES = 10000;
+	private static final int NAMESPACE_MAX_DEPTH = 8;
+	private static final int NAMESPACE_MAX_CHILDREN = 5000;
+	private static final AtomicInteger WINDOW_COUNTER = new AtomicInteger();
+
+	private final String taskOwner = "RDB file " + WINDOW_COUNTER.incrementAndGet();
+	private final JFrame window = new JFrame("RDB file");
+
+	private final JTextField tfFile = SwingUtil.withTitle(new JTextField(), "RDB file");
+	private final JButton btnChooseFile = new JButton("Choose file...");
+	private final JTextField tfPattern = SwingUtil.withTitle(new JTextField("*"), "Pattern");
+	private final JTextField tfDelimiter = SwingUtil.withTitle(new JTextField(":"), "Namespace/prefix delimiter");
+	private final JFormattedTextField tfPrefixDepth = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(1L, 1L, 32L, false),
+			"Prefix depth");
+	private final JFormattedTextField tfTopN = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(100L, 1L, 100000L, false),
+			"Top keys per type");
+	private final JFormattedTextField tfMaxListedKeys = SwingUtil
+			.withTitle(SwingUtil.numericOnlyTextField(1000000L, 0L, (long) Integer.MAX_VALUE, false), "Max keys listed");
+	private final JButton btnAnalyze = new JButton("Analyze");
+	private final JButton btnStop = new JButton("Stop");
+	private final JLabel lblProgress = new JLabel(" ");
+
+	private RdbKeyTableModel keyTableModel = new RdbKeyTableModel(0);
+	private final JTable keysTable = new JTable(keyTableModel);
+	private final NamespaceTreeModel namespaceTreeModel = new NamespaceTreeModel(
+			new KeyPrefixTrie(":", NAMESPACE_MAX_DEPTH, NAMESPACE_MAX_CHILDREN));
+	private final JTree namespaceTree = new JTree(namespaceTreeModel);
+	private final BigKeysReportTables reportTables = new BigKeysReportTables("size in RDB");
+	private final ArrayTableModel byEncodingModel = new ArrayTableModel(
+			new String[] { "Type/encoding", "Keys", "Expiring keys", "Total size in RDB (bytes)", "Max size in RDB (bytes)" },
+			new Class<?>[] { String.class, Long.class, Long.class, Long.class, Long.class });
+	private final ArrayTableModel byDatabaseModel = new ArrayTableModel(
+			new String[] { "Database", "Keys", "Expiring keys", "Total size in RDB (bytes)", "Max size in RDB (bytes)" },
+			new Class<?>[] { Integer.class, Long.class, Long.class, Long.class, Long.class });
+
+	private final Timer refreshTimer = new Timer(1000, e -> refresh());
+	private volatile RdbFileAnalyzer analyzer;
+	private volatile TaskHandle analysisTask;
+	private long startNanos;
+	private long elapsedNanos;
+
+	public RdbFileWindow(File file) {
+		if (file != null) {
+			tfFile.setText(file.getAbsolutePath());
+			window.setTitle("RDB file " + file.getName());
+		}
+
+		btnStop.setEnabled(false);
+		btnChooseFile.addActionListener(e -> {
+			JFileChooser fileChooser = new JFileChooser();
+			if (!tfFile.getText().isEmpty()) {
+				fileChooser.setSelectedFile(new File(tfFile.getText()));
+			}
+			if (fileChooser.showOpenDialog(window) == JFileChooser.APPROVE_OPTION) {
+				tfFile.setText(fileChooser.getSelectedFile().getAbsolutePath());
+			}
+		});
+		btnAnalyze.addActionListener(e -> start());
+		btnStop.addActionListener(e -> {
+			TaskHandle task = analysisTask;
+			if (task != null) {
+				task.cancel();
+			}
+		});
+
+		JTabbedPane tabs = new JTabbedPane();
+		tabs.addTab("Keys", new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, true, new JScrollPane(keysTable), new JScrollPane(namespaceTree)));
+		reportTables.addTabs(tabs);
+		tabs.addTab("By encoding", new JScrollPane(BigKeysReportTables.sortableTable(byEncodingModel)));
+		tabs.addTab("By database", new JScrollPane(BigKeysReportTables.sortableTable(byDatabaseModel)));
+
+		window.getContentPane().setLayout(new BorderLayout());
+		window.getContentPane()
+				.add(SwingUtil.panel(BorderLayout::new)
+						.add(SwingUtil.panel(v -> new GridLayout(2, 5))
+								.add(tfFile)
+								.add(btnChooseFile)
+								.add(tfPattern)
+								.add(tfDelimiter)
+								.add(tfPrefixDepth)
+								.add(tfTopN)
+								.add(tfMaxListedKeys)
+								.add(new JLabel())
+								.add(btnAnalyze)
+								.add(btnStop)
+								.panel(), BorderLayout.CENTER)
+						.add(lblProgress, BorderLayout.SOUTH)
+						.panel(), BorderLayout.NORTH);
+		window.getContentPane().add(tabs, BorderLayout.CENTER);
+
+		SwingUtil.prefSizeRatioOfScreenSize(window, 0.6f);
+		window.pack();
+		SwingUtil.moveToScreenCenter(window);
+		window.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		window.addWindowListener(new DefaultWindowListener() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				refreshTimer.stop();
+				TaskManager.getInstance().cancelAll(taskOwner);
+			}
+		});
+	}
+
+	public void show() {
+		window.setVisible(true);
+	}
+
+	private void start() {
+		String path = tfFile.getText().trim();
+		File file = new File(path);
+		if (path.isEmpty() || !file.isFile()) {
+			lblProgress.setText("Choose an RDB file to analyze");
+			return;
+		}
+		window.setTitle("RDB file " + file.getName());
+		String delimiter = tfDelimiter.getText().isEmpty() ? ":" : tfDelimiter.getText();
+		BigKeysReport report = new BigKeysReport(((Long) tfTopN.getValue()).intValue(), delimiter,
+				((Long) tfPrefixDepth.getValue()).intValue(), MAX_PREFIXES);
+		// A model per run - the previous run may still be adding to the old one until its task notices the cancellation
+		RdbKeyTableModel currentKeyTableModel = new RdbKeyTableModel(((Long) tfMaxListedKeys.getValue()).intValue());
+		keyTableModel = currentKeyTableModel;
+		keysTable.setModel(currentKeyTableModel);
+		KeyPrefixTrie namespaces = new KeyPrefixTrie(delimiter, NAMESPACE_MAX_DEPTH, NAMESPACE_MAX_CHILDREN);
+		namespaceTreeModel.setTrie(namespaces);
+		RdbFileAnalyzer currentAnalyzer = new RdbFileAnalyzer(file.toPath(), tfPattern.getText(), report, namespaces,
+				currentKeyTableModel::add);
+		analyzer = currentAnalyzer;
+		startNanos = System.nanoTime();
+		btnAnalyze.setEnabled(false);
+		btnStop.setEnabled(true);
+		refreshTimer.start();
+		analysisTask = TaskManager.getInstance()
+				.task(TaskClass.BULK, "RDB file analysis " + file.getName())
+				.owner(taskOwner)
+				.supersedes("rdbAnalysis")
+				.finalOp(() -> {
+					elapsedNanos = System.nanoTime() - startNanos;
+					btnAnalyze.setEnabled(true);
+					btnStop.setEnabled(false);
+					refreshTimer.stop();
+					refresh();
+				})
+				.submit(currentAnalyzer::run);
+	}
+
+	private void refresh() {
+		RdbFileAnalyzer analyzer = this.analyzer;
+		if (analyzer == null) {
+			return;
+		}
+		long elapsed = btnStop.isEnabled() ? System.nanoTime() - startNanos : elapsedNanos;
+		long size = analyzer.getFileSize();
+		Map<String, String> aux = analyzer.getAuxFields();
+		keyTableModel.publish();
+		long dropped = keyTableModel.getDroppedKeys();
+		lblProgress.setText((analyzer.getVersion() > 0 ? "RDB version " + analyzer.getVersion()
+				+ (aux.containsKey("redis-ver") ? " (Redis " + aux.get("redis-ver") + ")" : "") + ", " : "")
+				+ String.format("parsed %s of %s (%d%%) in %,d s, %,d keys, %,d matching, %,d listed",
+						LangUtil.formatBytes(analyzer.getPosition()), LangUtil.formatBytes(size),
+						size > 0 ? analyzer.getPosition() * 100L / size : 0L, TimeUnit.NANOSECONDS.toSeconds(elapsed),
+						analyzer.getScannedKeys(), analyzer.getMatchedKeys(), (long) keyTableModel.getRowCount())
+				+ (dropped > 0 ? String.format(" (%,d more not listed - raise the limit to see them)", dropped) : "")
+				+ (btnStop.isEnabled() || analysisTask == null || !analysisTask.isCancelled() ? "" : " (stopped)"));
+
+		refreshNamespaceTree();
+		reportTables.refresh(analyzer.getReport());
+
+		List<Object[]> byEncoding = new ArrayList<>();
+		for (Map.Entry<String, Summary> entry : analyzer.getByEncoding().entrySet()) {
+			byEncoding.add(row(entry.getKey(), entry.getValue()));
+		}
+		byEncodingModel.setRows(byEncoding);
+
+		List<Object[]> byDatabase = new ArrayList<>();
+		for (Map.Entry<Integer, Summary> entry : analyzer.getByDatabase().entrySet()) {
+			byDatabase.add(row(entry.getKey(), entry.getValue()));
+		}
+		byDatabaseModel.setRows(byDatabase);
+	}
+
+	private static Object[] row(Object name, Summary summary) {
+		return new Object[] { name, summary.getKeys(), summary.getExpiringKeys(), summary.getRdbBytes(), summary.getMaxRdbBytes() };
+	}
+
+	private void refreshNamespaceTree() {
+		TreePath rootPath = new TreePath(namespaceTreeModel.getRoot());
+		Enumeration<TreePath> expandedPaths = namespaceTree.getExpandedDescendants(rootPath);
+		TreePath selectedPath = namespaceTree.getSelectionPath();
+		namespaceTreeModel.refresh();
+		namespaceTree.expandPath(rootPath);
+		while (expandedPaths != null && expandedPaths.hasMoreElements()) {
+			namespaceTree.expandPath(expandedPaths.nextElement());
+		}
+		if (selectedPath != null) {
+			namespaceTree.setSelectionPath(selectedPath);
+		}
+	}
+}
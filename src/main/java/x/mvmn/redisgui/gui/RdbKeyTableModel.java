@@ -0,0 +1,156 @@
+package x.mvmn.redisgui.gui;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.redis.RdbFileParser.Entry;
+import x.mvmn.redisgui.util.CompactStringStore;
+import x.mvmn.redisgui.util.LangUtil;
+
+// Keys of an RDB file with what the file tells about them, kept in primitive arrays and a CompactStringStore - about 40 bytes per key
+// plus the key name. Keys are added from the parsing thread and shown on publish(), beyond maxKeys they're only counted.
+public class RdbKeyTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 4217409312478612105L;
+
+	private static final String[] COLUMNS = { "Key", "DB", "Type", "Encoding", "Length", "Size in RDB", "Expires" };
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final RedisKeyType[] TYPES = RedisKeyType.values();
+
+	private final int maxKeys;
+	private final CompactStringStore keys = new CompactStringStore();
+	private final List<String> encodings = new ArrayList<>();
+	private int[] databases = new int[INITIAL_CAPACITY];
+	private byte[] types = new byte[INITIAL_CAPACITY];
+	private byte[] encodingIndexes = new byte[INITIAL_CAPACITY];
+	private long[] lengths = new long[INITIAL_CAPACITY];
+	private long[] rdbBytes = new long[INITIAL_CAPACITY];
+	private long[] expireAtMillis = new long[INITIAL_CAPACITY];
+	private long droppedKeys;
+	private int publishedRows;
+	private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+	public RdbKeyTableModel(int maxKeys) {
+		this.maxKeys = maxKeys;
+	}
+
+	// Any thread
+	public synchronized void add(Entry entry) {
+		int index = keys.size();
+		if (index >= maxKeys) {
+			droppedKeys++;
+			return;
+		}
+		if (index == databases.length) {
+			int capacity = (int) Math.min((long) maxKeys, index * 2L);
+			databases = Arrays.copyOf(databases, capacity);
+			types = Arrays.copyOf(types, capacity);
+			encodingIndexes = Arrays.copyOf(encodingIndexes, capacity);
+			lengths = Arrays.copyOf(lengths, capacity);
+			rdbBytes = Arrays.copyOf(rdbBytes, capacity);
+			expireAtMillis = Arrays.copyOf(expireAtMillis, capacity);
+		}
+		keys.add(entry.getKey());
+		databases[index] = entry.getDatabase();
+		types[index] = (byte) entry.getType().ordinal();
+		encodingIndexes[index] = (byte) encodingIndex(entry.getEncoding());
+		lengths[index] = entry.getLength();
+		rdbBytes[index] = entry.getRdbBytes();
+		expireAtMillis[index] = entry.getExpireAtMillis();
+	}
+
+	// There are only a handful of encodings, except for module types - past 255 of them the rest share the last slot
+	private int encodingIndex(String encoding) {
+		int index = encodings.indexOf(encoding);
+		if (index < 0) {
+			if (encodings.size() < 255) {
+				encodings.add(encoding);
+				return encodings.size() - 1;
+			}
+			if (encodings.size() == 255) {
+				encodings.add("(other)");
+			}
+			return 255;
+		}
+		return index;
+	}
+
+	// Keys not listed because of the limit
+	public synchronized long getDroppedKeys() {
+		return droppedKeys;
+	}
+
+	// EDT only - shows the keys added since the last call
+	public void publish() {
+		int size;
+		synchronized (this) {
+			size = keys.size();
+		}
+		if (size > publishedRows) {
+			int start = publishedRows;
+			publishedRows = size;
+			fireTableRowsInserted(start, size - 1);
+		}
+	}
+
+	// EDT only
+	public void clear() {
+		synchronized (this) {
+			keys.clear();
+			encodings.clear();
+			databases = new int[INITIAL_CAPACITY];
+			types = new byte[INITIAL_CAPACITY];
+			encodingIndexes = new byte[INITIAL_CAPACITY];
+			lengths = new long[INITIAL_CAPACITY];
+			rdbBytes = new long[INITIAL_CAPACITY];
+			expireAtMillis = new long[INITIAL_CAPACITY];
+			droppedKeys = 0;
+		}
+		publishedRows = 0;
+		fireTableDataChanged();
+	}
+
+	public synchronized String getKey(int row) {
+		return keys.get(row);
+	}
+
+	@Override
+	public int getRowCount() {
+		return publishedRows;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMNS.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return COLUMNS[column];
+	}
+
+	@Override
+	public synchronized Object getValueAt(int rowIndex, int columnIndex) {
+		switch (columnIndex) {
+			case 0:
+				return keys.get(rowIndex);
+			case 1:
+				return databases[rowIndex];
+			case 2:
+				return TYPES[types[rowIndex]].name().toLowerCase();
+			case 3:
+				return encodings.get(encodingIndexes[rowIndex] & 0xFF);
+			case 4:
+				return lengths[rowIndex] >= 0 ? lengths[rowIndex] : "n/a";
+			case 5:
+				return LangUtil.formatBytes(rdbBytes[rowIndex]);
+			default:
+				return expireAtMillis[rowIndex] >= 0 ? dateFormat.format(new Date(expireAtMillis[rowIndex])) : "";
+		}
+	}
+}
@@ -1,55 +1,150 @@
 package x.mvmn.redisgui.gui;
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Container;
 import java.awt.GridLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.BorderFactory;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JFrame;
-import javax.swing.JList;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
-import javax.swing.JTextArea;
+import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.JTree;
 import javax.swing.SwingUtilities;
+import javax.swing.tree.TreePath;
 
 import io.lettuce.core.KeyScanCursor;
-import io.lettuce.core.RedisClient;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.gui.util.CoalescingUpdater;
 import x.mvmn.redisgui.gui.util.DefaultWindowListener;
 import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.gui.viewer.ValueViewers;
+import x.mvmn.redisgui.model.KeyMetadata;
 import x.mvmn.redisgui.model.RedisConfigModel;
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.redis.BigKeysAnalyzer;
+import x.mvmn.redisgui.redis.BulkDeleter;
+import x.mvmn.redisgui.redis.KeyEventSubscriber;
+import x.mvmn.redisgui.redis.KeyMetadataCache;
+import x.mvmn.redisgui.redis.KeyMetadataFetcher;
+import x.mvmn.redisgui.redis.ParallelKeyScanner;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.RedisConnector;
+import x.mvmn.redisgui.redis.ScanGovernor;
+import x.mvmn.redisgui.redis.ScanProgress;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.task.TaskManager.TaskBuilder;
+import x.mvmn.redisgui.util.CompactStringSet;
+import x.mvmn.redisgui.util.GlobPattern;
+import x.mvmn.redisgui.util.KeyPrefixTrie;
+import x.mvmn.redisgui.util.KeyPrefixTrie.Node;
 
 public class RedisClientGui {
 
-	private final RedisClient redisClient;
-	private final DefaultListModel<String> keysList = new DefaultListModel<>();
-	private final AtomicReference<String> currentKeyScanCursor = new AtomicReference<>();
+	private static final int NAMESPACE_MAX_DEPTH = 8;
+	private static final int NAMESPACE_MAX_CHILDREN = 5000;
+	private static final int METADATA_CACHE_SIZE = 20000;
+	private static final long METADATA_EXPIRY_MILLIS = 15000L;
+	private static final long LIVE_KEYS_DRIFT_CHECK_SECONDS = 10L;
+	private static final String CHECKPOINTS_FOLDER = "checkpoints";
+
+	private final RedisConnector redisConnector;
+	private final RedisConnectionManager connectionManager;
+	private final String connectionName;
+	private final String taskOwner;
+	private final File appHomeFolder;
+	private final TaskListPanel taskListPanel;
+	private final KeyListModel keysList = new KeyListModel();
+	private final KeyMetadataCache keyMetadataCache = new KeyMetadataCache(METADATA_CACHE_SIZE, METADATA_EXPIRY_MILLIS);
+	private final KeyTableModel keysTableModel = new KeyTableModel(keysList, keyMetadataCache);
+	private final JTable keysTable = new JTable(keysTableModel);
+	private final CoalescingUpdater keyMetadataUpdater = new CoalescingUpdater(200, this::fetchVisibleKeysMetadata);
+	private final AtomicReference<ScanCursor> currentKeyScanCursor = new AtomicReference<>();
+	// MATCH pattern of the listing the cursor belongs to - next page continues with it whatever the pattern field says now
+	private volatile String currentKeyScanPattern;
+	private final AtomicReference<ScanProgress> currentScanProgress = new AtomicReference<>();
+	private final CoalescingUpdater scanProgressUpdater = new CoalescingUpdater(250, this::updateScanProgress);
+	private volatile TaskHandle keyListingTask;
+	private volatile ParallelKeyScanner keyScanner;
+	// Live key list: one full scan, then kept up to date by keyspace notifications - all three are replaced together on the EDT
+	private volatile KeyEventSubscriber keyEventSubscriber;
+	private volatile GlobPattern liveKeysPattern;
+	private volatile TaskHandle liveKeysDriftCheckTask;
+	private volatile boolean liveKeysScanInProgress;
+	private int liveKeysDriftCount;
+	private final NamespaceTreeModel namespaceTreeModel = new NamespaceTreeModel(
+			new KeyPrefixTrie(":", NAMESPACE_MAX_DEPTH, NAMESPACE_MAX_CHILDREN));
+	private final JTree namespaceTree = new JTree(namespaceTreeModel);
+	private final CoalescingUpdater namespaceTreeUpdater = new CoalescingUpdater(500, this::refreshNamespaceTree);
+	// Keys counted in the namespace tree while the key list isn't filled, which otherwise drops the keys SCAN returned more than once
+	private final CompactStringSet namespaceOnlyKeys = new CompactStringSet();
+	private final JTextField tfNamespaceDelimiter = SwingUtil.withTitle(new JTextField(":"), "Namespace delimiter");
+	private final JCheckBox cbFillKeyList = new JCheckBox("Fill key list", true);
+	private final JCheckBox cbBinaryValues = new JCheckBox("Show string values as binary (hex)", false);
+	private final JCheckBox cbLiveKeys = new JCheckBox("Live (keyspace notifications)", false);
+	private final JLabel lblLiveKeys = new JLabel("Live: off");
 	private final JPanel contentSection;
 	private final JCheckBox cbPaginate;
 	private final JButton btnListKeys;
 	private final JButton btnKeysNextPage;
+	private final JButton btnScanAll = new JButton("Scan all");
+	private final JButton btnStopScan = new JButton("Stop");
+	private final JLabel lblScanProgress = new JLabel(" ");
 	private final JButton btnPut;
 	private final JTextField tfKeyCount = new JTextField("n/a");
 	private final JButton btnGetKeyCount = new JButton("Get");
-	private final JButton btnGetServerInfo = new JButton("Get server info");
+	private final JButton btnGetServerInfo = new JButton("Server dashboard");
+	private final JButton btnBigKeys = new JButton("Big keys analysis");
+	private final JButton btnMonitor = new JButton("Monitor commands");
+	private final JButton btnSlowlog = new JButton("Slow log");
+	private final JButton btnLatencyProbe = new JButton("Latency probe");
+	private final JButton btnBulkDelete = new JButton("Delete matching keys");
+	private final JButton btnExport = new JButton("Export keys");
+	private final JButton btnImport = new JButton("Import keys");
+	private final JButton btnCopyKeys = new JButton("Copy keys to...");
+	private final JButton btnDiff = new JButton("Compare keys with...");
+	private BigKeysReportPanel bigKeysReportPanel;
+	private MonitorPanel monitorPanel;
+	private SlowlogPanel slowlogPanel;
+	private LatencyProbePanel latencyProbePanel;
+	private BulkDeletePanel bulkDeletePanel;
+	private ExportPanel exportPanel;
+	private ImportPanel importPanel;
+	private CopyKeysPanel copyKeysPanel;
+	private KeyspaceDiffPanel keyspaceDiffPanel;
+	private InfoDashboardPanel infoDashboardPanel;
 
 	public RedisClientGui(String connectionName, RedisConfigModel config, File appHomeFolder) {
-		this.redisClient = RedisClient.create(config.getClientResources(), config.toRedisUri());
+		this.redisConnector = RedisConnector.create(config);
+		this.appHomeFolder = appHomeFolder;
+		this.connectionName = connectionName;
+		this.taskOwner = connectionName + "@" + Integer.toHexString(System.identityHashCode(this));
+		this.connectionManager = new RedisConnectionManager(taskOwner, redisConnector, config.getBulkConnectionsPoolSize());
+		this.connectionManager.getScanGovernor().configure(config.getScanTargetMillis(), config.getMaxServerOpsPerSec());
+		this.taskListPanel = new TaskListPanel(taskOwner);
 
 		btnKeysNextPage = new JButton("Next page");
 		btnKeysNextPage.setEnabled(false);
@@ -63,6 +158,10 @@ public class RedisClientGui {
 		contentPane.setLayout(new BorderLayout());
 		JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT);
 		contentPane.add(splitPane, BorderLayout.CENTER);
+		contentPane.add(SwingUtil.panel(BorderLayout::new)
+				.add(taskListPanel, BorderLayout.CENTER)
+				.add(new ConnectionStatusLabel(connectionManager), BorderLayout.SOUTH)
+				.panel(), BorderLayout.SOUTH);
 
 		splitPane.add(navPanel());
 		contentSection = new JPanel(new BorderLayout());
@@ -76,8 +175,48 @@ public class RedisClientGui {
 			@Override
 			public void windowClosing(WindowEvent e) {
 				try {
-					redisClient.shutdown();
-					redisClient.getResources().shutdown();
+					taskListPanel.stop();
+					stopLiveKeys();
+					scanProgressUpdater.stop();
+					namespaceTreeUpdater.stop();
+					keyMetadataUpdater.stop();
+					if (bigKeysReportPanel != null) {
+						bigKeysReportPanel.stop();
+					}
+					if (monitorPanel != null) {
+						monitorPanel.stop();
+					}
+					if (infoDashboardPanel != null) {
+						infoDashboardPanel.stop();
+					}
+					if (slowlogPanel != null) {
+						slowlogPanel.stop();
+					}
+					if (latencyProbePanel != null) {
+						latencyProbePanel.stop();
+					}
+					if (bulkDeletePanel != null) {
+						bulkDeletePanel.stop();
+					}
+					if (exportPanel != null) {
+						exportPanel.stop();
+					}
+					if (importPanel != null) {
+						importPanel.stop();
+					}
+					if (copyKeysPanel != null) {
+						copyKeysPanel.stop();
+					}
+					if (keyspaceDiffPanel != null) {
+						keyspaceDiffPanel.stop();
+					}
+					keysList.dispose();
+					synchronized (namespaceOnlyKeys) {
+						namespaceOnlyKeys.clear();
+					}
+					TaskManager.getInstance().cancelAll(taskOwner);
+					connectionManager.close();
+					redisConnector.shutdown();
 				} catch (Exception ex) {
 					ex.printStackTrace();
 					SwingUtil.showError("Error shutting down Redis client", ex);
@@ -89,30 +228,28 @@ public class RedisClientGui {
 		SwingUtilities.invokeLater(() -> showServerInfo());
 	}
 
+	// Checkpoints of long jobs are kept per saved connection, so they can be resumed after an app restart
+	private Path checkpointFile(String jobName) {
+		return new File(new File(appHomeFolder, CHECKPOINTS_FOLDER), connectionName + "-" + jobName + ".checkpoint").toPath();
+	}
+
 	private JPanel navPanel() {
-		JList<String> jlKeysList = new JList<>(keysList);
-		jlKeysList.addMouseListener(new MouseAdapter() {
+		keysTable.setFillsViewportHeight(true);
+		keysTable.getColumnModel().getColumn(0).setPreferredWidth(300);
+		keysTable.addMouseListener(new MouseAdapter() {
 			@Override
 			public void mouseClicked(MouseEvent e) {
 				if (e.getClickCount() >= 2) {
-					int selectedKey = jlKeysList.getSelectedIndex();
-					if (selectedKey >= 0 && selectedKey < keysList.size()) {
-						String key = keysList.get(selectedKey);
-						SwingUtil.performSafely(() -> {
-							try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
-								RedisCommands<String, String> syncConn = connection.sync();
-								String keyTypeStr = syncConn.type(key);
-								Long ttl = syncConn.ttl(key);
-								SwingUtilities.invokeLater(() -> {
-									contentSection.removeAll();
-									contentSection.add(
-											new JScrollPane(new JTextArea("Key [" + key + "] type " + keyTypeStr + ". TTL: " + ttl)),
-											BorderLayout.CENTER);
-									contentSection.invalidate();
-									contentSection.revalidate();
-									contentSection.repaint();
-								});
-							}
+					int selectedKey = keysTable.getSelectedRow();
+					if (selectedKey >= 0 && selectedKey < keysTableModel.getRowCount()) {
+						String key = keysTableModel.getKey(selectedKey);
+						boolean binary = cbBinaryValues.isSelected();
+						task(TaskClass.INTERACTIVE, "Get key details " + key).supersedes("content").submit(() -> {
+							RedisClusterCommands<String, String> syncConn = connectionManager.sync();
+							RedisKeyType keyType = RedisKeyType.of(syncConn.type(key));
+							Long ttl = syncConn.ttl(key);
+							String header = "Key [" + key + "] type " + (keyType != null ? keyType.name().toLowerCase() : "none") + ". TTL: " + ttl;
+							SwingUtil.publish(() -> showContent(ValueViewers.create(keyType, binary, connectionManager, taskOwner, key, header)));
 						});
 					}
 				}
@@ -123,111 +260,474 @@ public class RedisClientGui {
 				.addDocumentListener(SwingUtil.onChange(e -> btnListKeys.setEnabled(!tfListKeysPattern.getText().isEmpty())));
 		tfListKeysPattern.setBorder(BorderFactory.createTitledBorder("Pattern"));
 		btnListKeys.addActionListener(e -> {
-			btnListKeys.setEnabled(false);
-			btnKeysNextPage.setEnabled(false);
+			setKeyListingButtonsEnabled(false);
+			stopLiveKeys();
 			String pattern = tfListKeysPattern.getText();
 			boolean scan = cbPaginate.isSelected();
-			SwingUtil.performSafely(() -> {
+			int generation = resetKeyListing();
+			keyListingTask = task(TaskClass.INTERACTIVE, "List keys " + pattern).supersedes("keys").finalOp(() -> {
+				setKeyListingButtonsEnabled(true);
+			}).submit(() -> {
 				List<String> redisKeys;
-				try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
-					String newCursor = null;
-					if (scan) {
-						KeyScanCursor<String> result = connection.sync().scan(ScanArgs.Builder.matches(pattern));
-						redisKeys = result.getKeys();
-						newCursor = result.getCursor();
-					} else {
-						redisKeys = connection.sync().keys(pattern);
-					}
-					currentKeyScanCursor.set(newCursor);
+				ScanCursor newCursor = null;
+				if (scan) {
+					// In cluster mode this cursor carries the state of a node-by-node scan across all primaries
+					KeyScanCursor<String> result = scanPage(ScanCursor.INITIAL, pattern);
+					redisKeys = result.getKeys();
+					newCursor = result;
+				} else {
+					redisKeys = connectionManager.sync().keys(pattern);
 				}
-				setKeyList(redisKeys);
-
-			}, () -> {
-				btnListKeys.setEnabled(true);
-				updateNextPageBtn();
-			}, true);
+				currentKeyScanPattern = pattern;
+				currentKeyScanCursor.set(newCursor);
+				onKeysListed(generation, redisKeys, true);
+			});
 		});
 		btnKeysNextPage.addActionListener(e -> {
-			btnListKeys.setEnabled(false);
-			btnKeysNextPage.setEnabled(false);
-			String cursor = currentKeyScanCursor.get();
-			SwingUtil.performSafely(() -> {
-				List<String> redisKeys;
-				try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
-					KeyScanCursor<String> result = connection.sync().scan(ScanCursor.of(cursor));
-					redisKeys = result.getKeys();
-					currentKeyScanCursor.set(result.getCursor());
+			setKeyListingButtonsEnabled(false);
+			ScanCursor cursor = currentKeyScanCursor.get();
+			String pattern = currentKeyScanPattern;
+			int generation = keysList.getGeneration();
+			keyListingTask = task(TaskClass.INTERACTIVE, "List keys - next page").supersedes("keys").finalOp(() -> {
+				setKeyListingButtonsEnabled(true);
+			}).submit(() -> {
+				KeyScanCursor<String> result = scanPage(cursor, pattern);
+				currentKeyScanCursor.set(result);
+				onKeysListed(generation, result.getKeys(), true);
+			});
+		});
+		btnScanAll.addActionListener(e -> {
+			stopLiveKeys();
+			if (cbLiveKeys.isSelected()) {
+				startLiveKeys(tfListKeysPattern.getText());
+			} else {
+				scanAll(tfListKeysPattern.getText());
+			}
+		});
+		namespaceTree.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				TreePath path = namespaceTree.getSelectionPath();
+				if (e.getClickCount() >= 2 && path != null) {
+					Node node = (Node) path.getLastPathComponent();
+					tfListKeysPattern.setText((node.isOther() ? node.getParent().getPrefix() : node.getPrefix()) + "*");
 				}
-				setKeyList(redisKeys);
-			}, () -> {
-				btnListKeys.setEnabled(true);
-				updateNextPageBtn();
-			}, true);
+			}
 		});
+		btnStopScan.setEnabled(false);
+		btnStopScan.addActionListener(e -> {
+			TaskHandle task = keyListingTask;
+			if (task != null) {
+				task.cancel();
+			}
+			stopLiveKeys();
+		});
+
+		JScrollPane keysTableScrollPane = new JScrollPane(keysTable);
+		keysTableScrollPane.getViewport().addChangeListener(e -> keyMetadataUpdater.requestUpdate());
+		keysTableModel.addTableModelListener(e -> keyMetadataUpdater.requestUpdate());
 
 		tfKeyCount.setEditable(false);
 		tfKeyCount.setBorder(BorderFactory.createTitledBorder("Key count"));
 		btnGetKeyCount.addActionListener(e -> refreshKeyCount());
 
 		btnGetServerInfo.addActionListener(e -> showServerInfo());
+		btnBigKeys.addActionListener(e -> {
+			if (bigKeysReportPanel == null) {
+				bigKeysReportPanel = new BigKeysReportPanel(connectionManager, taskOwner, tfListKeysPattern.getText(),
+						checkpointFile(BigKeysAnalyzer.JOB_NAME));
+			}
+			showContent(bigKeysReportPanel);
+		});
+		btnMonitor.addActionListener(e -> {
+			if (monitorPanel == null) {
+				monitorPanel = new MonitorPanel(redisConnector, taskOwner);
+			}
+			showContent(monitorPanel);
+		});
+		btnSlowlog.addActionListener(e -> {
+			if (slowlogPanel == null) {
+				slowlogPanel = new SlowlogPanel(connectionManager, taskOwner);
+				slowlogPanel.start();
+			}
+			showContent(slowlogPanel);
+		});
+		btnLatencyProbe.addActionListener(e -> {
+			if (latencyProbePanel == null) {
+				latencyProbePanel = new LatencyProbePanel(connectionManager, taskOwner);
+			}
+			showContent(latencyProbePanel);
+		});
+		btnBulkDelete.addActionListener(e -> {
+			if (bulkDeletePanel == null) {
+				bulkDeletePanel = new BulkDeletePanel(connectionManager, taskOwner, tfListKeysPattern.getText(),
+						checkpointFile(BulkDeleter.JOB_NAME));
+			}
+			showContent(bulkDeletePanel);
+		});
+		btnExport.addActionListener(e -> {
+			if (exportPanel == null) {
+				exportPanel = new ExportPanel(connectionManager, taskOwner, tfListKeysPattern.getText());
+			}
+			showContent(exportPanel);
+		});
+		btnImport.addActionListener(e -> {
+			if (importPanel == null) {
+				importPanel = new ImportPanel(connectionManager, taskOwner);
+			}
+			showContent(importPanel);
+		});
+		btnCopyKeys.addActionListener(e -> {
+			if (copyKeysPanel == null) {
+				copyKeysPanel = new CopyKeysPanel(connectionManager, taskOwner, appHomeFolder, tfListKeysPattern.getText());
+			}
+			showContent(copyKeysPanel);
+		});
+		btnDiff.addActionListener(e -> {
+			if (keyspaceDiffPanel == null) {
+				keyspaceDiffPanel = new KeyspaceDiffPanel(connectionManager, taskOwner, appHomeFolder, tfListKeysPattern.getText());
+			}
+			showContent(keyspaceDiffPanel);
+		});
 
 		return SwingUtil.panel(BorderLayout::new)
-				.add(SwingUtil.panel(v -> new GridLayout(3, 2))
-						.add(tfKeyCount)
-						.add(btnGetKeyCount)
-						.add(tfListKeysPattern)
-						.add(btnListKeys)
-						.add(cbPaginate, BorderLayout.CENTER)
-						.add(btnKeysNextPage, BorderLayout.SOUTH)
+				.add(SwingUtil.panel(BorderLayout::new)
+						.add(SwingUtil.panel(v -> new GridLayout(6, 2))
+								.add(tfKeyCount)
+								.add(btnGetKeyCount)
+								.add(tfListKeysPattern)
+								.add(btnListKeys)
+								.add(cbPaginate)
+								.add(btnKeysNextPage)
+								.add(btnScanAll)
+								.add(btnStopScan)
+								.add(cbFillKeyList)
+								.add(tfNamespaceDelimiter)
+								.add(cbLiveKeys)
+								.add(lblLiveKeys)
+								.panel(), BorderLayout.CENTER)
+						.add(lblScanProgress, BorderLayout.SOUTH)
 						.panel(), BorderLayout.NORTH)
-				.add(new JScrollPane(jlKeysList), BorderLayout.CENTER)
-				.add(SwingUtil.panel(v -> new GridLayout(2, 1)).add(btnPut).add(btnGetServerInfo).panel(), BorderLayout.SOUTH)
+				.add(new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, true, keysTableScrollPane, new JScrollPane(namespaceTree)),
+						BorderLayout.CENTER)
+				.add(SwingUtil.panel(v -> new GridLayout(12, 1))
+						.add(cbBinaryValues)
+						.add(btnPut)
+						.add(btnGetServerInfo)
+						.add(btnBigKeys)
+						.add(btnMonitor)
+						.add(btnSlowlog)
+						.add(btnLatencyProbe)
+						.add(btnBulkDelete)
+						.add(btnExport)
+						.add(btnImport)
+						.add(btnCopyKeys)
+						.add(btnDiff)
+						.panel(),
+						BorderLayout.SOUTH)
 				.panel();
 	}
 
 	private void refreshKeyCount() {
 		btnGetKeyCount.setEnabled(false);
-		SwingUtil.performSafely(() -> {
-			try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
-				Long keyCount = connection.sync().dbsize();
-				if (keyCount != null) {
-					SwingUtilities.invokeLater(() -> {
-						tfKeyCount.setText(keyCount.toString());
-						tfKeyCount.invalidate();
-					});
-				}
+		task(TaskClass.INTERACTIVE, "Get key count").supersedes("keyCount").finalOp(() -> btnGetKeyCount.setEnabled(true)).submit(() -> {
+			Long keyCount = connectionManager.sync().dbsize();
+			if (keyCount != null) {
+				SwingUtil.publish(() -> {
+					tfKeyCount.setText(keyCount.toString());
+					tfKeyCount.invalidate();
+				});
 			}
-		}, () -> btnGetKeyCount.setEnabled(true), true);
+		});
 	}
 
-	private void updateNextPageBtn() {
-		String cursor = currentKeyScanCursor.get();
-		btnKeysNextPage.setEnabled(cbPaginate.isSelected() && cursor != null && !"0".equals(cursor));
+	private void scanAll(String pattern) {
+		scanAll(pattern, cbFillKeyList.isSelected(), null);
+	}
+
+	// With a subscriber the scan (re)builds the live key list: the subscription gets started first unless it's already running
+	private void scanAll(String pattern, boolean fillKeyList, KeyEventSubscriber liveSubscriber) {
+		setKeyListingButtonsEnabled(false);
+		btnStopScan.setEnabled(true);
+		int generation = resetKeyListing();
+		currentScanProgress.set(null);
+		keyScanner = null;
+		lblScanProgress.setText("Starting scan...");
+		liveKeysScanInProgress = liveSubscriber != null;
+		keyListingTask = task(TaskClass.BULK, "Scan all keys " + pattern).supersedes("keys").finalOp(() -> {
+			if (liveSubscriber != null && !liveSubscriber.isStarted()) {
+				stopLiveKeys(liveSubscriber);
+			}
+			setKeyListingButtonsEnabled(true);
+			btnStopScan.setEnabled(keyEventSubscriber != null);
+			updateScanProgress();
+		}).submit(() -> {
+			if (liveSubscriber != null && !liveSubscriber.isStarted()) {
+				liveSubscriber.start();
+			}
+			ParallelKeyScanner scanner = new ParallelKeyScanner(connectionManager, pattern);
+			keyScanner = scanner;
+			scanner.scan(batch -> onKeysListed(generation, batch, fillKeyList), progress -> {
+				// Combined progress of several nodes has no single cursor to continue from
+				currentKeyScanPattern = pattern;
+				currentKeyScanCursor.set(progress.getCursor() != null && !progress.isFinished() ? ScanCursor.of(progress.getCursor()) : null);
+				currentScanProgress.set(progress);
+				scanProgressUpdater.requestUpdate();
+			});
+			if (liveSubscriber != null && !TaskHandle.isCurrentCancelled()) {
+				liveKeysScanInProgress = false;
+			}
+		});
 	}
 
-	private void setKeyList(List<String> redisKeys) {
-		SwingUtilities.invokeLater(() -> {
-			keysList.clear();
-			AtomicInteger index = new AtomicInteger();
-			redisKeys.forEach(e -> keysList.add(index.getAndIncrement(), e));
+	// Page of the paged key listing, with COUNT and pace from the scan governor like the background scans
+	private KeyScanCursor<String> scanPage(ScanCursor cursor, String pattern) throws InterruptedException {
+		ScanGovernor governor = connectionManager.getScanGovernor();
+		governor.pace();
+		int count = governor.count();
+		long start = System.nanoTime();
+		KeyScanCursor<String> result = connectionManager.sync().scan(cursor, ScanArgs.Builder.limit(count).match(pattern));
+		governor.record(count, System.nanoTime() - start);
+		return result;
+	}
+
+	// EDT only
+	private void startLiveKeys(String pattern) {
+		GlobPattern globPattern = new GlobPattern(pattern);
+		KeyEventSubscriber subscriber = new KeyEventSubscriber(redisConnector, connectionManager, new KeyEventSubscriber.Listener() {
+			@Override
+			public void onKeyEvent(String key, boolean exists) {
+				onLiveKeyEvent(globPattern, key, exists);
+			}
+
+			@Override
+			public void onResyncRequired(String reason) {
+				SwingUtil.publish(() -> resyncLiveKeys(globPattern, reason));
+			}
 		});
+		keyEventSubscriber = subscriber;
+		liveKeysPattern = globPattern;
+		liveKeysDriftCount = 0;
+		lblLiveKeys.setText("Live: subscribing...");
+		liveKeysDriftCheckTask = task(TaskClass.MONITORING, "Live key list check " + pattern).schedule(() -> checkLiveKeysDrift(subscriber),
+				LIVE_KEYS_DRIFT_CHECK_SECONDS, LIVE_KEYS_DRIFT_CHECK_SECONDS, TimeUnit.SECONDS);
+		// Live list is only meaningful when filled, so the fill option doesn't apply
+		scanAll(pattern, true, subscriber);
 	}
 
-	public void showServerInfo() {
-		btnGetServerInfo.setEnabled(false);
-		SwingUtil.performSafely(() -> {
-			try (StatefulRedisConnection<String, String> connection = redisClient.connect()) {
-				String info = connection.sync().info();
-				SwingUtilities.invokeLater(() -> {
-					contentSection.removeAll();
-					JTextArea txa = new JTextArea(info);
-					txa.setEditable(false);
-					contentSection.add(new JScrollPane(txa), BorderLayout.CENTER);
-					contentSection.invalidate();
-					contentSection.revalidate();
-					contentSection.repaint();
-				});
+	// Thread-safe - called on the pub/sub connection's thread
+	private void onLiveKeyEvent(GlobPattern pattern, String key, boolean exists) {
+		if (pattern != liveKeysPattern || !pattern.matches(key)) {
+			return;
+		}
+		keyMetadataCache.invalidate(key);
+		int generation = keysList.getGeneration();
+		if (exists ? keysList.addKey(generation, key) : keysList.removeKey(generation, key)) {
+			if (exists) {
+				namespaceTreeModel.getTrie().add(key);
+			} else {
+				namespaceTreeModel.getTrie().remove(key);
+			}
+			namespaceTreeUpdater.requestUpdate();
+		}
+	}
+
+	// EDT only. Events lost while the subscription was down (or never published - e.g. FLUSHDB) can only be recovered by a rescan.
+	private void resyncLiveKeys(GlobPattern pattern, String reason) {
+		KeyEventSubscriber subscriber = keyEventSubscriber;
+		if (subscriber == null || pattern != liveKeysPattern) {
+			return;
+		}
+		lblLiveKeys.setText("Live: resync (" + reason + ")");
+		liveKeysDriftCount = 0;
+		scanAll(pattern.getPattern(), true, subscriber);
+	}
+
+	// Subscribes to cluster primaries that showed up since, then compares the listed key count to DBSIZE - only possible when listing
+	// all keys. A mismatch has to persist over two consecutive checks, so that events still in flight don't trigger a rescan.
+	private void checkLiveKeysDrift(KeyEventSubscriber subscriber) {
+		GlobPattern pattern = liveKeysPattern;
+		if (subscriber != keyEventSubscriber || pattern == null || liveKeysScanInProgress) {
+			return;
+		}
+		subscriber.checkTopology();
+		long events = subscriber.getEventCount();
+		Long dbSize = pattern.isMatchAll() ? connectionManager.sync().dbsize() : null;
+		int listed = keysList.getKeyCount();
+		SwingUtil.publish(() -> {
+			if (subscriber != keyEventSubscriber) {
+				return;
+			}
+			if (dbSize != null && dbSize.longValue() != listed) {
+				if (++liveKeysDriftCount >= 2) {
+					resyncLiveKeys(pattern, String.format("%,d keys listed, %,d in database", listed, dbSize));
+					return;
+				}
+			} else {
+				liveKeysDriftCount = 0;
+			}
+			lblLiveKeys.setText(String.format("Live: %,d events", events));
+		});
+	}
+
+	// EDT only
+	private void stopLiveKeys() {
+		KeyEventSubscriber subscriber = keyEventSubscriber;
+		if (subscriber != null) {
+			stopLiveKeys(subscriber);
+		}
+	}
+
+	private void stopLiveKeys(KeyEventSubscriber subscriber) {
+		if (subscriber != keyEventSubscriber) {
+			return;
+		}
+		keyEventSubscriber = null;
+		liveKeysPattern = null;
+		liveKeysScanInProgress = false;
+		TaskHandle driftCheckTask = liveKeysDriftCheckTask;
+		if (driftCheckTask != null) {
+			driftCheckTask.cancel();
+		}
+		liveKeysDriftCheckTask = null;
+		subscriber.close();
+		lblLiveKeys.setText("Live: off");
+		btnStopScan.setEnabled(keyListingTask != null && !keyListingTask.getState().isFinal());
+	}
+
+	// Fetches type/TTL/memory/encoding of on-screen rows that have no fresh cached metadata, as a single pipelined batch
+	private void fetchVisibleKeysMetadata() {
+		Rectangle visibleRect = keysTable.getVisibleRect();
+		int firstRow = keysTable.rowAtPoint(visibleRect.getLocation());
+		if (firstRow < 0) {
+			return;
+		}
+		int lastRow = keysTable.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+		if (lastRow < 0) {
+			lastRow = keysTableModel.getRowCount() - 1;
+		}
+		List<String> keys = new ArrayList<>();
+		for (int row = firstRow; row <= lastRow; row++) {
+			String key = keysTableModel.getKey(row);
+			if (!keyMetadataCache.isFresh(keyMetadataCache.get(key))) {
+				keys.add(key);
 			}
-		}, () -> btnGetServerInfo.setEnabled(true), true);
+		}
+		if (!keys.isEmpty()) {
+			int fromRow = firstRow;
+			int toRow = lastRow;
+			task(TaskClass.INTERACTIVE, "Fetch keys metadata").supersedes("keyMetadata").submit(() -> {
+				Map<String, KeyMetadata> metadata = connectionManager.withPooledConnection(conn -> KeyMetadataFetcher.fetch(conn, keys));
+				keyMetadataCache.putAll(metadata);
+				SwingUtil.publish(() -> keysTableModel.fireTableRowsUpdated(fromRow, Math.min(toRow, keysTableModel.getRowCount() - 1)));
+			});
+		}
+	}
+
+	// EDT only
+	private int resetKeyListing() {
+		String delimiter = tfNamespaceDelimiter.getText().isEmpty() ? ":" : tfNamespaceDelimiter.getText();
+		if (delimiter.equals(namespaceTreeModel.getTrie().getDelimiter())) {
+			namespaceTreeModel.getTrie().clear();
+			namespaceTreeModel.refresh();
+		} else {
+			namespaceTreeModel.setTrie(new KeyPrefixTrie(delimiter, NAMESPACE_MAX_DEPTH, NAMESPACE_MAX_CHILDREN));
+		}
+		int generation = keysList.clear();
+		synchronized (namespaceOnlyKeys) {
+			namespaceOnlyKeys.clear();
+		}
+		return generation;
+	}
+
+	private void onKeysListed(int generation, List<String> keys, boolean fillKeyList) {
+		// SCAN may return a key more than once - count just the new ones in the namespace tree
+		List<String> newKeys = fillKeyList ? keysList.enqueue(generation, keys) : newNamespaceOnlyKeys(generation, keys);
+		if (generation == keysList.getGeneration()) {
+			namespaceTreeModel.getTrie().addAll(newKeys);
+			namespaceTreeUpdater.requestUpdate();
+		}
+	}
+
+	private List<String> newNamespaceOnlyKeys(int generation, List<String> keys) {
+		List<String> result = new ArrayList<>(keys.size());
+		synchronized (namespaceOnlyKeys) {
+			if (generation == keysList.getGeneration()) {
+				for (String key : keys) {
+					if (namespaceOnlyKeys.add(key) >= 0) {
+						result.add(key);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private void refreshNamespaceTree() {
+		TreePath rootPath = new TreePath(namespaceTreeModel.getRoot());
+		Enumeration<TreePath> expandedPaths = namespaceTree.getExpandedDescendants(rootPath);
+		TreePath selectedPath = namespaceTree.getSelectionPath();
+		namespaceTreeModel.refresh();
+		namespaceTree.expandPath(rootPath);
+		while (expandedPaths != null && expandedPaths.hasMoreElements()) {
+			namespaceTree.expandPath(expandedPaths.nextElement());
+		}
+		if (selectedPath != null) {
+			namespaceTree.setSelectionPath(selectedPath);
+		}
+	}
+
+	private void updateScanProgress() {
+		ScanProgress progress = currentScanProgress.get();
+		if (progress != null) {
+			String text = progress.toString() + (progress.isFinished() || btnStopScan.isEnabled() ? "" : " (stopped)")
+					+ String.format(", list %,d keys / %,d KB", keysList.getSize(), keysList.getMemoryFootprint() / 1024)
+					+ (progress.isFinished() ? "" : ", " + connectionManager.getScanGovernor());
+			ParallelKeyScanner scanner = keyScanner;
+			Map<String, ScanProgress> nodeProgress = scanner != null ? scanner.getNodeProgress() : null;
+			if (nodeProgress != null && nodeProgress.size() > 1) {
+				StringBuilder html = new StringBuilder("<html>").append(text);
+				for (Map.Entry<String, ScanProgress> node : nodeProgress.entrySet()) {
+					html.append("<br>").append(node.getKey()).append(": ").append(node.getValue());
+				}
+				text = html.append("</html>").toString();
+			}
+			lblScanProgress.setText(text);
+		}
+	}
+
+	private void setKeyListingButtonsEnabled(boolean enabled) {
+		btnListKeys.setEnabled(enabled);
+		btnScanAll.setEnabled(enabled);
+		if (enabled) {
+			updateNextPageBtn();
+		} else {
+			btnKeysNextPage.setEnabled(false);
+		}
+	}
+
+	private void updateNextPageBtn() {
+		ScanCursor cursor = currentKeyScanCursor.get();
+		btnKeysNextPage.setEnabled(cbPaginate.isSelected() && cursor != null && !cursor.isFinished());
+	}
+
+	public void showServerInfo() {
+		if (infoDashboardPanel == null) {
+			infoDashboardPanel = new InfoDashboardPanel(connectionManager, taskOwner);
+			infoDashboardPanel.start();
+		}
+		showContent(infoDashboardPanel);
+	}
+
+	private void showContent(Component component) {
+		contentSection.removeAll();
+		contentSection.add(component, BorderLayout.CENTER);
+		contentSection.invalidate();
+		contentSection.revalidate();
+		contentSection.repaint();
+	}
+
+	private TaskBuilder task(TaskClass taskClass, String name) {
+		return TaskManager.getInstance().task(taskClass, name).owner(taskOwner);
 	}
 }
@@ -6,6 +6,7 @@ import java.beans.PropertyChangeEvent;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -19,6 +20,7 @@ import javax.swing.JTextField;
 import io.lettuce.core.RedisURI;
 import x.mvmn.redisgui.gui.util.SwingUtil;
 import x.mvmn.redisgui.model.RedisConfigModel;
+import x.mvmn.redisgui.model.RedisConfigModel.ReadPolicy;
 import x.mvmn.redisgui.model.RedisConfigModel.RedisConnectionType;
 
 public class RedisConfigPanel extends JPanel {
@@ -28,6 +30,7 @@ public class RedisConfigPanel extends JPanel {
 	private final CopyOnWriteArrayList<Runnable> dirtyListeners = new CopyOnWriteArrayList<>();
 	private final JTextField tfRedisUri = new JTextField("");
 	private final JComboBox<RedisConnectionType> cbxConnectionType = new JComboBox<>(RedisConnectionType.values());
+	private final JComboBox<ReadPolicy> cbxReadPolicy = SwingUtil.withTitle(new JComboBox<>(ReadPolicy.values()), "Read from");
 	private final RedisConfigModel model;
 
 	// _____________ | alone | sock | snt | cluster
@@ -35,7 +38,7 @@ public class RedisConfigPanel extends JPanel {
 	// +nodes ______ | __-__ | _-__ | _V_ | V
 	// username ____ | __V__ | _V__ | _V_ | V
 	// password ____ | __V__ | _V__ | _V_ | V
-	// db number ___ | __V__ | _V__ | _V_ | V
+	// db number ___ | __V__ | _V__ | _V_ | -
 	// socket ______ | __-__ | _V__ | _-_ | -
 	// snt master ID | __-__ | _-__ | _V_ | -
 	// ssl _________ | __V__ | _-__ | _V_ | V
@@ -43,6 +46,10 @@ public class RedisConfigPanel extends JPanel {
 	// tls _________ | __V__ | _-__ | _V_ | V
 	// clientName __ | __V__ | _V__ | _V_ | V
 	// timeout _____ | __V__ | _V__ | _V_ | V
+	// bulk pool ___ | __V__ | _V__ | _V_ | V
+	// scan target _ | __V__ | _V__ | _V_ | V
+	// max ops/sec _ | __V__ | _V__ | _V_ | V
+	// read policy _ | __-__ | _-__ | _V_ | V
 
 	private final JTextField host = SwingUtil.withTitle(new JTextField(), "Host");
 	private final JFormattedTextField port = SwingUtil
@@ -53,12 +60,19 @@ public class RedisConfigPanel extends JPanel {
 			.withTitle(SwingUtil.numericOnlyTextField(0L, 0L, (long) Integer.MAX_VALUE, false), "DB number");
 	private final JTextField clientName = SwingUtil.withTitle(new JTextField(), "Client name");
 	private final JTextField socket = SwingUtil.withTitle(new JTextField(), "UNIX socket");
+	private final JTextField nodes = SwingUtil.withTitle(new JTextField(), "Additional nodes (host:port;host:port)");
 	private final JTextField sentinelMasterId = SwingUtil.withTitle(new JTextField(), "Sentinel master ID");
 	private final JCheckBox ssl = new JCheckBox("SSL");
 	private final JCheckBox verifyPeer = new JCheckBox("Verify peer");
 	private final JCheckBox tls = new JCheckBox("TLS");
 	private final JFormattedTextField timeout = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(60L, 0L, Long.MAX_VALUE, false),
 			"Timeout (seconds)");
+	private final JFormattedTextField bulkConnectionsPoolSize = SwingUtil
+			.withTitle(SwingUtil.numericOnlyTextField(2L, 1L, 64L, false), "Bulk operations connections");
+	private final JFormattedTextField scanTargetMillis = SwingUtil
+			.withTitle(SwingUtil.numericOnlyTextField(5L, 1L, 1000L, false), "Background jobs: target server time per SCAN (ms)");
+	private final JFormattedTextField maxServerOpsPerSec = SwingUtil.withTitle(
+			SwingUtil.numericOnlyTextField(0L, 0L, Long.MAX_VALUE, false), "Background jobs: back off above server ops/sec (0 = never)");
 
 	private final JPanel cfgContent = new JPanel(new BorderLayout());
 
@@ -69,18 +83,27 @@ public class RedisConfigPanel extends JPanel {
 	public RedisConfigPanel(RedisConfigModel configModel) {
 		super(new BorderLayout());
 
-		// TODO: add additional nodes config
 		this.model = configModel != null ? configModel : new RedisConfigModel(null);
 		host.setText(model.getHost());
 		port.setText(String.valueOf(model.getPort()));
 		dbNumber.setText(String.valueOf(model.getDatabase()));
 		clientName.setText(model.getClientName());
+		nodes.setText(model.getNodesString());
 		timeout.setText(String.valueOf(model.getTimeout().getSeconds()));
+		bulkConnectionsPoolSize.setText(String.valueOf(model.getBulkConnectionsPoolSize()));
+		scanTargetMillis.setText(String.valueOf(model.getScanTargetMillis()));
+		maxServerOpsPerSec.setText(String.valueOf(model.getMaxServerOpsPerSec()));
+		cbxReadPolicy.setSelectedItem(model.getReadPolicy());
 
-		Arrays.asList(host, username, password, clientName, socket, sentinelMasterId).forEach(tf -> SwingUtil.bind(tf, e -> onChange()));
-		Arrays.asList(port, dbNumber, timeout).forEach(tf -> SwingUtil.bind(tf, (PropertyChangeEvent e) -> onChange()));
+		Arrays.asList(host, nodes, username, password, clientName, socket, sentinelMasterId).forEach(tf -> SwingUtil.bind(tf, e -> onChange()));
+		Arrays.asList(port, dbNumber, timeout, bulkConnectionsPoolSize, scanTargetMillis, maxServerOpsPerSec)
+				.forEach(tf -> SwingUtil.bind(tf, (PropertyChangeEvent e) -> onChange()));
 		Arrays.asList(ssl, verifyPeer, tls).forEach(cb -> SwingUtil.bind(cb, e -> onChange()));
 		cbxConnectionType.addActionListener(e -> onConnectionTypeChange());
+		cbxReadPolicy.addActionListener(e -> {
+			model.setReadPolicy((ReadPolicy) cbxReadPolicy.getSelectedItem());
+			onChange();
+		});
 
 		tfRedisUri.setEditable(false);
 		tfRedisUri.setBorder(BorderFactory.createTitledBorder("URI"));
@@ -94,12 +117,16 @@ public class RedisConfigPanel extends JPanel {
 		SwingUtil.bind(username, e -> model.setUsername(username.getText()));
 		SwingUtil.bind(password, e -> model.setPassword(password.getPassword()));
 		SwingUtil.bindNumeric(dbNumber, v -> model.setDatabase(v.intValue()));
+		SwingUtil.bind(nodes, e -> model.setNodesString(nodes.getText()));
 		SwingUtil.bind(sentinelMasterId, e -> model.setSentinelMasterId(sentinelMasterId.getText()));
 		SwingUtil.bind(ssl, v -> model.setSsl(v));
 		SwingUtil.bind(verifyPeer, v -> model.setVerifyPeer(v));
 		SwingUtil.bind(tls, v -> model.setStartTls(v));
 		SwingUtil.bind(clientName, v -> model.setClientName(clientName.getText()));
 		SwingUtil.bindNumeric(timeout, v -> model.setTimeout(Duration.ofSeconds(v)));
+		SwingUtil.bindNumeric(bulkConnectionsPoolSize, v -> model.setBulkConnectionsPoolSize(v.intValue()));
+		SwingUtil.bindNumeric(scanTargetMillis, v -> model.setScanTargetMillis(v.intValue()));
+		SwingUtil.bindNumeric(maxServerOpsPerSec, v -> model.setMaxServerOpsPerSec(v));
 		SwingUtil.bind(socket, e -> model.setSocket(socket.getText()));
 
 		this.add(SwingUtil.panel(pnl -> new GridLayout(2, 1)).add(tfRedisUri).add(cbxConnectionType).panel(), BorderLayout.NORTH);
@@ -110,8 +137,7 @@ public class RedisConfigPanel extends JPanel {
 		switch (connectionType) {
 			default:
 			case STANDALONE:
-			case CLUSTER:
-				return SwingUtil.panel(pnl -> new GridLayout(10, 1))
+				return SwingUtil.panel(pnl -> new GridLayout(13, 1))
 						.add(host)
 						.add(port)
 						.add(username)
@@ -122,19 +148,43 @@ public class RedisConfigPanel extends JPanel {
 						.add(tls)
 						.add(clientName)
 						.add(timeout)
+						.add(bulkConnectionsPoolSize)
+						.add(scanTargetMillis)
+						.add(maxServerOpsPerSec)
+						.panel();
+			case CLUSTER:
+				return SwingUtil.panel(pnl -> new GridLayout(14, 1))
+						.add(host)
+						.add(port)
+						.add(nodes)
+						.add(username)
+						.add(password)
+						.add(ssl)
+						.add(verifyPeer)
+						.add(tls)
+						.add(clientName)
+						.add(timeout)
+						.add(bulkConnectionsPoolSize)
+						.add(scanTargetMillis)
+						.add(maxServerOpsPerSec)
+						.add(cbxReadPolicy)
 						.panel();
 			case UNIX_SOCKET:
-				return SwingUtil.panel(pnl -> new GridLayout(5, 1))
+				return SwingUtil.panel(pnl -> new GridLayout(8, 1))
 						.add(socket)
 						.add(username)
 						.add(password)
 						.add(clientName)
 						.add(timeout)
+						.add(bulkConnectionsPoolSize)
+						.add(scanTargetMillis)
+						.add(maxServerOpsPerSec)
 						.panel();
 			case SENTINEL:
-				return SwingUtil.panel(pnl -> new GridLayout(11, 1))
+				return SwingUtil.panel(pnl -> new GridLayout(16, 1))
 						.add(host)
 						.add(port)
+						.add(nodes)
 						.add(username)
 						.add(password)
 						.add(dbNumber)
@@ -144,6 +194,10 @@ public class RedisConfigPanel extends JPanel {
 						.add(tls)
 						.add(clientName)
 						.add(timeout)
+						.add(bulkConnectionsPoolSize)
+						.add(scanTargetMillis)
+						.add(maxServerOpsPerSec)
+						.add(cbxReadPolicy)
 						.panel();
 		}
 	}
@@ -166,7 +220,11 @@ public class RedisConfigPanel extends JPanel {
 
 	private void onChange() {
 		try {
-			this.tfRedisUri.setText(model.toRedisUri().toString());
+			if (model.getConnectionType() == RedisConnectionType.CLUSTER) {
+				this.tfRedisUri.setText(model.toClusterSeedUris().stream().map(RedisURI::toString).collect(Collectors.joining(" ")));
+			} else {
+				this.tfRedisUri.setText(model.toRedisUri().toString());
+			}
 		} catch (IllegalArgumentException iae) {
 			this.tfRedisUri.setText(iae.getMessage());
 		}
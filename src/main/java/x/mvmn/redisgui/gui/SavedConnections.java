@@ -0,0 +1,40 @@
+package x.mvmn.redisgui.gui;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import x.mvmn.redisgui.model.RedisConfigModel;
+
+// Connection configs saved by the connections manager, for jobs working with a second connection
+class SavedConnections {
+
+	private static final String CONFIG_FILE_SUFFIX = ".properties";
+
+	static List<String> names(File appHomeFolder) {
+		File[] files = appHomeFolder.listFiles();
+		if (files == null) {
+			return Collections.emptyList();
+		}
+		return Arrays.stream(files)
+				.filter(File::isFile)
+				.map(File::getName)
+				.filter(name -> name.endsWith(CONFIG_FILE_SUFFIX))
+				.map(name -> name.substring(0, name.length() - CONFIG_FILE_SUFFIX.length()))
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	static RedisConfigModel load(File appHomeFolder, String name) throws IOException {
+		Properties properties = new Properties();
+		try (FileInputStream in = new FileInputStream(new File(appHomeFolder, name + CONFIG_FILE_SUFFIX))) {
+			properties.load(in);
+		}
+		return new RedisConfigModel(properties);
+	}
+}
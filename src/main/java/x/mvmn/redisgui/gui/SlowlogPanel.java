@@ -0,0 +1,203 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import java.beans.PropertyChangeEvent;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+import javax.swing.JFormattedTextField;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.SlowlogAnalyzer;
+import x.mvmn.redisgui.redis.SlowlogAnalyzer.ShapeSummary;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+// SLOWLOG of every primary, polled on the monitoring scheduler. Only entries newer than the last seen ID are processed, so polling
+// often costs little; durations are aggregated by command shape to show which kinds of commands are slow, not just the latest ones.
+public class SlowlogPanel extends JPanel {
+	private static final long serialVersionUID = -2416013658302915027L;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final JFormattedTextField tfInterval = SwingUtil.withTitle(SwingUtil.numericOnlyTextField(5L, 1L, 3600L, false),
+			"Poll interval (seconds)");
+	private final JTextField tfDelimiter = SwingUtil.withTitle(new JTextField(":"), "Prefix delimiter");
+	private final JButton btnStart = new JButton("Start");
+	private final JButton btnStop = new JButton("Stop");
+	private final JButton btnResetStats = new JButton("Reset stats");
+	private final JButton btnResetServers = new JButton("Reset server slowlog");
+	private final JLabel lblStatus = new JLabel(" ");
+
+	private final ArrayTableModel shapesModel = new ArrayTableModel(
+			new String[] { "Shape", "Count", "Total ms", "Avg us", "p50 us", "p99 us", "Max us", "Last seen" },
+			new Class<?>[] { String.class, Long.class, Long.class, Long.class, Long.class, Long.class, Long.class, String.class });
+	private final ArrayTableModel recentModel = new ArrayTableModel(new String[] { "Time", "Server", "Duration us", "Command", "Client" },
+			new Class<?>[] { String.class, String.class, Long.class, String.class, String.class });
+	private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+	private volatile SlowlogAnalyzer analyzer;
+	private volatile TaskHandle pollTask;
+
+	public SlowlogPanel(RedisConnectionManager connectionManager, String taskOwner) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+
+		btnStart.addActionListener(e -> start());
+		btnStop.addActionListener(e -> stop());
+		btnResetStats.addActionListener(e -> {
+			SlowlogAnalyzer analyzer = this.analyzer;
+			if (analyzer != null) {
+				analyzer.reset();
+				refresh(analyzer, null);
+			}
+		});
+		btnResetServers.addActionListener(e -> resetServers());
+		SwingUtil.bind(tfInterval, (PropertyChangeEvent e) -> {
+			if (pollTask != null) {
+				start();
+			}
+		});
+		// Shapes depend on the delimiter - a new one starts the aggregation over
+		SwingUtil.bind(tfDelimiter, e -> {
+			analyzer = null;
+			if (pollTask != null) {
+				start();
+			}
+		});
+
+		JTable shapesTable = new JTable(shapesModel);
+		shapesTable.setAutoCreateRowSorter(true);
+		shapesTable.getColumnModel().getColumn(0).setPreferredWidth(400);
+		JTable recentTable = new JTable(recentModel);
+		recentTable.setAutoCreateRowSorter(true);
+		recentTable.getColumnModel().getColumn(3).setPreferredWidth(600);
+		JTabbedPane tabs = new JTabbedPane();
+		tabs.addTab("By shape", new JScrollPane(shapesTable));
+		tabs.addTab("Recent entries", new JScrollPane(recentTable));
+
+		this.add(SwingUtil.panel(BorderLayout::new)
+				.add(SwingUtil.panel(v -> new GridLayout(2, 4))
+						.add(tfInterval)
+						.add(tfDelimiter)
+						.add(btnStart)
+						.add(btnStop)
+						.add(btnResetStats)
+						.add(btnResetServers)
+						.add(new JLabel())
+						.add(new JLabel())
+						.panel(), BorderLayout.CENTER)
+				.add(lblStatus, BorderLayout.SOUTH)
+				.panel(), BorderLayout.NORTH);
+		this.add(tabs, BorderLayout.CENTER);
+		btnStop.setEnabled(false);
+	}
+
+	private SlowlogAnalyzer analyzer() {
+		SlowlogAnalyzer result = analyzer;
+		if (result == null) {
+			result = new SlowlogAnalyzer(connectionManager, tfDelimiter.getText());
+			analyzer = result;
+		}
+		return result;
+	}
+
+	// EDT only. Restarts polling with the current settings.
+	public void start() {
+		TaskHandle previous = pollTask;
+		if (previous != null) {
+			previous.cancel();
+		}
+		SlowlogAnalyzer analyzer = analyzer();
+		Object interval = tfInterval.getValue();
+		long intervalSeconds = interval != null ? (Long) interval : 5L;
+		pollTask = TaskManager.getInstance()
+				.task(TaskClass.MONITORING, "Poll SLOWLOG")
+				.owner(taskOwner)
+				.schedule(() -> poll(analyzer), 0, intervalSeconds, TimeUnit.SECONDS);
+		btnStart.setEnabled(false);
+		btnStop.setEnabled(true);
+	}
+
+	public void stop() {
+		TaskHandle task = pollTask;
+		pollTask = null;
+		if (task != null) {
+			task.cancel();
+		}
+		btnStart.setEnabled(true);
+		btnStop.setEnabled(false);
+	}
+
+	private void poll(SlowlogAnalyzer analyzer) {
+		String error = null;
+		try {
+			analyzer.poll();
+		} catch (Exception e) {
+			error = "SLOWLOG GET failed: " + e.getMessage();
+		}
+		String status = error;
+		SwingUtil.publish(() -> refresh(analyzer, status));
+	}
+
+	private void resetServers() {
+		if (JOptionPane.showConfirmDialog(this, "Clear the slow log on all servers? This cannot be undone.", "Reset server slowlog",
+				JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE) != JOptionPane.OK_OPTION) {
+			return;
+		}
+		SlowlogAnalyzer analyzer = analyzer();
+		btnResetServers.setEnabled(false);
+		TaskManager.getInstance()
+				.task(TaskClass.INTERACTIVE, "SLOWLOG RESET")
+				.owner(taskOwner)
+				.finalOp(() -> {
+					btnResetServers.setEnabled(true);
+					refresh(analyzer, null);
+				})
+				.submit(analyzer::resetServers);
+	}
+
+	// EDT only
+	private void refresh(SlowlogAnalyzer analyzer, String error) {
+		if (analyzer != this.analyzer) {
+			return;
+		}
+		List<ShapeSummary> shapes = analyzer.getShapes();
+		List<Object[]> shapeRows = new ArrayList<>(shapes.size());
+		for (ShapeSummary shape : shapes) {
+			shapeRows.add(new Object[] { shape.getShape(), shape.getCount(), shape.getTotalMicros() / 1000L,
+					shape.getCount() > 0 ? shape.getTotalMicros() / shape.getCount() : 0L, shape.getP50Micros(), shape.getP99Micros(),
+					shape.getMaxMicros(), timeFormat.format(new Date(shape.getLastSeenSeconds() * 1000L)) });
+		}
+		shapesModel.setRows(shapeRows);
+
+		List<SlowlogAnalyzer.Entry> recent = analyzer.getRecent();
+		List<Object[]> recentRows = new ArrayList<>(recent.size());
+		// Newest first
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			SlowlogAnalyzer.Entry entry = recent.get(i);
+			recentRows.add(new Object[] { timeFormat.format(new Date(entry.getTimestampSeconds() * 1000L)), entry.getNode(),
+					entry.getDurationMicros(), entry.getCommand(), entry.getClient() });
+		}
+		recentModel.setRows(recentRows);
+
+		lblStatus.setText(error != null ? error
+				: String.format("%,d entries fetched, %,d shapes, %,d recent kept", analyzer.getFetched(), shapes.size(), recent.size()));
+	}
+}
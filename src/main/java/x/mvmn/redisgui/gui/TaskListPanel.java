@@ -0,0 +1,106 @@
+package x.mvmn.redisgui.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+public class TaskListPanel extends JPanel {
+	private static final long serialVersionUID = 6167447906364102343L;
+
+	private static final String[] COLUMNS = { "Task", "Type", "State", "Elapsed" };
+
+	private final String owner;
+	private final TasksTableModel tableModel = new TasksTableModel();
+	private final JTable table = new JTable(tableModel);
+	private final JButton btnCancel = new JButton("Cancel");
+	private final Timer refreshTimer;
+	private volatile List<TaskHandle> tasks = Collections.emptyList();
+
+	public TaskListPanel(String owner) {
+		super(new BorderLayout());
+		this.owner = owner;
+
+		table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		table.getSelectionModel().addListSelectionListener(e -> btnCancel.setEnabled(table.getSelectedRow() >= 0));
+		btnCancel.setEnabled(false);
+		btnCancel.addActionListener(e -> {
+			int row = table.getSelectedRow();
+			if (row >= 0 && row < tasks.size()) {
+				tasks.get(row).cancel();
+			}
+		});
+
+		JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(100, table.getRowHeight() * 4 + table.getTableHeader().getPreferredSize().height + 4));
+		this.add(scrollPane, BorderLayout.CENTER);
+		this.add(btnCancel, BorderLayout.EAST);
+
+		refreshTimer = new Timer(500, e -> refresh());
+		refreshTimer.start();
+	}
+
+	protected void refresh() {
+		TaskHandle selected = table.getSelectedRow() >= 0 && table.getSelectedRow() < tasks.size() ? tasks.get(table.getSelectedRow())
+				: null;
+		tasks = TaskManager.getInstance().getActiveTasks(owner);
+		tableModel.fireTableDataChanged();
+		int newSelection = selected != null ? tasks.indexOf(selected) : -1;
+		if (newSelection >= 0) {
+			table.setRowSelectionInterval(newSelection, newSelection);
+		}
+	}
+
+	public void stop() {
+		refreshTimer.stop();
+	}
+
+	protected class TasksTableModel extends AbstractTableModel {
+		private static final long serialVersionUID = -3342405880925386383L;
+
+		@Override
+		public int getRowCount() {
+			return tasks.size();
+		}
+
+		@Override
+		public int getColumnCount() {
+			return COLUMNS.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return COLUMNS[column];
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			List<TaskHandle> tasks = TaskListPanel.this.tasks;
+			if (rowIndex >= tasks.size()) {
+				return "";
+			}
+			TaskHandle task = tasks.get(rowIndex);
+			switch (columnIndex) {
+				case 0:
+					return task.getName();
+				case 1:
+					return task.getTaskClass().toString();
+				case 2:
+					return task.getStateDescription();
+				default:
+					return String.format("%.1f s", task.getElapsedMillis() / 1000.0d);
+			}
+		}
+	}
+}
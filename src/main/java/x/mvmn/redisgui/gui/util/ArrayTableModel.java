@@ -0,0 +1,63 @@
+package x.mvmn.redisgui.gui.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+public class ArrayTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 7519367440513389813L;
+
+	private final String[] columns;
+	private final Class<?>[] columnClasses;
+	private List<Object[]> rows = new ArrayList<>();
+
+	public ArrayTableModel(String[] columns, Class<?>[] columnClasses) {
+		this.columns = columns;
+		this.columnClasses = columnClasses;
+	}
+
+	// EDT only
+	public void setRows(List<Object[]> rows) {
+		this.rows = new ArrayList<>(rows);
+		fireTableDataChanged();
+	}
+
+	// EDT only
+	public void addRows(List<Object[]> newRows) {
+		if (!newRows.isEmpty()) {
+			int start = rows.size();
+			rows.addAll(newRows);
+			fireTableRowsInserted(start, rows.size() - 1);
+		}
+	}
+
+	public Object[] getRow(int rowIndex) {
+		return rows.get(rowIndex);
+	}
+
+	@Override
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return columns[column];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int columnIndex) {
+		return columnClasses[columnIndex];
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		return rows.get(rowIndex)[columnIndex];
+	}
+}
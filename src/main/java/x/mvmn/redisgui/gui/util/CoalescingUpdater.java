@@ -0,0 +1,30 @@
+package x.mvmn.redisgui.gui.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.Timer;
+
+public class CoalescingUpdater {
+
+	private final AtomicBoolean updateRequested = new AtomicBoolean();
+	private final Timer timer;
+
+	public CoalescingUpdater(int intervalMillis, Runnable update) {
+		timer = new Timer(intervalMillis, e -> {
+			if (updateRequested.getAndSet(false)) {
+				update.run();
+			}
+		});
+		timer.setCoalesce(true);
+		timer.start();
+	}
+
+	// Safe to call from any thread at any rate - the update runs on the EDT at most once per interval
+	public void requestUpdate() {
+		updateRequested.set(true);
+	}
+
+	public void stop() {
+		timer.stop();
+	}
+}
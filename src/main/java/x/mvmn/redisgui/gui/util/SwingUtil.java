@@ -29,6 +29,9 @@ import javax.swing.text.JTextComponent;
 import javax.swing.text.NumberFormatter;
 
 import x.mvmn.redisgui.lang.UnsafeOperation;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
 import x.mvmn.redisgui.util.StackTraceUtil;
 
 public class SwingUtil {
@@ -36,31 +39,25 @@ public class SwingUtil {
 	protected static ErrorMessageDialog errorMessageDialog = new ErrorMessageDialog(null);
 
 	public static void performSafely(final UnsafeOperation operation) {
-		new Thread(() -> {
-			try {
-				operation.run();
-			} catch (final Exception e) {
-				e.printStackTrace();
-				showError("Error occurred: ", e);
-			}
-		}).start();
+		TaskManager.getInstance().task(TaskClass.INTERACTIVE, "Background operation").submit(operation);
 	}
 
 	public static void performSafely(final UnsafeOperation operation, final Runnable finalOp, boolean finalOpSwingThread) {
-		new Thread(() -> {
-			try {
-				operation.run();
-			} catch (final Exception e) {
-				e.printStackTrace();
-				showError("Error occurred: ", e);
-			} finally {
-				if (finalOpSwingThread) {
-					SwingUtilities.invokeLater(finalOp);
-				} else {
-					finalOp.run();
-				}
+		TaskManager.getInstance()
+				.task(TaskClass.INTERACTIVE, "Background operation")
+				.finalOp(finalOp)
+				.finalOpSwingThread(finalOpSwingThread)
+				.submit(operation);
+	}
+
+	// Hands results of a background task over to the EDT, dropping them if the task got cancelled or superseded in the meantime
+	public static void publish(final Runnable update) {
+		TaskHandle task = TaskHandle.current();
+		SwingUtilities.invokeLater(() -> {
+			if (task == null || !task.isCancelled()) {
+				update.run();
 			}
-		}).start();
+		});
 	}
 
 	public static void showError(final String message, final Throwable e) {
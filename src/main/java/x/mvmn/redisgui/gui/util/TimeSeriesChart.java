@@ -0,0 +1,110 @@
+package x.mvmn.redisgui.gui.util;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.function.DoubleFunction;
+
+import javax.swing.JComponent;
+import javax.swing.UIManager;
+
+import x.mvmn.redisgui.util.TimeSeries;
+
+// Plain line chart of a TimeSeries, scaled to the min/max of the points shown. Gaps (NaN values) break the line.
+// Point buffers are allocated once for the series capacity and reused on every repaint.
+public class TimeSeriesChart extends JComponent {
+	private static final long serialVersionUID = -6212957113806404427L;
+
+	private static final int PADDING = 4;
+
+	private final String title;
+	private final TimeSeries series;
+	private final DoubleFunction<String> formatter;
+	private final long[] times;
+	private final double[] values;
+	private final int[] xPoints;
+	private final int[] yPoints;
+
+	public TimeSeriesChart(String title, TimeSeries series, DoubleFunction<String> formatter) {
+		this.title = title;
+		this.series = series;
+		this.formatter = formatter;
+		this.times = new long[series.getCapacity()];
+		this.values = new double[series.getCapacity()];
+		this.xPoints = new int[series.getCapacity()];
+		this.yPoints = new int[series.getCapacity()];
+		setPreferredSize(new Dimension(300, 150));
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Graphics2D g2 = (Graphics2D) g.create();
+		try {
+			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			int width = getWidth();
+			int height = getHeight();
+			Color background = UIManager.getColor("Panel.background");
+			Color foreground = UIManager.getColor("Label.foreground");
+			g2.setColor(background != null ? background : Color.WHITE);
+			g2.fillRect(0, 0, width, height);
+			g2.setColor(foreground != null ? foreground : Color.BLACK);
+			g2.drawRect(0, 0, width - 1, height - 1);
+
+			int count = series.copyTo(times, values);
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < count; i++) {
+				if (!Double.isNaN(values[i])) {
+					min = Math.min(min, values[i]);
+					max = Math.max(max, values[i]);
+				}
+			}
+			FontMetrics fontMetrics = g2.getFontMetrics();
+			int textHeight = fontMetrics.getHeight();
+			double last = count > 0 ? values[count - 1] : Double.NaN;
+			g2.drawString(title + ": " + (Double.isNaN(last) ? "n/a" : formatter.apply(last)), PADDING, textHeight);
+			if (min > max) {
+				return;
+			}
+			String maxLabel = formatter.apply(max);
+			String minLabel = formatter.apply(min);
+			g2.drawString(maxLabel, width - PADDING - fontMetrics.stringWidth(maxLabel), textHeight);
+			g2.drawString(minLabel, width - PADDING - fontMetrics.stringWidth(minLabel), height - PADDING);
+
+			int top = textHeight + PADDING;
+			int bottom = height - textHeight - PADDING;
+			if (bottom <= top || count < 2) {
+				return;
+			}
+			long firstTime = times[0];
+			long timeRange = Math.max(1L, times[count - 1] - firstTime);
+			double valueRange = max > min ? max - min : 1.0d;
+			g2.setColor(UIManager.getColor("textHighlight") != null ? UIManager.getColor("textHighlight") : Color.BLUE);
+			int segment = 0;
+			for (int i = 0; i < count; i++) {
+				if (Double.isNaN(values[i])) {
+					drawSegment(g2, segment);
+					segment = 0;
+					continue;
+				}
+				xPoints[segment] = PADDING + (int) ((times[i] - firstTime) * (width - 2L * PADDING) / timeRange);
+				yPoints[segment] = bottom - (int) Math.round((values[i] - min) / valueRange * (bottom - top));
+				segment++;
+			}
+			drawSegment(g2, segment);
+		} finally {
+			g2.dispose();
+		}
+	}
+
+	private void drawSegment(Graphics2D g2, int points) {
+		if (points == 1) {
+			g2.fillRect(xPoints[0] - 1, yPoints[0] - 1, 3, 3);
+		} else if (points > 1) {
+			g2.drawPolyline(xPoints, yPoints, points);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.lettuce.core.MapScanCursor;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.task.TaskHandle;
+
+public class HashValueViewer extends PagedCollectionViewer {
+	private static final long serialVersionUID = -6152436338208823093L;
+
+	public HashValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(connectionManager, taskOwner, key, header, new String[] { "Field", "Value" }, new Class<?>[] { String.class, String.class });
+	}
+
+	@Override
+	protected Long fetchCount(RedisClusterCommands<String, String> commands) {
+		return commands.hlen(key);
+	}
+
+	@Override
+	protected Page fetchPage(RedisClusterCommands<String, String> commands, Object pageState, int pageSize) {
+		ScanCursor cursor = pageState != null ? (ScanCursor) pageState : ScanCursor.INITIAL;
+		List<Object[]> rows = new ArrayList<>();
+		// HSCAN may legitimately return empty batches - keep going until there's something to show
+		do {
+			MapScanCursor<String, String> result = commands.hscan(key, cursor, ScanArgs.Builder.limit(pageSize));
+			for (Map.Entry<String, String> entry : result.getMap().entrySet()) {
+				rows.add(new Object[] { abbreviate(entry.getKey()), abbreviate(entry.getValue()) });
+			}
+			cursor = result;
+		} while (rows.isEmpty() && !cursor.isFinished() && !TaskHandle.isCurrentCancelled());
+		return new Page(rows, cursor, cursor.isFinished());
+	}
+}
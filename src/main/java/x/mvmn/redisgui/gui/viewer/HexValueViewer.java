@@ -0,0 +1,190 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulConnection;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.RedisClients;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.redis.RedisFutures;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.HexUtil;
+import x.mvmn.redisgui.util.LangUtil;
+
+// Hex dump of a string value that is never loaded in full: the table is virtual, and only chunks covering the visible rows are
+// fetched with GETRANGE over a binary-safe connection and kept in a small LRU cache
+public class HexValueViewer extends JPanel {
+	private static final long serialVersionUID = -1830409127232405151L;
+
+	protected static final int BYTES_PER_ROW = 16;
+	protected static final int CHUNK_SIZE = 64 * 1024;
+	protected static final int ROWS_PER_CHUNK = CHUNK_SIZE / BYTES_PER_ROW;
+	protected static final int MAX_CACHED_CHUNKS = 64;
+
+	private final RedisConnectionManager connectionManager;
+	private final String taskOwner;
+	private final byte[] key;
+	private final String header;
+	private final JLabel lblStatus = new JLabel(" ");
+	private final HexTableModel tableModel = new HexTableModel();
+	private final JTable table = new JTable(tableModel);
+	private final Timer chunkLoadTimer = new Timer(50, e -> loadRequestedChunks());
+
+	// All of the below is accessed on the EDT only
+	private final Map<Long, byte[]> chunks = new LinkedHashMap<Long, byte[]>(MAX_CACHED_CHUNKS, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+			return size() > MAX_CACHED_CHUNKS;
+		}
+	};
+	private final Set<Long> requestedChunks = new HashSet<>();
+	private final Set<Long> loadingChunks = new HashSet<>();
+	private long length;
+
+	public HexValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		this.key = key.getBytes(StandardCharsets.UTF_8);
+		this.header = header;
+
+		chunkLoadTimer.setRepeats(false);
+		table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, table.getFont().getSize()));
+		table.getTableHeader().setReorderingAllowed(false);
+		table.getColumnModel().getColumn(0).setPreferredWidth(100);
+		table.getColumnModel().getColumn(1).setPreferredWidth(400);
+		table.getColumnModel().getColumn(2).setPreferredWidth(150);
+		lblStatus.setText(header + " | Loading...");
+		this.add(lblStatus, BorderLayout.NORTH);
+		this.add(new JScrollPane(table), BorderLayout.CENTER);
+
+		TaskManager.getInstance().task(TaskClass.INTERACTIVE, "Get length of " + key).owner(taskOwner).submit(() -> {
+			long valueLength = RedisClients.sync(connectionManager.getBinaryConnection()).strlen(this.key);
+			SwingUtil.publish(() -> {
+				length = valueLength;
+				lblStatus.setText(header + " | Length: " + LangUtil.formatBytes(valueLength));
+				tableModel.fireTableDataChanged();
+			});
+		});
+	}
+
+	private void requestChunk(long chunkIndex) {
+		if (!loadingChunks.contains(chunkIndex) && requestedChunks.add(chunkIndex) && !chunkLoadTimer.isRunning()) {
+			chunkLoadTimer.start();
+		}
+	}
+
+	private void loadRequestedChunks() {
+		// Rows painted during fast scrolling may be long gone - only load what is visible now
+		Rectangle visibleRect = table.getVisibleRect();
+		int rowHeight = Math.max(1, table.getRowHeight());
+		long firstVisibleChunk = (visibleRect.y / rowHeight) / ROWS_PER_CHUNK;
+		long lastVisibleChunk = ((visibleRect.y + visibleRect.height) / rowHeight) / ROWS_PER_CHUNK;
+		List<Long> batch = new ArrayList<>();
+		for (Iterator<Long> iterator = requestedChunks.iterator(); iterator.hasNext();) {
+			Long chunkIndex = iterator.next();
+			iterator.remove();
+			if (chunkIndex >= firstVisibleChunk && chunkIndex <= lastVisibleChunk && !chunks.containsKey(chunkIndex)) {
+				batch.add(chunkIndex);
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		loadingChunks.addAll(batch);
+		TaskManager.getInstance()
+				.task(TaskClass.INTERACTIVE, "Load " + batch.size() + " value chunk(s)")
+				.owner(taskOwner)
+				.finalOp(() -> {
+					loadingChunks.removeAll(batch);
+					// Repaint re-requests anything still visible and missing, e.g. if this load failed
+					table.repaint();
+				})
+				.submit(() -> {
+					StatefulConnection<byte[], byte[]> connection = connectionManager.getBinaryConnection();
+					List<RedisFuture<byte[]>> futures = new ArrayList<>(batch.size());
+					for (Long chunkIndex : batch) {
+						long start = chunkIndex * CHUNK_SIZE;
+						futures.add(RedisClients.async(connection).getrange(key, start, start + CHUNK_SIZE - 1));
+					}
+					RedisFutures.awaitQuietly(connection.getTimeout(), futures);
+					SwingUtil.publish(() -> {
+						for (int i = 0; i < batch.size(); i++) {
+							byte[] data = RedisFutures.valueOrNull(futures.get(i));
+							if (data != null) {
+								long chunkIndex = batch.get(i);
+								chunks.put(chunkIndex, data);
+								int firstRow = (int) (chunkIndex * ROWS_PER_CHUNK);
+								int lastRow = Math.min(tableModel.getRowCount() - 1, firstRow + ROWS_PER_CHUNK - 1);
+								if (firstRow <= lastRow) {
+									tableModel.fireTableRowsUpdated(firstRow, lastRow);
+								}
+							}
+						}
+					});
+				});
+	}
+
+	protected class HexTableModel extends AbstractTableModel {
+		private static final long serialVersionUID = -4925426007007919489L;
+
+		private final String[] columnNames = { "Offset", "Hex", "ASCII" };
+		// Reused for every cell rendered - the only allocation per cell is the resulting String
+		private final char[] rowBuffer = new char[BYTES_PER_ROW * 3];
+
+		@Override
+		public int getRowCount() {
+			return (int) ((length + BYTES_PER_ROW - 1) / BYTES_PER_ROW);
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columnNames[column];
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex) {
+			long offset = (long) rowIndex * BYTES_PER_ROW;
+			if (columnIndex == 0) {
+				return String.format("%08X", offset);
+			}
+			long chunkIndex = offset / CHUNK_SIZE;
+			byte[] chunk = chunks.get(chunkIndex);
+			if (chunk == null) {
+				requestChunk(chunkIndex);
+				return "";
+			}
+			int offsetInChunk = (int) (offset - chunkIndex * CHUNK_SIZE);
+			int rowLength = Math.max(0, Math.min(BYTES_PER_ROW, chunk.length - offsetInChunk));
+			int written = columnIndex == 1 ? HexUtil.writeHex(chunk, offsetInChunk, rowLength, rowBuffer, 0, ' ')
+					: HexUtil.writeAscii(chunk, offsetInChunk, rowLength, rowBuffer, 0);
+			return new String(rowBuffer, 0, written);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+
+public class ListValueViewer extends PagedCollectionViewer {
+	private static final long serialVersionUID = 7473340546094946357L;
+
+	public ListValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(connectionManager, taskOwner, key, header, new String[] { "Index", "Value" }, new Class<?>[] { Long.class, String.class });
+	}
+
+	@Override
+	protected Long fetchCount(RedisClusterCommands<String, String> commands) {
+		return commands.llen(key);
+	}
+
+	@Override
+	protected Page fetchPage(RedisClusterCommands<String, String> commands, Object pageState, int pageSize) {
+		long offset = pageState != null ? (Long) pageState : 0L;
+		List<String> values = commands.lrange(key, offset, offset + pageSize - 1);
+		List<Object[]> rows = new ArrayList<>(values.size());
+		long index = offset;
+		for (String value : values) {
+			rows.add(new Object[] { index++, abbreviate(value) });
+		}
+		return new Page(rows, index, values.size() < pageSize);
+	}
+}
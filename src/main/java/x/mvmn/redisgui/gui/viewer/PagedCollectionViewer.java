@@ -0,0 +1,146 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.awt.BorderLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.List;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.gui.util.ArrayTableModel;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+// Loads collection elements page by page with cursor/range commands as the user scrolls - never the whole collection at once
+public abstract class PagedCollectionViewer extends JPanel {
+	private static final long serialVersionUID = 3960224938137342640L;
+
+	protected static final int PAGE_SIZE = 200;
+	protected static final int MAX_LOADED_ELEMENTS = 50000;
+	protected static final int MAX_DISPLAYED_CHARS = 1024;
+
+	protected final RedisConnectionManager connectionManager;
+	protected final String taskOwner;
+	protected final String key;
+	private final String header;
+	private final ArrayTableModel tableModel;
+	private final JTable table;
+	private final JLabel lblStatus = new JLabel(" ");
+	private volatile Long elementCount;
+	private Object pageState;
+	private boolean loading;
+	private boolean finished;
+	private TaskHandle pageTask;
+
+	protected PagedCollectionViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header, String[] columns,
+			Class<?>[] columnClasses) {
+		super(new BorderLayout());
+		this.connectionManager = connectionManager;
+		this.taskOwner = taskOwner;
+		this.key = key;
+		this.header = header;
+		this.tableModel = new ArrayTableModel(columns, columnClasses);
+		this.table = new JTable(tableModel);
+		table.setFillsViewportHeight(true);
+
+		JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.getViewport().addChangeListener(e -> loadMoreIfNeeded());
+		this.add(lblStatus, BorderLayout.NORTH);
+		this.add(scrollPane, BorderLayout.CENTER);
+		updateStatus();
+
+		TaskManager.getInstance().task(TaskClass.INTERACTIVE, "Count elements of " + key).owner(taskOwner).submit(() -> {
+			elementCount = fetchCount(connectionManager.sync());
+			SwingUtil.publish(this::updateStatus);
+		});
+		loadNextPage();
+	}
+
+	// The cheap O(1) *LEN/*CARD count
+	protected abstract Long fetchCount(RedisClusterCommands<String, String> commands);
+
+	// Page state is whatever the implementation needs to continue - a cursor, an offset or an ID. Null for the first page.
+	protected abstract Page fetchPage(RedisClusterCommands<String, String> commands, Object pageState, int pageSize);
+
+	private void loadMoreIfNeeded() {
+		// Replaced by another viewer - no point fetching more for it
+		if (!isDisplayable()) {
+			return;
+		}
+		Rectangle visibleRect = table.getVisibleRect();
+		int lastVisibleRow = table.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+		if (lastVisibleRow < 0 || lastVisibleRow >= tableModel.getRowCount() - PAGE_SIZE / 2) {
+			loadNextPage();
+		}
+	}
+
+	// EDT only
+	private void loadNextPage() {
+		if (loading || finished || tableModel.getRowCount() >= MAX_LOADED_ELEMENTS) {
+			return;
+		}
+		loading = true;
+		updateStatus();
+		Object state = pageState;
+		// Supersede key per viewer - a page load of one viewer must not cancel that of another
+		pageTask = TaskManager.getInstance()
+				.task(TaskClass.INTERACTIVE, "Load elements of " + key)
+				.owner(taskOwner)
+				.supersedes("valueViewerPage/" + System.identityHashCode(this))
+				.finalOp(() -> {
+					loading = false;
+					updateStatus();
+					if (!pageTask.isCancelled()) {
+						loadMoreIfNeeded();
+					}
+				})
+				.submit(() -> {
+					Page page = fetchPage(connectionManager.sync(), state, PAGE_SIZE);
+					SwingUtil.publish(() -> {
+						pageState = page.nextState;
+						finished = page.finished;
+						tableModel.addRows(page.rows);
+					});
+				});
+	}
+
+	private void updateStatus() {
+		Long count = elementCount;
+		int loaded = tableModel.getRowCount();
+		StringBuilder status = new StringBuilder(header);
+		status.append(" | Elements: ").append(count != null ? String.format("%,d", count) : "...");
+		status.append(String.format(" | Loaded: %,d", loaded));
+		if (loading) {
+			status.append(" (loading...)");
+		} else if (!finished && loaded >= MAX_LOADED_ELEMENTS) {
+			status.append(String.format(" (limit of %,d loaded elements reached)", MAX_LOADED_ELEMENTS));
+		}
+		lblStatus.setText(status.toString());
+	}
+
+	protected static String abbreviate(String value) {
+		if (value == null || value.length() <= MAX_DISPLAYED_CHARS) {
+			return value;
+		}
+		return value.substring(0, MAX_DISPLAYED_CHARS) + "... (" + value.length() + " chars)";
+	}
+
+	protected static class Page {
+		private final List<Object[]> rows;
+		private final Object nextState;
+		private final boolean finished;
+
+		public Page(List<Object[]> rows, Object nextState, boolean finished) {
+			this.rows = rows;
+			this.nextState = nextState;
+			this.finished = finished;
+		}
+	}
+}
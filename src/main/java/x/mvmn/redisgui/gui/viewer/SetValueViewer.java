@@ -0,0 +1,38 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.ValueScanCursor;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.task.TaskHandle;
+
+public class SetValueViewer extends PagedCollectionViewer {
+	private static final long serialVersionUID = 2838216530926452613L;
+
+	public SetValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(connectionManager, taskOwner, key, header, new String[] { "Member" }, new Class<?>[] { String.class });
+	}
+
+	@Override
+	protected Long fetchCount(RedisClusterCommands<String, String> commands) {
+		return commands.scard(key);
+	}
+
+	@Override
+	protected Page fetchPage(RedisClusterCommands<String, String> commands, Object pageState, int pageSize) {
+		ScanCursor cursor = pageState != null ? (ScanCursor) pageState : ScanCursor.INITIAL;
+		List<Object[]> rows = new ArrayList<>();
+		do {
+			ValueScanCursor<String> result = commands.sscan(key, cursor, ScanArgs.Builder.limit(pageSize));
+			for (String member : result.getValues()) {
+				rows.add(new Object[] { abbreviate(member) });
+			}
+			cursor = result;
+		} while (rows.isEmpty() && !cursor.isFinished() && !TaskHandle.isCurrentCancelled());
+		return new Page(rows, cursor, cursor.isFinished());
+	}
+}
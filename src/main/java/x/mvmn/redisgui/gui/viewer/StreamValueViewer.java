@@ -0,0 +1,50 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.lettuce.core.Limit;
+import io.lettuce.core.Range;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+
+public class StreamValueViewer extends PagedCollectionViewer {
+	private static final long serialVersionUID = -4208237767716580446L;
+
+	public StreamValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(connectionManager, taskOwner, key, header, new String[] { "ID", "Fields" }, new Class<?>[] { String.class, String.class });
+	}
+
+	@Override
+	protected Long fetchCount(RedisClusterCommands<String, String> commands) {
+		return commands.xlen(key);
+	}
+
+	@Override
+	protected Page fetchPage(RedisClusterCommands<String, String> commands, Object pageState, int pageSize) {
+		String start = pageState != null ? (String) pageState : "-";
+		List<StreamMessage<String, String>> messages = commands.xrange(key,
+				Range.create(start, "+"), Limit.create(0, pageSize));
+		List<Object[]> rows = new ArrayList<>(messages.size());
+		String lastId = null;
+		for (StreamMessage<String, String> message : messages) {
+			rows.add(new Object[] { message.getId(), abbreviate(String.valueOf(message.getBody())) });
+			lastId = message.getId();
+		}
+		return new Page(rows, lastId != null ? nextId(lastId) : start, messages.size() < pageSize);
+	}
+
+	// Smallest ID greater than the given one - XRANGE start is inclusive
+	private static String nextId(String id) {
+		int separatorIndex = id.indexOf('-');
+		if (separatorIndex < 0) {
+			return id + "-1";
+		}
+		long sequence = Long.parseLong(id.substring(separatorIndex + 1));
+		if (sequence == Long.MAX_VALUE) {
+			return (Long.parseLong(id.substring(0, separatorIndex)) + 1) + "-0";
+		}
+		return id.substring(0, separatorIndex) + "-" + (sequence + 1);
+	}
+}
@@ -0,0 +1,53 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.awt.BorderLayout;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskManager;
+import x.mvmn.redisgui.util.LangUtil;
+
+// Shows at most MAX_LOADED_BYTES of a string value - fetched with GETRANGE, so huge values never get transferred in full
+public class StringValueViewer extends JPanel {
+	private static final long serialVersionUID = 5914395924478913405L;
+
+	protected static final int MAX_LOADED_BYTES = 1 << 20;
+
+	private final JLabel lblStatus = new JLabel(" ");
+	private final JTextArea txaValue = new JTextArea();
+
+	public StringValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(new BorderLayout());
+		txaValue.setEditable(false);
+		txaValue.setLineWrap(true);
+		lblStatus.setText(header + " | Loading...");
+		this.add(lblStatus, BorderLayout.NORTH);
+		this.add(new JScrollPane(txaValue), BorderLayout.CENTER);
+
+		TaskManager.getInstance()
+				.task(TaskClass.INTERACTIVE, "Load value of " + key)
+				.owner(taskOwner)
+				.supersedes("valueViewerPage")
+				.submit(() -> {
+					RedisClusterCommands<String, String> commands = connectionManager.sync();
+					long length = commands.strlen(key);
+					String value = commands.getrange(key, 0, MAX_LOADED_BYTES - 1);
+					SwingUtil.publish(() -> {
+						StringBuilder status = new StringBuilder(header).append(" | Length: ").append(LangUtil.formatBytes(length));
+						if (length > MAX_LOADED_BYTES) {
+							status.append(" (showing first ").append(LangUtil.formatBytes(MAX_LOADED_BYTES)).append(")");
+						}
+						lblStatus.setText(status.toString());
+						txaValue.setText(value);
+						txaValue.setCaretPosition(0);
+					});
+				});
+	}
+}
@@ -0,0 +1,37 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.awt.BorderLayout;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+
+public class ValueViewers {
+
+	// Binary mode shows string values as a hex dump fetched over a byte array codec connection, so nothing goes through UTF-8 decoding
+	public static JComponent create(RedisKeyType type, boolean binary, RedisConnectionManager connectionManager, String taskOwner,
+			String key, String header) {
+		switch (type != null ? type : RedisKeyType.UNKNOWN) {
+			case STRING:
+				return binary ? new HexValueViewer(connectionManager, taskOwner, key, header)
+						: new StringValueViewer(connectionManager, taskOwner, key, header);
+			case LIST:
+				return new ListValueViewer(connectionManager, taskOwner, key, header);
+			case SET:
+				return new SetValueViewer(connectionManager, taskOwner, key, header);
+			case ZSET:
+				return new ZSetValueViewer(connectionManager, taskOwner, key, header);
+			case HASH:
+				return new HashValueViewer(connectionManager, taskOwner, key, header);
+			case STREAM:
+				return new StreamValueViewer(connectionManager, taskOwner, key, header);
+			default:
+				JPanel result = new JPanel(new BorderLayout());
+				result.add(new JLabel(header + " | No viewer available for this type"), BorderLayout.NORTH);
+				return result;
+		}
+	}
+}
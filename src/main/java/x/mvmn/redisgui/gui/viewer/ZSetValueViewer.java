@@ -0,0 +1,34 @@
+package x.mvmn.redisgui.gui.viewer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import x.mvmn.redisgui.redis.RedisConnectionManager;
+
+public class ZSetValueViewer extends PagedCollectionViewer {
+	private static final long serialVersionUID = -1526493406498458497L;
+
+	public ZSetValueViewer(RedisConnectionManager connectionManager, String taskOwner, String key, String header) {
+		super(connectionManager, taskOwner, key, header, new String[] { "Rank", "Member", "Score" },
+				new Class<?>[] { Long.class, String.class, Double.class });
+	}
+
+	@Override
+	protected Long fetchCount(RedisClusterCommands<String, String> commands) {
+		return commands.zcard(key);
+	}
+
+	@Override
+	protected Page fetchPage(RedisClusterCommands<String, String> commands, Object pageState, int pageSize) {
+		long offset = pageState != null ? (Long) pageState : 0L;
+		List<ScoredValue<String>> values = commands.zrangeWithScores(key, offset, offset + pageSize - 1);
+		List<Object[]> rows = new ArrayList<>(values.size());
+		long rank = offset;
+		for (ScoredValue<String> value : values) {
+			rows.add(new Object[] { rank++, abbreviate(value.getValue()), value.getScore() });
+		}
+		return new Page(rows, rank, values.size() < pageSize);
+	}
+}
@@ -0,0 +1,7 @@
+package x.mvmn.redisgui.lang;
+
+public interface UnsafeFunction<T, R> {
+
+	R apply(T t) throws Exception;
+
+}
@@ -0,0 +1,281 @@
+package x.mvmn.redisgui.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Thread-safe aggregation of per-key sizes - keeps only a bounded top-N per type plus per type and per prefix totals
+public class BigKeysReport {
+
+	public static final String NO_PREFIX = "(no prefix)";
+	public static final String OTHER_PREFIXES = "(other)";
+
+	private static final Comparator<KeyStats> BY_RANK = Comparator.comparingLong(KeyStats::getRank);
+	private static final String STATE_TOP_N = "topN";
+	private static final String STATE_DELIMITER = "delimiter";
+	private static final String STATE_PREFIX_DEPTH = "prefixDepth";
+	private static final String STATE_MAX_PREFIXES = "maxPrefixes";
+	private static final String STATE_TOTAL = "total";
+	private static final String STATE_TYPE_PREFIX = "type.";
+	private static final String STATE_PREFIX_PREFIX = "prefix.";
+	private static final String STATE_TOP_PREFIX = "top.";
+
+	private final int topN;
+	private final String delimiter;
+	private final int prefixDepth;
+	private final int maxPrefixes;
+	private final Map<RedisKeyType, PriorityQueue<KeyStats>> topKeysByType = new EnumMap<>(RedisKeyType.class);
+	private final Map<RedisKeyType, Aggregate> byType = new EnumMap<>(RedisKeyType.class);
+	private final Map<String, Aggregate> byPrefix = new HashMap<>();
+	private final Aggregate total = new Aggregate();
+
+	public BigKeysReport(int topN, String delimiter, int prefixDepth, int maxPrefixes) {
+		this.topN = topN;
+		this.delimiter = delimiter;
+		this.prefixDepth = prefixDepth;
+		this.maxPrefixes = maxPrefixes;
+	}
+
+	// Memory or length may be negative if unknown
+	public synchronized void record(String key, RedisKeyType type, long length, long memory) {
+		if (type == null) {
+			return;
+		}
+		KeyStats stats = new KeyStats(key, type, length, memory);
+		PriorityQueue<KeyStats> topKeys = topKeysByType.computeIfAbsent(type, t -> new PriorityQueue<>(topN + 1, BY_RANK));
+		if (topKeys.size() < topN) {
+			topKeys.add(stats);
+		} else if (topKeys.peek().getRank() < stats.getRank()) {
+			topKeys.poll();
+			topKeys.add(stats);
+		}
+		byType.computeIfAbsent(type, t -> new Aggregate()).add(length, memory);
+		String prefix = prefixOf(key);
+		Aggregate prefixAggregate = byPrefix.get(prefix);
+		if (prefixAggregate == null && byPrefix.size() >= maxPrefixes) {
+			prefix = OTHER_PREFIXES;
+			prefixAggregate = byPrefix.get(prefix);
+		}
+		if (prefixAggregate == null) {
+			prefixAggregate = new Aggregate();
+			byPrefix.put(prefix, prefixAggregate);
+		}
+		prefixAggregate.add(length, memory);
+		total.add(length, memory);
+	}
+
+	private String prefixOf(String key) {
+		int end = -1;
+		for (int i = 0; i < prefixDepth; i++) {
+			int next = key.indexOf(delimiter, end + 1);
+			if (next < 0) {
+				break;
+			}
+			end = next;
+		}
+		return end < 0 ? NO_PREFIX : key.substring(0, end + delimiter.length());
+	}
+
+	// Settings and everything aggregated so far as string values, for a checkpoint to continue from - see fromState()
+	public synchronized Map<String, String> getState() {
+		Map<String, String> state = new LinkedHashMap<>();
+		state.put(STATE_TOP_N, String.valueOf(topN));
+		state.put(STATE_DELIMITER, delimiter);
+		state.put(STATE_PREFIX_DEPTH, String.valueOf(prefixDepth));
+		state.put(STATE_MAX_PREFIXES, String.valueOf(maxPrefixes));
+		state.put(STATE_TOTAL, total.toState());
+		byType.forEach((type, aggregate) -> state.put(STATE_TYPE_PREFIX + type.name(), aggregate.toState()));
+		int i = 0;
+		// Prefix and key go last, so that they may contain commas
+		for (Map.Entry<String, Aggregate> entry : byPrefix.entrySet()) {
+			state.put(STATE_PREFIX_PREFIX + i++, entry.getValue().toState() + "," + entry.getKey());
+		}
+		i = 0;
+		for (PriorityQueue<KeyStats> topKeys : topKeysByType.values()) {
+			for (KeyStats stats : topKeys) {
+				state.put(STATE_TOP_PREFIX + i++,
+						stats.getType().name() + "," + stats.getLength() + "," + stats.getMemory() + "," + stats.getKey());
+			}
+		}
+		return state;
+	}
+
+	// Report with the settings and aggregates of getState()
+	public static BigKeysReport fromState(Map<String, String> state) {
+		BigKeysReport report = new BigKeysReport(Integer.parseInt(requireState(state, STATE_TOP_N)), requireState(state, STATE_DELIMITER),
+				Integer.parseInt(requireState(state, STATE_PREFIX_DEPTH)), Integer.parseInt(requireState(state, STATE_MAX_PREFIXES)));
+		report.restoreState(state);
+		return report;
+	}
+
+	// Replaces everything aggregated so far with the state, which must come from a report with the same settings
+	public synchronized void restoreState(Map<String, String> state) {
+		if (topN != Integer.parseInt(requireState(state, STATE_TOP_N)) || !delimiter.equals(requireState(state, STATE_DELIMITER))
+				|| prefixDepth != Integer.parseInt(requireState(state, STATE_PREFIX_DEPTH))
+				|| maxPrefixes != Integer.parseInt(requireState(state, STATE_MAX_PREFIXES))) {
+			throw new IllegalArgumentException("Big keys report state was saved with different settings");
+		}
+		clear();
+		total.restore(requireState(state, STATE_TOTAL));
+		for (Map.Entry<String, String> entry : state.entrySet()) {
+			String name = entry.getKey();
+			if (name.startsWith(STATE_TYPE_PREFIX)) {
+				Aggregate aggregate = new Aggregate();
+				aggregate.restore(entry.getValue());
+				byType.put(RedisKeyType.valueOf(name.substring(STATE_TYPE_PREFIX.length())), aggregate);
+			} else if (name.startsWith(STATE_PREFIX_PREFIX)) {
+				String[] values = entry.getValue().split(",", 5);
+				Aggregate aggregate = new Aggregate();
+				aggregate.restore(values[0] + "," + values[1] + "," + values[2] + "," + values[3]);
+				byPrefix.put(values[4], aggregate);
+			} else if (name.startsWith(STATE_TOP_PREFIX)) {
+				String[] values = entry.getValue().split(",", 4);
+				KeyStats stats = new KeyStats(values[3], RedisKeyType.valueOf(values[0]), Long.parseLong(values[1]), Long.parseLong(values[2]));
+				topKeysByType.computeIfAbsent(stats.getType(), t -> new PriorityQueue<>(topN + 1, BY_RANK)).add(stats);
+			}
+		}
+	}
+
+	private static String requireState(Map<String, String> state, String name) {
+		String value = state.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Big keys report state has no " + name);
+		}
+		return value;
+	}
+
+	public synchronized void clear() {
+		topKeysByType.clear();
+		byType.clear();
+		byPrefix.clear();
+		total.restore("0,0,0,0");
+	}
+
+	public synchronized List<KeyStats> getTopKeys() {
+		List<KeyStats> result = new ArrayList<>();
+		for (PriorityQueue<KeyStats> topKeys : topKeysByType.values()) {
+			result.addAll(topKeys);
+		}
+		result.sort(BY_RANK.reversed());
+		return result;
+	}
+
+	public synchronized Map<RedisKeyType, Aggregate> getByType() {
+		Map<RedisKeyType, Aggregate> result = new EnumMap<>(RedisKeyType.class);
+		byType.forEach((type, aggregate) -> result.put(type, aggregate.copy()));
+		return result;
+	}
+
+	public synchronized Map<String, Aggregate> getByPrefix() {
+		Map<String, Aggregate> result = new HashMap<>();
+		byPrefix.forEach((prefix, aggregate) -> result.put(prefix, aggregate.copy()));
+		return result;
+	}
+
+	public int getTopN() {
+		return topN;
+	}
+
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	public int getPrefixDepth() {
+		return prefixDepth;
+	}
+
+	public synchronized Aggregate getTotal() {
+		return total.copy();
+	}
+
+	public static class KeyStats {
+		private final String key;
+		private final RedisKeyType type;
+		private final long length;
+		private final long memory;
+
+		public KeyStats(String key, RedisKeyType type, long length, long memory) {
+			this.key = key;
+			this.type = type;
+			this.length = length;
+			this.memory = memory;
+		}
+
+		// Memory if known, length otherwise
+		public long getRank() {
+			return memory >= 0 ? memory : length;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public RedisKeyType getType() {
+			return type;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public long getMemory() {
+			return memory;
+		}
+	}
+
+	public static class Aggregate {
+		private long keys;
+		private long length;
+		private long memory;
+		private long maxMemory;
+
+		protected void add(long length, long memory) {
+			this.keys++;
+			this.length += Math.max(0, length);
+			this.memory += Math.max(0, memory);
+			this.maxMemory = Math.max(this.maxMemory, memory);
+		}
+
+		protected Aggregate copy() {
+			Aggregate copy = new Aggregate();
+			copy.keys = keys;
+			copy.length = length;
+			copy.memory = memory;
+			copy.maxMemory = maxMemory;
+			return copy;
+		}
+
+		protected String toState() {
+			return keys + "," + length + "," + memory + "," + maxMemory;
+		}
+
+		protected void restore(String state) {
+			String[] values = state.split(",");
+			keys = Long.parseLong(values[0]);
+			length = Long.parseLong(values[1]);
+			memory = Long.parseLong(values[2]);
+			maxMemory = Long.parseLong(values[3]);
+		}
+
+		public long getKeys() {
+			return keys;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public long getMemory() {
+			return memory;
+		}
+
+		public long getMaxMemory() {
+			return maxMemory;
+		}
+	}
+}
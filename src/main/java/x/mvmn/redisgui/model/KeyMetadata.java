@@ -0,0 +1,57 @@
+package x.mvmn.redisgui.model;
+
+public class KeyMetadata {
+
+	public static final long TTL_NONE = -1L;
+	public static final long TTL_KEY_MISSING = -2L;
+
+	private final RedisKeyType type;
+	private final Long ttlMillis;
+	private final Long memoryUsage;
+	private final String encoding;
+	private final long fetchedAt;
+
+	public KeyMetadata(RedisKeyType type, Long ttlMillis, Long memoryUsage, String encoding) {
+		this.type = type;
+		this.ttlMillis = ttlMillis;
+		this.memoryUsage = memoryUsage;
+		this.encoding = encoding;
+		this.fetchedAt = System.currentTimeMillis();
+	}
+
+	public RedisKeyType getType() {
+		return type;
+	}
+
+	public Long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	public Long getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	public String getEncoding() {
+		return encoding;
+	}
+
+	public long getFetchedAt() {
+		return fetchedAt;
+	}
+
+	public boolean isKeyMissing() {
+		return ttlMillis != null && ttlMillis == TTL_KEY_MISSING;
+	}
+
+	public String getTtlDescription() {
+		if (ttlMillis == null) {
+			return "n/a";
+		} else if (ttlMillis == TTL_NONE) {
+			return "none";
+		} else if (ttlMillis == TTL_KEY_MISSING) {
+			return "missing";
+		} else {
+			return String.format("%.1f s", ttlMillis / 1000.0d);
+		}
+	}
+}
@@ -9,7 +9,6 @@ import java.util.stream.Stream;
 
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.RedisURI.Builder;
-import io.lettuce.core.resource.ClientResources;
 import x.mvmn.redisgui.lang.Tuple;
 import x.mvmn.redisgui.util.LangUtil;
 
@@ -29,6 +28,21 @@ public class RedisConfigModel {
 		}
 	}
 
+	// Where read commands go for sentinel and cluster connections - writes always go to the primary
+	public static enum ReadPolicy {
+		PRIMARY("Primary"), REPLICA_PREFERRED("Replica preferred"), REPLICA_ONLY("Replica only");
+
+		private final String displayName;
+
+		ReadPolicy(String displayName) {
+			this.displayName = displayName;
+		}
+
+		public String toString() {
+			return displayName;
+		}
+	}
+
 	private RedisConnectionType connectionType = RedisConnectionType.STANDALONE;
 	private String host = "127.0.0.1";
 	private int port = RedisURI.DEFAULT_REDIS_PORT;
@@ -42,6 +56,11 @@ public class RedisConfigModel {
 	private boolean verifyPeer = true;
 	private boolean startTls = false;
 	private Duration timeout = RedisURI.DEFAULT_TIMEOUT_DURATION;
+	private int bulkConnectionsPoolSize = 2;
+	// Background jobs: SCAN COUNT aims at this server time per call, and they back off above this many server ops/sec (0 = never)
+	private int scanTargetMillis = 5;
+	private long maxServerOpsPerSec = 0L;
+	private ReadPolicy readPolicy = ReadPolicy.PRIMARY;
 	private final List<Tuple<String, Integer, Void, Void, Void>> nodes = new ArrayList<>();
 
 	public RedisConfigModel() {}
@@ -64,10 +83,17 @@ public class RedisConfigModel {
 			verifyPeer = Boolean.valueOf(props.getProperty("verifyPeer"));
 			startTls = Boolean.valueOf(props.getProperty("startTls"));
 			timeout = Duration.ofSeconds(LangUtil.parseLong(props.getProperty("timeout"), RedisURI.DEFAULT_TIMEOUT_DURATION.getSeconds()));
+			bulkConnectionsPoolSize = LangUtil.parseInt(props.getProperty("bulkConnectionsPoolSize"), bulkConnectionsPoolSize);
+			scanTargetMillis = LangUtil.parseInt(props.getProperty("scanTargetMillis"), scanTargetMillis);
+			maxServerOpsPerSec = LangUtil.parseLong(props.getProperty("maxServerOpsPerSec"), maxServerOpsPerSec);
+			try {
+				readPolicy = ReadPolicy.valueOf(props.getProperty("readPolicy", ReadPolicy.PRIMARY.name()));
+			} catch (IllegalArgumentException iae) {
+				readPolicy = ReadPolicy.PRIMARY;
+			}
 			String nodes = props.getProperty("nodes");
 			if (nodes != null && !nodes.trim().isEmpty()) {
-				this.nodes.clear();
-				Stream.of(nodes.trim().split(";")).map(this::parseNode).forEach(this.nodes::add);
+				setNodesString(nodes);
 			}
 		}
 	}
@@ -102,7 +128,11 @@ public class RedisConfigModel {
 		props.setProperty("verifyPeer", String.valueOf(verifyPeer));
 		props.setProperty("startTls", String.valueOf(startTls));
 		props.setProperty("timeout", String.valueOf(timeout.getSeconds()));
-		props.setProperty("nodes", nodes.stream().map(node -> node.getA() + ":" + node.getB()).collect(Collectors.joining(";")));
+		props.setProperty("bulkConnectionsPoolSize", String.valueOf(bulkConnectionsPoolSize));
+		props.setProperty("scanTargetMillis", String.valueOf(scanTargetMillis));
+		props.setProperty("maxServerOpsPerSec", String.valueOf(maxServerOpsPerSec));
+		props.setProperty("readPolicy", readPolicy.name());
+		props.setProperty("nodes", getNodesString());
 		return props;
 	}
 
@@ -132,9 +162,22 @@ public class RedisConfigModel {
 				builder = RedisURI.Builder.socket(socket);
 			break;
 			case CLUSTER:
+				// First seed node - see toClusterSeedUris()
 				builder = RedisURI.Builder.redis(host, port);
 			break;
 		}
+		return configure(builder);
+	}
+
+	// Cluster topology gets discovered from whichever of these seed nodes is reachable
+	public List<RedisURI> toClusterSeedUris() {
+		List<RedisURI> result = new ArrayList<>(nodes.size() + 1);
+		result.add(configure(RedisURI.Builder.redis(host, port)));
+		nodes.stream().map(node -> configure(RedisURI.Builder.redis(node.getA(), node.getB()))).forEach(result::add);
+		return result;
+	}
+
+	private RedisURI configure(Builder builder) {
 		builder.withSsl(ssl);
 		if (password != null && password.length > 0) {
 			if (username != null && !username.trim().isEmpty()) {
@@ -149,17 +192,14 @@ public class RedisConfigModel {
 		if (clientName != null && !clientName.trim().isEmpty()) {
 			builder.withClientName(clientName);
 		}
-		if (database >= 0) {
+		// Cluster only supports database 0
+		if (database >= 0 && connectionType != RedisConnectionType.CLUSTER) {
 			builder.withDatabase(database);
 		}
 
 		return builder.build();
 	}
 
-	public ClientResources getClientResources() {
-		return ClientResources.builder().build();
-	}
-
 	public RedisConnectionType getConnectionType() {
 		return connectionType;
 	}
@@ -256,10 +296,57 @@ public class RedisConfigModel {
 		this.timeout = timeout;
 	}
 
+	public int getBulkConnectionsPoolSize() {
+		return bulkConnectionsPoolSize;
+	}
+
+	public void setBulkConnectionsPoolSize(int bulkConnectionsPoolSize) {
+		this.bulkConnectionsPoolSize = bulkConnectionsPoolSize;
+	}
+
+	public int getScanTargetMillis() {
+		return scanTargetMillis;
+	}
+
+	public void setScanTargetMillis(int scanTargetMillis) {
+		this.scanTargetMillis = scanTargetMillis;
+	}
+
+	public long getMaxServerOpsPerSec() {
+		return maxServerOpsPerSec;
+	}
+
+	public void setMaxServerOpsPerSec(long maxServerOpsPerSec) {
+		this.maxServerOpsPerSec = maxServerOpsPerSec;
+	}
+
+	public ReadPolicy getReadPolicy() {
+		return readPolicy;
+	}
+
+	public void setReadPolicy(ReadPolicy readPolicy) {
+		this.readPolicy = readPolicy;
+	}
+
 	public List<Tuple<String, Integer, Void, Void, Void>> getNodes() {
 		return nodes;
 	}
 
+	public String getNodesString() {
+		return nodes.stream().map(node -> node.getA() + ":" + node.getB()).collect(Collectors.joining(";"));
+	}
+
+	public void setNodesString(String nodes) {
+		this.nodes.clear();
+		if (nodes != null && !nodes.trim().isEmpty()) {
+			Stream.of(nodes.trim().split(";"))
+					.map(String::trim)
+					.filter(node -> !node.isEmpty())
+					.map(this::parseNode)
+					.forEach(this.nodes::add);
+		}
+	}
+
 	public String getClientName() {
 		return clientName;
 	}
@@ -0,0 +1,98 @@
+package x.mvmn.redisgui.model;
+
+import java.util.Arrays;
+
+// Numeric INFO fields needed for the dashboard. INFO text is scanned line by line with plain index arithmetic - no regexes, no
+// per-line substrings - and values of several servers (cluster primaries) get summed up.
+public class ServerMetrics {
+
+	public static enum Field {
+		INSTANTANEOUS_OPS_PER_SEC("instantaneous_ops_per_sec"),
+		TOTAL_COMMANDS_PROCESSED("total_commands_processed"),
+		USED_MEMORY("used_memory"),
+		MAXMEMORY("maxmemory"),
+		KEYSPACE_HITS("keyspace_hits"),
+		KEYSPACE_MISSES("keyspace_misses"),
+		EVICTED_KEYS("evicted_keys"),
+		EXPIRED_KEYS("expired_keys"),
+		CONNECTED_CLIENTS("connected_clients"),
+		BLOCKED_CLIENTS("blocked_clients"),
+		MASTER_REPL_OFFSET("master_repl_offset");
+
+		private final String infoName;
+
+		Field(String infoName) {
+			this.infoName = infoName;
+		}
+
+		public String getInfoName() {
+			return infoName;
+		}
+	}
+
+	private static final Field[] FIELDS = Field.values();
+
+	private final long[] values = new long[FIELDS.length];
+	private final boolean[] present = new boolean[FIELDS.length];
+	private int servers;
+
+	public void clear() {
+		Arrays.fill(values, 0L);
+		Arrays.fill(present, false);
+		servers = 0;
+	}
+
+	// Adds the values of one server's INFO output to the totals
+	public void add(String info) {
+		servers++;
+		int length = info.length();
+		int lineStart = 0;
+		while (lineStart < length) {
+			int lineEnd = info.indexOf('\n', lineStart);
+			if (lineEnd < 0) {
+				lineEnd = length;
+			}
+			int end = lineEnd > lineStart && info.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+			if (end > lineStart && info.charAt(lineStart) != '#') {
+				int colon = info.indexOf(':', lineStart);
+				if (colon > lineStart && colon < end) {
+					int nameLength = colon - lineStart;
+					for (int i = 0; i < FIELDS.length; i++) {
+						String name = FIELDS[i].infoName;
+						if (name.length() == nameLength && info.regionMatches(lineStart, name, 0, nameLength)) {
+							values[i] += parseLong(info, colon + 1, end);
+							present[i] = true;
+							break;
+						}
+					}
+				}
+			}
+			lineStart = lineEnd + 1;
+		}
+	}
+
+	private static long parseLong(String text, int start, int end) {
+		boolean negative = start < end && text.charAt(start) == '-';
+		long result = 0;
+		for (int i = negative ? start + 1 : start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				break;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return negative ? -result : result;
+	}
+
+	public boolean has(Field field) {
+		return present[field.ordinal()];
+	}
+
+	public long get(Field field) {
+		return values[field.ordinal()];
+	}
+
+	public int getServers() {
+		return servers;
+	}
+}
@@ -0,0 +1,337 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.model.BigKeysReport;
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+// SCAN producer (one cursor per cluster shard) feeding key batches to parallel workers, each pipelining TYPE and then MEMORY USAGE
+// + length on its own connection. Runs as a CheckpointedScan: the partial report is saved with the cursors now and then, so the
+// analysis continues after a reconnect or can be resumed after a restart. For a checkpoint the workers first have to get through
+// all batches handed over so far.
+public class BigKeysAnalyzer {
+
+	public static final String JOB_NAME = "bigKeys";
+
+	private static final List<String> END_OF_SCAN = Collections.emptyList();
+	private static final String SAMPLES = "samples";
+	private static final String PARALLELISM = "parallelism";
+	private static final String ANALYZED_KEYS = "analyzedKeys";
+	private static final String REPORT_PREFIX = "report.";
+
+	private final RedisConnectionManager connectionManager;
+	private final String owner;
+	private final String pattern;
+	private final int samples;
+	private final int parallelism;
+	private final BigKeysReport report;
+	private final Path checkpointFile;
+	private final AtomicLong analyzedKeys = new AtomicLong();
+	private volatile CheckpointedScan checkpointedScan;
+
+	public BigKeysAnalyzer(RedisConnectionManager connectionManager, String owner, String pattern, int samples, int parallelism,
+			BigKeysReport report, Path checkpointFile) {
+		this.connectionManager = connectionManager;
+		this.owner = owner;
+		this.pattern = pattern;
+		this.samples = samples;
+		this.parallelism = parallelism;
+		this.report = report;
+		this.checkpointFile = checkpointFile;
+	}
+
+	// Analyzer with the pattern, settings and report of the checkpoint in the file, to be run with resume - null if there's none
+	public static BigKeysAnalyzer fromCheckpoint(RedisConnectionManager connectionManager, String owner, Path checkpointFile)
+			throws IOException {
+		ScanCheckpoint checkpoint = CheckpointedScan.loadCheckpoint(checkpointFile, JOB_NAME, connectionManager);
+		if (checkpoint == null) {
+			return null;
+		}
+		BigKeysAnalyzer analyzer = new BigKeysAnalyzer(connectionManager, owner, checkpoint.getPattern(),
+				(int) checkpoint.getLongAttribute(SAMPLES, 5L), (int) checkpoint.getLongAttribute(PARALLELISM, 2L),
+				BigKeysReport.fromState(checkpoint.getAttributes(REPORT_PREFIX)), checkpointFile);
+		analyzer.analyzedKeys.set(checkpoint.getLongAttribute(ANALYZED_KEYS, 0L));
+		return analyzer;
+	}
+
+	// Resume to continue from the checkpoint file, otherwise it's replaced
+	public void run(boolean resume, Consumer<ScanProgress> progressListener) throws Exception {
+		CheckpointedScan scan = new CheckpointedScan(connectionManager, JOB_NAME, pattern, checkpointFile);
+		checkpointedScan = scan;
+		scan.run(resume, new AnalysisJob(), progressListener);
+	}
+
+	private class AnalysisJob implements CheckpointedScan.Job {
+		private final Object pendingLock = new Object();
+		private BlockingQueue<List<String>> batches;
+		private CountDownLatch workersDone;
+		private List<TaskHandle> workers;
+		private AtomicReference<Exception> workerFailure;
+		private long pendingBatches;
+
+		@Override
+		public void begin(ScanCheckpoint from) {
+			if (from != null) {
+				report.restoreState(from.getAttributes(REPORT_PREFIX));
+				analyzedKeys.set(from.getLongAttribute(ANALYZED_KEYS, 0L));
+			} else {
+				report.clear();
+				analyzedKeys.set(0L);
+			}
+			BlockingQueue<List<String>> batches = new ArrayBlockingQueue<>(parallelism * 2);
+			CountDownLatch workersDone = new CountDownLatch(parallelism);
+			AtomicReference<Exception> workerFailure = new AtomicReference<>();
+			this.batches = batches;
+			this.workersDone = workersDone;
+			this.workerFailure = workerFailure;
+			this.workers = new ArrayList<>(parallelism);
+			synchronized (pendingLock) {
+				pendingBatches = 0L;
+			}
+			for (int i = 0; i < parallelism; i++) {
+				workers.add(TaskManager.getInstance()
+						.task(TaskClass.WORKER, "Big keys analysis worker " + (i + 1))
+						.owner(owner)
+						.finalOp(workersDone::countDown)
+						.finalOpSwingThread(false)
+						.submit(() -> {
+							// Own connection per worker rather than a pooled one, so that parallelism isn't capped by the pool size
+							try (StatefulConnection<String, String> connection = connectionManager.openConnection()) {
+								List<String> batch;
+								while ((batch = batches.take()) != END_OF_SCAN) {
+									analyzeBatch(connection, batch);
+									synchronized (pendingLock) {
+										pendingBatches--;
+										pendingLock.notifyAll();
+									}
+								}
+							} catch (Exception e) {
+								// Surfaced by the scanning thread, which decides whether to carry on from the checkpoint
+								workerFailure.compareAndSet(null, e);
+								synchronized (pendingLock) {
+									pendingLock.notifyAll();
+								}
+							}
+						}));
+			}
+		}
+
+		@Override
+		public void accept(List<String> keys) throws InterruptedException {
+			synchronized (pendingLock) {
+				pendingBatches++;
+			}
+			handOver(keys);
+		}
+
+		// Fails instead of blocking forever if a worker died
+		private void handOver(List<String> batch) throws InterruptedException {
+			while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+				checkWorkers();
+			}
+		}
+
+		private void checkWorkers() {
+			Exception failure = workerFailure.get();
+			if (failure != null) {
+				throw new IllegalStateException("Big keys analysis worker failed: " + failure.getMessage(), failure);
+			}
+		}
+
+		@Override
+		public boolean checkpoint(ScanCheckpoint checkpoint) {
+			if (!awaitPendingBatches()) {
+				return false;
+			}
+			checkpoint.setAttribute(SAMPLES, samples)
+					.setAttribute(PARALLELISM, parallelism)
+					.setAttribute(ANALYZED_KEYS, analyzedKeys.get())
+					.setAttributes(REPORT_PREFIX, report.getState());
+			return true;
+		}
+
+		// Waits for the workers to get through all batches handed over. When stopping, that's only waited for up to the command timeout
+		// (interruption put off meanwhile), false if they didn't make it.
+		private boolean awaitPendingBatches() {
+			long stopWaitNanos = connectionManager.getConnection().getTimeout().toNanos();
+			long deadline = TaskHandle.isCurrentCancelled() ? System.nanoTime() + stopWaitNanos : Long.MAX_VALUE;
+			boolean interrupted = Thread.interrupted();
+			try {
+				synchronized (pendingLock) {
+					while (pendingBatches > 0) {
+						checkWorkers();
+						long remaining = deadline == Long.MAX_VALUE ? 100L : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+						if (remaining <= 0) {
+							return false;
+						}
+						try {
+							pendingLock.wait(Math.min(100L, remaining));
+						} catch (InterruptedException e) {
+							interrupted = true;
+						}
+						if (interrupted && deadline == Long.MAX_VALUE) {
+							deadline = System.nanoTime() + stopWaitNanos;
+						}
+					}
+					return true;
+				}
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		public void end(boolean completed) throws InterruptedException {
+			boolean workersFinished = false;
+			try {
+				if (completed) {
+					for (int i = 0; i < parallelism; i++) {
+						handOver(END_OF_SCAN);
+					}
+					while (!workersDone.await(100, TimeUnit.MILLISECONDS)) {
+						checkWorkers();
+						if (TaskHandle.isCurrentCancelled()) {
+							throw new InterruptedException("Big keys analysis stopped");
+						}
+					}
+					checkWorkers();
+					workersFinished = true;
+				}
+			} finally {
+				if (!workersFinished) {
+					workers.forEach(TaskHandle::cancel);
+					awaitCancelledWorkers();
+				}
+			}
+		}
+
+		// Before the report gets restored for another attempt. Workers stuck on a dead connection give up within the command timeout.
+		private void awaitCancelledWorkers() {
+			long deadline = System.nanoTime() + connectionManager.getCommandTimeout().toNanos() * 2;
+			boolean interrupted = Thread.interrupted();
+			try {
+				while (workersDone.getCount() > 0 && System.nanoTime() < deadline) {
+					try {
+						workersDone.await(100, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	private void analyzeBatch(StatefulConnection<String, String> connection, List<String> keys) throws Exception {
+		connectionManager.getScanGovernor().pace();
+		RedisClusterAsyncCommands<String, String> async = RedisClients.async(connection);
+		connection.setAutoFlushCommands(false);
+		try {
+			List<RedisFuture<String>> types = new ArrayList<>(keys.size());
+			for (String key : keys) {
+				types.add(async.type(key));
+			}
+			connection.flushCommands();
+			RedisFutures.awaitQuietly(connection.getTimeout(), types);
+			for (RedisFuture<String> type : types) {
+				// TYPE works for any key, so a failure means connection trouble - skipping the keys would leave them out of a checkpoint
+				if (type.toCompletableFuture().isCompletedExceptionally()) {
+					type.get();
+				}
+			}
+
+			List<RedisFuture<?>> sizeFutures = new ArrayList<>(keys.size() * 2);
+			List<RedisKeyType> keyTypes = new ArrayList<>(keys.size());
+			List<RedisFuture<Long>> memories = new ArrayList<>(keys.size());
+			List<RedisFuture<Long>> lengths = new ArrayList<>(keys.size());
+			for (int i = 0; i < keys.size(); i++) {
+				RedisKeyType type = RedisKeyType.of(RedisFutures.valueOrNull(types.get(i)));
+				keyTypes.add(type);
+				RedisFuture<Long> memory = type != null ? KeyTypeCommands.memoryUsage(async, keys.get(i), samples) : null;
+				RedisFuture<Long> length = type != null ? KeyTypeCommands.length(async, type, keys.get(i)) : null;
+				memories.add(memory);
+				lengths.add(length);
+				if (memory != null) {
+					sizeFutures.add(memory);
+				}
+				if (length != null) {
+					sizeFutures.add(length);
+				}
+			}
+			connection.flushCommands();
+			RedisFutures.awaitQuietly(connection.getTimeout(), sizeFutures);
+
+			// Under the report lock, so that a worker of an attempt being rolled back can't record into the report once it's restored
+			synchronized (report) {
+				if (TaskHandle.isCurrentCancelled()) {
+					throw new InterruptedException("Big keys analysis worker stopped");
+				}
+				for (int i = 0; i < keys.size(); i++) {
+					RedisKeyType type = keyTypes.get(i);
+					// Keys deleted between SCAN and TYPE come back as type "none"
+					if (type != null && type != RedisKeyType.UNKNOWN) {
+						Long memory = memories.get(i) != null ? RedisFutures.valueOrNull(memories.get(i)) : null;
+						Long length = lengths.get(i) != null ? RedisFutures.valueOrNull(lengths.get(i)) : null;
+						report.record(keys.get(i), type, length != null ? length : -1L, memory != null ? memory : -1L);
+					}
+				}
+				analyzedKeys.addAndGet(keys.size());
+			}
+		} finally {
+			connection.setAutoFlushCommands(true);
+		}
+	}
+
+	// Connection trouble and checkpoint status of the current run, null if nothing to tell
+	public String getStatus() {
+		CheckpointedScan scan = checkpointedScan;
+		return scan != null ? scan.getStatus() : null;
+	}
+
+	public Long getLastCheckpointMillis() {
+		CheckpointedScan scan = checkpointedScan;
+		return scan != null ? scan.getLastCheckpointMillis() : null;
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public int getSamples() {
+		return samples;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public long getAnalyzedKeys() {
+		return analyzedKeys.get();
+	}
+
+	public BigKeysReport getReport() {
+		return report;
+	}
+}
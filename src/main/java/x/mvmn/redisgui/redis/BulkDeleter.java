@@ -0,0 +1,204 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Deletes keys matching a pattern: SCAN pages (one cursor per cluster shard) are split into batches, each sent as one UNLINK -
+// the cluster connection splits them per slot - and all batches of a page are pipelined, then awaited before the next page.
+// UNLINK frees values in a background thread of the server, so big keys don't block it. Never uses KEYS.
+// Deletion runs as a CheckpointedScan, so it continues after a reconnect and can be resumed after a restart without rescanning.
+public class BulkDeleter {
+
+	public static final String JOB_NAME = "bulkDelete";
+
+	private static final int MAX_SAMPLE_KEYS = 100;
+	private static final String BATCH_SIZE = "batchSize";
+	private static final String MAX_KEYS_PER_SECOND = "maxKeysPerSecond";
+	private static final String DELETED = "deleted";
+	private static final String FAILED_BATCHES = "failedBatches";
+
+	private final RedisConnectionManager connectionManager;
+	private final String pattern;
+	private final int batchSize;
+	private final int maxKeysPerSecond;
+	private final boolean dryRun;
+	private final Path checkpointFile;
+	private final AtomicLong deleted = new AtomicLong();
+	private final AtomicLong failedBatches = new AtomicLong();
+	private final List<String> sampleKeys = new ArrayList<>();
+	private long nextSendNanos;
+	private volatile CheckpointedScan checkpointedScan;
+
+	// Max keys per second of 0 means no limit. Dry run only counts the matching keys and keeps a sample of them - it isn't checkpointed.
+	public BulkDeleter(RedisConnectionManager connectionManager, String pattern, int batchSize, int maxKeysPerSecond, boolean dryRun,
+			Path checkpointFile) {
+		this.connectionManager = connectionManager;
+		this.pattern = pattern;
+		this.batchSize = batchSize;
+		this.maxKeysPerSecond = maxKeysPerSecond;
+		this.dryRun = dryRun;
+		this.checkpointFile = checkpointFile;
+	}
+
+	// Deleter with the pattern and settings of the checkpoint in the file, to be run with resume - null if there's none
+	public static BulkDeleter fromCheckpoint(RedisConnectionManager connectionManager, Path checkpointFile) throws IOException {
+		ScanCheckpoint checkpoint = CheckpointedScan.loadCheckpoint(checkpointFile, JOB_NAME, connectionManager);
+		if (checkpoint == null) {
+			return null;
+		}
+		return new BulkDeleter(connectionManager, checkpoint.getPattern(), (int) checkpoint.getLongAttribute(BATCH_SIZE, 500L),
+				(int) checkpoint.getLongAttribute(MAX_KEYS_PER_SECOND, 0L), false, checkpointFile);
+	}
+
+	// Resume to continue deleting from the checkpoint file, otherwise it's replaced
+	public ScanProgress run(boolean resume, Consumer<ScanProgress> progressListener) throws Exception {
+		if (dryRun) {
+			return new ParallelKeyScanner(connectionManager, pattern).scan(keys -> {
+				synchronized (sampleKeys) {
+					for (int i = 0; i < keys.size() && sampleKeys.size() < MAX_SAMPLE_KEYS; i++) {
+						sampleKeys.add(keys.get(i));
+					}
+				}
+			}, progressListener);
+		}
+		CheckpointedScan scan = new CheckpointedScan(connectionManager, JOB_NAME, pattern, checkpointFile);
+		checkpointedScan = scan;
+		return scan.run(resume, new DeleteJob(), progressListener);
+	}
+
+	private class DeleteJob implements CheckpointedScan.Job {
+		private Duration timeout;
+		private RedisClusterAsyncCommands<String, String> commands;
+
+		@Override
+		public void begin(ScanCheckpoint from) {
+			deleted.set(from != null ? from.getLongAttribute(DELETED, 0L) : 0L);
+			failedBatches.set(from != null ? from.getLongAttribute(FAILED_BATCHES, 0L) : 0L);
+			timeout = connectionManager.getConnection().getTimeout();
+			commands = RedisClients.async(connectionManager.getConnection());
+			nextSendNanos = System.nanoTime();
+		}
+
+		@Override
+		public void accept(List<String> keys) throws Exception {
+			deleteAll(commands, keys, timeout);
+		}
+
+		// Pages are deleted before the next one is scanned, so the counters always cover all keys handed over
+		@Override
+		public boolean checkpoint(ScanCheckpoint checkpoint) {
+			checkpoint.setAttribute(BATCH_SIZE, batchSize)
+					.setAttribute(MAX_KEYS_PER_SECOND, maxKeysPerSecond)
+					.setAttribute(DELETED, deleted.get())
+					.setAttribute(FAILED_BATCHES, failedBatches.get());
+			return true;
+		}
+
+		@Override
+		public void end(boolean completed) {}
+	}
+
+	private void deleteAll(RedisClusterAsyncCommands<String, String> commands, List<String> keys, Duration timeout) throws Exception {
+		List<RedisFuture<Long>> futures = new ArrayList<>();
+		for (int start = 0; start < keys.size(); start += batchSize) {
+			if (TaskHandle.isCurrentCancelled()) {
+				// Page not done - a checkpoint must not count it as deleted
+				throw new InterruptedException("Deletion stopped");
+			}
+			List<String> batch = keys.subList(start, Math.min(keys.size(), start + batchSize));
+			connectionManager.getScanGovernor().pace();
+			throttle(batch.size());
+			futures.add(commands.unlink(batch.toArray(new String[batch.size()])));
+		}
+		RedisFutures.awaitQuietly(timeout, futures);
+		for (RedisFuture<Long> future : futures) {
+			Long result = RedisFutures.valueOrNull(future);
+			if (result != null) {
+				deleted.addAndGet(result);
+			} else if (isRejected(future)) {
+				failedBatches.incrementAndGet();
+			} else {
+				// Lost with the connection rather than refused by the server - fails the page, so that it's done again on reconnect
+				future.get();
+			}
+		}
+	}
+
+	private static boolean isRejected(RedisFuture<Long> future) {
+		try {
+			future.get();
+			return false;
+		} catch (ExecutionException e) {
+			return e.getCause() instanceof RedisCommandExecutionException;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	// Paces sends so that the average rate stays under the limit, without letting an idle period build up a burst allowance
+	private void throttle(int keys) throws InterruptedException {
+		if (maxKeysPerSecond <= 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		if (nextSendNanos > now) {
+			TimeUnit.NANOSECONDS.sleep(nextSendNanos - now);
+			now = nextSendNanos;
+		}
+		nextSendNanos = now + keys * 1_000_000_000L / maxKeysPerSecond;
+	}
+
+	public long getDeleted() {
+		return deleted.get();
+	}
+
+	public long getFailedBatches() {
+		return failedBatches.get();
+	}
+
+	public List<String> getSampleKeys() {
+		synchronized (sampleKeys) {
+			return new ArrayList<>(sampleKeys);
+		}
+	}
+
+	// Connection trouble and checkpoint status of the current run, null if nothing to tell
+	public String getStatus() {
+		CheckpointedScan scan = checkpointedScan;
+		return scan != null ? scan.getStatus() : null;
+	}
+
+	public Long getLastCheckpointMillis() {
+		CheckpointedScan scan = checkpointedScan;
+		return scan != null ? scan.getLastCheckpointMillis() : null;
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getMaxKeysPerSecond() {
+		return maxKeysPerSecond;
+	}
+
+	public boolean isDryRun() {
+		return dryRun;
+	}
+}
@@ -0,0 +1,214 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisConnectionException;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Runs a scan-driven job so that it survives a dropped connection or an app restart. Every few seconds, between scan rounds, the job
+// brings its partial results up to date with the keys handed to it so far and they're saved along with the node cursors to a
+// checkpoint file. If the connection fails the job is rolled back to the last checkpoint and continued from there once the server can
+// be reached again; after a restart it can be resumed from the checkpoint file. The file is deleted once the scan completes.
+public class CheckpointedScan {
+
+	public static interface Job {
+		// Before each attempt: continue from the checkpoint, start from scratch if null - results of a failed attempt must be dropped
+		void begin(ScanCheckpoint from) throws Exception;
+
+		// A page of keys, like the batch consumer of ParallelKeyScanner
+		void accept(List<String> keys) throws Exception;
+
+		// Adds the partial results for all keys accepted so far to the checkpoint. False if that can't be done now (e.g. stopping).
+		boolean checkpoint(ScanCheckpoint checkpoint) throws Exception;
+
+		// After each attempt - completed if the scan went through to the end
+		void end(boolean completed) throws Exception;
+	}
+
+	private static final long CHECKPOINT_INTERVAL_MILLIS = 10_000L;
+	private static final long RETRY_DELAY_MILLIS = 5_000L;
+	private static final String JOB = "job";
+	private static final String DATABASE = "database";
+
+	private final RedisConnectionManager connectionManager;
+	private final String jobName;
+	private final String pattern;
+	private final Path checkpointFile;
+	private volatile ScanCheckpoint lastCheckpoint;
+	private volatile Long lastCheckpointMillis;
+	private volatile long checkpointDueFromMillis;
+	private volatile int reconnects;
+	private volatile String status;
+
+	// Job name is saved with the checkpoint so that a checkpoint of one kind of job doesn't get resumed by another
+	public CheckpointedScan(RedisConnectionManager connectionManager, String jobName, String pattern, Path checkpointFile) {
+		this.connectionManager = connectionManager;
+		this.jobName = jobName;
+		this.pattern = pattern;
+		this.checkpointFile = checkpointFile;
+	}
+
+	// Checkpoint in the file if it's one of this job on the same database, null if there's none
+	public static ScanCheckpoint loadCheckpoint(Path checkpointFile, String jobName, RedisConnectionManager connectionManager)
+			throws IOException {
+		ScanCheckpoint checkpoint = ScanCheckpoint.load(checkpointFile);
+		if (checkpoint == null || !jobName.equals(checkpoint.getAttribute(JOB))
+				|| connectionManager.getDatabase() != checkpoint.getLongAttribute(DATABASE, -1L)) {
+			return null;
+		}
+		return checkpoint;
+	}
+
+	public ScanProgress run(boolean resume, Job job, Consumer<ScanProgress> progressListener) throws Exception {
+		ScanCheckpoint from = null;
+		if (resume) {
+			from = loadCheckpoint(checkpointFile, jobName, connectionManager);
+			if (from == null || !from.getPattern().equals(pattern)) {
+				throw new IllegalStateException("No checkpoint of " + jobName + " for pattern " + pattern + " to resume from");
+			}
+		} else {
+			Files.deleteIfExists(checkpointFile);
+		}
+		lastCheckpoint = from;
+		while (true) {
+			try {
+				return attempt(job, progressListener);
+			} catch (Exception e) {
+				if (TaskHandle.isCurrentCancelled() || !isConnectionFailure(e)) {
+					throw e;
+				}
+				reconnects++;
+				status = "Connection failed (" + e.getMessage() + "), continuing from the last checkpoint shortly";
+				TimeUnit.MILLISECONDS.sleep(RETRY_DELAY_MILLIS);
+			}
+		}
+	}
+
+	private ScanProgress attempt(Job job, Consumer<ScanProgress> progressListener) throws Exception {
+		ScanCheckpoint from = lastCheckpoint;
+		job.begin(from);
+		status = from != null ? "Continuing from checkpoint" : (reconnects > 0 ? "Starting over, no checkpoint saved yet" : null);
+		ParallelKeyScanner scanner = new ParallelKeyScanner(connectionManager, pattern);
+		checkpointDueFromMillis = System.currentTimeMillis();
+		ScanProgress result = null;
+		Exception failure = null;
+		try {
+			result = scanner.scan(from != null ? from.getCursors() : null, keys -> {
+				try {
+					job.accept(keys);
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					// Must not return normally - the scanner would move the cursor past keys not processed
+					throw new JobFailure(e);
+				}
+			}, progress -> {
+				if (progressListener != null) {
+					progressListener.accept(progress);
+				}
+				if (System.currentTimeMillis() - checkpointDueFromMillis >= CHECKPOINT_INTERVAL_MILLIS) {
+					checkpointDueFromMillis = System.currentTimeMillis();
+					saveCheckpoint(job, scanner);
+				}
+			});
+		} catch (JobFailure e) {
+			failure = (Exception) e.getCause();
+		} catch (Exception e) {
+			failure = e;
+		}
+		if (failure != null || !result.isFinished() || TaskHandle.isCurrentCancelled()) {
+			try {
+				// Stopped by the user - save where it got to, if the job can tell. Cursors of every node cover the keys already handed
+				// over, so this holds even if the scan was interrupted half way through a round.
+				if (TaskHandle.isCurrentCancelled() && !scanner.getNodeCursors().isEmpty()) {
+					// Interruption put off meanwhile, or the file channel gets closed on it
+					boolean interrupted = Thread.interrupted();
+					try {
+						saveCheckpoint(job, scanner);
+					} finally {
+						if (interrupted) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				}
+			} catch (Exception e) {
+				status = "Could not save checkpoint: " + e.getMessage();
+			} finally {
+				try {
+					job.end(false);
+				} catch (Exception e) {
+					if (failure == null) {
+						throw e;
+					}
+					failure.addSuppressed(e);
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return result;
+		}
+		// Completing may fail too, e.g. workers of the job losing the connection - then it's carried on from the checkpoint as well
+		job.end(true);
+		Files.deleteIfExists(checkpointFile);
+		return result;
+	}
+
+	private void saveCheckpoint(Job job, ParallelKeyScanner scanner) {
+		try {
+			ScanCheckpoint checkpoint = new ScanCheckpoint(pattern, scanner.getNodeCursors()).setAttribute(JOB, jobName)
+					.setAttribute(DATABASE, connectionManager.getDatabase());
+			if (job.checkpoint(checkpoint)) {
+				checkpoint.save(checkpointFile);
+				lastCheckpoint = checkpoint;
+				lastCheckpointMillis = System.currentTimeMillis();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JobFailure(e);
+		}
+	}
+
+	private boolean isConnectionFailure(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof RedisConnectionException || cause instanceof RedisCommandTimeoutException
+					|| (cause instanceof IOException && !(cause instanceof UncheckedIOException))) {
+				return true;
+			}
+		}
+		// Commands in flight when the connection drops fail with a plain RedisException
+		return connectionManager.getState() != RedisConnectionManager.ConnectionState.CONNECTED;
+	}
+
+	// When a checkpoint was last saved by this run, null if none yet
+	public Long getLastCheckpointMillis() {
+		return lastCheckpointMillis;
+	}
+
+	public int getReconnects() {
+		return reconnects;
+	}
+
+	// What happened with the connection or checkpoint lately, null if nothing to tell
+	public String getStatus() {
+		return status;
+	}
+
+	private static class JobFailure extends RuntimeException {
+		private static final long serialVersionUID = 2403874391187532614L;
+
+		private JobFailure(Exception cause) {
+			super(cause);
+		}
+	}
+}
@@ -0,0 +1,460 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+
+// Export file of DUMP payloads with their remaining TTL, in one of two formats:
+// BINARY - the magic header, then per key: int key length, key bytes, long PTTL (-1 = no expiry), int payload length, payload bytes;
+// JSONL - one {"key":..., "pttl":..., "dump":"<base64>"} object per line.
+// Written through a fixed-size buffer straight to a FileChannel, so memory use doesn't depend on the file size.
+public class DumpFile {
+
+	public static final byte[] MAGIC = "MVMNRDX1".getBytes(StandardCharsets.US_ASCII);
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+
+	public static enum Format {
+		BINARY, JSONL;
+	}
+
+	public static class Writer implements Closeable {
+		private final FileChannel channel;
+		private final Format format;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final Base64.Encoder base64 = Base64.getEncoder();
+		private final StringBuilder line = new StringBuilder();
+
+		// Appends after the first position bytes, dropping whatever follows them - e.g. records written after the last checkpoint.
+		// Position 0 starts a new file.
+		public Writer(Path file, Format format, long position) throws IOException {
+			this.format = format;
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			try {
+				channel.truncate(position);
+				channel.position(position);
+				if (position == 0 && format == Format.BINARY) {
+					buffer.put(MAGIC);
+				}
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		public void write(byte[] key, long pttl, byte[] dump) throws IOException {
+			if (format == Format.BINARY) {
+				ensureSpace(4 + key.length + 8 + 4);
+				buffer.putInt(key.length);
+				put(key);
+				ensureSpace(8 + 4);
+				buffer.putLong(pttl);
+				buffer.putInt(dump.length);
+				put(dump);
+			} else {
+				line.setLength(0);
+				line.append("{\"key\":");
+				appendJsonString(line, new String(key, StandardCharsets.UTF_8));
+				line.append(",\"pttl\":").append(pttl).append(",\"dump\":\"").append(base64.encodeToString(dump)).append("\"}\n");
+				put(line.toString().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		private void ensureSpace(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		// Values bigger than the buffer go to the channel directly
+		private void put(byte[] bytes) throws IOException {
+			if (bytes.length > buffer.remaining()) {
+				flush();
+				if (bytes.length > buffer.capacity()) {
+					ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+					while (wrapped.hasRemaining()) {
+						channel.write(wrapped);
+					}
+					return;
+				}
+			}
+			buffer.put(bytes);
+		}
+
+		public void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		// Bytes written so far, flushed or not
+		public long position() throws IOException {
+			return channel.position() + buffer.position();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	public static class Record {
+		private final byte[] key;
+		private final long pttl;
+		private final byte[] dump;
+
+		Record(byte[] key, long pttl, byte[] dump) {
+			this.key = key;
+			this.pttl = pttl;
+			this.dump = dump;
+		}
+
+		public byte[] getKey() {
+			return key;
+		}
+
+		// Remaining time to live in milliseconds when exported, -1 if none
+		public long getPttl() {
+			return pttl;
+		}
+
+		public byte[] getDump() {
+			return dump;
+		}
+	}
+
+	// Reads either format, told apart by the magic header, through a fixed-size buffer. Not thread-safe.
+	public static class Reader implements Closeable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final Base64.Decoder base64 = Base64.getDecoder();
+		private final Format format;
+		private final long size;
+		private boolean endOfChannel;
+
+		public Reader(Path file) throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.READ);
+			try {
+				this.size = channel.size();
+				buffer.flip();
+				Format detected = Format.JSONL;
+				if (fill(MAGIC.length)) {
+					byte[] header = new byte[MAGIC.length];
+					buffer.mark();
+					buffer.get(header);
+					if (Arrays.equals(header, MAGIC)) {
+						detected = Format.BINARY;
+					} else {
+						buffer.reset();
+					}
+				}
+				this.format = detected;
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		public Format getFormat() {
+			return format;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		// Bytes consumed so far
+		public long position() throws IOException {
+			return channel.position() - buffer.remaining();
+		}
+
+		// Null at the end of the file
+		public Record next() throws IOException {
+			return format == Format.BINARY ? nextBinary() : nextJson();
+		}
+
+		private Record nextBinary() throws IOException {
+			if (!fill(1)) {
+				return null;
+			}
+			byte[] key = readBytes(readInt());
+			require(8);
+			long pttl = buffer.getLong();
+			byte[] dump = readBytes(readInt());
+			return new Record(key, pttl, dump);
+		}
+
+		private int readInt() throws IOException {
+			require(4);
+			int result = buffer.getInt();
+			if (result < 0) {
+				throw new IOException("Corrupt export file: negative length at " + (position() - 4));
+			}
+			return result;
+		}
+
+		private byte[] readBytes(int length) throws IOException {
+			byte[] result = new byte[length];
+			int offset = 0;
+			while (offset < length) {
+				require(1);
+				int chunk = Math.min(length - offset, buffer.remaining());
+				buffer.get(result, offset, chunk);
+				offset += chunk;
+			}
+			return result;
+		}
+
+		private void require(int bytes) throws IOException {
+			if (!fill(bytes)) {
+				throw new EOFException("Export file ends in the middle of a record at " + position());
+			}
+		}
+
+		// Ensures at least the given number of bytes (up to the buffer capacity) is buffered, false if the file ends first
+		private boolean fill(int bytes) throws IOException {
+			if (buffer.remaining() >= bytes) {
+				return true;
+			}
+			buffer.compact();
+			while (buffer.position() < bytes && !endOfChannel) {
+				if (channel.read(buffer) < 0) {
+					endOfChannel = true;
+				}
+			}
+			buffer.flip();
+			return buffer.remaining() >= bytes;
+		}
+
+		private Record nextJson() throws IOException {
+			String line;
+			do {
+				line = readLine();
+				if (line == null) {
+					return null;
+				}
+			} while (line.trim().isEmpty());
+			JsonFields fields = new JsonFields(line);
+			String key = null;
+			Long pttl = null;
+			String dump = null;
+			String name;
+			while ((name = fields.nextName()) != null) {
+				switch (name) {
+					case "key":
+						key = fields.stringValue();
+						break;
+					case "pttl":
+						pttl = fields.longValue();
+						break;
+					case "dump":
+						dump = fields.stringValue();
+						break;
+					default:
+						fields.skipValue();
+				}
+			}
+			if (key == null || dump == null) {
+				throw new IOException("Export file line without key or dump at " + position());
+			}
+			return new Record(key.getBytes(StandardCharsets.UTF_8), pttl != null ? pttl : -1L, base64.decode(dump));
+		}
+
+		private String readLine() throws IOException {
+			ByteArrayOutputStream line = null;
+			while (true) {
+				if (!fill(1)) {
+					return line != null ? line.toString(StandardCharsets.UTF_8.name()) : null;
+				}
+				int start = buffer.position();
+				int limit = buffer.limit();
+				int end = start;
+				while (end < limit && buffer.get(end) != '\n') {
+					end++;
+				}
+				if (line == null) {
+					line = new ByteArrayOutputStream(end - start + 16);
+				}
+				byte[] chunk = new byte[end - start];
+				buffer.get(chunk);
+				line.write(chunk);
+				if (end < limit) {
+					buffer.get();
+					return line.toString(StandardCharsets.UTF_8.name());
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	// Just enough JSON for the flat objects the writer produces: string and number values, other values skipped
+	private static class JsonFields {
+		private final String text;
+		private int position;
+
+		JsonFields(String text) throws IOException {
+			this.text = text;
+			skipWhitespace();
+			expect('{');
+		}
+
+		String nextName() throws IOException {
+			skipWhitespace();
+			if (peek() == '}') {
+				return null;
+			}
+			if (peek() == ',') {
+				position++;
+				skipWhitespace();
+			}
+			String name = stringValue();
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			return name;
+		}
+
+		String stringValue() throws IOException {
+			expect('"');
+			StringBuilder result = new StringBuilder();
+			while (true) {
+				char c = next();
+				if (c == '"') {
+					return result.toString();
+				}
+				if (c != '\\') {
+					result.append(c);
+					continue;
+				}
+				c = next();
+				switch (c) {
+					case 'n':
+						result.append('\n');
+						break;
+					case 'r':
+						result.append('\r');
+						break;
+					case 't':
+						result.append('\t');
+						break;
+					case 'b':
+						result.append('\b');
+						break;
+					case 'f':
+						result.append('\f');
+						break;
+					case 'u':
+						if (position + 4 > text.length()) {
+							throw error();
+						}
+						result.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+						position += 4;
+						break;
+					default:
+						result.append(c);
+				}
+			}
+		}
+
+		long longValue() throws IOException {
+			int start = position;
+			while (position < text.length() && (text.charAt(position) == '-' || Character.isDigit(text.charAt(position)))) {
+				position++;
+			}
+			try {
+				return Long.parseLong(text.substring(start, position));
+			} catch (NumberFormatException e) {
+				throw error();
+			}
+		}
+
+		void skipValue() throws IOException {
+			if (peek() == '"') {
+				stringValue();
+			} else {
+				while (position < text.length() && text.charAt(position) != ',' && text.charAt(position) != '}') {
+					position++;
+				}
+			}
+		}
+
+		private void skipWhitespace() {
+			while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+				position++;
+			}
+		}
+
+		private char peek() throws IOException {
+			if (position >= text.length()) {
+				throw error();
+			}
+			return text.charAt(position);
+		}
+
+		private char next() throws IOException {
+			char result = peek();
+			position++;
+			return result;
+		}
+
+		private void expect(char c) throws IOException {
+			if (position >= text.length() || text.charAt(position) != c) {
+				throw new IOException("Malformed export file line - expected '" + c + "' at column " + position);
+			}
+			position++;
+		}
+
+		private IOException error() {
+			return new IOException("Malformed export file line at column " + position);
+		}
+	}
+
+	static void appendJsonString(StringBuilder target, String value) {
+		target.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					target.append("\\\"");
+					break;
+				case '\\':
+					target.append("\\\\");
+					break;
+				case '\n':
+					target.append("\\n");
+					break;
+				case '\r':
+					target.append("\\r");
+					break;
+				case '\t':
+					target.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						target.append(String.format("\\u%04x", (int) c));
+					} else {
+						target.append(c);
+					}
+			}
+		}
+		target.append('"');
+	}
+}
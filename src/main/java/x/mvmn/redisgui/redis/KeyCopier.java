@@ -0,0 +1,105 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+import x.mvmn.redisgui.model.RedisConfigModel;
+import x.mvmn.redisgui.redis.DumpFile.Record;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Copies keys matching a pattern to another connection: SCAN pages of the source (one cursor per cluster shard) get DUMP and PTTL
+// pipelined, then go to a RestoreWriterPool writing to the destination - so the next page is read while the last ones are written.
+// At the end the destination is scanned for the same pattern to reconcile the counts.
+public class KeyCopier {
+
+	private final RedisConnectionManager source;
+	private final String owner;
+	private final String pattern;
+	private final RedisConfigModel destinationConfig;
+	private final int writers;
+	private final int window;
+	private final boolean replace;
+	private final boolean keepTtl;
+	private volatile KeyDumper dumper;
+	private volatile RestoreWriterPool writerPool;
+	private volatile Long destinationCount;
+
+	public KeyCopier(RedisConnectionManager source, String owner, String pattern, RedisConfigModel destinationConfig, int writers, int window,
+			boolean replace, boolean keepTtl) {
+		this.source = source;
+		this.owner = owner;
+		this.pattern = pattern;
+		this.destinationConfig = destinationConfig;
+		this.writers = writers;
+		this.window = window;
+		this.replace = replace;
+		this.keepTtl = keepTtl;
+	}
+
+	// Returns the progress of the source scan
+	public ScanProgress run(Consumer<ScanProgress> progressListener) throws Exception {
+		KeyDumper dumper = new KeyDumper(source);
+		this.dumper = dumper;
+		RedisConnector destinationConnector = RedisConnector.create(destinationConfig);
+		try (RedisConnectionManager destination = new RedisConnectionManager(owner + " copy destination", destinationConnector, 1)) {
+			destination.getScanGovernor().configure(destinationConfig.getScanTargetMillis(), destinationConfig.getMaxServerOpsPerSec());
+			RestoreWriterPool writerPool = new RestoreWriterPool(destination, owner, "Copy", writers, window, replace, keepTtl);
+			this.writerPool = writerPool;
+			writerPool.start();
+			boolean completed = false;
+			ScanProgress result;
+			try {
+				result = new ParallelKeyScanner(source, pattern).scan(keys -> {
+					try {
+						List<Record> records = dumper.dump(keys);
+						if (!records.isEmpty()) {
+							writerPool.submit(records);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new CancellationException("Copy interrupted");
+					}
+				}, progressListener);
+				completed = !TaskHandle.isCurrentCancelled() && writerPool.finish();
+			} finally {
+				if (!completed) {
+					writerPool.cancel();
+				}
+			}
+			if (completed) {
+				destinationCount = new ParallelKeyScanner(destination, pattern).scan(keys -> {}, null).getMatched();
+			}
+			return result;
+		} finally {
+			destinationConnector.shutdown();
+		}
+	}
+
+	public long getCopied() {
+		RestoreWriterPool writerPool = this.writerPool;
+		return writerPool != null ? writerPool.getRestored() : 0L;
+	}
+
+	// Failed DUMPs and RESTOREs
+	public long getFailed() {
+		RestoreWriterPool writerPool = this.writerPool;
+		KeyDumper dumper = this.dumper;
+		return (writerPool != null ? writerPool.getFailed() : 0L) + (dumper != null ? dumper.getFailed() : 0L);
+	}
+
+	public long getSkipped() {
+		KeyDumper dumper = this.dumper;
+		return dumper != null ? dumper.getSkipped() : 0L;
+	}
+
+	public String getFirstError() {
+		RestoreWriterPool writerPool = this.writerPool;
+		return writerPool != null ? writerPool.getFirstError() : null;
+	}
+
+	// Keys matching the pattern on the destination after the copy, null until counted
+	public Long getDestinationCount() {
+		return destinationCount;
+	}
+}
@@ -0,0 +1,66 @@
+package x.mvmn.redisgui.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.redis.DumpFile.Record;
+
+// DUMP and PTTL of a page of keys, pipelined over the shared binary connection and paced by the scan governor.
+// Keys gone by the time of DUMP are skipped and counted.
+class KeyDumper {
+
+	private final RedisClusterAsyncCommands<byte[], byte[]> commands;
+	private final Duration timeout;
+	private final ScanGovernor governor;
+	private final AtomicLong skipped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	KeyDumper(RedisConnectionManager connectionManager) {
+		this.commands = RedisClients.async(connectionManager.getBinaryConnection());
+		this.timeout = connectionManager.getConnection().getTimeout();
+		this.governor = connectionManager.getScanGovernor();
+	}
+
+	List<Record> dump(List<String> keys) throws InterruptedException {
+		governor.pace();
+		List<byte[]> binaryKeys = new ArrayList<>(keys.size());
+		List<RedisFuture<byte[]>> dumps = new ArrayList<>(keys.size());
+		List<RedisFuture<Long>> ttls = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			byte[] binaryKey = key.getBytes(StandardCharsets.UTF_8);
+			binaryKeys.add(binaryKey);
+			dumps.add(commands.dump(binaryKey));
+			ttls.add(commands.pttl(binaryKey));
+		}
+		RedisFutures.awaitQuietly(timeout, dumps);
+		RedisFutures.awaitQuietly(timeout, ttls);
+		List<Record> result = new ArrayList<>(keys.size());
+		for (int i = 0; i < binaryKeys.size(); i++) {
+			RedisFuture<byte[]> dump = dumps.get(i);
+			Long pttl = RedisFutures.valueOrNull(ttls.get(i));
+			byte[] payload = RedisFutures.valueOrNull(dump);
+			if (dump.toCompletableFuture().isCompletedExceptionally() || pttl == null) {
+				failed.incrementAndGet();
+			} else if (payload == null || pttl == -2L) {
+				// Deleted or expired since the scan
+				skipped.incrementAndGet();
+			} else {
+				result.add(new Record(binaryKeys.get(i), pttl, payload));
+			}
+		}
+		return result;
+	}
+
+	long getSkipped() {
+		return skipped.get();
+	}
+
+	long getFailed() {
+		return failed.get();
+	}
+}
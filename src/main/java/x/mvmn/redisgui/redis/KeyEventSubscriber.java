@@ -0,0 +1,189 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.cluster.pubsub.api.sync.PubSubNodeSelection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+// Follows keyspace changes through keyevent notifications (__keyevent@<db>__:<event> with the key as the message) and reports
+// for each affected key whether it still exists. Notifications are fire-and-forget: anything published while the subscription is
+// down is lost, so every re-subscription after a reconnect is reported as a need to resync.
+public class KeyEventSubscriber implements Closeable {
+
+	public static interface Listener {
+		void onKeyEvent(String key, boolean exists);
+
+		void onResyncRequired(String reason);
+	}
+
+	private static final String CONFIG_PARAMETER = "notify-keyspace-events";
+	// Keyevent channel (E) plus generic, string, list, set, hash, sorted set, expired, evicted and stream events - "A" covers all but E
+	private static final String REQUIRED_EVENT_CLASSES = "g$lshzxet";
+	private static final Duration CONFIG_CHECK_TIMEOUT = Duration.ofSeconds(10);
+	private static final Set<String> REMOVAL_EVENTS = new HashSet<>(
+			Arrays.asList("del", "expired", "evicted", "rename_from", "move_from"));
+
+	private final RedisConnector connector;
+	private final RedisConnectionManager connectionManager;
+	private final Listener listener;
+	private final AtomicLong eventCount = new AtomicLong();
+	private final AtomicInteger subscriptions = new AtomicInteger();
+	private volatile int expectedSubscriptions = Integer.MAX_VALUE;
+	private final Set<String> subscribedNodeIds = ConcurrentHashMap.newKeySet();
+	private volatile String pattern;
+	private volatile StatefulRedisPubSubConnection<String, String> connection;
+
+	public KeyEventSubscriber(RedisConnector connector, RedisConnectionManager connectionManager, Listener listener) {
+		this.connector = connector;
+		this.connectionManager = connectionManager;
+		this.listener = listener;
+	}
+
+	public void start() throws Exception {
+		checkNotificationsEnabled();
+		String pattern = "__keyevent@" + connector.getDatabase() + "__:*";
+		this.pattern = pattern;
+		StatefulRedisPubSubConnection<String, String> connection = connector.connectPubSub();
+		this.connection = connection;
+		try {
+			subscribe(connection, pattern);
+		} catch (Exception e) {
+			close();
+			throw e;
+		}
+	}
+
+	private void subscribe(StatefulRedisPubSubConnection<String, String> connection, String pattern) {
+		connection.addListener(new RedisPubSubAdapter<String, String>() {
+			@Override
+			public void message(String pattern, String channel, String message) {
+				eventCount.incrementAndGet();
+				String event = channel.substring(channel.indexOf(':') + 1);
+				listener.onKeyEvent(message, !REMOVAL_EVENTS.contains(event));
+			}
+
+			@Override
+			public void psubscribed(String pattern, long count) {
+				// Lettuce re-subscribes on reconnect - any confirmation beyond the initial ones means events may have been missed
+				if (subscriptions.incrementAndGet() > expectedSubscriptions) {
+					listener.onResyncRequired("subscription re-established");
+				}
+			}
+		});
+		if (connection instanceof StatefulRedisClusterPubSubConnection) {
+			StatefulRedisClusterPubSubConnection<String, String> clusterConnection = (StatefulRedisClusterPubSubConnection<String, String>) connection;
+			PubSubNodeSelection<String, String> primaries = clusterConnection.sync().upstream();
+			int nodes = primaries.size();
+			for (int i = 0; i < nodes; i++) {
+				subscribedNodeIds.add(primaries.node(i).getNodeId());
+			}
+			primaries.commands().psubscribe(pattern);
+			expectedSubscriptions = nodes;
+		} else {
+			connection.sync().psubscribe(pattern);
+			expectedSubscriptions = 1;
+		}
+		if (subscriptions.get() > expectedSubscriptions) {
+			listener.onResyncRequired("subscription re-established");
+		}
+	}
+
+	// Subscribes to cluster primaries added or promoted since the start - to be called periodically. Their events up to now are lost,
+	// so that's reported as a need to resync. Nodes that can't be subscribed to yet are tried again on the next call.
+	public synchronized void checkTopology() {
+		StatefulRedisPubSubConnection<String, String> connection = this.connection;
+		if (!(connection instanceof StatefulRedisClusterPubSubConnection)) {
+			return;
+		}
+		StatefulRedisClusterPubSubConnection<String, String> clusterConnection = (StatefulRedisClusterPubSubConnection<String, String>) connection;
+		List<String> added = new ArrayList<>();
+		for (RedisClusterNode node : clusterConnection.getPartitions()) {
+			if (node.getRole().isUpstream() && !subscribedNodeIds.contains(node.getNodeId())) {
+				// Expected before the confirmation arrives, or it would count as a re-subscription
+				expectedSubscriptions++;
+				try {
+					clusterConnection.getConnection(node.getNodeId()).sync().psubscribe(pattern);
+					subscribedNodeIds.add(node.getNodeId());
+					added.add(node.getUri().getHost() + ":" + node.getUri().getPort());
+				} catch (Exception e) {
+					expectedSubscriptions--;
+					e.printStackTrace();
+				}
+			}
+		}
+		if (!added.isEmpty()) {
+			listener.onResyncRequired("subscribed to new primary " + String.join(", ", added));
+		}
+	}
+
+	// Checked on every shard - on a cluster the setting is per node
+	private void checkNotificationsEnabled() throws Exception {
+		Map<String, RedisClusterAsyncCommands<String, String>> nodes = connectionManager.getScanNodes();
+		List<RedisFuture<Map<String, String>>> futures = new ArrayList<>();
+		for (RedisClusterAsyncCommands<String, String> node : nodes.values()) {
+			futures.add(node.configGet(CONFIG_PARAMETER));
+		}
+		RedisFutures.awaitQuietly(CONFIG_CHECK_TIMEOUT, futures);
+		int index = 0;
+		for (String node : nodes.keySet()) {
+			RedisFuture<Map<String, String>> future = futures.get(index++);
+			String flags = future.get().get(CONFIG_PARAMETER);
+			String missing = missingEventClasses(flags != null ? flags : "");
+			if (!missing.isEmpty()) {
+				throw new IllegalStateException("Keyspace notifications are not fully enabled on " + node + ": " + CONFIG_PARAMETER + " is '"
+						+ flags + "', missing '" + missing + "'. Enable them with CONFIG SET " + CONFIG_PARAMETER + " KEA");
+			}
+		}
+	}
+
+	private static String missingEventClasses(String flags) {
+		StringBuilder result = new StringBuilder();
+		if (flags.indexOf('E') < 0) {
+			result.append('E');
+		}
+		if (flags.indexOf('A') < 0) {
+			for (char eventClass : REQUIRED_EVENT_CLASSES.toCharArray()) {
+				if (flags.indexOf(eventClass) < 0) {
+					result.append(eventClass);
+				}
+			}
+		}
+		return result.toString();
+	}
+
+	public boolean isStarted() {
+		return connection != null;
+	}
+
+	public long getEventCount() {
+		return eventCount.get();
+	}
+
+	@Override
+	public void close() {
+		StatefulRedisPubSubConnection<String, String> connection = this.connection;
+		this.connection = null;
+		if (connection != null) {
+			try {
+				connection.close();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
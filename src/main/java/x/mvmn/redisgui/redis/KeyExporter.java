@@ -0,0 +1,153 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import x.mvmn.redisgui.redis.DumpFile.Format;
+import x.mvmn.redisgui.redis.DumpFile.Record;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Exports keys matching a pattern to a DumpFile: each SCAN page (one cursor per cluster shard) gets DUMP and PTTL of all its keys
+// pipelined over the binary connection, then the records are appended to the file. Only one page is held in memory at a time.
+// The scan cursors and file length are saved next to the file every few seconds and on stop, so an interrupted export can resume -
+// records after the checkpoint are dropped and rescanned. SCAN may return a key twice, so the file may have duplicates.
+public class KeyExporter {
+
+	private static final long CHECKPOINT_INTERVAL_MILLIS = 5000L;
+	private static final String FORMAT = "format";
+	private static final String POSITION = "position";
+	private static final String EXPORTED = "exported";
+
+	private final RedisConnectionManager connectionManager;
+	private final String pattern;
+	private final Path file;
+	private final Format format;
+	private final boolean resume;
+	private final AtomicLong exported = new AtomicLong();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	private volatile KeyDumper dumper;
+	private long startPosition;
+	private long startExported;
+	private long lastCheckpointMillis;
+
+	// Resume continues from the checkpoint of an earlier export to the same file, pattern and format
+	public KeyExporter(RedisConnectionManager connectionManager, String pattern, Path file, Format format, boolean resume) {
+		this.connectionManager = connectionManager;
+		this.pattern = pattern;
+		this.file = file;
+		this.format = format;
+		this.resume = resume;
+	}
+
+	public static Path checkpointFileOf(Path file) {
+		return file.resolveSibling(file.getFileName() + ".checkpoint");
+	}
+
+	public ScanProgress run(Consumer<ScanProgress> progressListener) throws Exception {
+		Path checkpointFile = checkpointFileOf(file);
+		ScanCheckpoint checkpoint = null;
+		if (resume) {
+			checkpoint = ScanCheckpoint.load(checkpointFile);
+			if (checkpoint == null) {
+				throw new IllegalStateException("No checkpoint to resume from: " + checkpointFile);
+			}
+			if (!checkpoint.getPattern().equals(pattern) || !format.name().equals(checkpoint.getAttribute(FORMAT))) {
+				throw new IllegalStateException(String.format("Checkpoint is for pattern %s and format %s", checkpoint.getPattern(),
+						checkpoint.getAttribute(FORMAT)));
+			}
+			startPosition = checkpoint.getLongAttribute(POSITION, 0L);
+			startExported = checkpoint.getLongAttribute(EXPORTED, 0L);
+			exported.set(startExported);
+		} else {
+			Files.deleteIfExists(checkpointFile);
+		}
+
+		KeyDumper dumper = new KeyDumper(connectionManager);
+		this.dumper = dumper;
+		ParallelKeyScanner scanner = new ParallelKeyScanner(connectionManager, pattern);
+		ScanProgress result = null;
+		lastCheckpointMillis = System.currentTimeMillis();
+		try (DumpFile.Writer writer = new DumpFile.Writer(file, format, startPosition)) {
+			try {
+				result = scanner.scan(checkpoint != null ? checkpoint.getCursors() : null, keys -> {
+					try {
+						exportPage(dumper, keys, writer);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					} catch (InterruptedException e) {
+						// Must not return normally - the scanner would move the cursor past the keys not written
+						Thread.currentThread().interrupt();
+						throw new CancellationException("Export interrupted");
+					}
+				}, progress -> {
+					if (progressListener != null) {
+						progressListener.accept(progress);
+					}
+					if (System.currentTimeMillis() - lastCheckpointMillis >= CHECKPOINT_INTERVAL_MILLIS) {
+						saveCheckpoint(writer, scanner, checkpointFile);
+					}
+				});
+			} finally {
+				// Per-node cursors only advance once a page is written, so they match the file even after a failure mid-round
+				if (result != null && result.isFinished() && !TaskHandle.isCurrentCancelled()) {
+					Files.deleteIfExists(checkpointFile);
+				} else if (!scanner.getNodeCursors().isEmpty()) {
+					saveCheckpoint(writer, scanner, checkpointFile);
+				}
+			}
+		}
+		return result;
+	}
+
+	private void exportPage(KeyDumper dumper, List<String> keys, DumpFile.Writer writer) throws IOException, InterruptedException {
+		long positionBefore = writer.position();
+		for (Record record : dumper.dump(keys)) {
+			writer.write(record.getKey(), record.getPttl(), record.getDump());
+			exported.incrementAndGet();
+		}
+		bytesWritten.addAndGet(writer.position() - positionBefore);
+	}
+
+	private void saveCheckpoint(DumpFile.Writer writer, ParallelKeyScanner scanner, Path checkpointFile) {
+		try {
+			writer.flush();
+			new ScanCheckpoint(pattern, scanner.getNodeCursors()).setAttribute(FORMAT, format.name())
+					.setAttribute(POSITION, writer.position())
+					.setAttribute(EXPORTED, exported.get())
+					.save(checkpointFile);
+			lastCheckpointMillis = System.currentTimeMillis();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Including the keys exported before a resume
+	public long getExported() {
+		return exported.get();
+	}
+
+	public long getExportedThisRun() {
+		return exported.get() - startExported;
+	}
+
+	public long getSkipped() {
+		KeyDumper dumper = this.dumper;
+		return dumper != null ? dumper.getSkipped() : 0L;
+	}
+
+	public long getFailed() {
+		KeyDumper dumper = this.dumper;
+		return dumper != null ? dumper.getFailed() : 0L;
+	}
+
+	// Written by this run only
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+}
@@ -0,0 +1,84 @@
+package x.mvmn.redisgui.redis;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import x.mvmn.redisgui.redis.DumpFile.Record;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Loads a DumpFile back: the calling thread reads and parses the file into batches for a RestoreWriterPool, which RESTOREs them
+// over several pipelined connections at once
+public class KeyImporter {
+
+	private static final int BATCH_SIZE = 500;
+
+	private final Path file;
+	private final RestoreWriterPool writerPool;
+	private final AtomicLong read = new AtomicLong();
+	private volatile long bytesRead;
+	private volatile long fileSize;
+
+	public KeyImporter(RedisConnectionManager connectionManager, String owner, Path file, int writers, int window, boolean replace,
+			boolean keepTtl) {
+		this.file = file;
+		this.writerPool = new RestoreWriterPool(connectionManager, owner, "Import", writers, window, replace, keepTtl);
+	}
+
+	public void run() throws Exception {
+		try (DumpFile.Reader reader = new DumpFile.Reader(file)) {
+			fileSize = reader.getSize();
+			writerPool.start();
+			boolean completed = false;
+			try {
+				List<Record> batch = new ArrayList<>(BATCH_SIZE);
+				Record record;
+				while (!TaskHandle.isCurrentCancelled() && (record = reader.next()) != null) {
+					batch.add(record);
+					read.incrementAndGet();
+					if (batch.size() >= BATCH_SIZE) {
+						writerPool.submit(batch);
+						batch = new ArrayList<>(BATCH_SIZE);
+						bytesRead = reader.position();
+					}
+				}
+				if (!TaskHandle.isCurrentCancelled()) {
+					if (!batch.isEmpty()) {
+						writerPool.submit(batch);
+					}
+					bytesRead = reader.position();
+					completed = writerPool.finish();
+				}
+			} finally {
+				if (!completed) {
+					writerPool.cancel();
+				}
+			}
+		}
+	}
+
+	public long getRead() {
+		return read.get();
+	}
+
+	public long getRestored() {
+		return writerPool.getRestored();
+	}
+
+	public long getFailed() {
+		return writerPool.getFailed();
+	}
+
+	public String getFirstError() {
+		return writerPool.getFirstError();
+	}
+
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+}
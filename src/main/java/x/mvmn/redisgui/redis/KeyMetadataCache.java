@@ -0,0 +1,45 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import x.mvmn.redisgui.model.KeyMetadata;
+
+public class KeyMetadataCache {
+
+	private final long expiryMillis;
+	private final LinkedHashMap<String, KeyMetadata> entries;
+
+	public KeyMetadataCache(int maxEntries, long expiryMillis) {
+		this.expiryMillis = expiryMillis;
+		this.entries = new LinkedHashMap<String, KeyMetadata>(1024, 0.75f, true) {
+			private static final long serialVersionUID = -2400622546155898806L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, KeyMetadata> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	// Returns cached metadata even if expired - check isFresh() to decide whether to re-fetch
+	public synchronized KeyMetadata get(String key) {
+		return entries.get(key);
+	}
+
+	public boolean isFresh(KeyMetadata metadata) {
+		return metadata != null && System.currentTimeMillis() - metadata.getFetchedAt() < expiryMillis;
+	}
+
+	public synchronized void putAll(Map<String, KeyMetadata> metadata) {
+		entries.putAll(metadata);
+	}
+
+	public synchronized void invalidate(String key) {
+		entries.remove(key);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+}
@@ -0,0 +1,50 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.model.KeyMetadata;
+import x.mvmn.redisgui.model.RedisKeyType;
+
+public class KeyMetadataFetcher {
+
+	// Connection must not be shared while this runs - auto-flush gets disabled to send the whole batch as one pipeline
+	public static Map<String, KeyMetadata> fetch(StatefulConnection<String, String> connection, Collection<String> keys)
+			throws InterruptedException {
+		RedisClusterAsyncCommands<String, String> async = RedisClients.async(connection);
+		List<RedisFuture<?>> futures = new ArrayList<>(keys.size() * 4);
+		Map<String, List<RedisFuture<?>>> futuresPerKey = new LinkedHashMap<>();
+		connection.setAutoFlushCommands(false);
+		try {
+			for (String key : keys) {
+				List<RedisFuture<?>> keyFutures = new ArrayList<>(4);
+				keyFutures.add(async.type(key));
+				keyFutures.add(async.pttl(key));
+				keyFutures.add(async.memoryUsage(key));
+				keyFutures.add(async.objectEncoding(key));
+				futures.addAll(keyFutures);
+				futuresPerKey.put(key, keyFutures);
+			}
+			connection.flushCommands();
+		} finally {
+			connection.setAutoFlushCommands(true);
+		}
+		RedisFutures.awaitQuietly(connection.getTimeout(), futures);
+
+		Map<String, KeyMetadata> result = new LinkedHashMap<>();
+		for (Map.Entry<String, List<RedisFuture<?>>> entry : futuresPerKey.entrySet()) {
+			List<RedisFuture<?>> keyFutures = entry.getValue();
+			// Individual commands may fail (e.g. MEMORY not allowed by ACL) without failing the whole batch
+			result.put(entry.getKey(),
+					new KeyMetadata(RedisKeyType.of(RedisFutures.valueOrNull(keyFutures.get(0))), RedisFutures.valueOrNull(keyFutures.get(1)),
+							RedisFutures.valueOrNull(keyFutures.get(2)), RedisFutures.valueOrNull(keyFutures.get(3))));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,38 @@
+package x.mvmn.redisgui.redis;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import x.mvmn.redisgui.model.RedisKeyType;
+
+public class KeyTypeCommands {
+
+	// STRLEN/LLEN/HLEN/SCARD/ZCARD/XLEN depending on the type - all O(1) on the server. Null for unknown types.
+	public static RedisFuture<Long> length(RedisClusterAsyncCommands<String, String> async, RedisKeyType type, String key) {
+		switch (type) {
+			case STRING:
+				return async.strlen(key);
+			case LIST:
+				return async.llen(key);
+			case HASH:
+				return async.hlen(key);
+			case SET:
+				return async.scard(key);
+			case ZSET:
+				return async.zcard(key);
+			case STREAM:
+				return async.xlen(key);
+			default:
+				return null;
+		}
+	}
+
+	// MEMORY USAGE with an explicit SAMPLES count for nested types (Lettuce only exposes the variant with the server default of 5)
+	public static RedisFuture<Long> memoryUsage(RedisClusterAsyncCommands<String, String> async, String key, int samples) {
+		return async.dispatch(CommandType.MEMORY, new IntegerOutput<>(StringCodec.UTF8),
+				new CommandArgs<>(StringCodec.UTF8).add("USAGE").addKey(key).add("SAMPLES").add(samples));
+	}
+}
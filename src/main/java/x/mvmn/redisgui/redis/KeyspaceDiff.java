@@ -0,0 +1,584 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.ArrayOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import x.mvmn.redisgui.model.RedisConfigModel;
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+// Compares the keys matching a pattern on two connections (or two databases of one server, as two saved connections).
+// Both sides are scanned at once, each key getting a fingerprint - type, length and a value digest - in pipelined batches. Fingerprints
+// are spilled to temporary files partitioned by key hash, then the partitions are joined one at a time, so memory is bounded by the
+// size of a partition rather than of the keyspace. Differences found are re-checked against both servers before being reported,
+// to drop keys that were only in flight (e.g. replication lag) at the time of the scan.
+public class KeyspaceDiff {
+
+	public static enum DigestMode {
+		AUTO("Server digest if allowed, else DUMP hash"), SERVER("Server digest (DEBUG DIGEST-VALUE)"), DUMP("Hash of DUMP payload"),
+		NONE("Type and length only");
+
+		private final String displayName;
+
+		DigestMode(String displayName) {
+			this.displayName = displayName;
+		}
+
+		public String toString() {
+			return displayName;
+		}
+	}
+
+	public static enum DifferenceKind {
+		MISSING("Missing in target"), EXTRA("Only in target"), DIFFERENT("Different");
+
+		private final String displayName;
+
+		DifferenceKind(String displayName) {
+			this.displayName = displayName;
+		}
+
+		public String toString() {
+			return displayName;
+		}
+	}
+
+	public static class Difference {
+		private final DifferenceKind kind;
+		private final String key;
+		private final String details;
+
+		private Difference(DifferenceKind kind, String key, String details) {
+			this.kind = kind;
+			this.key = key;
+			this.details = details;
+		}
+
+		public DifferenceKind getKind() {
+			return kind;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public String getDetails() {
+			return details;
+		}
+	}
+
+	private static final int KEYS_PER_PARTITION = 250_000;
+	private static final int MAX_PARTITIONS = 256;
+	private static final int SPILL_BUFFER_SIZE = 16 * 1024;
+	private static final int RECHECK_BATCH_SIZE = 500;
+	private static final int MAX_DIFFERENCES_KEPT = 10_000;
+	// RDB version (2 bytes) and CRC64 (8 bytes) trailing a DUMP payload - left out of the hash so that servers of different versions
+	// that encode a value the same way give the same digest
+	private static final int DUMP_TRAILER_LENGTH = 10;
+
+	private final RedisConnectionManager source;
+	private final String owner;
+	private final String pattern;
+	private final RedisConfigModel targetConfig;
+	private final DigestMode digestMode;
+	private final boolean recheck;
+	private final Path reportFile;
+	private final List<Difference> differences = new ArrayList<>();
+	private final Map<DifferenceKind, AtomicLong> differenceCounts = new LinkedHashMap<>();
+	private final AtomicLong sourceKeys = new AtomicLong();
+	private final AtomicLong targetKeys = new AtomicLong();
+	private final AtomicLong vanished = new AtomicLong();
+	private final AtomicLong matched = new AtomicLong();
+	private final AtomicLong settled = new AtomicLong();
+	private final AtomicReference<ScanProgress> sourceProgress = new AtomicReference<>();
+	private final AtomicReference<ScanProgress> targetProgress = new AtomicReference<>();
+	private volatile DigestMode usedDigest;
+	private volatile String phase = "Starting";
+
+	// Report file gets every difference as a tab separated line, null for none - only the first differences are kept in memory
+	public KeyspaceDiff(RedisConnectionManager source, String owner, String pattern, RedisConfigModel targetConfig, DigestMode digestMode,
+			boolean recheck, Path reportFile) {
+		this.source = source;
+		this.owner = owner;
+		this.pattern = pattern;
+		this.targetConfig = targetConfig;
+		this.digestMode = digestMode;
+		this.recheck = recheck;
+		this.reportFile = reportFile;
+		for (DifferenceKind kind : DifferenceKind.values()) {
+			differenceCounts.put(kind, new AtomicLong());
+		}
+	}
+
+	public void run() throws Exception {
+		RedisConnector targetConnector = RedisConnector.create(targetConfig);
+		try (RedisConnectionManager target = new RedisConnectionManager(owner + " diff target", targetConnector, 1)) {
+			target.getScanGovernor().configure(targetConfig.getScanTargetMillis(), targetConfig.getMaxServerOpsPerSec());
+			usedDigest = resolveDigest(source, target);
+			long expectedKeys = Math.max(dbSize(source), dbSize(target));
+			int partitions = (int) Math.max(1L, Math.min(MAX_PARTITIONS, (expectedKeys + KEYS_PER_PARTITION - 1) / KEYS_PER_PARTITION));
+			Path workDir = Files.createTempDirectory("mvmnredisgui-diff");
+			try (Spill sourceSpill = new Spill(workDir, "source", partitions); Spill targetSpill = new Spill(workDir, "target", partitions)) {
+				phase = "Scanning";
+				if (!scanBoth(target, sourceSpill, targetSpill)) {
+					phase = "Stopped";
+					return;
+				}
+				sourceSpill.finishWriting();
+				targetSpill.finishWriting();
+				try (BufferedWriter report = reportFile != null ? Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8) : null) {
+					for (int i = 0; i < partitions && !TaskHandle.isCurrentCancelled(); i++) {
+						phase = String.format("Comparing part %,d of %,d", i + 1, partitions);
+						join(sourceSpill, targetSpill, i, target, report);
+					}
+				}
+				phase = TaskHandle.isCurrentCancelled() ? "Stopped" : "Done";
+			} finally {
+				deleteQuietly(workDir);
+			}
+		} finally {
+			targetConnector.shutdown();
+		}
+	}
+
+	// Source is scanned on the calling thread, target on a task of its own. Returns false if cancelled.
+	private boolean scanBoth(RedisConnectionManager target, Spill sourceSpill, Spill targetSpill) throws Exception {
+		CountDownLatch targetDone = new CountDownLatch(1);
+		AtomicBoolean targetCompleted = new AtomicBoolean();
+		TaskHandle targetScan = TaskManager.getInstance()
+				.task(TaskClass.WORKER, "Diff scan of target " + pattern)
+				.owner(owner)
+				.finalOp(targetDone::countDown)
+				.finalOpSwingThread(false)
+				.submit(() -> {
+					scanSide(target, targetSpill, targetKeys, targetProgress);
+					targetCompleted.set(!TaskHandle.isCurrentCancelled());
+				});
+		boolean completed = false;
+		try {
+			scanSide(source, sourceSpill, sourceKeys, sourceProgress);
+			while (!targetDone.await(100, TimeUnit.MILLISECONDS)) {
+				if (TaskHandle.isCurrentCancelled()) {
+					return false;
+				}
+			}
+			if (!targetCompleted.get() && !TaskHandle.isCurrentCancelled()) {
+				throw new IllegalStateException("Scan of the target failed");
+			}
+			completed = !TaskHandle.isCurrentCancelled();
+		} finally {
+			if (!completed) {
+				targetScan.cancel();
+			}
+		}
+		return completed;
+	}
+
+	private void scanSide(RedisConnectionManager side, Spill spill, AtomicLong keyCount, AtomicReference<ScanProgress> progress)
+			throws Exception {
+		new ParallelKeyScanner(side, pattern).scan(keys -> {
+			try {
+				Map<String, Fingerprint> fingerprints = fingerprint(side, keys);
+				for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet()) {
+					if (entry.getValue() != null) {
+						spill.write(entry.getKey(), entry.getValue());
+						keyCount.incrementAndGet();
+					} else {
+						vanished.incrementAndGet();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (IOException e) {
+				throw new IllegalStateException("Failed to write diff temporary file", e);
+			}
+		}, progress::set);
+	}
+
+	private void join(Spill sourceSpill, Spill targetSpill, int partition, RedisConnectionManager target, BufferedWriter report)
+			throws Exception {
+		// SCAN may return a key more than once - each key is only joined once, and counted once in the totals
+		Map<String, Fingerprint> sourceFingerprints = new HashMap<>();
+		sourceSpill.read(partition, (key, sourceFingerprint) -> {
+			if (sourceFingerprints.put(key, sourceFingerprint) != null) {
+				sourceKeys.decrementAndGet();
+			}
+		});
+		Set<String> targetKeysSeen = new HashSet<>();
+		Map<String, Fingerprint[]> found = new LinkedHashMap<>();
+		targetSpill.read(partition, (key, targetFingerprint) -> {
+			if (!targetKeysSeen.add(key)) {
+				targetKeys.decrementAndGet();
+				return;
+			}
+			Fingerprint sourceFingerprint = sourceFingerprints.remove(key);
+			if (targetFingerprint.equals(sourceFingerprint)) {
+				matched.incrementAndGet();
+			} else {
+				found.put(key, new Fingerprint[] { sourceFingerprint, targetFingerprint });
+			}
+		});
+		for (Map.Entry<String, Fingerprint> entry : sourceFingerprints.entrySet()) {
+			found.put(entry.getKey(), new Fingerprint[] { entry.getValue(), null });
+		}
+		sourceFingerprints.clear();
+
+		List<String> keys = new ArrayList<>(found.keySet());
+		for (int i = 0; i < keys.size() && !TaskHandle.isCurrentCancelled(); i += RECHECK_BATCH_SIZE) {
+			List<String> batch = keys.subList(i, Math.min(keys.size(), i + RECHECK_BATCH_SIZE));
+			Map<String, Fingerprint> sourceNow = recheck ? fingerprint(source, batch) : null;
+			Map<String, Fingerprint> targetNow = recheck ? fingerprint(target, batch) : null;
+			for (String key : batch) {
+				Fingerprint[] pair = found.get(key);
+				if (recheck) {
+					pair = new Fingerprint[] { sourceNow.get(key), targetNow.get(key) };
+					if (Objects.equals(pair[0], pair[1])) {
+						settled.incrementAndGet();
+						continue;
+					}
+				}
+				record(classify(key, pair[0], pair[1]), report);
+			}
+		}
+	}
+
+	private static Difference classify(String key, Fingerprint sourceFingerprint, Fingerprint targetFingerprint) {
+		if (targetFingerprint == null) {
+			return new Difference(DifferenceKind.MISSING, key, "source: " + sourceFingerprint);
+		} else if (sourceFingerprint == null) {
+			return new Difference(DifferenceKind.EXTRA, key, "target: " + targetFingerprint);
+		} else {
+			return new Difference(DifferenceKind.DIFFERENT, key, "source: " + sourceFingerprint + "; target: " + targetFingerprint);
+		}
+	}
+
+	private void record(Difference difference, BufferedWriter report) throws IOException {
+		differenceCounts.get(difference.getKind()).incrementAndGet();
+		synchronized (differences) {
+			if (differences.size() < MAX_DIFFERENCES_KEPT) {
+				differences.add(difference);
+			}
+		}
+		if (report != null) {
+			report.write(difference.getKind().name() + "\t" + difference.getKey() + "\t" + difference.getDetails());
+			report.newLine();
+		}
+	}
+
+	// Pipelines TYPE, then length and digest for each key. Keys gone by the time of TYPE map to null.
+	private Map<String, Fingerprint> fingerprint(RedisConnectionManager side, List<String> keys) throws InterruptedException {
+		side.getScanGovernor().pace();
+		StatefulConnection<String, String> connection = side.getConnection();
+		RedisClusterAsyncCommands<String, String> async = RedisClients.async(connection);
+		List<RedisFuture<String>> types = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			types.add(async.type(key));
+		}
+		RedisFutures.awaitQuietly(connection.getTimeout(), types);
+
+		List<RedisKeyType> keyTypes = new ArrayList<>(keys.size());
+		List<RedisFuture<Long>> lengths = new ArrayList<>(keys.size());
+		List<RedisFuture<?>> digests = new ArrayList<>(keys.size());
+		List<RedisFuture<?>> pending = new ArrayList<>(keys.size() * 2);
+		for (int i = 0; i < keys.size(); i++) {
+			RedisKeyType type = RedisKeyType.of(RedisFutures.valueOrNull(types.get(i)));
+			keyTypes.add(type);
+			boolean exists = type != null && type != RedisKeyType.UNKNOWN;
+			RedisFuture<Long> length = exists ? KeyTypeCommands.length(async, type, keys.get(i)) : null;
+			RedisFuture<?> digest = exists ? digest(async, keys.get(i)) : null;
+			lengths.add(length);
+			digests.add(digest);
+			if (length != null) {
+				pending.add(length);
+			}
+			if (digest != null) {
+				pending.add(digest);
+			}
+		}
+		RedisFutures.awaitQuietly(connection.getTimeout(), pending);
+
+		Map<String, Fingerprint> result = new LinkedHashMap<>();
+		for (int i = 0; i < keys.size(); i++) {
+			RedisKeyType type = keyTypes.get(i);
+			if (type == null || type == RedisKeyType.UNKNOWN) {
+				// Type "none" - deleted or expired since the scan. Failed TYPE is treated the same.
+				result.put(keys.get(i), null);
+				continue;
+			}
+			Long length = lengths.get(i) != null ? RedisFutures.valueOrNull(lengths.get(i)) : null;
+			result.put(keys.get(i), new Fingerprint(type, length != null ? length : -1L, digestValue(digests.get(i))));
+		}
+		return result;
+	}
+
+	private RedisFuture<?> digest(RedisClusterAsyncCommands<String, String> async, String key) {
+		switch (usedDigest) {
+			case SERVER:
+				return serverDigest(async, key);
+			case DUMP:
+				return async.dump(key);
+			default:
+				return null;
+		}
+	}
+
+	private static RedisFuture<List<Object>> serverDigest(RedisClusterAsyncCommands<String, String> async, String key) {
+		return async.dispatch(CommandType.DEBUG, new ArrayOutput<>(StringCodec.UTF8),
+				new CommandArgs<>(StringCodec.UTF8).add("DIGEST-VALUE").addKey(key));
+	}
+
+	// 0 if there's no digest or it failed
+	private static long digestValue(RedisFuture<?> future) {
+		Object value = future != null ? RedisFutures.valueOrNull(future) : null;
+		if (value instanceof List && !((List<?>) value).isEmpty() && ((List<?>) value).get(0) instanceof String) {
+			String hex = (String) ((List<?>) value).get(0);
+			return hex.length() >= 16 ? Long.parseUnsignedLong(hex.substring(0, 16), 16) : 0L;
+		} else if (value instanceof byte[]) {
+			byte[] dump = (byte[]) value;
+			try {
+				MessageDigest md5 = MessageDigest.getInstance("MD5");
+				md5.update(dump, 0, Math.max(0, dump.length - DUMP_TRAILER_LENGTH));
+				return ByteBuffer.wrap(md5.digest()).getLong();
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return 0L;
+	}
+
+	// DEBUG is often disabled (or not allowed by ACL) on managed servers - the server digest can only be used if both sides allow it
+	private DigestMode resolveDigest(RedisConnectionManager source, RedisConnectionManager target) throws InterruptedException {
+		if (digestMode != DigestMode.AUTO && digestMode != DigestMode.SERVER) {
+			return digestMode;
+		}
+		String probeKey = "mvmnredisgui:digest-probe:" + UUID.randomUUID();
+		List<RedisFuture<List<Object>>> probes = Arrays.asList(serverDigest(RedisClients.async(source.getConnection()), probeKey),
+				serverDigest(RedisClients.async(target.getConnection()), probeKey));
+		RedisFutures.awaitQuietly(source.getConnection().getTimeout(), probes);
+		for (RedisFuture<List<Object>> probe : probes) {
+			if (RedisFutures.valueOrNull(probe) == null) {
+				if (digestMode == DigestMode.SERVER) {
+					throw new IllegalStateException("DEBUG DIGEST-VALUE is not allowed on " + (probe == probes.get(0) ? "source" : "target"));
+				}
+				return DigestMode.DUMP;
+			}
+		}
+		return DigestMode.SERVER;
+	}
+
+	private static long dbSize(RedisConnectionManager side) throws InterruptedException {
+		List<RedisFuture<Long>> sizes = new ArrayList<>();
+		for (RedisClusterAsyncCommands<String, String> node : side.getScanNodes().values()) {
+			sizes.add(node.dbsize());
+		}
+		RedisFutures.awaitQuietly(side.getConnection().getTimeout(), sizes);
+		long result = 0L;
+		for (RedisFuture<Long> size : sizes) {
+			Long value = RedisFutures.valueOrNull(size);
+			result += value != null ? value : 0L;
+		}
+		return result;
+	}
+
+	private static void deleteQuietly(Path dir) {
+		try {
+			if (Files.isDirectory(dir)) {
+				try (Stream<Path> files = Files.list(dir)) {
+					files.forEach(file -> file.toFile().delete());
+				}
+			}
+			Files.deleteIfExists(dir);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public String getPhase() {
+		return phase;
+	}
+
+	// Null until resolved at the start of the run
+	public DigestMode getUsedDigest() {
+		return usedDigest;
+	}
+
+	public ScanProgress getSourceProgress() {
+		return sourceProgress.get();
+	}
+
+	public ScanProgress getTargetProgress() {
+		return targetProgress.get();
+	}
+
+	public long getSourceKeys() {
+		return sourceKeys.get();
+	}
+
+	public long getTargetKeys() {
+		return targetKeys.get();
+	}
+
+	// Keys deleted or expired between the scan and the fingerprint
+	public long getVanished() {
+		return vanished.get();
+	}
+
+	public long getMatched() {
+		return matched.get();
+	}
+
+	// Differences gone by the time of the re-check
+	public long getSettled() {
+		return settled.get();
+	}
+
+	public long getDifferenceCount(DifferenceKind kind) {
+		return differenceCounts.get(kind).get();
+	}
+
+	// The first differences found, see getDifferenceCount() for the totals
+	public List<Difference> getDifferences() {
+		synchronized (differences) {
+			return new ArrayList<>(differences);
+		}
+	}
+
+	private static final class Fingerprint {
+		private final RedisKeyType type;
+		private final long length;
+		private final long digest;
+
+		private Fingerprint(RedisKeyType type, long length, long digest) {
+			this.type = type;
+			this.length = length;
+			this.digest = digest;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Fingerprint)) {
+				return false;
+			}
+			Fingerprint other = (Fingerprint) obj;
+			return type == other.type && length == other.length && digest == other.digest;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, length, digest);
+		}
+
+		@Override
+		public String toString() {
+			return type.name().toLowerCase() + ", length " + length + (digest != 0L ? ", digest " + Long.toHexString(digest) : "");
+		}
+	}
+
+	private static interface FingerprintConsumer {
+		void accept(String key, Fingerprint fingerprint);
+	}
+
+	// Fingerprints of one side, in one file per partition - written by the scan of that side only
+	private static final class Spill implements Closeable {
+		private final Path[] files;
+		private final DataOutputStream[] outputs;
+
+		private Spill(Path dir, String side, int partitions) throws IOException {
+			files = new Path[partitions];
+			outputs = new DataOutputStream[partitions];
+			try {
+				for (int i = 0; i < partitions; i++) {
+					files[i] = dir.resolve(side + "-" + i);
+					outputs[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[i]), SPILL_BUFFER_SIZE));
+				}
+			} catch (IOException e) {
+				close();
+				throw e;
+			}
+		}
+
+		private void write(String key, Fingerprint fingerprint) throws IOException {
+			byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+			DataOutputStream output = outputs[(key.hashCode() & Integer.MAX_VALUE) % outputs.length];
+			output.writeInt(keyBytes.length);
+			output.write(keyBytes);
+			output.writeByte(fingerprint.type.ordinal());
+			output.writeLong(fingerprint.length);
+			output.writeLong(fingerprint.digest);
+		}
+
+		private void finishWriting() throws IOException {
+			for (int i = 0; i < outputs.length; i++) {
+				outputs[i].close();
+				outputs[i] = null;
+			}
+		}
+
+		private void read(int partition, FingerprintConsumer consumer) throws IOException {
+			try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(files[partition]), SPILL_BUFFER_SIZE))) {
+				while (true) {
+					int keyLength;
+					try {
+						keyLength = input.readInt();
+					} catch (EOFException e) {
+						return;
+					}
+					byte[] keyBytes = new byte[keyLength];
+					input.readFully(keyBytes);
+					RedisKeyType type = RedisKeyType.values()[input.readByte()];
+					consumer.accept(new String(keyBytes, StandardCharsets.UTF_8), new Fingerprint(type, input.readLong(), input.readLong()));
+				}
+			}
+		}
+
+		@Override
+		public void close() {
+			for (DataOutputStream output : outputs) {
+				if (output != null) {
+					try {
+						output.close();
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.concurrent.CompletionStage;
+
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.util.LogHistogram;
+
+// Sends a lightweight command over the connection on every probe() call and records the round trip time in microseconds into
+// per-second histograms, kept for the last HISTORY_SECONDS - windows of any length up to that are merged on request.
+// At most one probe is in flight: while the server stalls, probes are skipped and the stalled one records the full stall once it
+// completes, instead of the stall being hidden by probes queued behind it.
+public class LatencyProbe {
+
+	public static final int HISTORY_SECONDS = 300;
+
+	public static enum ProbeCommand {
+		PING, ECHO, TIME, EXISTS;
+	}
+
+	private final RedisConnectionManager connectionManager;
+	private final ProbeCommand command;
+	private final String key;
+	private final LogHistogram[] perSecond = new LogHistogram[HISTORY_SECONDS];
+	private final long[] slotSeconds = new long[HISTORY_SECONDS];
+	private final LogHistogram sinceStart = new LogHistogram();
+	private long sent;
+	private long skipped;
+	private long failed;
+	private boolean inFlight;
+
+	// Key is only used by EXISTS
+	public LatencyProbe(RedisConnectionManager connectionManager, ProbeCommand command, String key) {
+		this.connectionManager = connectionManager;
+		this.command = command;
+		this.key = key;
+		for (int i = 0; i < HISTORY_SECONDS; i++) {
+			perSecond[i] = new LogHistogram();
+			slotSeconds[i] = -1L;
+		}
+	}
+
+	public void probe() {
+		synchronized (this) {
+			if (inFlight) {
+				skipped++;
+				return;
+			}
+			inFlight = true;
+			sent++;
+		}
+		long start = System.nanoTime();
+		CompletionStage<?> result;
+		try {
+			result = send(RedisClients.async(connectionManager.getConnection()));
+		} catch (RuntimeException e) {
+			completed(start, false);
+			return;
+		}
+		result.whenComplete((value, error) -> completed(start, error == null));
+	}
+
+	private CompletionStage<?> send(RedisClusterAsyncCommands<String, String> commands) {
+		switch (command) {
+			case ECHO:
+				return commands.echo("probe");
+			case TIME:
+				return commands.time();
+			case EXISTS:
+				return commands.exists(key);
+			default:
+				return commands.ping();
+		}
+	}
+
+	private synchronized void completed(long startNanos, boolean success) {
+		inFlight = false;
+		if (!success) {
+			failed++;
+			return;
+		}
+		long micros = (System.nanoTime() - startNanos) / 1000L;
+		long second = System.currentTimeMillis() / 1000L;
+		int slot = (int) (second % HISTORY_SECONDS);
+		if (slotSeconds[slot] != second) {
+			slotSeconds[slot] = second;
+			perSecond[slot].reset();
+		}
+		perSecond[slot].record(micros);
+		sinceStart.record(micros);
+	}
+
+	// Merges the histograms of the last windowSeconds seconds, the current one included, into target
+	public synchronized void copyWindow(int windowSeconds, LogHistogram target) {
+		target.reset();
+		long now = System.currentTimeMillis() / 1000L;
+		for (int i = 0; i < HISTORY_SECONDS; i++) {
+			if (slotSeconds[i] > now - windowSeconds && slotSeconds[i] <= now) {
+				target.add(perSecond[i]);
+			}
+		}
+	}
+
+	// The histogram of one completed second, e.g. the previous one for a per-second chart
+	public synchronized void copySecond(long second, LogHistogram target) {
+		target.reset();
+		int slot = (int) (second % HISTORY_SECONDS);
+		if (slotSeconds[slot] == second) {
+			target.add(perSecond[slot]);
+		}
+	}
+
+	public synchronized void copySinceStart(LogHistogram target) {
+		target.reset();
+		target.add(sinceStart);
+	}
+
+	public synchronized long getSent() {
+		return sent;
+	}
+
+	public synchronized long getSkipped() {
+		return skipped;
+	}
+
+	public synchronized long getFailed() {
+		return failed;
+	}
+
+	public ProbeCommand getCommand() {
+		return command;
+	}
+}
@@ -0,0 +1,230 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import io.lettuce.core.RedisURI;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Streams MONITOR output of a single server over a plain socket. Lettuce has no streaming support for MONITOR, and a dedicated socket
+// keeps the firehose away from the shared event loops. Lines are handed out as slices of one reusable read buffer, without copying.
+public class MonitorClient implements Closeable {
+
+	public static interface LineHandler {
+		// Line without the leading '+' and trailing CRLF. Data is only valid during the call. Lines longer than the read buffer come cut.
+		void onLine(byte[] buffer, int offset, int length);
+	}
+
+	private static final int READ_BUFFER_SIZE = 1 << 20;
+	// Lets the reading thread notice cancellation while the server is idle
+	private static final int READ_POLL_MILLIS = 1000;
+
+	private final RedisURI uri;
+	private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private volatile Socket socket;
+	private volatile boolean closed;
+
+	public MonitorClient(RedisURI uri) {
+		if (uri.getSocket() != null) {
+			throw new UnsupportedOperationException("MONITOR is not supported for unix socket connections");
+		}
+		if (uri.isSsl() && uri.isStartTls()) {
+			// Would take sending the first command in plain text before the handshake, which Redis servers don't do
+			throw new UnsupportedOperationException("MONITOR is not supported for StartTLS connections");
+		}
+		this.uri = uri;
+	}
+
+	// True if TLS is used with peer verification off, so that any server certificate is accepted - same as for the connection itself
+	public boolean isTrustingAnyCertificate() {
+		return uri.isSsl() && !uri.isVerifyPeer();
+	}
+
+	// Blocks until closed, cancelled or disconnected
+	public void run(LineHandler handler) throws IOException {
+		Socket socket = connect();
+		try {
+			InputStream in = socket.getInputStream();
+			OutputStream out = socket.getOutputStream();
+			if (uri.getPassword() != null && uri.getPassword().length > 0) {
+				String password = new String(uri.getPassword());
+				command(in, out, uri.getUsername() != null ? new String[] { "AUTH", uri.getUsername(), password } : new String[] { "AUTH", password });
+			}
+			if (uri.getClientName() != null) {
+				command(in, out, "CLIENT", "SETNAME", uri.getClientName() + "-monitor");
+			}
+			command(in, out, "MONITOR");
+			socket.setSoTimeout(READ_POLL_MILLIS);
+			boolean skipping = false;
+			while (!closed && !TaskHandle.isCurrentCancelled()) {
+				int lineEnd = indexOfNewline();
+				if (lineEnd < 0) {
+					if (position == 0 && limit == buffer.length) {
+						// Line longer than the buffer - deliver what fits and drop the rest of it
+						if (!skipping) {
+							deliver(handler, 0, limit);
+						}
+						skipping = true;
+						position = limit = 0;
+					}
+					if (!fill(in)) {
+						break;
+					}
+					continue;
+				}
+				if (!skipping) {
+					deliver(handler, position, lineEnd);
+				}
+				skipping = false;
+				position = lineEnd + 1;
+			}
+		} catch (IOException e) {
+			// Closing the socket is how a blocked read gets stopped
+			if (!closed) {
+				throw e;
+			}
+		} finally {
+			close();
+		}
+	}
+
+	private void deliver(LineHandler handler, int start, int newline) throws IOException {
+		int end = newline > start && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+		if (start < end && buffer[start] == '-') {
+			throw new IOException("MONITOR failed: " + new String(buffer, start + 1, end - start - 1, StandardCharsets.UTF_8));
+		}
+		if (start < end && buffer[start] == '+') {
+			start++;
+		}
+		handler.onLine(buffer, start, end - start);
+	}
+
+	private int indexOfNewline() {
+		for (int i = position; i < limit; i++) {
+			if (buffer[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Compacts the unread remainder to the start of the buffer and reads more. Returns false on end of stream or cancellation.
+	private boolean fill(InputStream in) throws IOException {
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		while (!closed && !TaskHandle.isCurrentCancelled()) {
+			try {
+				int read = in.read(buffer, limit, buffer.length - limit);
+				if (read < 0) {
+					return false;
+				}
+				limit += read;
+				return true;
+			} catch (SocketTimeoutException e) {
+				// poll for cancellation
+			}
+		}
+		return false;
+	}
+
+	private void command(InputStream in, OutputStream out, String... args) throws IOException {
+		StringBuilder request = new StringBuilder().append('*').append(args.length).append("\r\n");
+		for (String arg : args) {
+			request.append('$').append(arg.getBytes(StandardCharsets.UTF_8).length).append("\r\n").append(arg).append("\r\n");
+		}
+		out.write(request.toString().getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		int lineEnd;
+		while ((lineEnd = indexOfNewline()) < 0) {
+			if (!fill(in)) {
+				throw new IOException("Connection closed while waiting for reply to " + args[0]);
+			}
+		}
+		String reply = new String(buffer, position, lineEnd - position, StandardCharsets.UTF_8).trim();
+		position = lineEnd + 1;
+		if (!reply.startsWith("+")) {
+			throw new IOException(args[0] + " failed: " + (reply.startsWith("-") ? reply.substring(1) : reply));
+		}
+	}
+
+	private Socket connect() throws IOException {
+		int timeoutMillis = (int) Math.min(Integer.MAX_VALUE, uri.getTimeout().toMillis());
+		Socket socket;
+		if (uri.isSsl()) {
+			SSLSocket sslSocket = (SSLSocket) sslSocketFactory().createSocket();
+			if (uri.isVerifyPeer()) {
+				SSLParameters parameters = sslSocket.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(parameters);
+			}
+			socket = sslSocket;
+		} else {
+			socket = new Socket();
+		}
+		this.socket = socket;
+		if (closed) {
+			socket.close();
+			throw new IOException("Monitor closed");
+		}
+		socket.setSoTimeout(timeoutMillis);
+		socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), timeoutMillis);
+		return socket;
+	}
+
+	private SSLSocketFactory sslSocketFactory() throws IOException {
+		if (uri.isVerifyPeer()) {
+			return (SSLSocketFactory) SSLSocketFactory.getDefault();
+		}
+		try {
+			SSLContext context = SSLContext.getInstance("TLS");
+			context.init(null, new TrustManager[] { new X509TrustManager() {
+				@Override
+				public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+
+				@Override
+				public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+
+				@Override
+				public X509Certificate[] getAcceptedIssuers() {
+					return new X509Certificate[0];
+				}
+			} }, new SecureRandom());
+			return context.getSocketFactory();
+		} catch (Exception e) {
+			throw new IOException("Failed to set up TLS without peer verification", e);
+		}
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		Socket socket = this.socket;
+		if (socket != null) {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package x.mvmn.redisgui.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import x.mvmn.redisgui.util.ByteRingLog;
+import x.mvmn.redisgui.util.CompactStringSet;
+
+// Consumes MONITOR lines like: 1339518083.107412 [0 127.0.0.1:60866] "set" "user:1" "x"
+// Applies 1-in-N sampling and filters, keeps the most recent lines in a preallocated ring and counts commands by name and by key
+// prefix. Parsing works on the raw bytes with reusable scratch buffers, so a line costs no allocations unless it's a new name/prefix.
+public class MonitorRecorder implements MonitorClient.LineHandler {
+
+	public static final String OTHER = "(other)";
+	public static final String NO_PREFIX = "(no prefix)";
+
+	private static final int MAX_COMMANDS = 1000;
+	private static final int MAX_PREFIXES = 5000;
+	private static final int MAX_TOKEN_LENGTH = 1024;
+	private static final byte[] NO_PREFIX_BYTES = NO_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+	private final ByteRingLog log;
+	private final byte delimiter;
+	private final Counters commands = new Counters(MAX_COMMANDS);
+	private final Counters prefixes = new Counters(MAX_PREFIXES);
+	private final byte[] commandScratch = new byte[MAX_TOKEN_LENGTH];
+	private final byte[] keyScratch = new byte[MAX_TOKEN_LENGTH];
+	private int tokenEnd;
+
+	private volatile int sampleEvery = 1;
+	private volatile byte[] filter;
+	private volatile int database = -1;
+	private long received;
+	private volatile long receivedTotal;
+	private volatile long recordedTotal;
+
+	public MonitorRecorder(int logCapacity, int maxLineLength, char prefixDelimiter) {
+		this.log = new ByteRingLog(logCapacity, maxLineLength);
+		this.delimiter = (byte) prefixDelimiter;
+	}
+
+	public ByteRingLog getLog() {
+		return log;
+	}
+
+	public void setSampleEvery(int sampleEvery) {
+		this.sampleEvery = Math.max(1, sampleEvery);
+	}
+
+	public int getSampleEvery() {
+		return sampleEvery;
+	}
+
+	// Case-sensitive substring match on the whole line, null or empty for none
+	public void setFilter(String filter) {
+		this.filter = filter != null && !filter.isEmpty() ? filter.getBytes(StandardCharsets.UTF_8) : null;
+	}
+
+	// -1 for all databases
+	public void setDatabase(int database) {
+		this.database = database;
+	}
+
+	public long getReceived() {
+		return receivedTotal;
+	}
+
+	public long getRecorded() {
+		return recordedTotal;
+	}
+
+	@Override
+	public void onLine(byte[] buffer, int offset, int length) {
+		receivedTotal = ++received;
+		if (received % sampleEvery != 0) {
+			return;
+		}
+		byte[] filter = this.filter;
+		if (filter != null && indexOf(buffer, offset, length, filter) < 0) {
+			return;
+		}
+		int end = offset + length;
+		int space = indexOf(buffer, offset, end, (byte) ' ');
+		int bracket = space >= 0 ? space + 1 : end;
+		if (bracket >= end || buffer[bracket] != '[') {
+			// Not a command line (e.g. OK reply) - ignore
+			return;
+		}
+		long timestampMicros = parseTimestampMicros(buffer, offset, space);
+		int databaseEnd = indexOf(buffer, bracket + 1, end, (byte) ' ');
+		int lineDatabase = (int) parseLong(buffer, bracket + 1, databaseEnd >= 0 ? databaseEnd : end);
+		if (database >= 0 && lineDatabase != database) {
+			return;
+		}
+		int closingBracket = indexOf(buffer, bracket, end, (byte) ']');
+		int argsStart = closingBracket >= 0 ? closingBracket + 2 : end;
+		log.add(timestampMicros, buffer, bracket, end - bracket);
+		recordedTotal++;
+
+		int commandLength = argsStart < end ? readToken(buffer, argsStart, end, commandScratch) : 0;
+		if (commandLength == 0) {
+			return;
+		}
+		for (int i = 0; i < commandLength; i++) {
+			if (commandScratch[i] >= 'a' && commandScratch[i] <= 'z') {
+				commandScratch[i] -= 'a' - 'A';
+			}
+		}
+		// First argument is taken as the key - right for the vast majority of commands, and good enough for traffic shares
+		int keyStart = tokenEnd + 1;
+		int keyLength = keyStart < end ? readToken(buffer, keyStart, end, keyScratch) : -1;
+		synchronized (this) {
+			commands.increment(commandScratch, commandLength);
+			if (keyLength >= 0) {
+				int prefixLength = -1;
+				for (int i = 0; i < keyLength; i++) {
+					if (keyScratch[i] == delimiter) {
+						prefixLength = i + 1;
+						break;
+					}
+				}
+				if (prefixLength > 0) {
+					prefixes.increment(keyScratch, prefixLength);
+				} else {
+					prefixes.increment(NO_PREFIX_BYTES, NO_PREFIX_BYTES.length);
+				}
+			}
+		}
+	}
+
+	// Decodes a quoted token ("..." with \" \\ \n \r \t \a \b \xHH escapes) into target, truncated to its size. Sets tokenEnd to the index
+	// right after the closing quote.
+	private int readToken(byte[] buffer, int start, int end, byte[] target) {
+		int length = 0;
+		if (buffer[start] != '"') {
+			int i = start;
+			while (i < end && buffer[i] != ' ') {
+				if (length < target.length) {
+					target[length++] = buffer[i];
+				}
+				i++;
+			}
+			tokenEnd = i;
+			return length;
+		}
+		int i = start + 1;
+		while (i < end && buffer[i] != '"') {
+			byte b = buffer[i++];
+			if (b == '\\' && i < end) {
+				byte escaped = buffer[i++];
+				switch (escaped) {
+					case 'n':
+						b = '\n';
+					break;
+					case 'r':
+						b = '\r';
+					break;
+					case 't':
+						b = '\t';
+					break;
+					case 'a':
+						b = 7;
+					break;
+					case 'b':
+						b = '\b';
+					break;
+					case 'x':
+						if (i + 1 < end) {
+							b = (byte) (Character.digit(buffer[i], 16) << 4 | Character.digit(buffer[i + 1], 16));
+							i += 2;
+						}
+					break;
+					default:
+						b = escaped;
+				}
+			}
+			if (length < target.length) {
+				target[length++] = b;
+			}
+		}
+		tokenEnd = i + 1;
+		return length;
+	}
+
+	private static long parseTimestampMicros(byte[] buffer, int start, int end) {
+		int dot = indexOf(buffer, start, end, (byte) '.');
+		if (dot < 0) {
+			return parseLong(buffer, start, end) * 1000000L;
+		}
+		return parseLong(buffer, start, dot) * 1000000L + parseLong(buffer, dot + 1, end);
+	}
+
+	private static long parseLong(byte[] buffer, int start, int end) {
+		long result = 0;
+		for (int i = start; i < end; i++) {
+			byte b = buffer[i];
+			if (b < '0' || b > '9') {
+				break;
+			}
+			result = result * 10 + (b - '0');
+		}
+		return result;
+	}
+
+	private static int indexOf(byte[] buffer, int start, int end, byte value) {
+		for (int i = start; i < end; i++) {
+			if (buffer[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOf(byte[] buffer, int offset, int length, byte[] value) {
+		int last = offset + length - value.length;
+		outer: for (int i = offset; i <= last; i++) {
+			for (int j = 0; j < value.length; j++) {
+				if (buffer[i + j] != value[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	// Cumulative counts of sampled commands per name - multiply by the sampling rate for estimated totals
+	public synchronized Map<String, Long> getCommandCounts() {
+		return commands.snapshot();
+	}
+
+	public synchronized Map<String, Long> getPrefixCounts() {
+		return prefixes.snapshot();
+	}
+
+	public synchronized void reset() {
+		commands.clear();
+		prefixes.clear();
+		log.clear();
+		recordedTotal = 0;
+	}
+
+	// Counts per distinct name, capped - names beyond the cap are counted as OTHER
+	private static class Counters {
+		private final int maxNames;
+		private final CompactStringSet names = new CompactStringSet();
+		private long[] counts = new long[64];
+		private long other;
+
+		Counters(int maxNames) {
+			this.maxNames = maxNames;
+		}
+
+		void increment(byte[] name, int length) {
+			int index = names.indexOf(name, 0, length);
+			if (index < 0) {
+				if (names.size() >= maxNames) {
+					other++;
+					return;
+				}
+				index = names.add(name, 0, length);
+				if (index >= counts.length) {
+					counts = Arrays.copyOf(counts, counts.length * 2);
+				}
+			}
+			counts[index]++;
+		}
+
+		Map<String, Long> snapshot() {
+			Map<String, Long> result = new LinkedHashMap<>();
+			for (int i = 0; i < names.size(); i++) {
+				result.put(names.get(i), counts[i]);
+			}
+			if (other > 0) {
+				result.put(OTHER, other);
+			}
+			return result;
+		}
+
+		void clear() {
+			names.clear();
+			Arrays.fill(counts, 0L);
+			other = 0;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package x.mvmn.redisgui.redis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.task.TaskHandle;
+
+// Scans all nodes of a cluster (or the single server) at once, one SCAN cursor per node: each round sends the next SCAN to every
+// unfinished node asynchronously and then processes the replies, so nodes are scanned in parallel without tying up a thread per
+// node.
+// COUNT and pace of the rounds come from the ScanGovernor of the connection.
+public class ParallelKeyScanner {
+
+	public static final String FINISHED_CURSOR = "finished";
+	// SCAN COUNT to start with, until the ScanGovernor has measured the cost of a call
+	public static final int DEFAULT_COUNT = 1000;
+
+	private final RedisConnectionManager connectionManager;
+	private final String pattern;
+	private final Map<String, ScanProgress> nodeProgress = new LinkedHashMap<>();
+
+	public ParallelKeyScanner(RedisConnectionManager connectionManager, String pattern) {
+		this.connectionManager = connectionManager;
+		this.pattern = pattern;
+	}
+
+	// Progress listener gets the combined progress of all nodes, see getNodeProgress() for the per-node breakdown
+	public ScanProgress scan(Consumer<List<String>> batchConsumer, Consumer<ScanProgress> progressListener) throws Exception {
+		return scan(null, batchConsumer, progressListener);
+	}
+
+	// Continues from the cursors of an earlier scan, as taken from getNodeCursors() after a round: FINISHED_CURSOR for nodes already
+	// done. Cursors are only valid on the node that returned them, so the scan fails if the set of scan nodes has changed since.
+	public ScanProgress scan(Map<String, String> startCursors, Consumer<List<String>> batchConsumer, Consumer<ScanProgress> progressListener)
+			throws Exception {
+		Duration timeout = connectionManager.getConnection().getTimeout();
+		ScanGovernor governor = connectionManager.getScanGovernor();
+		List<NodeScan> nodeScans = new ArrayList<>();
+		List<RedisFuture<Long>> dbSizes = new ArrayList<>();
+		Map<String, RedisClusterAsyncCommands<String, String>> nodes = connectionManager.getScanNodes();
+		if (startCursors != null && !startCursors.keySet().equals(nodes.keySet())) {
+			throw new IllegalStateException("Servers to scan have changed since the scan was started: " + startCursors.keySet() + " then, "
+					+ nodes.keySet() + " now");
+		}
+		for (Map.Entry<String, RedisClusterAsyncCommands<String, String>> node : nodes.entrySet()) {
+			NodeScan nodeScan = new NodeScan(node.getKey(), node.getValue());
+			String startCursor = startCursors != null ? startCursors.get(node.getKey()) : null;
+			if (FINISHED_CURSOR.equals(startCursor)) {
+				nodeScan.cursor = ScanCursor.FINISHED;
+			} else if (startCursor != null) {
+				nodeScan.cursor = ScanCursor.of(startCursor);
+			}
+			nodeScans.add(nodeScan);
+			dbSizes.add(node.getValue().dbsize());
+		}
+		RedisFutures.awaitQuietly(timeout, dbSizes);
+		synchronized (nodeProgress) {
+			nodeProgress.clear();
+			for (int i = 0; i < nodeScans.size(); i++) {
+				NodeScan nodeScan = nodeScans.get(i);
+				nodeScan.progress = new ScanProgress(RedisFutures.valueOrNull(dbSizes.get(i)));
+				nodeScan.progress.startAt(nodeScan.cursor);
+				nodeProgress.put(nodeScan.node, nodeScan.progress.copy());
+			}
+		}
+
+		List<NodeScan> unfinished = new ArrayList<>(nodeScans);
+		unfinished.removeIf(nodeScan -> nodeScan.cursor.isFinished());
+		while (!unfinished.isEmpty() && !TaskHandle.isCurrentCancelled()) {
+			governor.pace();
+			int count = governor.count();
+			ScanArgs scanArgs = scanArgs(pattern, count);
+			long roundStart = System.nanoTime();
+			for (NodeScan nodeScan : unfinished) {
+				nodeScan.pending = nodeScan.commands.scan(nodeScan.cursor, scanArgs);
+			}
+			long deadline = roundStart + timeout.toNanos();
+			for (NodeScan nodeScan : unfinished) {
+				nodeScan.pending.await(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			}
+			// Nodes are scanned at the same time, so the round takes about as long as a call on one node
+			governor.record(count, System.nanoTime() - roundStart);
+			for (NodeScan nodeScan : unfinished) {
+				KeyScanCursor<String> result = LettuceFutures.awaitOrCancel(nodeScan.pending, timeout.toNanos(), TimeUnit.NANOSECONDS);
+				nodeScan.pending = null;
+				nodeScan.cursor = result;
+				nodeScan.progress.record(result, count);
+				if (!result.getKeys().isEmpty()) {
+					batchConsumer.accept(result.getKeys());
+				}
+				synchronized (nodeProgress) {
+					nodeProgress.put(nodeScan.node, nodeScan.progress.copy());
+				}
+			}
+			unfinished.removeIf(nodeScan -> nodeScan.cursor.isFinished());
+			if (progressListener != null) {
+				progressListener.accept(getCombinedProgress());
+			}
+		}
+		return getCombinedProgress();
+	}
+
+	private static ScanArgs scanArgs(String pattern, int count) {
+		ScanArgs scanArgs = ScanArgs.Builder.limit(count);
+		if (pattern != null && !pattern.equals("*")) {
+			scanArgs.match(pattern);
+		}
+		return scanArgs;
+	}
+
+	// Cursors to continue from with scan(startCursors, ...)
+	public Map<String, String> getNodeCursors() {
+		Map<String, String> result = new LinkedHashMap<>();
+		for (Map.Entry<String, ScanProgress> entry : getNodeProgress().entrySet()) {
+			result.put(entry.getKey(), entry.getValue().isFinished() ? FINISHED_CURSOR : entry.getValue().getCursor());
+		}
+		return result;
+	}
+
+	public Map<String, ScanProgress> getNodeProgress() {
+		synchronized (nodeProgress) {
+			return new LinkedHashMap<>(nodeProgress);
+		}
+	}
+
+	public ScanProgress getCombinedProgress() {
+		return ScanProgress.combine(getNodeProgress().values());
+	}
+
+	private static class NodeScan {
+		private final String node;
+		private final RedisClusterAsyncCommands<String, String> commands;
+		private ScanCursor cursor = ScanCursor.INITIAL;
+		private ScanProgress progress;
+		private RedisFuture<KeyScanCursor<String>> pending;
+
+		private NodeScan(String node, RedisClusterAsyncCommands<String, String> commands) {
+			this.node = node;
+			this.commands = commands;
+		}
+	}
+}
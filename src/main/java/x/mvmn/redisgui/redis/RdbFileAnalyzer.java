@@ -0,0 +1,151 @@
+package x.mvmn.redisgui.redis;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import x.mvmn.redisgui.lang.UnsafeConsumer;
+import x.mvmn.redisgui.model.BigKeysReport;
+import x.mvmn.redisgui.redis.RdbFileParser.Entry;
+import x.mvmn.redisgui.util.GlobPattern;
+import x.mvmn.redisgui.util.KeyPrefixTrie;
+
+// Offline counterpart of BigKeysAnalyzer and the key list: streams the keys of an RDB file matching the pattern into the big keys
+// report, the namespace trie and a key sink. Serialized size in the file stands in for MEMORY USAGE. Apart from what the sink keeps,
+// everything collected is bounded by the settings of the report and the trie, so files of any size can be analyzed.
+public class RdbFileAnalyzer {
+
+	private final Path file;
+	private final GlobPattern pattern;
+	private final BigKeysReport report;
+	private final KeyPrefixTrie namespaces;
+	private final UnsafeConsumer<Entry> keySink;
+	private final AtomicLong scannedKeys = new AtomicLong();
+	private final AtomicLong matchedKeys = new AtomicLong();
+	private final Map<String, Summary> byEncoding = new TreeMap<>();
+	private final Map<Integer, Summary> byDatabase = new TreeMap<>();
+	private volatile RdbFileParser parser;
+
+	public RdbFileAnalyzer(Path file, String pattern, BigKeysReport report, KeyPrefixTrie namespaces, UnsafeConsumer<Entry> keySink) {
+		this.file = file;
+		this.pattern = new GlobPattern(pattern);
+		this.report = report;
+		this.namespaces = namespaces;
+		this.keySink = keySink;
+	}
+
+	public void run() throws Exception {
+		try (RdbFileParser currentParser = new RdbFileParser(file)) {
+			parser = currentParser;
+			currentParser.parse(entry -> {
+				scannedKeys.incrementAndGet();
+				if (!pattern.isMatchAll() && !pattern.matches(entry.getKey())) {
+					return;
+				}
+				matchedKeys.incrementAndGet();
+				report.record(entry.getKey(), entry.getType(), Math.max(0L, entry.getLength()), entry.getRdbBytes());
+				namespaces.add(entry.getKey());
+				synchronized (this) {
+					byEncoding.computeIfAbsent(entry.getType().name().toLowerCase() + "/" + entry.getEncoding(), k -> new Summary())
+							.add(entry);
+					byDatabase.computeIfAbsent(entry.getDatabase(), k -> new Summary()).add(entry);
+				}
+				keySink.accept(entry);
+			});
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public BigKeysReport getReport() {
+		return report;
+	}
+
+	public long getScannedKeys() {
+		return scannedKeys.get();
+	}
+
+	public long getMatchedKeys() {
+		return matchedKeys.get();
+	}
+
+	// Bytes of the file parsed so far, 0 before the parsing starts
+	public long getPosition() {
+		RdbFileParser parser = this.parser;
+		return parser != null ? parser.getPosition() : 0L;
+	}
+
+	public long getFileSize() {
+		RdbFileParser parser = this.parser;
+		return parser != null ? parser.getSize() : 0L;
+	}
+
+	// RDB format version, 0 before the header is read
+	public int getVersion() {
+		RdbFileParser parser = this.parser;
+		return parser != null ? parser.getVersion() : 0;
+	}
+
+	public Map<String, String> getAuxFields() {
+		RdbFileParser parser = this.parser;
+		return parser != null ? parser.getAuxFields() : Collections.emptyMap();
+	}
+
+	// Matching keys per type and encoding, keyed by "type/encoding"
+	public synchronized Map<String, Summary> getByEncoding() {
+		Map<String, Summary> result = new TreeMap<>();
+		byEncoding.forEach((k, v) -> result.put(k, v.copy()));
+		return result;
+	}
+
+	public synchronized Map<Integer, Summary> getByDatabase() {
+		Map<Integer, Summary> result = new TreeMap<>();
+		byDatabase.forEach((k, v) -> result.put(k, v.copy()));
+		return result;
+	}
+
+	public static class Summary {
+		private long keys;
+		private long expiringKeys;
+		private long rdbBytes;
+		private long maxRdbBytes;
+
+		private void add(Entry entry) {
+			keys++;
+			if (entry.getExpireAtMillis() >= 0) {
+				expiringKeys++;
+			}
+			rdbBytes += entry.getRdbBytes();
+			maxRdbBytes = Math.max(maxRdbBytes, entry.getRdbBytes());
+		}
+
+		private Summary copy() {
+			Summary result = new Summary();
+			result.keys = keys;
+			result.expiringKeys = expiringKeys;
+			result.rdbBytes = rdbBytes;
+			result.maxRdbBytes = maxRdbBytes;
+			return result;
+		}
+
+		public long getKeys() {
+			return keys;
+		}
+
+		public long getExpiringKeys() {
+			return expiringKeys;
+		}
+
+		public long getRdbBytes() {
+			return rdbBytes;
+		}
+
+		public long getMaxRdbBytes() {
+			return maxRdbBytes;
+		}
+	}
+}
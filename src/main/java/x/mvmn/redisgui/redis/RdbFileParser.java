@@ -0,0 +1,746 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import x.mvmn.redisgui.lang.UnsafeConsumer;
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.util.MappedFileReader;
+
+// Streaming parser of RDB snapshot files (format versions 1 to 12), reading through a memory-mapped window - no server needed.
+// Values are skipped over rather than loaded: only the headers of packed encodings (ziplist, listpack, intset, zipmap) are looked at
+// for element counts, decompressing just enough of them if LZF-compressed. Heap use doesn't depend on the file size, only one key
+// name is held at a time.
+public class RdbFileParser implements Closeable {
+
+	public static final int MAX_SUPPORTED_VERSION = 12;
+
+	private static final int OPCODE_SLOT_INFO = 0xF4;
+	private static final int OPCODE_FUNCTION2 = 0xF5;
+	private static final int OPCODE_FUNCTION_PRE_GA = 0xF6;
+	private static final int OPCODE_MODULE_AUX = 0xF7;
+	private static final int OPCODE_IDLE = 0xF8;
+	private static final int OPCODE_FREQ = 0xF9;
+	private static final int OPCODE_AUX = 0xFA;
+	private static final int OPCODE_RESIZEDB = 0xFB;
+	private static final int OPCODE_EXPIRETIME_MS = 0xFC;
+	private static final int OPCODE_EXPIRETIME = 0xFD;
+	private static final int OPCODE_SELECTDB = 0xFE;
+	private static final int OPCODE_EOF = 0xFF;
+
+	private static final int TYPE_STRING = 0;
+	private static final int TYPE_LIST = 1;
+	private static final int TYPE_SET = 2;
+	private static final int TYPE_ZSET = 3;
+	private static final int TYPE_HASH = 4;
+	private static final int TYPE_ZSET_2 = 5;
+	private static final int TYPE_MODULE_PRE_GA = 6;
+	private static final int TYPE_MODULE_2 = 7;
+	private static final int TYPE_HASH_ZIPMAP = 9;
+	private static final int TYPE_LIST_ZIPLIST = 10;
+	private static final int TYPE_SET_INTSET = 11;
+	private static final int TYPE_ZSET_ZIPLIST = 12;
+	private static final int TYPE_HASH_ZIPLIST = 13;
+	private static final int TYPE_LIST_QUICKLIST = 14;
+	private static final int TYPE_STREAM_LISTPACKS = 15;
+	private static final int TYPE_HASH_LISTPACK = 16;
+	private static final int TYPE_ZSET_LISTPACK = 17;
+	private static final int TYPE_LIST_QUICKLIST_2 = 18;
+	private static final int TYPE_STREAM_LISTPACKS_2 = 19;
+	private static final int TYPE_SET_LISTPACK = 20;
+	private static final int TYPE_STREAM_LISTPACKS_3 = 21;
+	private static final int TYPE_HASH_METADATA_PRE_GA = 22;
+	private static final int TYPE_HASH_LISTPACK_EX_PRE_GA = 23;
+	private static final int TYPE_HASH_METADATA = 24;
+	private static final int TYPE_HASH_LISTPACK_EX = 25;
+
+	private static final int ENCODING_INT8 = 0;
+	private static final int ENCODING_INT16 = 1;
+	private static final int ENCODING_INT32 = 2;
+	private static final int ENCODING_LZF = 3;
+	private static final int QUICKLIST_NODE_PLAIN = 1;
+	private static final int UNKNOWN_COUNT_MARKER = 0xFFFF;
+	// Strings up to this length are stored embedded in the object header
+	private static final int EMBSTR_MAX_LENGTH = 44;
+	// Packed values are decompressed in full only up to this size to count their elements, larger ones only for the header
+	private static final int MAX_DECOMPRESSED_BLOB = 64 * 1024 * 1024;
+	private static final String MODULE_NAME_CHARSET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+	private static enum Packed {
+		ZIPLIST(10), LISTPACK(6), INTSET(8), ZIPMAP(1);
+
+		private final int headerLength;
+
+		Packed(int headerLength) {
+			this.headerLength = headerLength;
+		}
+	}
+
+	public static class Entry {
+		private final int database;
+		private final String key;
+		private final RedisKeyType type;
+		private final String encoding;
+		private final long length;
+		private final long rdbBytes;
+		private final long expireAtMillis;
+
+		public Entry(int database, String key, RedisKeyType type, String encoding, long length, long rdbBytes, long expireAtMillis) {
+			this.database = database;
+			this.key = key;
+			this.type = type;
+			this.encoding = encoding;
+			this.length = length;
+			this.rdbBytes = rdbBytes;
+			this.expireAtMillis = expireAtMillis;
+		}
+
+		public int getDatabase() {
+			return database;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		// UNKNOWN for module types
+		public RedisKeyType getType() {
+			return type;
+		}
+
+		// As OBJECT ENCODING would tell when the value was saved
+		public String getEncoding() {
+			return encoding;
+		}
+
+		// String length or number of elements (pairs for hashes and sorted sets, entries for streams), -1 if unknown
+		public long getLength() {
+			return length;
+		}
+
+		// Serialized size of the value in the file - a rough measure of its memory use
+		public long getRdbBytes() {
+			return rdbBytes;
+		}
+
+		// Absolute time in epoch millis, -1 if the key doesn't expire
+		public long getExpireAtMillis() {
+			return expireAtMillis;
+		}
+	}
+
+	private final MappedFileReader in;
+	private final Map<String, String> auxFields = new LinkedHashMap<>();
+	private volatile int version;
+	private byte[] scratch = new byte[1024];
+	private boolean lastStringWasInt;
+
+	public RdbFileParser(Path file) throws IOException {
+		this.in = new MappedFileReader(file);
+	}
+
+	// Calls the consumer for every key in the file, in file order. Stops early if the current task gets cancelled.
+	public void parse(UnsafeConsumer<Entry> consumer) throws Exception {
+		readHeader();
+		int database = 0;
+		long expireAtMillis = -1L;
+		while (!TaskHandle.isCurrentCancelled()) {
+			long recordStart = in.position();
+			int opcode = in.readUnsignedByte();
+			switch (opcode) {
+				case OPCODE_EOF:
+					// Followed by the CRC64 checksum since version 5 - not verified, values aren't read anyway
+					return;
+				case OPCODE_SELECTDB:
+					database = (int) readLength();
+					break;
+				case OPCODE_RESIZEDB:
+					readLength();
+					readLength();
+					break;
+				case OPCODE_EXPIRETIME:
+					expireAtMillis = in.readUnsignedInt() * 1000L;
+					break;
+				case OPCODE_EXPIRETIME_MS:
+					expireAtMillis = in.readLong();
+					break;
+				case OPCODE_AUX:
+					String name = new String(readString(), StandardCharsets.UTF_8);
+					String value = new String(readString(), StandardCharsets.UTF_8);
+					synchronized (auxFields) {
+						auxFields.put(name, value);
+					}
+					break;
+				case OPCODE_FREQ:
+					in.readUnsignedByte();
+					break;
+				case OPCODE_IDLE:
+					readLength();
+					break;
+				case OPCODE_MODULE_AUX:
+					readLength();
+					readLength();
+					readLength();
+					skipModuleValue();
+					break;
+				case OPCODE_FUNCTION2:
+					skipString();
+					break;
+				case OPCODE_SLOT_INFO:
+					readLength();
+					readLength();
+					readLength();
+					break;
+				case OPCODE_FUNCTION_PRE_GA:
+					throw new IOException("RDB file has functions in the pre-release format of Redis 7.0 RC, not supported");
+				default:
+					String key = new String(readString(), StandardCharsets.UTF_8);
+					long valueStart = in.position();
+					consumer.accept(readValue(opcode, database, key, valueStart - recordStart, expireAtMillis));
+					expireAtMillis = -1L;
+			}
+		}
+	}
+
+	private void readHeader() throws IOException {
+		byte[] header = new byte[9];
+		in.readFully(header, 0, header.length);
+		String magic = new String(header, 0, 5, StandardCharsets.US_ASCII);
+		if (!"REDIS".equals(magic)) {
+			throw new IOException("Not an RDB file - starts with " + magic + " instead of REDIS");
+		}
+		try {
+			version = Integer.parseInt(new String(header, 5, 4, StandardCharsets.US_ASCII));
+		} catch (NumberFormatException e) {
+			throw new IOException("Not an RDB file - no version number after REDIS", e);
+		}
+	}
+
+	private Entry readValue(int type, int database, String key, long keyBytes, long expireAtMillis) throws IOException {
+		long start = in.position();
+		RedisKeyType keyType;
+		String encoding;
+		long length;
+		switch (type) {
+			case TYPE_STRING:
+				keyType = RedisKeyType.STRING;
+				length = skipString();
+				encoding = lastStringWasInt ? "int" : length <= EMBSTR_MAX_LENGTH ? "embstr" : "raw";
+				break;
+			case TYPE_LIST:
+				keyType = RedisKeyType.LIST;
+				encoding = "linkedlist";
+				length = skipStrings(1);
+				break;
+			case TYPE_SET:
+				keyType = RedisKeyType.SET;
+				encoding = "hashtable";
+				length = skipStrings(1);
+				break;
+			case TYPE_ZSET:
+			case TYPE_ZSET_2:
+				keyType = RedisKeyType.ZSET;
+				encoding = "skiplist";
+				length = readLength();
+				for (long i = 0; i < length; i++) {
+					skipString();
+					if (type == TYPE_ZSET_2) {
+						in.skip(8);
+					} else {
+						skipOldDouble();
+					}
+				}
+				break;
+			case TYPE_HASH:
+				keyType = RedisKeyType.HASH;
+				encoding = "hashtable";
+				length = skipStrings(2);
+				break;
+			case TYPE_HASH_METADATA_PRE_GA:
+			case TYPE_HASH_METADATA:
+				// Hash with field expiration: per field the TTL, then name and value
+				keyType = RedisKeyType.HASH;
+				encoding = "hashtable";
+				if (type == TYPE_HASH_METADATA) {
+					in.skip(8);
+				}
+				length = readLength();
+				for (long i = 0; i < length; i++) {
+					readLength();
+					skipString();
+					skipString();
+				}
+				break;
+			case TYPE_HASH_ZIPMAP:
+				keyType = RedisKeyType.HASH;
+				encoding = "zipmap";
+				length = readPackedCount(Packed.ZIPMAP);
+				break;
+			case TYPE_LIST_ZIPLIST:
+				keyType = RedisKeyType.LIST;
+				encoding = "ziplist";
+				length = readPackedCount(Packed.ZIPLIST);
+				break;
+			case TYPE_SET_INTSET:
+				keyType = RedisKeyType.SET;
+				encoding = "intset";
+				length = readPackedCount(Packed.INTSET);
+				break;
+			case TYPE_SET_LISTPACK:
+				keyType = RedisKeyType.SET;
+				encoding = "listpack";
+				length = readPackedCount(Packed.LISTPACK);
+				break;
+			case TYPE_ZSET_ZIPLIST:
+			case TYPE_HASH_ZIPLIST:
+				keyType = type == TYPE_ZSET_ZIPLIST ? RedisKeyType.ZSET : RedisKeyType.HASH;
+				encoding = "ziplist";
+				length = pairs(readPackedCount(Packed.ZIPLIST), 2);
+				break;
+			case TYPE_ZSET_LISTPACK:
+			case TYPE_HASH_LISTPACK:
+				keyType = type == TYPE_ZSET_LISTPACK ? RedisKeyType.ZSET : RedisKeyType.HASH;
+				encoding = "listpack";
+				length = pairs(readPackedCount(Packed.LISTPACK), 2);
+				break;
+			case TYPE_HASH_LISTPACK_EX_PRE_GA:
+			case TYPE_HASH_LISTPACK_EX:
+				// Field, value and TTL per entry
+				keyType = RedisKeyType.HASH;
+				encoding = "listpackex";
+				if (type == TYPE_HASH_LISTPACK_EX) {
+					in.skip(8);
+				}
+				length = pairs(readPackedCount(Packed.LISTPACK), 3);
+				break;
+			case TYPE_LIST_QUICKLIST:
+			case TYPE_LIST_QUICKLIST_2:
+				keyType = RedisKeyType.LIST;
+				encoding = "quicklist";
+				length = 0L;
+				long nodes = readLength();
+				for (long i = 0; i < nodes; i++) {
+					long nodeCount;
+					if (type == TYPE_LIST_QUICKLIST_2 && readLength() == QUICKLIST_NODE_PLAIN) {
+						skipString();
+						nodeCount = 1L;
+					} else {
+						nodeCount = readPackedCount(type == TYPE_LIST_QUICKLIST ? Packed.ZIPLIST : Packed.LISTPACK);
+					}
+					length = length < 0 || nodeCount < 0 ? -1L : length + nodeCount;
+				}
+				break;
+			case TYPE_STREAM_LISTPACKS:
+			case TYPE_STREAM_LISTPACKS_2:
+			case TYPE_STREAM_LISTPACKS_3:
+				keyType = RedisKeyType.STREAM;
+				encoding = "stream";
+				length = skipStream(type);
+				break;
+			case TYPE_MODULE_2:
+				keyType = RedisKeyType.UNKNOWN;
+				encoding = "module:" + moduleName(readLength());
+				length = -1L;
+				skipModuleValue();
+				break;
+			case TYPE_MODULE_PRE_GA:
+				throw new IOException("Key " + key + " has a module value in the pre-release format of Redis 4.0 RC, not supported");
+			default:
+				throw new IOException(String.format("Unsupported RDB record type %d at offset %d (RDB version %d, supported up to %d)",
+						type, start - keyBytes, version, MAX_SUPPORTED_VERSION));
+		}
+		return new Entry(database, key, keyType, encoding, length, in.position() - start + keyBytes, expireAtMillis);
+	}
+
+	private static long pairs(long entries, int entriesPerElement) {
+		return entries < 0 ? -1L : entries / entriesPerElement;
+	}
+
+	private long skipStrings(int perElement) throws IOException {
+		long length = readLength();
+		for (long i = 0; i < length * perElement; i++) {
+			skipString();
+		}
+		return length;
+	}
+
+	private void skipOldDouble() throws IOException {
+		int length = in.readUnsignedByte();
+		// 253, 254 and 255 stand for NaN and the infinities, with no digits following
+		if (length < 253) {
+			in.skip(length);
+		}
+	}
+
+	// Consumer groups are walked through for their size only
+	private long skipStream(int type) throws IOException {
+		long listpacks = readLength();
+		for (long i = 0; i < listpacks; i++) {
+			skipString();
+			skipString();
+		}
+		long length = readLength();
+		readLength();
+		readLength();
+		if (type != TYPE_STREAM_LISTPACKS) {
+			// First entry ID, max deleted entry ID, entries added
+			for (int i = 0; i < 5; i++) {
+				readLength();
+			}
+		}
+		long groups = readLength();
+		for (long i = 0; i < groups; i++) {
+			skipString();
+			readLength();
+			readLength();
+			if (type != TYPE_STREAM_LISTPACKS) {
+				readLength();
+			}
+			long pending = readLength();
+			// Raw entry ID, delivery time, delivery count
+			for (long j = 0; j < pending; j++) {
+				in.skip(16 + 8);
+				readLength();
+			}
+			long consumers = readLength();
+			for (long j = 0; j < consumers; j++) {
+				skipString();
+				in.skip(type == TYPE_STREAM_LISTPACKS_3 ? 16 : 8);
+				in.skip(readLength() * 16);
+			}
+		}
+		return length;
+	}
+
+	// Opcodes of values saved by a module: signed/unsigned ints, float, double, string - until EOF
+	private void skipModuleValue() throws IOException {
+		long opcode;
+		while ((opcode = readLength()) != 0) {
+			switch ((int) opcode) {
+				case 1:
+				case 2:
+					readLength();
+					break;
+				case 3:
+					in.skip(4);
+					break;
+				case 4:
+					in.skip(8);
+					break;
+				case 5:
+					skipString();
+					break;
+				default:
+					throw new IOException("Unknown module value opcode " + opcode + " at offset " + (in.position() - 1));
+			}
+		}
+	}
+
+	// Module type ID is the 9 character type name packed 6 bits per character, above 10 bits of encoding version
+	private static String moduleName(long moduleId) {
+		char[] name = new char[9];
+		long id = moduleId >>> 10;
+		for (int i = name.length - 1; i >= 0; i--) {
+			name[i] = MODULE_NAME_CHARSET.charAt((int) (id & 63));
+			id >>>= 6;
+		}
+		return new String(name);
+	}
+
+	private long readLength() throws IOException {
+		int first = in.readUnsignedByte();
+		switch (first >> 6) {
+			case 0:
+				return first & 0x3F;
+			case 1:
+				return ((first & 0x3F) << 8) | in.readUnsignedByte();
+			case 2:
+				if (first == 0x80) {
+					return in.readUnsignedIntBigEndian();
+				} else if (first == 0x81) {
+					return in.readLongBigEndian();
+				}
+				throw new IOException("Invalid length encoding " + first + " at offset " + (in.position() - 1));
+			default:
+				throw new IOException("Encoded string where a length was expected at offset " + (in.position() - 1));
+		}
+	}
+
+	// Encoding of the string starting here: -1 for plain strings (the length then in plainLength[0]), ENCODING_* otherwise
+	private int readStringHeader(long[] plainLength) throws IOException {
+		int first = in.readUnsignedByte();
+		if (first >> 6 == 3) {
+			return first & 0x3F;
+		}
+		switch (first >> 6) {
+			case 0:
+				plainLength[0] = first & 0x3F;
+				break;
+			case 1:
+				plainLength[0] = ((first & 0x3F) << 8) | in.readUnsignedByte();
+				break;
+			default:
+				if (first == 0x80) {
+					plainLength[0] = in.readUnsignedIntBigEndian();
+				} else if (first == 0x81) {
+					plainLength[0] = in.readLongBigEndian();
+				} else {
+					throw new IOException("Invalid length encoding " + first + " at offset " + (in.position() - 1));
+				}
+		}
+		return -1;
+	}
+
+	// For keys and metadata - the whole string is loaded
+	private byte[] readString() throws IOException {
+		long[] plainLength = new long[1];
+		int encoding = readStringHeader(plainLength);
+		switch (encoding) {
+			case -1:
+				byte[] result = new byte[toArrayLength(plainLength[0])];
+				in.readFully(result, 0, result.length);
+				return result;
+			case ENCODING_INT8:
+				return String.valueOf((byte) in.readUnsignedByte()).getBytes(StandardCharsets.US_ASCII);
+			case ENCODING_INT16:
+				return String.valueOf((short) in.readUnsignedShort()).getBytes(StandardCharsets.US_ASCII);
+			case ENCODING_INT32:
+				return String.valueOf((int) in.readUnsignedInt()).getBytes(StandardCharsets.US_ASCII);
+			case ENCODING_LZF:
+				long compressedLength = readLength();
+				byte[] decompressed = new byte[toArrayLength(readLength())];
+				ByteBuffer compressed = in.slice(toArrayLength(compressedLength));
+				if (compressed == null) {
+					throw new IOException("Compressed string too long to load at offset " + in.position());
+				}
+				lzfDecompress(compressed, decompressed, decompressed.length);
+				return decompressed;
+			default:
+				throw new IOException("Unknown string encoding " + encoding + " at offset " + (in.position() - 1));
+		}
+	}
+
+	// Skips a string value, returning its length - the number of digits for integer encoded strings
+	private long skipString() throws IOException {
+		long[] plainLength = new long[1];
+		int encoding = readStringHeader(plainLength);
+		lastStringWasInt = encoding >= ENCODING_INT8 && encoding <= ENCODING_INT32;
+		switch (encoding) {
+			case -1:
+				in.skip(plainLength[0]);
+				return plainLength[0];
+			case ENCODING_INT8:
+				return String.valueOf((byte) in.readUnsignedByte()).length();
+			case ENCODING_INT16:
+				return String.valueOf((short) in.readUnsignedShort()).length();
+			case ENCODING_INT32:
+				return String.valueOf((int) in.readUnsignedInt()).length();
+			case ENCODING_LZF:
+				long compressedLength = readLength();
+				long length = readLength();
+				in.skip(compressedLength);
+				return length;
+			default:
+				throw new IOException("Unknown string encoding " + encoding + " at offset " + (in.position() - 1));
+		}
+	}
+
+	// Number of elements in a packed value stored as a string - entries for ziplists and listpacks, -1 if it can't be told
+	private long readPackedCount(Packed packed) throws IOException {
+		long[] plainLength = new long[1];
+		int encoding = readStringHeader(plainLength);
+		ByteBuffer blob;
+		if (encoding == -1) {
+			blob = plainLength[0] <= Integer.MAX_VALUE ? in.slice((int) plainLength[0]) : null;
+			if (blob == null) {
+				in.skip(plainLength[0]);
+			}
+		} else if (encoding == ENCODING_LZF) {
+			long compressedLength = readLength();
+			long length = readLength();
+			ByteBuffer compressed = compressedLength <= Integer.MAX_VALUE ? in.slice((int) compressedLength) : null;
+			if (compressed == null) {
+				in.skip(compressedLength);
+				blob = null;
+			} else {
+				int decompress = (int) Math.min(length, MAX_DECOMPRESSED_BLOB);
+				if (scratch.length < decompress) {
+					scratch = new byte[Math.max(decompress, scratch.length * 2)];
+				}
+				int decompressed = lzfDecompress(compressed, scratch, decompress);
+				blob = ByteBuffer.wrap(scratch, 0, decompressed).slice().order(ByteOrder.LITTLE_ENDIAN);
+			}
+		} else {
+			throw new IOException("Integer where a packed value was expected at offset " + (in.position() - 1));
+		}
+		if (blob == null || blob.remaining() < packed.headerLength) {
+			return -1L;
+		}
+		switch (packed) {
+			case INTSET:
+				return blob.getInt(4) & 0xFFFFFFFFL;
+			case ZIPMAP:
+				int zipmapLength = blob.get(0) & 0xFF;
+				return zipmapLength < 254 ? zipmapLength : -1L;
+			case ZIPLIST:
+				int ziplistLength = blob.getShort(8) & 0xFFFF;
+				return ziplistLength < UNKNOWN_COUNT_MARKER ? ziplistLength : countZiplistEntries(blob);
+			default:
+				int listpackLength = blob.getShort(4) & 0xFFFF;
+				return listpackLength < UNKNOWN_COUNT_MARKER ? listpackLength : countListpackEntries(blob);
+		}
+	}
+
+	// Ziplist: 10 byte header, then entries of previous entry length, encoding and data, up to the 0xFF terminator
+	private static long countZiplistEntries(ByteBuffer blob) {
+		int position = 10;
+		long count = 0;
+		int limit = blob.limit();
+		while (position < limit) {
+			int prevLength = blob.get(position) & 0xFF;
+			if (prevLength == 0xFF) {
+				return count;
+			}
+			position += prevLength == 0xFE ? 5 : 1;
+			if (position >= limit) {
+				break;
+			}
+			int encoding = blob.get(position) & 0xFF;
+			switch (encoding >> 6) {
+				case 0:
+					position += 1 + (encoding & 0x3F);
+					break;
+				case 1:
+					position += 2 + (((encoding & 0x3F) << 8) | (blob.get(position + 1) & 0xFF));
+					break;
+				case 2:
+					position += 5 + Integer.reverseBytes(blob.getInt(position + 1));
+					break;
+				default:
+					if (encoding == 0xC0) {
+						position += 3;
+					} else if (encoding == 0xD0) {
+						position += 5;
+					} else if (encoding == 0xE0) {
+						position += 9;
+					} else if (encoding == 0xF0) {
+						position += 4;
+					} else if (encoding == 0xFE) {
+						position += 2;
+					} else {
+						// 4 bit immediate integer
+						position += 1;
+					}
+			}
+			count++;
+		}
+		// Truncated (only partly decompressed) - count unknown
+		return -1L;
+	}
+
+	// Listpack: 6 byte header, then entries of encoding, data and back-length, up to the 0xFF terminator
+	private static long countListpackEntries(ByteBuffer blob) {
+		int position = 6;
+		long count = 0;
+		int limit = blob.limit();
+		while (position < limit) {
+			int encoding = blob.get(position) & 0xFF;
+			int entryLength;
+			if (encoding == 0xFF) {
+				return count;
+			} else if ((encoding & 0x80) == 0) {
+				entryLength = 1;
+			} else if ((encoding & 0xC0) == 0x80) {
+				entryLength = 1 + (encoding & 0x3F);
+			} else if ((encoding & 0xE0) == 0xC0) {
+				entryLength = 2;
+			} else if ((encoding & 0xF0) == 0xE0) {
+				entryLength = 2 + (((encoding & 0x0F) << 8) | (blob.get(position + 1) & 0xFF));
+			} else if (encoding == 0xF0) {
+				entryLength = 5 + blob.getInt(position + 1);
+			} else if (encoding == 0xF1) {
+				entryLength = 3;
+			} else if (encoding == 0xF2) {
+				entryLength = 4;
+			} else if (encoding == 0xF3) {
+				entryLength = 5;
+			} else if (encoding == 0xF4) {
+				entryLength = 9;
+			} else {
+				return -1L;
+			}
+			int backLength = entryLength < 128 ? 1 : entryLength < 16384 ? 2 : entryLength < 2097152 ? 3 : entryLength < 268435456 ? 4 : 5;
+			position += entryLength + backLength;
+			count++;
+		}
+		return -1L;
+	}
+
+	// LZF as used by Redis, stopping once limit bytes are output. Returns the number of bytes output.
+	private static int lzfDecompress(ByteBuffer in, byte[] out, int limit) throws IOException {
+		int op = 0;
+		while (in.hasRemaining() && op < limit) {
+			int ctrl = in.get() & 0xFF;
+			if (ctrl < 32) {
+				int length = Math.min(ctrl + 1, limit - op);
+				in.get(out, op, length);
+				op += length;
+				if (length < ctrl + 1) {
+					break;
+				}
+			} else {
+				int length = ctrl >> 5;
+				if (length == 7) {
+					length += in.get() & 0xFF;
+				}
+				int reference = op - ((ctrl & 0x1F) << 8) - (in.get() & 0xFF) - 1;
+				if (reference < 0) {
+					throw new IOException("Corrupt LZF compressed value");
+				}
+				length = Math.min(length + 2, limit - op);
+				for (int i = 0; i < length; i++) {
+					out[op++] = out[reference++];
+				}
+			}
+		}
+		return op;
+	}
+
+	private static int toArrayLength(long length) throws IOException {
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IOException("String of " + length + " bytes too long to load");
+		}
+		return (int) length;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	// AUX fields read so far: redis-ver, redis-bits, ctime, used-mem and so on. Safe to call while parsing.
+	public Map<String, String> getAuxFields() {
+		synchronized (auxFields) {
+			return new LinkedHashMap<>(auxFields);
+		}
+	}
+
+	public long getPosition() {
+		return in.position();
+	}
+
+	public long getSize() {
+		return in.size();
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
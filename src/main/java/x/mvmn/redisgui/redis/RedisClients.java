@@ -0,0 +1,29 @@
+package x.mvmn.redisgui.redis;
+
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+
+// Standalone, sentinel and cluster connections behind common command interfaces - see RedisConnector
+public class RedisClients {
+
+	public static boolean isCluster(StatefulConnection<?, ?> connection) {
+		return connection instanceof StatefulRedisClusterConnection;
+	}
+
+	public static <K, V> RedisClusterCommands<K, V> sync(StatefulConnection<K, V> connection) {
+		if (connection instanceof StatefulRedisClusterConnection) {
+			return ((StatefulRedisClusterConnection<K, V>) connection).sync();
+		}
+		return ((StatefulRedisConnection<K, V>) connection).sync();
+	}
+
+	public static <K, V> RedisClusterAsyncCommands<K, V> async(StatefulConnection<K, V> connection) {
+		if (connection instanceof StatefulRedisClusterConnection) {
+			return ((StatefulRedisClusterConnection<K, V>) connection).async();
+		}
+		return ((StatefulRedisConnection<K, V>) connection).async();
+	}
+}
@@ -0,0 +1,356 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.Closeable;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.cluster.models.partitions.Partitions;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.models.role.RedisNodeDescription;
+import x.mvmn.redisgui.lang.UnsafeFunction;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+public class RedisConnectionManager implements Closeable {
+
+	public static enum ConnectionState {
+		DISCONNECTED("Disconnected"), CONNECTING("Connecting"), CONNECTED("Connected"), RECONNECTING("Reconnecting"), CLOSED("Closed");
+
+		private final String displayName;
+
+		ConnectionState(String displayName) {
+			this.displayName = displayName;
+		}
+
+		public String toString() {
+			return displayName;
+		}
+	}
+
+	private static final long HEALTH_CHECK_INTERVAL_SECONDS = 5;
+	private static final String SINGLE_NODE_NAME = "server";
+
+	private final RedisConnector connector;
+	private final Object connectionLock = new Object();
+	private final BlockingQueue<StatefulConnection<String, String>> idlePooledConnections = new LinkedBlockingQueue<>();
+	private final Semaphore poolPermits;
+	private final CopyOnWriteArrayList<Runnable> stateListeners = new CopyOnWriteArrayList<>();
+	private final TaskHandle healthCheckTask;
+	private final ScanGovernor scanGovernor = new ScanGovernor(this);
+
+	private volatile StatefulConnection<String, String> connection;
+	private volatile StatefulConnection<byte[], byte[]> binaryConnection;
+	private volatile ConnectionState state = ConnectionState.DISCONNECTED;
+	private volatile long lastRoundTripNanos = -1L;
+	private volatile boolean closed;
+
+	public RedisConnectionManager(String name, RedisConnector connector, int poolSize) {
+		this.connector = connector;
+		this.poolPermits = new Semaphore(Math.max(1, poolSize));
+		this.connector.getClient().addListener(new RedisConnectionStateListener() {
+			@Override
+			public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+				if (handler == connection) {
+					setState(ConnectionState.CONNECTED);
+				}
+			}
+
+			@Override
+			public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+				if (handler == connection && !closed) {
+					// Lettuce reconnects automatically - reflect that until it either succeeds or the connection gets replaced
+					setState(ConnectionState.RECONNECTING);
+				}
+			}
+
+			@Override
+			public void onRedisExceptionCaught(RedisChannelHandler<?, ?> handler, Throwable cause) {}
+		});
+		this.healthCheckTask = TaskManager.getInstance()
+				.task(TaskClass.MONITORING, "Health check " + name)
+				.owner(name)
+				.schedule(this::healthCheck, 0, HEALTH_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+	}
+
+	// Either a standalone or a cluster connection - see RedisClients for the common command interfaces
+	public StatefulConnection<String, String> getConnection() {
+		StatefulConnection<String, String> result = connection;
+		if (needsNewConnection(result)) {
+			synchronized (connectionLock) {
+				result = connection;
+				if (needsNewConnection(result)) {
+					if (closed) {
+						throw new IllegalStateException("Connection manager is closed");
+					}
+					if (result != null) {
+						closeQuietly(result);
+					}
+					setState(result == null ? ConnectionState.CONNECTING : ConnectionState.RECONNECTING);
+					try {
+						result = connector.connect(StringCodec.UTF8);
+					} catch (RuntimeException e) {
+						connection = null;
+						setState(ConnectionState.DISCONNECTED);
+						throw e;
+					}
+					connection = result;
+					setState(ConnectionState.CONNECTED);
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean needsNewConnection(StatefulConnection<String, String> connection) {
+		return connection == null || (!connection.isOpen() && state != ConnectionState.RECONNECTING);
+	}
+
+	// Binary-safe connection for values that must not go through UTF-8 decoding. Shared - don't disable auto-flush on it.
+	public StatefulConnection<byte[], byte[]> getBinaryConnection() {
+		StatefulConnection<byte[], byte[]> result = binaryConnection;
+		if (result == null || !result.isOpen()) {
+			synchronized (connectionLock) {
+				result = binaryConnection;
+				if (result == null || !result.isOpen()) {
+					if (closed) {
+						throw new IllegalStateException("Connection manager is closed");
+					}
+					if (result != null) {
+						closeQuietly(result);
+					}
+					result = connector.connect(ByteArrayCodec.INSTANCE);
+					binaryConnection = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	// Dedicated binary connection for a bulk job that needs one of its own, e.g. to disable auto-flush on it. The caller closes it.
+	public StatefulConnection<byte[], byte[]> openBinaryConnection() {
+		if (closed) {
+			throw new IllegalStateException("Connection manager is closed");
+		}
+		return connector.connect(ByteArrayCodec.INSTANCE);
+	}
+
+	// Dedicated connection for a bulk job worker that would otherwise hold a pooled one for the whole job - so the job isn't limited
+	// to the pool size and doesn't starve other users of the pool. The caller closes it.
+	public StatefulConnection<String, String> openConnection() {
+		if (closed) {
+			throw new IllegalStateException("Connection manager is closed");
+		}
+		return connector.connect(StringCodec.UTF8);
+	}
+
+	// SCAN COUNT and pace for the keyspace-wide jobs on this connection
+	public ScanGovernor getScanGovernor() {
+		return scanGovernor;
+	}
+
+	public RedisClusterCommands<String, String> sync() {
+		return RedisClients.sync(getConnection());
+	}
+
+	public boolean isCluster() {
+		return RedisClients.isCluster(getConnection());
+	}
+
+	// Known without a connection, unlike getConnection().getTimeout()
+	public Duration getCommandTimeout() {
+		return connector.getTimeout();
+	}
+
+	// Database selected by the config, always 0 for clusters
+	public int getDatabase() {
+		return connector.getDatabase();
+	}
+
+	// Commands per node to be visited by keyspace-wide operations like SCAN, keyed by node address: one node per cluster shard
+	// owning slots, the one server otherwise. Shard node is picked by the read policy, so heavy scans can be kept off the primaries.
+	// Sentinel-managed connections apply the read policy themselves. Single-key commands should go through sync() to get routed.
+	public Map<String, RedisClusterAsyncCommands<String, String>> getScanNodes() {
+		return getShardNodes(true);
+	}
+
+	// Like getScanNodes(), but always the primary of each shard regardless of the read policy - for server stats like INFO
+	public Map<String, RedisClusterAsyncCommands<String, String>> getPrimaryNodes() {
+		return getShardNodes(false);
+	}
+
+	private Map<String, RedisClusterAsyncCommands<String, String>> getShardNodes(boolean applyReadPolicy) {
+		StatefulConnection<String, String> connection = getConnection();
+		if (!(connection instanceof StatefulRedisClusterConnection)) {
+			return Collections.singletonMap(SINGLE_NODE_NAME, RedisClients.async(connection));
+		}
+		StatefulRedisClusterConnection<String, String> clusterConnection = (StatefulRedisClusterConnection<String, String>) connection;
+		Partitions partitions = clusterConnection.getPartitions();
+		Map<String, RedisClusterAsyncCommands<String, String>> result = new LinkedHashMap<>();
+		for (RedisClusterNode primary : partitions) {
+			if (primary.getRole().isUpstream() && !primary.getSlots().isEmpty()) {
+				if (!applyReadPolicy) {
+					result.put(primary.getUri().getHost() + ":" + primary.getUri().getPort(),
+							clusterConnection.getConnection(primary.getNodeId()).async());
+					continue;
+				}
+				List<RedisNodeDescription> shardNodes = new ArrayList<>();
+				shardNodes.add(primary);
+				for (RedisClusterNode node : partitions) {
+					if (primary.getNodeId().equals(node.getSlaveOf())) {
+						shardNodes.add(node);
+					}
+				}
+				List<RedisNodeDescription> selected = clusterConnection.getReadFrom().select(new ReadFrom.Nodes() {
+					@Override
+					public List<RedisNodeDescription> getNodes() {
+						return shardNodes;
+					}
+
+					@Override
+					public Iterator<RedisNodeDescription> iterator() {
+						return shardNodes.iterator();
+					}
+				});
+				if (selected.isEmpty()) {
+					throw new IllegalStateException("No node matching the read policy for shard of " + primary.getUri());
+				}
+				RedisClusterNode node = (RedisClusterNode) selected.get(0);
+				result.put(node.getUri().getHost() + ":" + node.getUri().getPort(), clusterConnection.getConnection(node.getNodeId()).async());
+			}
+		}
+		return result;
+	}
+
+	// Pooled connections are never shared while borrowed, so it's safe to disable auto-flush (pipelining) or run blocking commands on them
+	public <T> T withPooledConnection(UnsafeFunction<StatefulConnection<String, String>, T> operation) throws Exception {
+		poolPermits.acquire();
+		StatefulConnection<String, String> pooledConnection = null;
+		try {
+			pooledConnection = idlePooledConnections.poll();
+			if (pooledConnection != null && !pooledConnection.isOpen()) {
+				closeQuietly(pooledConnection);
+				pooledConnection = null;
+			}
+			if (pooledConnection == null) {
+				pooledConnection = connector.connect(StringCodec.UTF8);
+			}
+			return operation.apply(pooledConnection);
+		} finally {
+			if (pooledConnection != null) {
+				if (closed || !pooledConnection.isOpen()) {
+					closeQuietly(pooledConnection);
+				} else {
+					pooledConnection.flushCommands();
+					pooledConnection.setAutoFlushCommands(true);
+					idlePooledConnections.offer(pooledConnection);
+				}
+			}
+			poolPermits.release();
+		}
+	}
+
+	public long ping() {
+		long start = System.nanoTime();
+		sync().ping();
+		long roundTripNanos = System.nanoTime() - start;
+		lastRoundTripNanos = roundTripNanos;
+		notifyListeners();
+		return roundTripNanos;
+	}
+
+	private void healthCheck() {
+		if (closed) {
+			return;
+		}
+		try {
+			ping();
+		} catch (Exception e) {
+			lastRoundTripNanos = -1L;
+			if (state == ConnectionState.CONNECTED) {
+				setState(ConnectionState.RECONNECTING);
+			} else {
+				notifyListeners();
+			}
+		}
+	}
+
+	public ConnectionState getState() {
+		return state;
+	}
+
+	public long getLastRoundTripNanos() {
+		return lastRoundTripNanos;
+	}
+
+	private void setState(ConnectionState state) {
+		if (this.state != state) {
+			this.state = state;
+			notifyListeners();
+		}
+	}
+
+	protected void notifyListeners() {
+		for (Runnable listener : stateListeners) {
+			listener.run();
+		}
+	}
+
+	public void registerStateListener(Runnable stateListener) {
+		stateListeners.add(stateListener);
+	}
+
+	public void deregisterStateListeners() {
+		stateListeners.clear();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		healthCheckTask.cancel();
+		scanGovernor.close();
+		synchronized (connectionLock) {
+			if (connection != null) {
+				closeQuietly(connection);
+				connection = null;
+			}
+			if (binaryConnection != null) {
+				closeQuietly(binaryConnection);
+				binaryConnection = null;
+			}
+		}
+		StatefulConnection<String, String> pooledConnection;
+		while ((pooledConnection = idlePooledConnections.poll()) != null) {
+			closeQuietly(pooledConnection);
+		}
+		setState(ConnectionState.CLOSED);
+	}
+
+	private static void closeQuietly(StatefulConnection<?, ?> connection) {
+		try {
+			connection.close();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+}
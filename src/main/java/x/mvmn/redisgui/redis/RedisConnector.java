@@ -0,0 +1,201 @@
+package x.mvmn.redisgui.redis;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.masterreplica.MasterReplica;
+import io.lettuce.core.masterreplica.StatefulRedisMasterReplicaConnection;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.sentinel.api.StatefulRedisSentinelConnection;
+import x.mvmn.redisgui.model.RedisConfigModel;
+import x.mvmn.redisgui.model.RedisConfigModel.ReadPolicy;
+import x.mvmn.redisgui.model.RedisConfigModel.RedisConnectionType;
+
+// Opens connections of the right kind for a connection config: standalone, cluster (commands routed by slot, topology refreshed)
+// or sentinel-managed primary/replicas (follows failovers). Reads go to replicas according to the configured read policy.
+public class RedisConnector {
+
+	private static final Duration CLUSTER_TOPOLOGY_REFRESH_PERIOD = Duration.ofSeconds(30);
+	private static final String SINGLE_NODE_NAME = "server";
+
+	private final AbstractRedisClient client;
+	private final RedisURI baseUri;
+	private final RedisURI sentinelUri;
+	private final ReadFrom readFrom;
+	private final int database;
+
+	protected RedisConnector(AbstractRedisClient client, RedisURI baseUri, RedisURI sentinelUri, ReadFrom readFrom, int database) {
+		this.client = client;
+		this.baseUri = baseUri;
+		this.sentinelUri = sentinelUri;
+		this.readFrom = readFrom;
+		this.database = database;
+	}
+
+	// Acquires the shared client resources - call shutdown() when done with the connector to release them
+	public static RedisConnector create(RedisConfigModel config) {
+		ClientResources clientResources = SharedClientResources.acquire();
+		try {
+			return create(config, clientResources);
+		} catch (RuntimeException e) {
+			SharedClientResources.release();
+			throw e;
+		}
+	}
+
+	private static RedisConnector create(RedisConfigModel config, ClientResources clientResources) {
+		switch (config.getConnectionType()) {
+			case CLUSTER:
+				List<RedisURI> seedUris = config.toClusterSeedUris();
+				RedisClusterClient clusterClient = RedisClusterClient.create(clientResources, seedUris);
+				clusterClient.setOptions(ClusterClientOptions.builder()
+						.topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+								.enablePeriodicRefresh(CLUSTER_TOPOLOGY_REFRESH_PERIOD)
+								.enableAllAdaptiveRefreshTriggers()
+								.build())
+						.build());
+				return new RedisConnector(clusterClient, seedUris.get(0), null, toReadFrom(config.getReadPolicy()), 0);
+			case SENTINEL:
+				RedisURI sentinelUri = config.toRedisUri();
+				return new RedisConnector(RedisClient.create(clientResources), sentinelUri, sentinelUri, toReadFrom(config.getReadPolicy()),
+						sentinelUri.getDatabase());
+			default:
+				RedisURI uri = config.toRedisUri();
+				return new RedisConnector(RedisClient.create(clientResources, uri), uri, null, null, uri.getDatabase());
+		}
+	}
+
+	public static ReadFrom toReadFrom(ReadPolicy readPolicy) {
+		switch (readPolicy != null ? readPolicy : ReadPolicy.PRIMARY) {
+			case REPLICA_PREFERRED:
+				return new StableReplicaReadFrom(true);
+			case REPLICA_ONLY:
+				return new StableReplicaReadFrom(false);
+			default:
+				return ReadFrom.UPSTREAM;
+		}
+	}
+
+	public <K, V> StatefulConnection<K, V> connect(RedisCodec<K, V> codec) {
+		if (client instanceof RedisClusterClient) {
+			StatefulRedisClusterConnection<K, V> connection = ((RedisClusterClient) client).connect(codec);
+			connection.setReadFrom(readFrom);
+			return connection;
+		}
+		if (sentinelUri != null) {
+			StatefulRedisMasterReplicaConnection<K, V> connection = MasterReplica.connect((RedisClient) client, codec, sentinelUri);
+			connection.setReadFrom(readFrom);
+			return connection;
+		}
+		return ((RedisClient) client).connect(codec);
+	}
+
+	// Pub/sub always goes to the primaries - that's where keyspace notifications of writes get published. A cluster connection
+	// subscribes on every primary and propagates node messages to the listeners registered on it.
+	public StatefulRedisPubSubConnection<String, String> connectPubSub() {
+		if (client instanceof RedisClusterClient) {
+			StatefulRedisClusterPubSubConnection<String, String> connection = ((RedisClusterClient) client).connectPubSub();
+			connection.setNodeMessagePropagation(true);
+			return connection;
+		}
+		if (sentinelUri != null) {
+			return ((RedisClient) client).connectPubSub(sentinelUri);
+		}
+		return ((RedisClient) client).connectPubSub();
+	}
+
+	// Addresses of the primaries with the credentials and TLS settings of this connection, for tools that need a plain connection
+	// to each server (e.g. MONITOR): cluster primaries owning slots, the current primary of a sentinel-managed set, or the one server.
+	public Map<String, RedisURI> getPrimaryNodeUris() {
+		if (client instanceof RedisClusterClient) {
+			Map<String, RedisURI> result = new LinkedHashMap<>();
+			for (RedisClusterNode node : ((RedisClusterClient) client).getPartitions()) {
+				if (node.getRole().isUpstream() && !node.getSlots().isEmpty()) {
+					result.put(node.getUri().getHost() + ":" + node.getUri().getPort(), withAddress(node.getUri().getHost(), node.getUri().getPort()));
+				}
+			}
+			return result;
+		}
+		if (sentinelUri != null) {
+			try (StatefulRedisSentinelConnection<String, String> sentinel = ((RedisClient) client).connectSentinel(sentinelUri)) {
+				SocketAddress address = sentinel.sync().getMasterAddrByName(sentinelUri.getSentinelMasterId());
+				if (!(address instanceof InetSocketAddress)) {
+					throw new IllegalStateException("Sentinel returned no primary for " + sentinelUri.getSentinelMasterId());
+				}
+				InetSocketAddress inetAddress = (InetSocketAddress) address;
+				return Collections.singletonMap(inetAddress.getHostString() + ":" + inetAddress.getPort(),
+						withAddress(inetAddress.getHostString(), inetAddress.getPort()));
+			}
+		}
+		return Collections.singletonMap(SINGLE_NODE_NAME, baseUri);
+	}
+
+	private RedisURI withAddress(String host, int port) {
+		RedisURI.Builder builder = RedisURI.Builder.redis(host, port)
+				.withSsl(baseUri.isSsl())
+				.withStartTls(baseUri.isStartTls())
+				.withVerifyPeer(baseUri.isVerifyPeer())
+				.withTimeout(baseUri.getTimeout())
+				.withDatabase(baseUri.getDatabase());
+		if (baseUri.getPassword() != null && baseUri.getPassword().length > 0) {
+			if (baseUri.getUsername() != null) {
+				builder.withAuthentication(baseUri.getUsername(), baseUri.getPassword());
+			} else {
+				builder.withPassword(baseUri.getPassword());
+			}
+		}
+		if (baseUri.getClientName() != null) {
+			builder.withClientName(baseUri.getClientName());
+		}
+		return builder.build();
+	}
+
+	// Command timeout of the connections made
+	public Duration getTimeout() {
+		return baseUri.getTimeout();
+	}
+
+	public AbstractRedisClient getClient() {
+		return client;
+	}
+
+	// Null for standalone connections
+	public ReadFrom getReadFrom() {
+		return readFrom;
+	}
+
+	// Selected database number, always 0 for clusters
+	public int getDatabase() {
+		return database;
+	}
+
+	public boolean isCluster() {
+		return client instanceof RedisClusterClient;
+	}
+
+	public void shutdown() {
+		try {
+			client.shutdown();
+		} finally {
+			SharedClientResources.release();
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package x.mvmn.redisgui.redis;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisFuture;
+
+public class RedisFutures {
+
+	// Unlike LettuceFutures.awaitAll this doesn't fail if some of the commands failed - only on timeout or interruption
+	public static void awaitQuietly(Duration timeout, Collection<? extends RedisFuture<?>> futures) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		for (RedisFuture<?> future : futures) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0 || !future.await(remaining, TimeUnit.NANOSECONDS)) {
+				throw new RedisCommandTimeoutException("Pipelined commands did not complete within " + timeout);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> T valueOrNull(RedisFuture<?> future) {
+		try {
+			return future.isDone() ? (T) future.get() : null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+}
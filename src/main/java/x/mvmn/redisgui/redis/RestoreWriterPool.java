@@ -0,0 +1,145 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.lettuce.core.RestoreArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.redis.DumpFile.Record;
+import x.mvmn.redisgui.task.TaskClass;
+import x.mvmn.redisgui.task.TaskHandle;
+import x.mvmn.redisgui.task.TaskManager;
+
+// Writers RESTOREing batches of dumped keys, each on a connection of its own with auto-flush off: commands are flushed once per batch
+// or when the in-flight window is full, and a semaphore caps the commands awaiting replies per connection. Batches are handed over
+// through a bounded queue, so a producer faster than the writers blocks instead of filling the heap. Each batch is paced by the
+// scan governor of the target.
+public class RestoreWriterPool {
+
+	private static final List<Record> END_OF_INPUT = Collections.emptyList();
+
+	private final RedisConnectionManager target;
+	private final String owner;
+	private final String name;
+	private final int writers;
+	private final int window;
+	private final boolean replace;
+	private final boolean keepTtl;
+	private final BlockingQueue<List<Record>> batches;
+	private final CountDownLatch writersDone;
+	private final List<TaskHandle> writerTasks = new ArrayList<>();
+	private final AtomicLong restored = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicReference<String> firstError = new AtomicReference<>();
+
+	// Without keepTtl keys are restored without expiry. Without replace keys that already exist fail with BUSYKEY.
+	public RestoreWriterPool(RedisConnectionManager target, String owner, String name, int writers, int window, boolean replace,
+			boolean keepTtl) {
+		this.target = target;
+		this.owner = owner;
+		this.name = name;
+		this.writers = writers;
+		this.window = window;
+		this.replace = replace;
+		this.keepTtl = keepTtl;
+		this.batches = new ArrayBlockingQueue<>(writers * 2);
+		this.writersDone = new CountDownLatch(writers);
+	}
+
+	public void start() {
+		for (int i = 0; i < writers; i++) {
+			writerTasks.add(TaskManager.getInstance()
+					.task(TaskClass.WORKER, name + " writer " + (i + 1))
+					.owner(owner)
+					.finalOp(writersDone::countDown)
+					.finalOpSwingThread(false)
+					.submit(this::write));
+		}
+	}
+
+	// Blocks while all writers are busy. Fails instead of blocking forever if a writer died.
+	public void submit(List<Record> batch) throws InterruptedException {
+		while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+			if (writersDone.getCount() < writers && batch != END_OF_INPUT) {
+				throw new IllegalStateException(name + " writer failed");
+			}
+		}
+	}
+
+	// Waits for the writers to restore everything submitted and close their connections. Returns false if cancelled meanwhile.
+	public boolean finish() throws InterruptedException {
+		for (int i = 0; i < writers; i++) {
+			submit(END_OF_INPUT);
+		}
+		while (!writersDone.await(100, TimeUnit.MILLISECONDS)) {
+			if (TaskHandle.isCurrentCancelled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void cancel() {
+		writerTasks.forEach(TaskHandle::cancel);
+	}
+
+	private void write() throws Exception {
+		StatefulConnection<byte[], byte[]> connection = target.openBinaryConnection();
+		ScanGovernor governor = target.getScanGovernor();
+		Semaphore inFlight = new Semaphore(window);
+		try {
+			RedisClusterAsyncCommands<byte[], byte[]> async = RedisClients.async(connection);
+			connection.setAutoFlushCommands(false);
+			List<Record> batch;
+			while ((batch = batches.take()) != END_OF_INPUT) {
+				governor.pace();
+				for (Record record : batch) {
+					if (!inFlight.tryAcquire()) {
+						// Replies only come for commands actually sent
+						connection.flushCommands();
+						inFlight.acquire();
+					}
+					RestoreArgs args = RestoreArgs.Builder.ttl(keepTtl && record.getPttl() > 0 ? record.getPttl() : 0L).replace(replace);
+					async.restore(record.getKey(), record.getDump(), args).whenComplete((result, error) -> {
+						inFlight.release();
+						if (error == null) {
+							restored.incrementAndGet();
+						} else {
+							failed.incrementAndGet();
+							firstError.compareAndSet(null, error.getMessage());
+						}
+					});
+				}
+				connection.flushCommands();
+			}
+			connection.flushCommands();
+			if (!inFlight.tryAcquire(window, connection.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException(name + " writer timed out waiting for replies");
+			}
+		} finally {
+			connection.close();
+		}
+	}
+
+	public long getRestored() {
+		return restored.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	// Message of the first failed RESTORE, null if none failed
+	public String getFirstError() {
+		return firstError.get();
+	}
+}
@@ -0,0 +1,110 @@
+package x.mvmn.redisgui.redis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// Where a long scan got to: the pattern, the cursor of every scan node (see ParallelKeyScanner.getNodeCursors()) and whatever else
+// the job needs to continue, as string attributes. Saved as a properties file, replaced atomically so a crash mid-save keeps the old one.
+public class ScanCheckpoint {
+
+	private static final String PATTERN = "pattern";
+	private static final String CURSOR_PREFIX = "cursor.";
+	private static final String ATTRIBUTE_PREFIX = "attribute.";
+
+	private final String pattern;
+	private final Map<String, String> cursors;
+	private final Map<String, String> attributes = new LinkedHashMap<>();
+
+	public ScanCheckpoint(String pattern, Map<String, String> cursors) {
+		this.pattern = pattern;
+		this.cursors = new LinkedHashMap<>(cursors);
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public Map<String, String> getCursors() {
+		return cursors;
+	}
+
+	public ScanCheckpoint setAttribute(String name, Object value) {
+		attributes.put(name, String.valueOf(value));
+		return this;
+	}
+
+	public String getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	public long getLongAttribute(String name, long defaultValue) {
+		String value = attributes.get(name);
+		return value != null ? Long.parseLong(value) : defaultValue;
+	}
+
+	// A group of attributes, such as the state of a partial report, each name prefixed
+	public ScanCheckpoint setAttributes(String prefix, Map<String, String> values) {
+		values.forEach((name, value) -> attributes.put(prefix + name, value));
+		return this;
+	}
+
+	// Attributes set with the prefix, the prefix taken off their names
+	public Map<String, String> getAttributes(String prefix) {
+		Map<String, String> result = new LinkedHashMap<>();
+		attributes.forEach((name, value) -> {
+			if (name.startsWith(prefix)) {
+				result.put(name.substring(prefix.length()), value);
+			}
+		});
+		return result;
+	}
+
+	public void save(Path file) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(PATTERN, pattern);
+		for (Map.Entry<String, String> cursor : cursors.entrySet()) {
+			properties.setProperty(CURSOR_PREFIX + cursor.getKey(), cursor.getValue());
+		}
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			properties.setProperty(ATTRIBUTE_PREFIX + attribute.getKey(), attribute.getValue());
+		}
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(temp)) {
+			properties.store(out, "Scan checkpoint");
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// Null if there's no checkpoint file
+	public static ScanCheckpoint load(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			properties.load(in);
+		}
+		Map<String, String> cursors = new LinkedHashMap<>();
+		Map<String, String> attributes = new LinkedHashMap<>();
+		for (String name : properties.stringPropertyNames()) {
+			if (name.startsWith(CURSOR_PREFIX)) {
+				cursors.put(name.substring(CURSOR_PREFIX.length()), properties.getProperty(name));
+			} else if (name.startsWith(ATTRIBUTE_PREFIX)) {
+				attributes.put(name.substring(ATTRIBUTE_PREFIX.length()), properties.getProperty(name));
+			}
+		}
+		ScanCheckpoint result = new ScanCheckpoint(properties.getProperty(PATTERN, "*"), cursors);
+		result.attributes.putAll(attributes);
+		return result;
+	}
+}
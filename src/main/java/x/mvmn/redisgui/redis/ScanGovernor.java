@@ -0,0 +1,174 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.model.ServerMetrics;
+import x.mvmn.redisgui.model.ServerMetrics.Field;
+
+// Shared by all the keyspace-wide jobs of a connection so that together they stay gentle on the server.
+// SCAN COUNT is adapted to make each call take about the target time on the server, from the observed cost per visited entry.
+// Every scan round or bulk batch goes through pace(), which sleeps while the server looks busy: ping round trip well above the
+// best seen (on a connection of its own, so the jobs' pipelines queued on the shared connections don't count), or
+// instantaneous_ops_per_sec (summed over primaries) above the configured limit. The delay grows while the server stays busy and
+// shrinks back once it recovers, and the COUNT is halved meanwhile.
+public class ScanGovernor {
+
+	public static final int DEFAULT_TARGET_MILLIS = 5;
+
+	private static final int MIN_COUNT = 10;
+	private static final int MAX_COUNT = 50_000;
+	private static final long LOAD_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+	private static final long MIN_DELAY_MILLIS = 10L;
+	private static final long MAX_DELAY_MILLIS = 1000L;
+	// Busy if the ping takes this many times the baseline - and at least the extra below, so sub-millisecond jitter doesn't count
+	private static final double LATENCY_BACKOFF_FACTOR = 4.0d;
+	private static final long LATENCY_BACKOFF_MIN_EXTRA_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+	// Baseline creeps up a little on every check, so that a lasting change of network path doesn't count as busy forever
+	private static final double BASELINE_RELAX_FACTOR = 1.01d;
+	private static final double COST_SMOOTHING = 0.3d;
+
+	private final RedisConnectionManager connectionManager;
+	private final AtomicLong nextLoadCheckNanos = new AtomicLong(System.nanoTime());
+	private volatile long targetNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TARGET_MILLIS);
+	private volatile long maxOpsPerSecond;
+	private volatile double nanosPerEntry = -1.0d;
+	private volatile long baselineRoundTripNanos = -1L;
+	private volatile long delayMillis;
+	private volatile boolean busy;
+	private volatile Long opsPerSecond;
+	private StatefulConnection<byte[], byte[]> probeConnection;
+	private boolean closed;
+
+	ScanGovernor(RedisConnectionManager connectionManager) {
+		this.connectionManager = connectionManager;
+	}
+
+	// Max ops per second 0 for no limit
+	public void configure(int targetMillis, long maxOpsPerSecond) {
+		this.targetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, targetMillis));
+		this.maxOpsPerSecond = Math.max(0L, maxOpsPerSecond);
+	}
+
+	// COUNT for the next SCAN call
+	public int count() {
+		double cost = nanosPerEntry;
+		long result = cost > 0 ? (long) (targetNanos / cost) : ParallelKeyScanner.DEFAULT_COUNT;
+		if (busy) {
+			result /= 2;
+		}
+		return (int) Math.max(MIN_COUNT, Math.min(MAX_COUNT, result));
+	}
+
+	// Reports how long a SCAN with the given COUNT took, round trip included
+	public void record(int count, long elapsedNanos) {
+		long roundTrip = Math.max(0L, baselineRoundTripNanos);
+		double cost = Math.max(1L, elapsedNanos - roundTrip) / (double) Math.max(1, count);
+		double previous = nanosPerEntry;
+		nanosPerEntry = previous > 0 ? previous + (cost - previous) * COST_SMOOTHING : cost;
+	}
+
+	// Call before each scan round or bulk batch - sleeps for the current throttling delay, if any
+	public void pace() throws InterruptedException {
+		long now = System.nanoTime();
+		long nextCheck = nextLoadCheckNanos.get();
+		if (now - nextCheck >= 0 && nextLoadCheckNanos.compareAndSet(nextCheck, now + LOAD_CHECK_INTERVAL_NANOS)) {
+			checkLoad();
+		}
+		long delay = delayMillis;
+		if (delay > 0) {
+			Thread.sleep(delay);
+		}
+	}
+
+	private void checkLoad() throws InterruptedException {
+		boolean nowBusy;
+		try {
+			long roundTrip = probeRoundTrip();
+			long baseline = baselineRoundTripNanos;
+			baseline = baseline < 0 ? roundTrip : Math.min(roundTrip, (long) (baseline * BASELINE_RELAX_FACTOR) + 1);
+			baselineRoundTripNanos = baseline;
+			nowBusy = roundTrip > Math.max(baseline * LATENCY_BACKOFF_FACTOR, baseline + LATENCY_BACKOFF_MIN_EXTRA_NANOS);
+			long maxOps = maxOpsPerSecond;
+			if (maxOps > 0) {
+				Long ops = fetchOpsPerSecond();
+				opsPerSecond = ops;
+				nowBusy |= ops != null && ops > maxOps;
+			}
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception e) {
+			// Not reachable right now - jobs will run into that themselves, keep the current pace meanwhile
+			return;
+		}
+		busy = nowBusy;
+		long delay = delayMillis;
+		if (nowBusy) {
+			delayMillis = Math.min(MAX_DELAY_MILLIS, Math.max(MIN_DELAY_MILLIS, delay * 2));
+		} else {
+			delayMillis = delay / 2 < MIN_DELAY_MILLIS ? 0L : delay / 2;
+		}
+	}
+
+	private synchronized long probeRoundTrip() {
+		if (closed) {
+			throw new IllegalStateException("Connection manager is closed");
+		}
+		if (probeConnection == null || !probeConnection.isOpen()) {
+			if (probeConnection != null) {
+				probeConnection.close();
+			}
+			probeConnection = connectionManager.openBinaryConnection();
+		}
+		long start = System.nanoTime();
+		RedisClients.sync(probeConnection).ping();
+		return System.nanoTime() - start;
+	}
+
+	synchronized void close() {
+		closed = true;
+		if (probeConnection != null) {
+			probeConnection.close();
+			probeConnection = null;
+		}
+	}
+
+	private Long fetchOpsPerSecond() throws InterruptedException {
+		List<RedisFuture<String>> infos = new ArrayList<>();
+		for (RedisClusterAsyncCommands<String, String> node : connectionManager.getPrimaryNodes().values()) {
+			infos.add(node.info("stats"));
+		}
+		RedisFutures.awaitQuietly(connectionManager.getConnection().getTimeout(), infos);
+		ServerMetrics metrics = new ServerMetrics();
+		for (RedisFuture<String> info : infos) {
+			String text = RedisFutures.valueOrNull(info);
+			if (text != null) {
+				metrics.add(text);
+			}
+		}
+		return metrics.has(Field.INSTANTANEOUS_OPS_PER_SEC) ? metrics.get(Field.INSTANTANEOUS_OPS_PER_SEC) : null;
+	}
+
+	public long getDelayMillis() {
+		return delayMillis;
+	}
+
+	public boolean isBusy() {
+		return busy;
+	}
+
+	// Summed over primaries as of the last check, null if not checked (no limit configured) or unknown
+	public Long getOpsPerSecond() {
+		return opsPerSecond;
+	}
+
+	public String toString() {
+		long delay = delayMillis;
+		return String.format("SCAN COUNT %,d%s", count(), delay > 0 ? String.format(", throttled %,d ms per batch (server busy)", delay) : "");
+	}
+}
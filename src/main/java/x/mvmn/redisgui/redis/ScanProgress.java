@@ -0,0 +1,128 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.Collection;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanCursor;
+
+// Progress of a SCAN over one node, or combined over all nodes scanned
+public class ScanProgress {
+	private final long startNanos;
+	private final Long dbSize;
+	private long elapsedNanos;
+	private long iterations;
+	private long scanned;
+	private long matched;
+	private String cursor;
+	private boolean finished;
+
+	ScanProgress(Long dbSize) {
+		this.startNanos = System.nanoTime();
+		this.dbSize = dbSize;
+	}
+
+	void startAt(ScanCursor cursor) {
+		this.cursor = cursor.getCursor();
+		this.finished = cursor.isFinished();
+	}
+
+	void record(KeyScanCursor<String> result, int count) {
+		iterations++;
+		// SCAN visits roughly COUNT entries per call regardless of how many of them match
+		scanned += Math.max(count, result.getKeys().size());
+		matched += result.getKeys().size();
+		cursor = result.getCursor();
+		finished = result.isFinished();
+	}
+
+	// Totals over scans of several nodes: sums of counters, longest elapsed time, finished only once all are. No single cursor.
+	public static ScanProgress combine(Collection<ScanProgress> progresses) {
+		if (progresses.size() == 1) {
+			return progresses.iterator().next();
+		}
+		long dbSize = 0;
+		boolean dbSizeKnown = true;
+		ScanProgress result = new ScanProgress(null);
+		result.finished = !progresses.isEmpty();
+		for (ScanProgress progress : progresses) {
+			result.elapsedNanos = Math.max(result.elapsedNanos, progress.elapsedNanos);
+			result.iterations += progress.iterations;
+			result.scanned += progress.scanned;
+			result.matched += progress.matched;
+			result.finished &= progress.finished;
+			if (progress.dbSize != null) {
+				dbSize += progress.dbSize;
+			} else {
+				dbSizeKnown = false;
+			}
+		}
+		return dbSizeKnown && !progresses.isEmpty() ? result.withDbSize(dbSize) : result;
+	}
+
+	private ScanProgress withDbSize(Long dbSize) {
+		ScanProgress result = new ScanProgress(dbSize);
+		result.elapsedNanos = elapsedNanos;
+		result.iterations = iterations;
+		result.scanned = scanned;
+		result.matched = matched;
+		result.cursor = cursor;
+		result.finished = finished;
+		return result;
+	}
+
+	ScanProgress copy() {
+		ScanProgress copy = new ScanProgress(dbSize);
+		copy.elapsedNanos = System.nanoTime() - startNanos;
+		copy.iterations = iterations;
+		copy.scanned = scanned;
+		copy.matched = matched;
+		copy.cursor = cursor;
+		copy.finished = finished;
+		return copy;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedNanos / 1_000_000L;
+	}
+
+	public long getIterations() {
+		return iterations;
+	}
+
+	public long getScanned() {
+		return scanned;
+	}
+
+	public long getMatched() {
+		return matched;
+	}
+
+	public String getCursor() {
+		return cursor;
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+
+	public Long getDbSize() {
+		return dbSize;
+	}
+
+	// Estimated from the DB size and the rate at which entries have been visited so far, null if unknown
+	public Long getEtaMillis() {
+		if (finished) {
+			return 0L;
+		}
+		if (dbSize == null || scanned == 0 || dbSize <= scanned) {
+			return null;
+		}
+		return (long) ((dbSize - scanned) * (getElapsedMillis() / (double) scanned));
+	}
+
+	public String toString() {
+		Long eta = getEtaMillis();
+		return String.format("Scanned ~%,d, matched %,d, elapsed %.1fs%s", scanned, matched, getElapsedMillis() / 1000.0d,
+				finished ? "" : eta != null ? String.format(", ETA %.0fs", eta / 1000.0d) : ", ETA n/a");
+	}
+}
@@ -0,0 +1,63 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.concurrent.TimeUnit;
+
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+
+// One set of Netty event loops and computation threads for the whole application, shared by all connection windows and connection
+// tests. Created on first use and reference counted, but kept up while the application runs - shut down on application exit, even if
+// windows still hold references then.
+public class SharedClientResources {
+
+	public static final String CONFIG_IO_THREADS = "redis.threads.io";
+	public static final String CONFIG_COMPUTATION_THREADS = "redis.threads.computation";
+
+	private static int ioThreads = DefaultClientResources.DEFAULT_IO_THREADS;
+	private static int computationThreads = DefaultClientResources.DEFAULT_COMPUTATION_THREADS;
+	private static ClientResources clientResources;
+	private static int references;
+	private static boolean shutdownRequested;
+
+	// Takes effect when the resources get created, i.e. has to be called before the first acquire()
+	public static synchronized void configure(int ioThreads, int computationThreads) {
+		SharedClientResources.ioThreads = Math.max(1, ioThreads);
+		SharedClientResources.computationThreads = Math.max(1, computationThreads);
+	}
+
+	public static synchronized ClientResources acquire() {
+		if (shutdownRequested) {
+			throw new IllegalStateException("Application is shutting down");
+		}
+		if (clientResources == null) {
+			clientResources = DefaultClientResources.builder().ioThreadPoolSize(ioThreads).computationThreadPoolSize(computationThreads).build();
+		}
+		references++;
+		return clientResources;
+	}
+
+	// Resources stay up while the application runs even if nothing uses them - re-creating event loops per window is what this avoids
+	public static synchronized void release() {
+		if (references > 0) {
+			references--;
+		}
+	}
+
+	// Called from the exit hook, regardless of references still held
+	public static synchronized void shutdown() {
+		shutdownRequested = true;
+		shutdownNow();
+	}
+
+	// Waits for the event loops to wind down, as the JVM won't once the exit hook returns
+	private static void shutdownNow() {
+		if (clientResources != null) {
+			clientResources.shutdown(0, 2, TimeUnit.SECONDS).awaitUninterruptibly(3, TimeUnit.SECONDS);
+			clientResources = null;
+		}
+	}
+
+	public static synchronized int getReferences() {
+		return references;
+	}
+}
@@ -0,0 +1,308 @@
+package x.mvmn.redisgui.redis;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import x.mvmn.redisgui.util.LogHistogram;
+
+// Fetches SLOWLOG entries newer than the last seen ID of each server and aggregates their durations by command shape:
+// command name, key prefix and argument count - e.g. "HGETALL user:* (1 arg)". Calls from one thread at a time.
+public class SlowlogAnalyzer {
+
+	public static final String OTHER = "(other)";
+
+	private static final int INITIAL_FETCH = 128;
+	private static final int MAX_FETCH = 8192;
+	private static final int MAX_SHAPES = 2000;
+	private static final int MAX_RECENT = 1000;
+	// Redis replaces arguments beyond the 32nd with this
+	private static final String MORE_ARGUMENTS_PREFIX = "... (";
+
+	private final RedisConnectionManager connectionManager;
+	private final String delimiter;
+	private final Map<String, Long> lastIdByNode = new HashMap<>();
+	private final Map<String, String> runIdByNode = new HashMap<>();
+	private final Map<String, ShapeStats> shapes = new LinkedHashMap<>();
+	private final ArrayDeque<Entry> recent = new ArrayDeque<>();
+	private long fetched;
+
+	public SlowlogAnalyzer(RedisConnectionManager connectionManager, String delimiter) {
+		this.connectionManager = connectionManager;
+		this.delimiter = delimiter;
+	}
+
+	public static class Entry {
+		private final String node;
+		private final long id;
+		private final long timestampSeconds;
+		private final long durationMicros;
+		private final String command;
+		private final String client;
+
+		Entry(String node, long id, long timestampSeconds, long durationMicros, String command, String client) {
+			this.node = node;
+			this.id = id;
+			this.timestampSeconds = timestampSeconds;
+			this.durationMicros = durationMicros;
+			this.command = command;
+			this.client = client;
+		}
+
+		public String getNode() {
+			return node;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public long getTimestampSeconds() {
+			return timestampSeconds;
+		}
+
+		public long getDurationMicros() {
+			return durationMicros;
+		}
+
+		public String getCommand() {
+			return command;
+		}
+
+		public String getClient() {
+			return client;
+		}
+	}
+
+	private static class ShapeStats {
+		private final LogHistogram durations = new LogHistogram();
+		private long lastSeenSeconds;
+	}
+
+	public static class ShapeSummary {
+		private final String shape;
+		private final long count;
+		private final long totalMicros;
+		private final long p50Micros;
+		private final long p99Micros;
+		private final long maxMicros;
+		private final long lastSeenSeconds;
+
+		ShapeSummary(String shape, LogHistogram durations, long lastSeenSeconds) {
+			this.shape = shape;
+			this.count = durations.getCount();
+			this.totalMicros = durations.getTotal();
+			this.p50Micros = durations.getPercentile(50.0d);
+			this.p99Micros = durations.getPercentile(99.0d);
+			this.maxMicros = durations.getMax();
+			this.lastSeenSeconds = lastSeenSeconds;
+		}
+
+		public String getShape() {
+			return shape;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalMicros() {
+			return totalMicros;
+		}
+
+		public long getP50Micros() {
+			return p50Micros;
+		}
+
+		public long getP99Micros() {
+			return p99Micros;
+		}
+
+		public long getMaxMicros() {
+			return maxMicros;
+		}
+
+		public long getLastSeenSeconds() {
+			return lastSeenSeconds;
+		}
+	}
+
+	// Returns the number of new entries
+	public synchronized int poll() throws Exception {
+		Duration timeout = connectionManager.getConnection().getTimeout();
+		Map<String, RedisClusterAsyncCommands<String, String>> nodes = connectionManager.getPrimaryNodes();
+		int result = 0;
+		for (Map.Entry<String, RedisClusterAsyncCommands<String, String>> node : nodes.entrySet()) {
+			result += pollNode(node.getKey(), node.getValue(), timeout);
+		}
+		return result;
+	}
+
+	private int pollNode(String node, RedisClusterAsyncCommands<String, String> commands, Duration timeout) throws Exception {
+		Long lastId = lastIdByNode.get(node);
+		// A restarted server or a replica promoted in a failover has an ID sequence of its own - start over with it
+		RedisFuture<String> info = commands.info("server");
+		RedisFutures.awaitQuietly(timeout, Collections.singletonList(info));
+		String runId = runIdOf(RedisFutures.valueOrNull(info));
+		if (runId != null && !runId.equals(runIdByNode.put(node, runId))) {
+			lastId = null;
+		}
+		List<Object> entries;
+		int fetchCount = INITIAL_FETCH;
+		while (true) {
+			RedisFuture<List<Object>> future = commands.slowlogGet(fetchCount);
+			RedisFutures.awaitQuietly(timeout, Collections.singletonList(future));
+			entries = future.get();
+			// Newest ID below the last seen one - IDs restarted even though INFO didn't tell (e.g. not allowed)
+			if (lastId != null && !entries.isEmpty() && idOf(entries.get(0)) < lastId) {
+				lastId = null;
+			}
+			// Newest first - fetch more only if even the oldest returned entry is still unseen
+			if (lastId == null || entries.size() < fetchCount || fetchCount >= MAX_FETCH || idOf(entries.get(entries.size() - 1)) <= lastId) {
+				break;
+			}
+			fetchCount *= 2;
+		}
+		int newEntries = 0;
+		long maxId = lastId != null ? lastId : -1L;
+		// Oldest first, so that the recent entries queue stays ordered
+		for (int i = entries.size() - 1; i >= 0; i--) {
+			@SuppressWarnings("unchecked")
+			List<Object> entry = (List<Object>) entries.get(i);
+			long id = toLong(entry.get(0));
+			if (lastId != null && id <= lastId) {
+				continue;
+			}
+			maxId = Math.max(maxId, id);
+			record(node, entry);
+			newEntries++;
+		}
+		// SLOWLOG RESET restarts nothing - IDs keep growing on the same server run, so a lower max just means no entries
+		lastIdByNode.put(node, maxId);
+		fetched += newEntries;
+		return newEntries;
+	}
+
+	private static String runIdOf(String info) {
+		if (info == null) {
+			return null;
+		}
+		for (String line : info.split("\r?\n")) {
+			if (line.startsWith("run_id:")) {
+				return line.substring("run_id:".length()).trim();
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long idOf(Object entry) {
+		return toLong(((List<Object>) entry).get(0));
+	}
+
+	private static long toLong(Object value) {
+		return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void record(String node, List<Object> entry) {
+		long id = toLong(entry.get(0));
+		long timestamp = toLong(entry.get(1));
+		long duration = toLong(entry.get(2));
+		List<Object> args = entry.size() > 3 && entry.get(3) instanceof List ? (List<Object>) entry.get(3) : Collections.emptyList();
+		String client = entry.size() > 4 ? String.valueOf(entry.get(4)) : "";
+
+		String shape = shapeOf(args);
+		ShapeStats stats = shapes.get(shape);
+		if (stats == null) {
+			if (shapes.size() >= MAX_SHAPES) {
+				stats = shapes.computeIfAbsent(OTHER, name -> new ShapeStats());
+			} else {
+				stats = new ShapeStats();
+				shapes.put(shape, stats);
+			}
+		}
+		stats.durations.record(duration);
+		stats.lastSeenSeconds = Math.max(stats.lastSeenSeconds, timestamp);
+
+		StringBuilder command = new StringBuilder();
+		for (Object arg : args) {
+			if (command.length() > 0) {
+				command.append(' ');
+			}
+			command.append(arg);
+		}
+		recent.addLast(new Entry(node, id, timestamp, duration, command.toString(), client));
+		while (recent.size() > MAX_RECENT) {
+			recent.removeFirst();
+		}
+	}
+
+	String shapeOf(List<Object> args) {
+		if (args.isEmpty()) {
+			return "(empty)";
+		}
+		StringBuilder result = new StringBuilder(String.valueOf(args.get(0)).toUpperCase());
+		int argCount = args.size() - 1;
+		String last = String.valueOf(args.get(args.size() - 1));
+		if (argCount > 0 && last.startsWith(MORE_ARGUMENTS_PREFIX)) {
+			int end = last.indexOf(' ', MORE_ARGUMENTS_PREFIX.length());
+			try {
+				argCount += Integer.parseInt(last.substring(MORE_ARGUMENTS_PREFIX.length(), end > 0 ? end : last.length())) - 1;
+			} catch (NumberFormatException e) {
+				// keep the visible count
+			}
+		}
+		if (argCount > 0) {
+			String key = String.valueOf(args.get(1));
+			int delimiterIndex = delimiter.isEmpty() ? -1 : key.indexOf(delimiter);
+			result.append(' ').append(delimiterIndex >= 0 ? key.substring(0, delimiterIndex + delimiter.length()) + "*" : "*");
+		}
+		return result.append(" (").append(argCount).append(argCount == 1 ? " arg)" : " args)").toString();
+	}
+
+	// Snapshots for display - safe to call from another thread
+	public synchronized List<ShapeSummary> getShapes() {
+		List<ShapeSummary> result = new ArrayList<>(shapes.size());
+		for (Map.Entry<String, ShapeStats> entry : shapes.entrySet()) {
+			result.add(new ShapeSummary(entry.getKey(), entry.getValue().durations, entry.getValue().lastSeenSeconds));
+		}
+		return result;
+	}
+
+	public synchronized List<Entry> getRecent() {
+		return new ArrayList<>(recent);
+	}
+
+	public synchronized long getFetched() {
+		return fetched;
+	}
+
+	// Clears the aggregates - entries already seen are not fetched again
+	public synchronized void reset() {
+		shapes.clear();
+		recent.clear();
+		fetched = 0;
+	}
+
+	// Clears the slowlog on the servers as well
+	public void resetServers() throws Exception {
+		Duration timeout = connectionManager.getConnection().getTimeout();
+		List<RedisFuture<String>> futures = new ArrayList<>();
+		for (RedisClusterAsyncCommands<String, String> node : connectionManager.getPrimaryNodes().values()) {
+			futures.add(node.slowlogReset());
+		}
+		RedisFutures.awaitQuietly(timeout, futures);
+		for (RedisFuture<String> future : futures) {
+			future.get();
+		}
+		reset();
+	}
+}
@@ -0,0 +1,43 @@
+package x.mvmn.redisgui.redis;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.models.role.RedisNodeDescription;
+
+// Always selects the same replica (lowest host:port) as long as the topology doesn't change, unlike the built-in replica policies.
+// Cursor based commands like SCAN only make sense when every call of an iteration hits the same node.
+public class StableReplicaReadFrom extends ReadFrom {
+
+	private final boolean fallbackToUpstream;
+
+	public StableReplicaReadFrom(boolean fallbackToUpstream) {
+		this.fallbackToUpstream = fallbackToUpstream;
+	}
+
+	@Override
+	public List<RedisNodeDescription> select(Nodes nodes) {
+		RedisNodeDescription selected = null;
+		for (RedisNodeDescription node : nodes) {
+			if (node.getRole().isReplica() && (selected == null || compare(node.getUri(), selected.getUri()) < 0)) {
+				selected = node;
+			}
+		}
+		if (selected == null && fallbackToUpstream) {
+			for (RedisNodeDescription node : nodes) {
+				if (node.getRole().isUpstream()) {
+					selected = node;
+					break;
+				}
+			}
+		}
+		return selected != null ? Collections.singletonList(selected) : Collections.emptyList();
+	}
+
+	private static int compare(RedisURI a, RedisURI b) {
+		int result = String.valueOf(a.getHost()).compareTo(String.valueOf(b.getHost()));
+		return result != 0 ? result : Integer.compare(a.getPort(), b.getPort());
+	}
+}
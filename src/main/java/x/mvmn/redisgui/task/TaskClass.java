@@ -0,0 +1,32 @@
+package x.mvmn.redisgui.task;
+
+public enum TaskClass {
+	INTERACTIVE("Interactive", 4, 64), BULK("Bulk", 8, 16), MONITORING("Monitoring", 2, 0),
+	// Subtasks a job waits on (e.g. its parallel workers), a thread each on demand - queued behind their parents in the bounded
+	// pools they could never start
+	WORKER("Worker", Integer.MAX_VALUE, 0),
+	// Endless streams such as MONITOR, a thread each for their whole lifetime
+	STREAM("Stream", Integer.MAX_VALUE, 0);
+
+	private final String displayName;
+	private final int threads;
+	private final int queueCapacity;
+
+	TaskClass(String displayName, int threads, int queueCapacity) {
+		this.displayName = displayName;
+		this.threads = threads;
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public String toString() {
+		return displayName;
+	}
+}
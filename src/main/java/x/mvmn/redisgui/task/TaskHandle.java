@@ -0,0 +1,132 @@
+package x.mvmn.redisgui.task;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TaskHandle {
+
+	public static enum TaskState {
+		QUEUED("Queued"), RUNNING("Running"), SCHEDULED("Scheduled"), DONE("Done"), FAILED("Failed"), CANCELLED("Cancelled");
+
+		private final String displayName;
+
+		TaskState(String displayName) {
+			this.displayName = displayName;
+		}
+
+		public boolean isFinal() {
+			return this == DONE || this == FAILED || this == CANCELLED;
+		}
+
+		public String toString() {
+			return displayName;
+		}
+	}
+
+	private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+	private static final ThreadLocal<TaskHandle> CURRENT = new ThreadLocal<>();
+
+	private final long id = ID_SEQUENCE.incrementAndGet();
+	private final TaskClass taskClass;
+	private final String name;
+	private final String owner;
+	private final long submittedAt = System.currentTimeMillis();
+	private volatile long startedNanos;
+	private volatile TaskState state;
+	private volatile boolean cancelled;
+	private volatile Future<?> future;
+	private volatile Runnable cancelListener;
+
+	TaskHandle(TaskClass taskClass, String name, String owner, TaskState initialState) {
+		this.taskClass = taskClass;
+		this.name = name;
+		this.owner = owner;
+		this.state = initialState;
+	}
+
+	public static TaskHandle current() {
+		return CURRENT.get();
+	}
+
+	public static boolean isCurrentCancelled() {
+		TaskHandle current = CURRENT.get();
+		return Thread.currentThread().isInterrupted() || (current != null && current.isCancelled());
+	}
+
+	public void cancel() {
+		cancelled = true;
+		Future<?> future = this.future;
+		// Queued tasks are left in the queue so that they still get to run their cleanup and final operation when picked up
+		if (future != null && state != TaskState.QUEUED) {
+			future.cancel(true);
+		}
+		Runnable cancelListener = this.cancelListener;
+		if (cancelListener != null) {
+			cancelListener.run();
+		}
+	}
+
+	void setCancelListener(Runnable cancelListener) {
+		this.cancelListener = cancelListener;
+	}
+
+	void setFuture(Future<?> future) {
+		this.future = future;
+		if (cancelled && state != TaskState.QUEUED) {
+			future.cancel(true);
+		}
+	}
+
+	void started() {
+		CURRENT.set(this);
+		startedNanos = System.nanoTime();
+		state = TaskState.RUNNING;
+	}
+
+	void finished(TaskState state) {
+		CURRENT.remove();
+		this.state = state;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public TaskClass getTaskClass() {
+		return taskClass;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getOwner() {
+		return owner;
+	}
+
+	public long getSubmittedAt() {
+		return submittedAt;
+	}
+
+	public TaskState getState() {
+		return state;
+	}
+
+	public String getStateDescription() {
+		TaskState state = this.state;
+		return cancelled && !state.isFinal() ? "Cancelling" : state.toString();
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public long getElapsedMillis() {
+		return state == TaskState.RUNNING ? (System.nanoTime() - startedNanos) / 1_000_000L
+				: Math.max(0L, System.currentTimeMillis() - submittedAt);
+	}
+
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,188 @@
+package x.mvmn.redisgui.task;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import x.mvmn.redisgui.gui.util.SwingUtil;
+import x.mvmn.redisgui.lang.UnsafeOperation;
+import x.mvmn.redisgui.task.TaskHandle.TaskState;
+
+public class TaskManager {
+
+	private static final TaskManager INSTANCE = new TaskManager();
+
+	private final Map<TaskClass, ExecutorService> executors = new EnumMap<>(TaskClass.class);
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final List<TaskHandle> activeTasks = new CopyOnWriteArrayList<>();
+	private final Map<String, TaskHandle> tasksBySupersedeKey = new ConcurrentHashMap<>();
+
+	public static TaskManager getInstance() {
+		return INSTANCE;
+	}
+
+	protected TaskManager() {
+		for (TaskClass taskClass : TaskClass.values()) {
+			if (taskClass != TaskClass.MONITORING) {
+				ThreadPoolExecutor executor;
+				if (taskClass.getQueueCapacity() > 0) {
+					executor = new ThreadPoolExecutor(taskClass.getThreads(), taskClass.getThreads(), 30, TimeUnit.SECONDS,
+							new LinkedBlockingQueue<>(taskClass.getQueueCapacity()), threadFactory(taskClass));
+					executor.allowCoreThreadTimeOut(true);
+				} else {
+					// No queue - a thread per task, reused while idle
+					executor = new ThreadPoolExecutor(0, taskClass.getThreads(), 30, TimeUnit.SECONDS, new SynchronousQueue<>(),
+							threadFactory(taskClass));
+				}
+				executors.put(taskClass, executor);
+			}
+		}
+		scheduler = new ScheduledThreadPoolExecutor(TaskClass.MONITORING.getThreads(), threadFactory(TaskClass.MONITORING));
+		scheduler.setRemoveOnCancelPolicy(true);
+		executors.put(TaskClass.MONITORING, scheduler);
+	}
+
+	private static ThreadFactory threadFactory(TaskClass taskClass) {
+		String prefix = "redisgui-" + taskClass.name().toLowerCase() + "-";
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	public TaskBuilder task(TaskClass taskClass, String name) {
+		return new TaskBuilder(taskClass, name);
+	}
+
+	public List<TaskHandle> getActiveTasks(String owner) {
+		List<TaskHandle> result = new ArrayList<>();
+		for (TaskHandle task : activeTasks) {
+			if (owner == null || owner.equals(task.getOwner())) {
+				result.add(task);
+			}
+		}
+		return result;
+	}
+
+	public void cancelAll(String owner) {
+		for (TaskHandle task : getActiveTasks(owner)) {
+			task.cancel();
+		}
+	}
+
+	public void shutdown() {
+		for (ExecutorService executor : executors.values()) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Setter
+	@Accessors(fluent = true)
+	public class TaskBuilder {
+		private final TaskClass taskClass;
+		private final String name;
+		private String owner;
+		private String supersedes;
+		private Runnable finalOp;
+		private boolean finalOpSwingThread = true;
+
+		protected TaskBuilder(TaskClass taskClass, String name) {
+			this.taskClass = taskClass;
+			this.name = name;
+		}
+
+		public TaskHandle submit(UnsafeOperation operation) {
+			TaskHandle handle = new TaskHandle(taskClass, name, owner, TaskState.QUEUED);
+			String supersedeKey = supersedes != null ? owner + "/" + supersedes : null;
+			if (supersedeKey != null) {
+				TaskHandle superseded = tasksBySupersedeKey.put(supersedeKey, handle);
+				if (superseded != null) {
+					superseded.cancel();
+				}
+			}
+			activeTasks.add(handle);
+			try {
+				handle.setFuture(executors.get(taskClass).submit(() -> run(handle, supersedeKey, operation)));
+			} catch (RejectedExecutionException e) {
+				handle.finished(TaskState.FAILED);
+				cleanup(handle, supersedeKey);
+				SwingUtil.showError("Too many background tasks of type " + taskClass + " - rejected " + name, e);
+			}
+			return handle;
+		}
+
+		public TaskHandle schedule(UnsafeOperation operation, long initialDelay, long period, TimeUnit unit) {
+			TaskHandle handle = new TaskHandle(taskClass, name, owner, TaskState.SCHEDULED);
+			// Periodic tasks only end when cancelled
+			handle.setCancelListener(() -> activeTasks.remove(handle));
+			activeTasks.add(handle);
+			handle.setFuture(scheduler.scheduleWithFixedDelay(() -> {
+				handle.started();
+				try {
+					operation.run();
+				} catch (Exception e) {
+					if (!handle.isCancelled()) {
+						e.printStackTrace();
+					}
+				} finally {
+					handle.finished(handle.isCancelled() ? TaskState.CANCELLED : TaskState.SCHEDULED);
+				}
+			}, initialDelay, period, unit));
+			return handle;
+		}
+
+		private void run(TaskHandle handle, String supersedeKey, UnsafeOperation operation) {
+			try {
+				if (handle.isCancelled()) {
+					handle.finished(TaskState.CANCELLED);
+					return;
+				}
+				handle.started();
+				operation.run();
+				handle.finished(handle.isCancelled() ? TaskState.CANCELLED : TaskState.DONE);
+			} catch (Exception e) {
+				if (handle.isCancelled()) {
+					handle.finished(TaskState.CANCELLED);
+				} else {
+					handle.finished(TaskState.FAILED);
+					e.printStackTrace();
+					SwingUtil.showError("Error occurred in " + name, e);
+				}
+			} finally {
+				cleanup(handle, supersedeKey);
+			}
+		}
+
+		private void cleanup(TaskHandle handle, String supersedeKey) {
+			activeTasks.remove(handle);
+			if (supersedeKey != null) {
+				tasksBySupersedeKey.remove(supersedeKey, handle);
+			}
+			if (finalOp != null) {
+				if (finalOpSwingThread) {
+					SwingUtilities.invokeLater(finalOp);
+				} else {
+					finalOp.run();
+				}
+			}
+		}
+	}
+}
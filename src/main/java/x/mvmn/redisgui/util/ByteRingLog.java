@@ -0,0 +1,68 @@
+package x.mvmn.redisgui.util;
+
+import java.nio.charset.StandardCharsets;
+
+// Fixed-capacity log of byte records in a single preallocated array: every record gets a slot of the same size (longer ones are
+// truncated) and the oldest records get overwritten. Nothing gets allocated per record - Strings are created only when reading.
+public class ByteRingLog {
+
+	private final int slotSize;
+	private final byte[] data;
+	private final int[] lengths;
+	private final boolean[] truncated;
+	private final long[] timestamps;
+	private long written;
+
+	public ByteRingLog(int capacity, int slotSize) {
+		this.slotSize = slotSize;
+		this.data = new byte[capacity * slotSize];
+		this.lengths = new int[capacity];
+		this.truncated = new boolean[capacity];
+		this.timestamps = new long[capacity];
+	}
+
+	public int getCapacity() {
+		return lengths.length;
+	}
+
+	public synchronized void add(long timestamp, byte[] record, int offset, int length) {
+		int slot = (int) (written % lengths.length);
+		int storedLength = Math.min(length, slotSize);
+		System.arraycopy(record, offset, data, slot * slotSize, storedLength);
+		lengths[slot] = storedLength;
+		truncated[slot] = storedLength < length;
+		timestamps[slot] = timestamp;
+		written++;
+	}
+
+	// Total number of records ever added, including the overwritten ones
+	public synchronized long getWritten() {
+		return written;
+	}
+
+	public synchronized int size() {
+		return (int) Math.min(written, lengths.length);
+	}
+
+	// Age 0 is the newest record
+	public synchronized long getTimestamp(int age) {
+		return timestamps[slotOf(age)];
+	}
+
+	public synchronized String getText(int age) {
+		int slot = slotOf(age);
+		String result = new String(data, slot * slotSize, lengths[slot], StandardCharsets.UTF_8);
+		return truncated[slot] ? result + "..." : result;
+	}
+
+	private int slotOf(int age) {
+		if (age < 0 || age >= Math.min(written, lengths.length)) {
+			throw new IndexOutOfBoundsException("Age " + age + " out of bounds for size " + Math.min(written, lengths.length));
+		}
+		return (int) ((written - 1 - age) % lengths.length);
+	}
+
+	public synchronized void clear() {
+		written = 0;
+	}
+}
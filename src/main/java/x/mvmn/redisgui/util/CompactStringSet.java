@@ -0,0 +1,169 @@
+package x.mvmn.redisgui.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Set of strings on top of CompactStringStore: an open-addressing table of element indices (linear probing) gives O(1) membership
+// checks without per-element objects. Elements keep dense indices 0..size-1, removal moves the last element into the freed index.
+public class CompactStringSet {
+
+	private static final int EMPTY = -1;
+	private static final int INITIAL_TABLE_SIZE = 1 << 10;
+	// Removed elements' bytes are reclaimed once they make up this share of the store
+	private static final double MAX_GARBAGE_RATIO = 0.5d;
+
+	private final CompactStringStore store = new CompactStringStore();
+	private int[] table = newTable(INITIAL_TABLE_SIZE);
+
+	public int size() {
+		return store.size();
+	}
+
+	public String get(int index) {
+		return store.get(index);
+	}
+
+	public byte[] getBytes(int index) {
+		return store.getBytes(index);
+	}
+
+	public int indexOf(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return indexOf(bytes, 0, bytes.length);
+	}
+
+	// Lookup by UTF-8 bytes, without creating a String
+	public int indexOf(byte[] data, int offset, int length) {
+		return table[findSlot(data, offset, length, hash(data, offset, length))];
+	}
+
+	public boolean contains(String value) {
+		return indexOf(value) != EMPTY;
+	}
+
+	// Returns the index of the new element, or -1 if the value is already present
+	public int add(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return add(bytes, 0, bytes.length);
+	}
+
+	public int add(byte[] data, int offset, int length) {
+		int slot = findSlot(data, offset, length, hash(data, offset, length));
+		if (table[slot] != EMPTY) {
+			return EMPTY;
+		}
+		int index = store.add(data, offset, length);
+		table[slot] = index;
+		if (store.size() * 4L > table.length * 3L) {
+			rehash(table.length * 2);
+		}
+		return index;
+	}
+
+	// Returns the index the value was removed from, or -1 if it wasn't present. The former last element now lives at that index.
+	public int remove(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int slot = findSlot(bytes, 0, bytes.length, hash(bytes, 0, bytes.length));
+		int index = table[slot];
+		if (index == EMPTY) {
+			return EMPTY;
+		}
+		deleteSlot(slot);
+		int last = store.size() - 1;
+		int movedSlot = index != last ? slotOfIndex(last) : EMPTY;
+		store.removeSwap(index);
+		if (movedSlot != EMPTY) {
+			table[movedSlot] = index;
+		}
+		if (store.getGarbageBytes() > 0 && store.getGarbageBytes() > (store.getBytesUsed() + store.getGarbageBytes()) * MAX_GARBAGE_RATIO) {
+			store.compact();
+		}
+		return index;
+	}
+
+	public void clear() {
+		store.clear();
+		table = newTable(INITIAL_TABLE_SIZE);
+	}
+
+	public long getBytesUsed() {
+		return store.getBytesUsed();
+	}
+
+	public long getMemoryFootprint() {
+		return store.getMemoryFootprint() + table.length * 4L;
+	}
+
+	private int findSlot(byte[] data, int offset, int length, int hash) {
+		int mask = table.length - 1;
+		int slot = hash & mask;
+		int index;
+		while ((index = table[slot]) != EMPTY && !store.equalsAt(index, data, offset, length)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int slotOfIndex(int index) {
+		int mask = table.length - 1;
+		int slot = mix(store.hash(index)) & mask;
+		while (table[slot] != index) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	// Backward-shift deletion: keeps probe chains intact without tombstones
+	private void deleteSlot(int slot) {
+		int mask = table.length - 1;
+		int hole = slot;
+		int current = slot;
+		while (true) {
+			current = (current + 1) & mask;
+			int index = table[current];
+			if (index == EMPTY) {
+				break;
+			}
+			int home = mix(store.hash(index)) & mask;
+			// Move the entry into the hole unless its home slot lies cyclically within (hole, current]
+			if (hole <= current ? (home <= hole || home > current) : (home <= hole && home > current)) {
+				table[hole] = index;
+				hole = current;
+			}
+		}
+		table[hole] = EMPTY;
+	}
+
+	private void rehash(int newTableSize) {
+		table = newTable(newTableSize);
+		int mask = newTableSize - 1;
+		for (int index = 0; index < store.size(); index++) {
+			int slot = mix(store.hash(index)) & mask;
+			while (table[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = index;
+		}
+	}
+
+	private static int[] newTable(int size) {
+		int[] result = new int[size];
+		Arrays.fill(result, EMPTY);
+		return result;
+	}
+
+	// Same as Arrays.hashCode of the range, see CompactStringStore.hash()
+	private static int hash(byte[] data, int offset, int length) {
+		int result = 1;
+		for (int i = offset; i < offset + length; i++) {
+			result = 31 * result + data[i];
+		}
+		return mix(result);
+	}
+
+	// Spreads the polynomial hash so that linear probing on the low bits doesn't cluster
+	private static int mix(int hash) {
+		int result = hash * 0x9E3779B9;
+		return result ^ (result >>> 16);
+	}
+}
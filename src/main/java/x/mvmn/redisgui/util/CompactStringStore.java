@@ -0,0 +1,208 @@
+package x.mvmn.redisgui.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Store of strings packed as UTF-8 bytes into large pages, with a chunked offset index - no per-element objects at all.
+// Appends go to the end, removal moves the last element into the freed index. Bytes of removed elements are reclaimed by compact().
+public class CompactStringStore {
+
+	private static final int PAGE_SIZE = 1 << 20;
+	private static final int INDEX_CHUNK_BITS = 16;
+	private static final int INDEX_CHUNK_SIZE = 1 << INDEX_CHUNK_BITS;
+	private static final int INDEX_CHUNK_MASK = INDEX_CHUNK_SIZE - 1;
+
+	private byte[][] pages = new byte[16][];
+	private int pageCount;
+	private int currentPage = -1;
+	private int currentPageFill;
+	// Per element: page index in the high 32 bits, offset within the page in the low 32 bits
+	private long[][] locations = new long[16][];
+	private int[][] lengths = new int[16][];
+	private int size;
+	private long bytesUsed;
+	private long garbageBytes;
+
+	public int size() {
+		return size;
+	}
+
+	public int add(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return add(bytes, 0, bytes.length);
+	}
+
+	public int add(byte[] data, int offset, int length) {
+		int page;
+		int pageOffset;
+		if (length > PAGE_SIZE) {
+			// Oversized values get a dedicated page of their own, the current page stays open for subsequent values
+			page = newPage(length);
+			pageOffset = 0;
+		} else {
+			if (currentPage < 0 || currentPageFill + length > PAGE_SIZE) {
+				currentPage = newPage(PAGE_SIZE);
+				currentPageFill = 0;
+			}
+			page = currentPage;
+			pageOffset = currentPageFill;
+			currentPageFill += length;
+		}
+		System.arraycopy(data, offset, pages[page], pageOffset, length);
+
+		int index = size;
+		int chunk = index >>> INDEX_CHUNK_BITS;
+		if (chunk >= locations.length) {
+			locations = Arrays.copyOf(locations, locations.length * 2);
+			lengths = Arrays.copyOf(lengths, lengths.length * 2);
+		}
+		if (locations[chunk] == null) {
+			locations[chunk] = new long[INDEX_CHUNK_SIZE];
+			lengths[chunk] = new int[INDEX_CHUNK_SIZE];
+		}
+		locations[chunk][index & INDEX_CHUNK_MASK] = ((long) page << 32) | pageOffset;
+		lengths[chunk][index & INDEX_CHUNK_MASK] = length;
+		bytesUsed += length;
+		size++;
+		return index;
+	}
+
+	private int newPage(int pageSize) {
+		if (pageCount >= pages.length) {
+			pages = Arrays.copyOf(pages, pages.length * 2);
+		}
+		pages[pageCount] = new byte[pageSize];
+		return pageCount++;
+	}
+
+	// Moves the last element into the index being removed. Returns the former index of the moved element, or -1 if it was the last one.
+	public int removeSwap(int index) {
+		checkIndex(index);
+		int last = size - 1;
+		int removedLength = lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		bytesUsed -= removedLength;
+		garbageBytes += removedLength;
+		size--;
+		if (index == last) {
+			return -1;
+		}
+		locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK] = locations[last >>> INDEX_CHUNK_BITS][last & INDEX_CHUNK_MASK];
+		lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK] = lengths[last >>> INDEX_CHUNK_BITS][last & INDEX_CHUNK_MASK];
+		return last;
+	}
+
+	// Same as Arrays.hashCode of the element's bytes, computed in place
+	public int hash(int index) {
+		checkIndex(index);
+		long location = locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		int length = lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		byte[] page = pages[(int) (location >>> 32)];
+		int offset = (int) location;
+		int result = 1;
+		for (int i = offset; i < offset + length; i++) {
+			result = 31 * result + page[i];
+		}
+		return result;
+	}
+
+	public boolean equalsAt(int index, byte[] value, int valueOffset, int valueLength) {
+		checkIndex(index);
+		long location = locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		int length = lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		if (length != valueLength) {
+			return false;
+		}
+		byte[] page = pages[(int) (location >>> 32)];
+		int offset = (int) location;
+		for (int i = 0; i < length; i++) {
+			if (page[offset + i] != value[valueOffset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Rewrites live elements into fresh pages, dropping bytes of removed ones. Indices stay the same.
+	public void compact() {
+		byte[][] oldPages = pages;
+		pages = new byte[16][];
+		pageCount = 0;
+		currentPage = -1;
+		currentPageFill = 0;
+		for (int index = 0; index < size; index++) {
+			long location = locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+			int length = lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+			int page;
+			int pageOffset;
+			if (length > PAGE_SIZE) {
+				page = newPage(length);
+				pageOffset = 0;
+			} else {
+				if (currentPage < 0 || currentPageFill + length > PAGE_SIZE) {
+					currentPage = newPage(PAGE_SIZE);
+					currentPageFill = 0;
+				}
+				page = currentPage;
+				pageOffset = currentPageFill;
+				currentPageFill += length;
+			}
+			System.arraycopy(oldPages[(int) (location >>> 32)], (int) location, pages[page], pageOffset, length);
+			locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK] = ((long) page << 32) | pageOffset;
+		}
+		garbageBytes = 0;
+	}
+
+	public String get(int index) {
+		checkIndex(index);
+		long location = locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		int length = lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		return new String(pages[(int) (location >>> 32)], (int) location, length, StandardCharsets.UTF_8);
+	}
+
+	public byte[] getBytes(int index) {
+		checkIndex(index);
+		long location = locations[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		int length = lengths[index >>> INDEX_CHUNK_BITS][index & INDEX_CHUNK_MASK];
+		int offset = (int) location;
+		return Arrays.copyOfRange(pages[(int) (location >>> 32)], offset, offset + length);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+	}
+
+	public void clear() {
+		pages = new byte[16][];
+		pageCount = 0;
+		currentPage = -1;
+		currentPageFill = 0;
+		locations = new long[16][];
+		lengths = new int[16][];
+		size = 0;
+		bytesUsed = 0;
+		garbageBytes = 0;
+	}
+
+	public long getBytesUsed() {
+		return bytesUsed;
+	}
+
+	public long getGarbageBytes() {
+		return garbageBytes;
+	}
+
+	public long getMemoryFootprint() {
+		long result = 0;
+		for (int i = 0; i < pageCount; i++) {
+			result += pages[i].length;
+		}
+		for (long[] chunk : locations) {
+			if (chunk != null) {
+				result += chunk.length * 12L;
+			}
+		}
+		return result;
+	}
+}
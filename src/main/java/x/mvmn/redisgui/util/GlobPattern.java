@@ -0,0 +1,116 @@
+package x.mvmn.redisgui.util;
+
+// Matches keys the way Redis matches SCAN/KEYS patterns: *, ?, [abc], [^abc], [a-z] and backslash escapes
+public class GlobPattern {
+
+	private final String pattern;
+	private final boolean matchAll;
+
+	public GlobPattern(String pattern) {
+		this.pattern = pattern;
+		this.matchAll = "*".equals(pattern);
+	}
+
+	public String getPattern() {
+		return pattern;
+	}
+
+	public boolean isMatchAll() {
+		return matchAll;
+	}
+
+	public boolean matches(String value) {
+		return matchAll || matches(0, value, 0);
+	}
+
+	private boolean matches(int patternIndex, String value, int valueIndex) {
+		int patternLength = pattern.length();
+		int valueLength = value.length();
+		while (patternIndex < patternLength) {
+			char c = pattern.charAt(patternIndex);
+			switch (c) {
+				case '*':
+					while (patternIndex + 1 < patternLength && pattern.charAt(patternIndex + 1) == '*') {
+						patternIndex++;
+					}
+					if (patternIndex + 1 == patternLength) {
+						return true;
+					}
+					for (int i = valueIndex; i <= valueLength; i++) {
+						if (matches(patternIndex + 1, value, i)) {
+							return true;
+						}
+					}
+					return false;
+				case '?':
+					if (valueIndex >= valueLength) {
+						return false;
+					}
+					valueIndex++;
+					patternIndex++;
+					break;
+				case '[':
+					if (valueIndex >= valueLength) {
+						return false;
+					}
+					int classEnd = matchClass(patternIndex + 1, value.charAt(valueIndex));
+					if (classEnd < 0) {
+						return false;
+					}
+					valueIndex++;
+					patternIndex = classEnd;
+					break;
+				case '\\':
+					// Escaped character is matched literally, a trailing backslash matches itself
+					if (patternIndex + 1 < patternLength) {
+						patternIndex++;
+					}
+					if (valueIndex >= valueLength || value.charAt(valueIndex) != pattern.charAt(patternIndex)) {
+						return false;
+					}
+					valueIndex++;
+					patternIndex++;
+					break;
+				default:
+					if (valueIndex >= valueLength || value.charAt(valueIndex) != c) {
+						return false;
+					}
+					valueIndex++;
+					patternIndex++;
+			}
+		}
+		return valueIndex == valueLength;
+	}
+
+	// Returns the pattern index right after the closing bracket if the character matches the class, -1 otherwise
+	private int matchClass(int patternIndex, char c) {
+		int patternLength = pattern.length();
+		boolean negate = patternIndex < patternLength && pattern.charAt(patternIndex) == '^';
+		if (negate) {
+			patternIndex++;
+		}
+		boolean matched = false;
+		while (patternIndex < patternLength && pattern.charAt(patternIndex) != ']') {
+			char current = pattern.charAt(patternIndex);
+			if (current == '\\' && patternIndex + 1 < patternLength) {
+				patternIndex++;
+				matched |= pattern.charAt(patternIndex) == c;
+			} else if (patternIndex + 2 < patternLength && pattern.charAt(patternIndex + 1) == '-' && pattern.charAt(patternIndex + 2) != ']') {
+				char from = current;
+				char to = pattern.charAt(patternIndex + 2);
+				if (from > to) {
+					char swap = from;
+					from = to;
+					to = swap;
+				}
+				matched |= c >= from && c <= to;
+				patternIndex += 2;
+			} else {
+				matched |= current == c;
+			}
+			patternIndex++;
+		}
+		// Like Redis, an unterminated class extends to the end of the pattern
+		return matched != negate ? Math.min(patternIndex + 1, patternLength) : -1;
+	}
+}
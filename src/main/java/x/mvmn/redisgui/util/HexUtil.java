@@ -1,5 +1,7 @@
 package x.mvmn.redisgui.util;
 
+import java.io.IOException;
+
 public class HexUtil {
 
 	private static final String[] HEX_VALS_256;
@@ -17,15 +19,48 @@ public class HexUtil {
 		if (data == null) {
 			return null;
 		}
-		StringBuilder result = new StringBuilder();
-		for (byte b : data) {
-			int v = b & 0xFF;
-			result.append(HEX_VALS_256[v]);
+		StringBuilder result = new StringBuilder(data.length * (2 + (separator != null ? separator.length() : 0)));
+		try {
+			appendHex(data, 0, data.length, result, separator);
+		} catch (IOException e) {
+			// StringBuilder never throws
+			throw new IllegalStateException(e);
+		}
+
+		return result.toString();
+	}
+
+	public static void appendHex(byte[] data, int offset, int length, Appendable target, String separator) throws IOException {
+		for (int i = offset; i < offset + length; i++) {
+			target.append(HEX_VALS_256[data[i] & 0xFF]);
 			if (separator != null) {
-				result.append(separator);
+				target.append(separator);
 			}
 		}
+	}
 
-		return result.toString();
+	// Writes hex digits into a caller-provided (reusable) buffer, optionally followed by a separator char after each byte.
+	// Returns the position in the target buffer right after the last written char.
+	public static int writeHex(byte[] data, int offset, int length, char[] target, int targetOffset, char separator) {
+		int position = targetOffset;
+		for (int i = offset; i < offset + length; i++) {
+			int v = data[i] & 0xFF;
+			target[position++] = HEX_VALS_16[v >> 4];
+			target[position++] = HEX_VALS_16[v & 0x0F];
+			if (separator != 0) {
+				target[position++] = separator;
+			}
+		}
+		return position;
+	}
+
+	// Printable ASCII as is, everything else as '.' - the right-hand side of a classic hex dump
+	public static int writeAscii(byte[] data, int offset, int length, char[] target, int targetOffset) {
+		int position = targetOffset;
+		for (int i = offset; i < offset + length; i++) {
+			int v = data[i] & 0xFF;
+			target[position++] = v >= 0x20 && v < 0x7F ? (char) v : '.';
+		}
+		return position;
 	}
 }
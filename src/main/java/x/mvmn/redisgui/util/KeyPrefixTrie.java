@@ -0,0 +1,175 @@
+package x.mvmn.redisgui.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts keys per namespace prefix. Only namespaces are stored - the last segment of a key is never kept, so memory depends on the
+// number of distinct prefixes rather than on the number of keys. Depth and fan-out per node are capped, overflow goes to an "other" node.
+public class KeyPrefixTrie {
+
+	public static final String OTHER_SEGMENT = "(other)";
+
+	private static final Node[] NO_CHILDREN = new Node[0];
+
+	private final String delimiter;
+	private final int maxDepth;
+	private final int maxChildrenPerNode;
+	private final Node root;
+	private long version;
+
+	public KeyPrefixTrie(String delimiter, int maxDepth, int maxChildrenPerNode) {
+		this.delimiter = delimiter;
+		this.maxDepth = maxDepth;
+		this.maxChildrenPerNode = maxChildrenPerNode;
+		this.root = new Node(null, "");
+	}
+
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	public Node getRoot() {
+		return root;
+	}
+
+	public synchronized void addAll(Collection<String> keys) {
+		for (String key : keys) {
+			update(key, 1);
+		}
+	}
+
+	public synchronized void add(String key) {
+		update(key, 1);
+	}
+
+	public synchronized void remove(String key) {
+		update(key, -1);
+	}
+
+	public synchronized void clear() {
+		root.children = null;
+		root.other = null;
+		root.keyCount = 0;
+		root.ownKeyCount = 0;
+		version++;
+	}
+
+	private void update(String key, int delta) {
+		Node node = root;
+		node.keyCount += delta;
+		int start = 0;
+		int depth = 0;
+		int delimiterIndex;
+		while (depth < maxDepth && !node.isOther() && (delimiterIndex = key.indexOf(delimiter, start)) >= 0) {
+			String segment = key.substring(start, delimiterIndex);
+			Node child = node.children != null ? node.children.get(segment) : null;
+			if (child == null && delta < 0) {
+				if (node.other == null) {
+					break;
+				}
+				child = node.other;
+			} else if (child == null) {
+				if (node.children == null) {
+					node.children = new HashMap<>();
+				}
+				if (node.children.size() < maxChildrenPerNode) {
+					child = new Node(node, segment);
+					node.children.put(segment, child);
+				} else {
+					if (node.other == null) {
+						node.other = new Node(node, OTHER_SEGMENT);
+					}
+					child = node.other;
+				}
+			}
+			child.keyCount += delta;
+			if (delta < 0 && child.keyCount <= 0 && child != node.other) {
+				node.children.remove(segment);
+			}
+			node = child;
+			start = delimiterIndex + delimiter.length();
+			depth++;
+		}
+		node.ownKeyCount += delta;
+	}
+
+	// Children snapshots stay stable between calls to publishChanges(), as required by tree models
+	public synchronized void publishChanges() {
+		version++;
+	}
+
+	public synchronized Node[] getChildren(Node node) {
+		if (node.snapshotVersion != version) {
+			int size = (node.children != null ? node.children.size() : 0) + (node.other != null ? 1 : 0);
+			if (size == 0) {
+				node.snapshot = NO_CHILDREN;
+			} else {
+				Node[] snapshot = new Node[size];
+				int index = 0;
+				if (node.children != null) {
+					for (Node child : node.children.values()) {
+						snapshot[index++] = child;
+					}
+					Arrays.sort(snapshot, 0, index, Comparator.comparing(Node::getSegment));
+				}
+				if (node.other != null) {
+					snapshot[index] = node.other;
+				}
+				node.snapshot = snapshot;
+			}
+			node.snapshotVersion = version;
+		}
+		return node.snapshot;
+	}
+
+	public class Node {
+		private final Node parent;
+		private final String segment;
+		private volatile long keyCount;
+		private volatile long ownKeyCount;
+		private Map<String, Node> children;
+		private Node other;
+		private Node[] snapshot = NO_CHILDREN;
+		private long snapshotVersion = -1;
+
+		protected Node(Node parent, String segment) {
+			this.parent = parent;
+			this.segment = segment;
+		}
+
+		public Node getParent() {
+			return parent;
+		}
+
+		public String getSegment() {
+			return segment;
+		}
+
+		public long getKeyCount() {
+			return keyCount;
+		}
+
+		public long getOwnKeyCount() {
+			return ownKeyCount;
+		}
+
+		public boolean isOther() {
+			return parent != null && this == parent.other;
+		}
+
+		// Key prefix including the trailing delimiter, e.g. "service:entity:"
+		public String getPrefix() {
+			if (parent == null) {
+				return "";
+			}
+			return parent.getPrefix() + segment + delimiter;
+		}
+
+		public String toString() {
+			return (parent == null ? "All keys" : segment) + " (" + keyCount + ")";
+		}
+	}
+}
@@ -32,4 +32,16 @@ public class LangUtil {
 		return result;
 	}
 
+	public static String formatBytes(long bytes) {
+		if (bytes < 1024) {
+			return bytes + " B";
+		} else if (bytes < 1024L * 1024) {
+			return String.format("%.1f KB", bytes / 1024.0d);
+		} else if (bytes < 1024L * 1024 * 1024) {
+			return String.format("%.1f MB", bytes / (1024.0d * 1024));
+		} else {
+			return String.format("%.2f GB", bytes / (1024.0d * 1024 * 1024));
+		}
+	}
+
 }
@@ -0,0 +1,124 @@
+package x.mvmn.redisgui.util;
+
+import java.util.Arrays;
+
+// HDR-style histogram of non-negative long values: each power of 2 is split into 32 linear sub-buckets, so percentiles are exact
+// below 64 and within ~3% above, over the whole long range. Counters are allocated only up to the highest bucket used - a few hundred
+// for microsecond latencies, under 2k at most. Not thread-safe.
+public class LogHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+	private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private long[] counts = new long[LINEAR_LIMIT];
+	private long count;
+	private long total;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+
+	public void record(long value) {
+		record(value, 1L);
+	}
+
+	public void record(long value, long times) {
+		if (value < 0) {
+			value = 0;
+		}
+		int index = indexOf(value);
+		ensureCapacity(index + 1);
+		counts[index] += times;
+		count += times;
+		total += value * times;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	public void add(LogHistogram other) {
+		ensureCapacity(other.counts.length);
+		for (int i = 0; i < other.counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		total += other.total;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	public void reset() {
+		Arrays.fill(counts, 0L);
+		count = 0;
+		total = 0;
+		min = Long.MAX_VALUE;
+		max = Long.MIN_VALUE;
+	}
+
+	public LogHistogram copy() {
+		LogHistogram result = new LogHistogram();
+		result.add(this);
+		return result;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	// 0 when empty
+	public long getMin() {
+		return count > 0 ? min : 0L;
+	}
+
+	public long getMax() {
+		return count > 0 ? max : 0L;
+	}
+
+	public double getMean() {
+		return count > 0 ? (double) total / count : 0.0d;
+	}
+
+	// Percentile in 0..100. Returns the upper bound of the bucket the percentile falls into, capped by the recorded maximum.
+	public long getPercentile(double percentile) {
+		if (count == 0) {
+			return 0L;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(count * Math.min(100.0d, Math.max(0.0d, percentile)) / 100.0d));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.max(getMin(), Math.min(max, highestValueOf(i)));
+			}
+		}
+		return max;
+	}
+
+	private void ensureCapacity(int buckets) {
+		if (counts.length < buckets) {
+			counts = Arrays.copyOf(counts, Math.min(BUCKETS, Math.max(buckets, counts.length + counts.length / 2)));
+		}
+	}
+
+	static int indexOf(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	static long highestValueOf(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		long lowest = subBucket << shift;
+		long highest = lowest + (1L << shift) - 1;
+		return highest < 0 ? Long.MAX_VALUE : highest;
+	}
+}
@@ -0,0 +1,140 @@
+package x.mvmn.redisgui.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Sequential reader over a file of any size, memory-mapped one window at a time: nothing is buffered on the heap and read-ahead is
+// left to the OS page cache. The window is remapped at the current position whenever a read would run past its end, so files
+// well beyond 2 GB (the limit of a single mapping) can be read. Multi-byte values are little-endian unless the name says otherwise.
+public class MappedFileReader implements Closeable {
+
+	public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final long size;
+	private final int windowSize;
+	private MappedByteBuffer window;
+	private long windowStart;
+	private int windowLength;
+	private long position;
+
+	public MappedFileReader(Path file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+
+	public MappedFileReader(Path file, int windowSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.windowSize = windowSize;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public long position() {
+		return position;
+	}
+
+	public long remaining() {
+		return size - position;
+	}
+
+	public int readUnsignedByte() throws IOException {
+		int offset = ensure(1);
+		position++;
+		return window.get(offset) & 0xFF;
+	}
+
+	public int readUnsignedShort() throws IOException {
+		int offset = ensure(2);
+		position += 2;
+		return window.getShort(offset) & 0xFFFF;
+	}
+
+	public long readUnsignedInt() throws IOException {
+		int offset = ensure(4);
+		position += 4;
+		return window.getInt(offset) & 0xFFFFFFFFL;
+	}
+
+	public long readLong() throws IOException {
+		int offset = ensure(8);
+		position += 8;
+		return window.getLong(offset);
+	}
+
+	public long readUnsignedIntBigEndian() throws IOException {
+		return Integer.reverseBytes((int) readUnsignedInt()) & 0xFFFFFFFFL;
+	}
+
+	public long readLongBigEndian() throws IOException {
+		return Long.reverseBytes(readLong());
+	}
+
+	public void readFully(byte[] target, int offset, int length) throws IOException {
+		if (length > remaining()) {
+			throw new EOFException("File ends " + (length - remaining()) + " bytes short of a " + length + " bytes read at " + position);
+		}
+		while (length > 0) {
+			int chunk = Math.min(length, windowSize);
+			int windowOffset = ensure(chunk);
+			ByteBuffer view = window.duplicate();
+			view.position(windowOffset);
+			view.get(target, offset, chunk);
+			position += chunk;
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	public void skip(long length) throws IOException {
+		if (length < 0 || length > remaining()) {
+			throw new EOFException("Can't skip " + length + " bytes at " + position + " - file ends in " + remaining());
+		}
+		position += length;
+	}
+
+	// The next length bytes without copying (little-endian, positioned at 0), or null if they don't fit in a window. Moves past them.
+	public ByteBuffer slice(int length) throws IOException {
+		if (length > windowSize) {
+			skip(length);
+			return null;
+		}
+		int offset = ensure(length);
+		ByteBuffer view = window.duplicate();
+		view.position(offset);
+		view.limit(offset + length);
+		position += length;
+		return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	// Offset in the window of length bytes at the current position, remapping the window if they're not all in it
+	private int ensure(int length) throws IOException {
+		if (length > remaining()) {
+			throw new EOFException("File ends " + (length - remaining()) + " bytes short of a " + length + " bytes read at " + position);
+		}
+		if (window == null || position < windowStart || position + length > windowStart + windowLength) {
+			windowLength = (int) Math.min(windowSize, size - position);
+			// Previous mapping is released once garbage collected - there's no supported way to unmap it earlier
+			window = channel.map(MapMode.READ_ONLY, position, windowLength);
+			window.order(ByteOrder.LITTLE_ENDIAN);
+			windowStart = position;
+		}
+		return (int) (position - windowStart);
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+}
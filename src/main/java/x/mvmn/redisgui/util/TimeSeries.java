@@ -0,0 +1,65 @@
+package x.mvmn.redisgui.util;
+
+// Fixed-capacity series of (time, value) points in primitive arrays - the oldest points get overwritten. NaN marks a gap.
+public class TimeSeries {
+
+	private final long[] times;
+	private final double[] values;
+	private long written;
+
+	public TimeSeries(int capacity) {
+		this.times = new long[capacity];
+		this.values = new double[capacity];
+	}
+
+	public synchronized void add(long timeMillis, double value) {
+		int slot = (int) (written % times.length);
+		times[slot] = timeMillis;
+		values[slot] = value;
+		written++;
+	}
+
+	public synchronized int size() {
+		return (int) Math.min(written, times.length);
+	}
+
+	// Index 0 is the oldest point still kept
+	public synchronized long getTime(int index) {
+		return times[slotOf(index)];
+	}
+
+	public synchronized double getValue(int index) {
+		return values[slotOf(index)];
+	}
+
+	public synchronized double getLast() {
+		return written > 0 ? values[(int) ((written - 1) % values.length)] : Double.NaN;
+	}
+
+	// Copies the points oldest first into the given arrays, which must hold at least size() elements. Returns the number of points.
+	public synchronized int copyTo(long[] timesTarget, double[] valuesTarget) {
+		int size = size();
+		for (int i = 0; i < size; i++) {
+			int slot = slotOf(i);
+			timesTarget[i] = times[slot];
+			valuesTarget[i] = values[slot];
+		}
+		return size;
+	}
+
+	public int getCapacity() {
+		return times.length;
+	}
+
+	private int slotOf(int index) {
+		int size = (int) Math.min(written, times.length);
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		return (int) ((written - size + index) % times.length);
+	}
+
+	public synchronized void clear() {
+		written = 0;
+	}
+}
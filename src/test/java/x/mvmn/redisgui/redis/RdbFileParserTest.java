@@ -0,0 +1,161 @@
+package x.mvmn.redisgui.redis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import x.mvmn.redisgui.model.RedisKeyType;
+import x.mvmn.redisgui.redis.RdbFileParser.Entry;
+
+// sample.rdb is made by generate-sample-rdb.py next to it: a key per type and encoding, in databases 0 and 3
+public class RdbFileParserTest {
+
+	@Test
+	public void parsesHeaderAndAuxFields() throws Exception {
+		try (RdbFileParser parser = new RdbFileParser(sample())) {
+			List<Entry> entries = new ArrayList<>();
+			parser.parse(entries::add);
+			assertEquals(11, parser.getVersion());
+			assertEquals("7.2.4", parser.getAuxFields().get("redis-ver"));
+			assertEquals("64", parser.getAuxFields().get("redis-bits"));
+			assertEquals(26, entries.size());
+			// Only the checksum is left after EOF
+			assertEquals(parser.getSize() - 8, parser.getPosition());
+		}
+	}
+
+	@Test
+	public void readsStrings() throws Exception {
+		Map<String, Entry> entries = parseSample();
+		assertEntry(entries.get("str:raw"), 0, RedisKeyType.STRING, "raw", 100);
+		assertEntry(entries.get("str:emb"), 0, RedisKeyType.STRING, "embstr", 5);
+		assertEntry(entries.get("str:int"), 0, RedisKeyType.STRING, "int", 6);
+		assertEquals(4102444800000L, entries.get("str:int").getExpireAtMillis());
+		assertEquals(-1L, entries.get("str:raw").getExpireAtMillis());
+	}
+
+	@Test
+	public void countsElementsOfPackedEncodings() throws Exception {
+		Map<String, Entry> entries = parseSample();
+		assertEntry(entries.get("list:zl"), 0, RedisKeyType.LIST, "ziplist", 4);
+		// Count in the header is 65535 - the entries get counted
+		assertEntry(entries.get("list:zlbig"), 0, RedisKeyType.LIST, "ziplist", 3);
+		assertEntry(entries.get("zset:zl"), 0, RedisKeyType.ZSET, "ziplist", 2);
+		assertEntry(entries.get("hash:zl"), 0, RedisKeyType.HASH, "ziplist", 1);
+		assertEntry(entries.get("set:lp"), 0, RedisKeyType.SET, "listpack", 3);
+		assertEntry(entries.get("zset:lp"), 0, RedisKeyType.ZSET, "listpack", 3);
+		// Count in the header is 65535 here too
+		assertEntry(entries.get("hash:lp"), 0, RedisKeyType.HASH, "listpack", 2);
+		assertEntry(entries.get("set:intset"), 0, RedisKeyType.SET, "intset", 4);
+	}
+
+	@Test
+	public void countsElementsOfQuicklists() throws Exception {
+		Map<String, Entry> entries = parseSample();
+		// Quicklist of ziplists
+		assertEntry(entries.get("list:ql"), 0, RedisKeyType.LIST, "quicklist", 3);
+		// Quicklist 2: listpack of 3, a plain node, listpack of 10
+		assertEntry(entries.get("list:ql2"), 0, RedisKeyType.LIST, "quicklist", 14);
+	}
+
+	@Test
+	public void decompressesLzf() throws Exception {
+		Map<String, Entry> entries = parseSample();
+		assertEntry(entries.get("str:lzf"), 0, RedisKeyType.STRING, "raw", 1000);
+		// Compressed ziplist with the count left to be counted
+		assertEntry(entries.get("list:zllzf"), 0, RedisKeyType.LIST, "ziplist", 40);
+		assertEntry(entries.get("hash:lplzf"), 0, RedisKeyType.HASH, "listpack", 25);
+	}
+
+	@Test
+	public void readsOtherTypes() throws Exception {
+		Map<String, Entry> entries = parseSample();
+		assertEntry(entries.get("list:linked"), 0, RedisKeyType.LIST, "linkedlist", 3);
+		assertEntry(entries.get("set:ht"), 0, RedisKeyType.SET, "hashtable", 2);
+		assertEntry(entries.get("zset:skip"), 0, RedisKeyType.ZSET, "skiplist", 2);
+		assertEntry(entries.get("zset:old"), 0, RedisKeyType.ZSET, "skiplist", 2);
+		assertEntry(entries.get("hash:ht"), 0, RedisKeyType.HASH, "hashtable", 2);
+		assertEntry(entries.get("stream:s"), 0, RedisKeyType.STREAM, "stream", 5);
+		assertEntry(entries.get("hash:hfe"), 3, RedisKeyType.HASH, "hashtable", 2);
+		assertEntry(entries.get("hash:lpex"), 3, RedisKeyType.HASH, "listpackex", 2);
+	}
+
+	@Test
+	public void skipsOpcodesBetweenKeys() throws Exception {
+		// Module aux and function library before SELECTDB 3, expiry in seconds, LRU idle and LFU frequency
+		Map<String, Entry> entries = parseSample();
+		assertEntry(entries.get("db3:key"), 3, RedisKeyType.STRING, "embstr", 1);
+		assertEquals(2000000000000L, entries.get("db3:key").getExpireAtMillis());
+		assertEntry(entries.get("db3:idle"), 3, RedisKeyType.STRING, "embstr", 1);
+		assertEquals(-1L, entries.get("db3:idle").getExpireAtMillis());
+	}
+
+	@Test
+	public void skipsFunctionLibraries() throws Exception {
+		Map<String, Entry> entries = parse(file(0xF5));
+		assertEquals(1, entries.size());
+		assertEntry(entries.get("k"), 0, RedisKeyType.STRING, "embstr", 1);
+	}
+
+	@Test
+	public void rejectsPreReleaseFunctions() throws Exception {
+		try {
+			parse(file(0xF6));
+			fail("Pre-release function format must not be accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("pre-release"));
+		}
+	}
+
+	private static void assertEntry(Entry entry, int database, RedisKeyType type, String encoding, long length) {
+		assertEquals(database, entry.getDatabase());
+		assertEquals(entry.getKey(), type, entry.getType());
+		assertEquals(entry.getKey(), encoding, entry.getEncoding());
+		assertEquals(entry.getKey(), length, entry.getLength());
+	}
+
+	private static Path sample() throws Exception {
+		return Paths.get(RdbFileParserTest.class.getResource("sample.rdb").toURI());
+	}
+
+	private static Map<String, Entry> parseSample() throws Exception {
+		return parse(sample());
+	}
+
+	private static Map<String, Entry> parse(Path file) throws Exception {
+		Map<String, Entry> result = new LinkedHashMap<>();
+		try (RdbFileParser parser = new RdbFileParser(file)) {
+			parser.parse(entry -> result.put(entry.getKey(), entry));
+		}
+		return result;
+	}
+
+	// Version 10 file with a function record of the given opcode before the key "k"
+	private static Path file(int functionOpcode) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write("REDIS0010".getBytes(StandardCharsets.US_ASCII));
+		out.write(functionOpcode);
+		byte[] library = "#!lua name=lib".getBytes(StandardCharsets.US_ASCII);
+		out.write(library.length);
+		out.write(library);
+		out.write(new byte[] { (byte) 0xFE, 0, 0, 1, 'k', 1, 'v', (byte) 0xFF });
+		out.write(new byte[8]);
+		Path file = Files.createTempFile("functions", ".rdb");
+		file.toFile().deleteOnExit();
+		Files.write(file, out.toByteArray());
+		return file;
+	}
+}
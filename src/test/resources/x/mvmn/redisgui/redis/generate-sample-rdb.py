@@ -0,0 +1,114 @@
+# Generates sample.rdb, the fixture of RdbFileParserTest: python3 generate-sample-rdb.py sample.rdb
+import struct, sys
+def length(n):
+    if n < 64: return bytes([n])
+    if n < 16384: return bytes([0x40 | (n >> 8), n & 0xFF])
+    if n < 2**32: return b'\x80' + struct.pack('>I', n)
+    return b'\x81' + struct.pack('>Q', n)
+def string(b):
+    if isinstance(b, str): b = b.encode()
+    return length(len(b)) + b
+def intstr(v):
+    if -128 <= v < 128: return bytes([0xC0]) + struct.pack('<b', v)
+    if -32768 <= v < 32768: return bytes([0xC1]) + struct.pack('<h', v)
+    return bytes([0xC2]) + struct.pack('<i', v)
+def lzf_literal(data):
+    # literal runs only, plus a trailing back reference when data ends with a repeat
+    out = b''
+    i = 0
+    while i < len(data):
+        chunk = data[i:i+32]; out += bytes([len(chunk)-1]) + chunk; i += 32
+    return out
+def lzf_string(data):
+    # data = 'ab' * n : literal 'ab' then backrefs of distance 2
+    c = lzf_literal(data[:2])
+    remaining = len(data) - 2
+    while remaining > 0:
+        l = min(remaining, 264)  # len+2 max 7+255+2
+        lc = l - 2
+        if lc < 7: c += bytes([(lc << 5) | 0, 1])
+        else: c += bytes([(7 << 5) | 0, lc - 7, 1])
+        remaining -= l
+    return bytes([0xC3]) + length(len(c)) + length(len(data)) + c
+def ziplist(entries, unknown=False):
+    body = b''
+    prev = 0
+    for e in entries:
+        pl = bytes([prev]) if prev < 254 else b'\xfe' + struct.pack('<I', prev)
+        if isinstance(e, int): enc = b'\xc0' + struct.pack('<h', e)
+        else:
+            e = e.encode()
+            enc = bytes([len(e)]) + e if len(e) < 64 else bytes([0x40 | (len(e) >> 8), len(e) & 0xff]) + e
+        ent = pl + enc; body += ent; prev = len(ent)
+    zl = body + b'\xff'
+    total = 10 + len(zl)
+    return struct.pack('<IIH', total, 0, 65535 if unknown or len(entries) >= 65535 else len(entries)) + zl
+def lp_backlen(l):
+    return b'\x01' * (1 if l < 128 else 2 if l < 16384 else 3)
+def listpack(entries, unknown=False):
+    body = b''
+    for e in entries:
+        if isinstance(e, int) and 0 <= e < 128: enc = bytes([e])
+        elif isinstance(e, int): enc = b'\xf1' + struct.pack('<h', e)
+        else:
+            e = e.encode()
+            enc = bytes([0x80 | len(e)]) + e if len(e) < 64 else bytes([0xE0 | (len(e) >> 8), len(e) & 0xff]) + e
+        body += enc + lp_backlen(len(enc))
+    body += b'\xff'
+    n = 65535 if unknown else len(entries)
+    return struct.pack('<IH', 6 + len(body), n) + body
+def intset(vals):
+    return struct.pack('<II', 2, len(vals)) + b''.join(struct.pack('<h', v) for v in vals)
+
+out = open(sys.argv[1], 'wb')
+out.write(b'REDIS0011')
+out.write(b'\xfa' + string('redis-ver') + string('7.2.4'))
+out.write(b'\xfa' + string('redis-bits') + intstr(64))
+out.write(b'\xfa' + string('ctime') + intstr(1700000000))
+out.write(b'\xfe' + length(0) + b'\xfb' + length(20) + length(1))
+out.write(b'\x00' + string('str:raw') + string('x' * 100))
+out.write(b'\x00' + string('str:emb') + string('hello'))
+out.write(b'\xfc' + struct.pack('<q', 4102444800000) + b'\x00' + string('str:int') + intstr(123456))
+out.write(b'\x00' + string('str:lzf') + lzf_string(b'ab' * 500))
+out.write(b'\x01' + string('list:linked') + length(3) + string('a') + string('b') + intstr(5))
+out.write(b'\x02' + string('set:ht') + length(2) + string('a') + string('b'))
+out.write(b'\x05' + string('zset:skip') + length(2) + string('a') + struct.pack('<d', 1.5) + string('b') + struct.pack('<d', 2.5))
+out.write(b'\x03' + string('zset:old') + length(2) + string('a') + bytes([3]) + b'1.5' + string('b') + bytes([254]))
+out.write(b'\x04' + string('hash:ht') + length(2) + string('f1') + string('v1') + string('f2') + string('v2'))
+out.write(b'\x0a' + string('list:zl') + string(ziplist(['a', 'b', 7, 'c' * 100])))
+# count too big for the header - has to be counted by walking the entries
+out.write(b'\x0a' + string('list:zlbig') + string(ziplist(['x'] * 3, unknown=True)))
+zl = ziplist(['r'] * 40, unknown=True)
+c = lzf_literal(zl)
+out.write(b'\x0a' + string('list:zllzf') + bytes([0xC3]) + length(len(c)) + length(len(zl)) + c)
+out.write(b'\x0b' + string('set:intset') + string(intset([1, 2, 3, 4])))
+out.write(b'\x14' + string('set:lp') + string(listpack(['a', 'b', 'c'])))
+out.write(b'\x0c' + string('zset:zl') + string(ziplist(['a', 1, 'b', 2])))
+out.write(b'\x11' + string('zset:lp') + string(listpack(['a', 1, 'b', 2, 'c', 3])))
+out.write(b'\x10' + string('hash:lp') + string(listpack(['f', 'v', 'g', 'w'], unknown=True)))
+out.write(b'\x0d' + string('hash:zl') + string(ziplist(['f', 'v'])))
+out.write(b'\x12' + string('list:ql2') + length(3) + length(2) + string(listpack(['a', 'b', 300])) + length(1) + string('plainnode') + length(2) + string(listpack(['z'] * 10)))
+out.write(b'\x0e' + string('list:ql') + length(2) + string(ziplist(['a', 'b'])) + string(ziplist(['c'])))
+# compressed listpack via our lzf: literal-only compression
+lp = listpack(['q'] * 50)
+c = lzf_literal(lp)
+out.write(b'\x10' + string('hash:lplzf') + bytes([0xC3]) + length(len(c)) + length(len(lp)) + c)
+# stream v3: 1 listpack node, length 5, ids, 1 group with 1 pending and 1 consumer
+st = b'\x15' + string('stream:s') + length(1) + string(b'\x00' * 16) + string(listpack(['a'] * 5))
+st += length(5) + length(1700000000000) + length(0)
+st += length(1700000000000) + length(0) + length(0) + length(0) + length(5)
+st += length(1) + string('grp') + length(1700000000000) + length(0) + length(5)
+st += length(1) + b'\x00' * 16 + struct.pack('<q', 1700000000000) + length(1)
+st += length(1) + string('cons') + struct.pack('<q', 1) + struct.pack('<q', 2) + length(1) + b'\x00' * 16
+out.write(st)
+# module aux and function
+out.write(b'\xf7' + length(12345) + length(2) + length(2) + length(2) + length(7) + length(5) + string('m') + length(0))
+out.write(b'\xf5' + string('#!lua name=lib\nredis.register_function...'))
+out.write(b'\xfe' + length(3))
+out.write(b'\xfd' + struct.pack('<I', 2000000000) + b'\x00' + string('db3:key') + string('v'))
+out.write(b'\xf8' + length(100) + b'\xf9' + bytes([5]) + b'\x00' + string('db3:idle') + string('v'))
+# hash with field TTLs (GA): minExpire, len, per field ttl, f, v
+out.write(b'\x18' + string('hash:hfe') + struct.pack('<q', 1700000000000) + length(2) + length(0) + string('f1') + string('v1') + length(5) + string('f2') + string('v2'))
+out.write(b'\x19' + string('hash:lpex') + struct.pack('<q', 1700000000000) + string(listpack(['f', 'v', 0, 'g', 'w', 10])))
+out.write(b'\xff' + b'\x00' * 8)
+out.close()